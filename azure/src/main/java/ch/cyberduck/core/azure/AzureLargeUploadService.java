@@ -0,0 +1,348 @@
+package ch.cyberduck.core.azure;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Cache;
+import ch.cyberduck.core.ConnectionCallback;
+import ch.cyberduck.core.DefaultIOExceptionMappingService;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathContainerService;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.features.Upload;
+import ch.cyberduck.core.features.Write;
+import ch.cyberduck.core.io.BandwidthThrottle;
+import ch.cyberduck.core.io.StreamCopier;
+import ch.cyberduck.core.io.StreamListener;
+import ch.cyberduck.core.io.ThrottledInputStream;
+import ch.cyberduck.core.preferences.Preferences;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.shared.DefaultUploadFeature;
+import ch.cyberduck.core.threading.BackgroundExceptionCallable;
+import ch.cyberduck.core.threading.DefaultRetryCallable;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.transfer.TransferStatus;
+import ch.cyberduck.core.worker.DefaultExceptionMappingService;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
+import org.apache.commons.io.input.ProxyInputStream;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpHeaders;
+import org.apache.log4j.Logger;
+import org.bouncycastle.util.encoders.Base64;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.microsoft.azure.storage.AccessCondition;
+import com.microsoft.azure.storage.OperationContext;
+import com.microsoft.azure.storage.StorageException;
+import com.microsoft.azure.storage.blob.BlobRequestOptions;
+import com.microsoft.azure.storage.blob.BlobType;
+import com.microsoft.azure.storage.blob.BlockEntry;
+import com.microsoft.azure.storage.blob.BlockListingFilter;
+import com.microsoft.azure.storage.blob.CloudBlob;
+import com.microsoft.azure.storage.blob.CloudBlockBlob;
+
+/**
+ * Upload to block blob staging blocks read from the local file concurrently and committing the block list when
+ * all blocks are uploaded. Uncommitted blocks of a previous attempt with matching identifier and length are reused.
+ * Uploads with a writer other than {@link AzureWriteFeature} are streamed through the writer instead.
+ */
+public class AzureLargeUploadService implements Upload<Void> {
+    private static final Logger log = Logger.getLogger(AzureLargeUploadService.class);
+
+    /**
+     * The maximum number of blocks in a block blob
+     */
+    public static final int MAXIMUM_UPLOAD_PARTS = 50000;
+
+    private final AzureSession session;
+
+    private final OperationContext context;
+
+    private final PathContainerService containerService
+            = new AzurePathContainerService();
+
+    private final Preferences preferences
+            = PreferencesFactory.get();
+
+    private final Long partSize;
+
+    private final Integer concurrency;
+
+    private Write<Void> writer;
+
+    public AzureLargeUploadService(final AzureSession session, final OperationContext context, final Write<Void> writer) {
+        this(session, context, writer, PreferencesFactory.get().getLong("azure.upload.largeobject.size"),
+                PreferencesFactory.get().getInteger("azure.upload.largeobject.concurrency"));
+    }
+
+    public AzureLargeUploadService(final AzureSession session, final OperationContext context, final Write<Void> writer,
+                                   final Long partSize, final Integer concurrency) {
+        this.session = session;
+        this.context = context;
+        this.writer = writer;
+        this.partSize = partSize;
+        this.concurrency = concurrency;
+    }
+
+    @Override
+    public Void upload(final Path file, final Local local, final BandwidthThrottle throttle, final StreamListener listener,
+                       final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
+        if(!(writer instanceof AzureWriteFeature)) {
+            // Blocks are staged from the local file and would bypass a decorating writer such as encryption
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Upload %s with writer %s", file, writer));
+            }
+            return new DefaultUploadFeature<Void>(writer).upload(file, local, throttle, listener, status, callback);
+        }
+        final ThreadPool pool = session.getPartPool(concurrency);
+        try {
+            final CloudBlockBlob blob = session.getClient().getContainerReference(containerService.getContainer(file).getName())
+                    .getBlockBlobReference(containerService.getKey(file));
+            final BlobRequestOptions options = new BlobRequestOptions();
+            options.setUseTransactionalContentMD5(preferences.getBoolean("azure.upload.md5"));
+            // Uncommitted blocks of previous upload
+            final Map<String, Long> uncommitted = new HashMap<String, Long>();
+            if(status.isAppend() || status.isRetry()) {
+                for(BlockEntry block : this.list(file)) {
+                    uncommitted.put(block.getId(), block.getSize());
+                }
+            }
+            else if(status.isExists()) {
+                this.delete(file);
+            }
+            // Blocks in order of commit
+            final List<BlockEntry> blocks = new ArrayList<BlockEntry>();
+            // Submit blocks for concurrent upload
+            final List<Future<BlockEntry>> parts = new ArrayList<Future<BlockEntry>>();
+            final long total = status.getOffset() + status.getLength();
+            final long size = Math.max(total / MAXIMUM_UPLOAD_PARTS + 1, partSize);
+            long offset = 0;
+            for(int partNumber = 1; offset < total; partNumber++) {
+                final Long length = Math.min(size, total - offset);
+                final String id = this.toBlockId(partNumber);
+                if(uncommitted.containsKey(id) && uncommitted.get(id).equals(length)) {
+                    if(log.isInfoEnabled()) {
+                        log.info(String.format("Skip uncommitted block %d of %s", partNumber, file));
+                    }
+                }
+                else {
+                    parts.add(this.submit(pool, blob, options, file, local, throttle, listener, status, id, offset, length));
+                    if(log.isDebugEnabled()) {
+                        log.debug(String.format("Block %d submitted with size %d and offset %d", partNumber, length, offset));
+                    }
+                }
+                blocks.add(new BlockEntry(id));
+                offset += length;
+            }
+            try {
+                for(Future<BlockEntry> f : parts) {
+                    f.get();
+                }
+            }
+            catch(InterruptedException e) {
+                log.error("Part upload failed with interrupt failure");
+                status.setCanceled();
+                throw new ConnectionCanceledException(e);
+            }
+            catch(ExecutionException e) {
+                log.warn(String.format("Part upload failed with execution failure %s", e.getMessage()));
+                if(e.getCause() instanceof BackgroundException) {
+                    throw (BackgroundException) e.getCause();
+                }
+                throw new DefaultExceptionMappingService().map(e.getCause());
+            }
+            finally {
+                pool.shutdown(false);
+            }
+            this.properties(blob, status);
+            blob.commitBlockList(blocks, AccessCondition.generateEmptyCondition(), options, context);
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Finished large file upload %s with %d blocks", file, blocks.size()));
+            }
+            // Mark parent status as complete
+            status.setComplete();
+            return null;
+        }
+        catch(StorageException e) {
+            throw new AzureExceptionMappingService().map("Upload {0} failed", e, file);
+        }
+        catch(URISyntaxException e) {
+            throw new NotfoundException(e.getMessage(), e);
+        }
+    }
+
+    private Future<BlockEntry> submit(final ThreadPool pool, final CloudBlockBlob blob, final BlobRequestOptions options,
+                                      final Path file, final Local local,
+                                      final BandwidthThrottle throttle, final StreamListener listener,
+                                      final TransferStatus overall, final String id,
+                                      final Long offset, final Long length) {
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Submit block %s of %s to queue with offset %d and length %d", id, file, offset, length));
+        }
+        return pool.execute(new DefaultRetryCallable<BlockEntry>(new BackgroundExceptionCallable<BlockEntry>() {
+            @Override
+            public BlockEntry call() throws BackgroundException {
+                if(overall.isCanceled()) {
+                    throw new ConnectionCanceledException();
+                }
+                final AtomicLong sent = new AtomicLong();
+                final InputStream in = new ProxyInputStream(new ThrottledInputStream(
+                        StreamCopier.skip(new BoundedInputStream(local.getInputStream(), offset + length), offset), throttle)) {
+                    @Override
+                    protected void afterRead(final int n) {
+                        if(n > 0) {
+                            sent.addAndGet(n);
+                            overall.progress(n);
+                            listener.sent(n);
+                        }
+                    }
+                };
+                try {
+                    blob.uploadBlock(id, in, length, AccessCondition.generateEmptyCondition(), options, context);
+                    return new BlockEntry(id);
+                }
+                catch(StorageException e) {
+                    // Discard sent bytes in overall progress if there is an error reply for block
+                    overall.progress(-sent.get());
+                    throw new AzureExceptionMappingService().map("Upload {0} failed", e, file);
+                }
+                catch(IOException e) {
+                    overall.progress(-sent.get());
+                    throw new DefaultIOExceptionMappingService().map("Upload {0} failed", e, file);
+                }
+                finally {
+                    IOUtils.closeQuietly(in);
+                }
+            }
+        }, overall));
+    }
+
+    /**
+     * @return Uncommitted blocks of file
+     */
+    protected List<BlockEntry> list(final Path file) throws BackgroundException {
+        try {
+            final CloudBlockBlob blob = session.getClient().getContainerReference(containerService.getContainer(file).getName())
+                    .getBlockBlobReference(containerService.getKey(file));
+            return blob.downloadBlockList(BlockListingFilter.UNCOMMITTED, AccessCondition.generateEmptyCondition(), null, context);
+        }
+        catch(StorageException e) {
+            if(HttpURLConnection.HTTP_NOT_FOUND == e.getHttpStatusCode()) {
+                return new ArrayList<BlockEntry>();
+            }
+            throw new AzureExceptionMappingService().map("Upload {0} failed", e, file);
+        }
+        catch(URISyntaxException e) {
+            throw new NotfoundException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Blocks cannot be staged for existing append blob
+     */
+    private void delete(final Path file) throws BackgroundException {
+        try {
+            final CloudBlob blob = session.getClient().getContainerReference(containerService.getContainer(file).getName())
+                    .getBlobReferenceFromServer(containerService.getKey(file));
+            if(BlobType.BLOCK_BLOB != blob.getProperties().getBlobType()) {
+                if(log.isInfoEnabled()) {
+                    log.info(String.format("Delete %s of type %s before upload", file, blob.getProperties().getBlobType()));
+                }
+                blob.deleteIfExists();
+            }
+        }
+        catch(StorageException e) {
+            if(HttpURLConnection.HTTP_NOT_FOUND == e.getHttpStatusCode()) {
+                return;
+            }
+            throw new AzureExceptionMappingService().map("Upload {0} failed", e, file);
+        }
+        catch(URISyntaxException e) {
+            throw new NotfoundException(e.getMessage(), e);
+        }
+    }
+
+    private void properties(final CloudBlockBlob blob, final TransferStatus status) {
+        if(StringUtils.isNotBlank(status.getMime())) {
+            blob.getProperties().setContentType(status.getMime());
+        }
+        final HashMap<String, String> headers = new HashMap<>(status.getMetadata());
+        // Remove additional headers not allowed in metadata and move to properties
+        if(headers.containsKey(HttpHeaders.CACHE_CONTROL)) {
+            blob.getProperties().setCacheControl(headers.get(HttpHeaders.CACHE_CONTROL));
+            headers.remove(HttpHeaders.CACHE_CONTROL);
+        }
+        if(headers.containsKey(HttpHeaders.CONTENT_TYPE)) {
+            blob.getProperties().setContentType(headers.get(HttpHeaders.CONTENT_TYPE));
+            headers.remove(HttpHeaders.CONTENT_TYPE);
+        }
+        headers.remove(HttpHeaders.CONTENT_MD5);
+        blob.setMetadata(headers);
+    }
+
+    /**
+     * @param partNumber Part number starting at 1
+     * @return Base64 encoded identifier of equal length for all blocks of the blob
+     */
+    protected String toBlockId(final int partNumber) {
+        return Base64.toBase64String(String.format("%06d", partNumber).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public Write.Append append(final Path file, final Long length, final Cache<Path> cache) throws BackgroundException {
+        if(!(writer instanceof AzureWriteFeature)) {
+            return writer.append(file, length, cache);
+        }
+        if(preferences.getBoolean("azure.upload.largeobject")) {
+            final List<BlockEntry> blocks = this.list(file);
+            if(!blocks.isEmpty()) {
+                long size = 0L;
+                for(BlockEntry block : blocks) {
+                    size += block.getSize();
+                }
+                return new Write.Append(size);
+            }
+        }
+        final Write.Append append = writer.append(file, length, cache);
+        if(append.append) {
+            // Committed block list cannot be extended with staged blocks
+            return new Write.Append(false, true).withSize(append.size).withChecksum(append.checksum);
+        }
+        return append;
+    }
+
+    @Override
+    public Upload<Void> withWriter(final Write<Void> writer) {
+        this.writer = writer;
+        return this;
+    }
+}
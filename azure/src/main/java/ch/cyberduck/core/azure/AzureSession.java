@@ -46,8 +46,10 @@ import ch.cyberduck.core.features.Metadata;
 import ch.cyberduck.core.features.Move;
 import ch.cyberduck.core.features.Read;
 import ch.cyberduck.core.features.Touch;
+import ch.cyberduck.core.features.Upload;
 import ch.cyberduck.core.features.Write;
 import ch.cyberduck.core.http.DisabledX509HostnameVerifier;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.proxy.Proxy;
 import ch.cyberduck.core.ssl.CustomTrustSSLProtocolSocketFactory;
 import ch.cyberduck.core.ssl.DefaultX509KeyManager;
@@ -56,6 +58,8 @@ import ch.cyberduck.core.ssl.SSLSession;
 import ch.cyberduck.core.ssl.X509KeyManager;
 import ch.cyberduck.core.ssl.X509TrustManager;
 import ch.cyberduck.core.threading.CancelCallback;
+import ch.cyberduck.core.threading.SharedThreadPool;
+import ch.cyberduck.core.threading.ThreadPool;
 
 import org.apache.http.HttpHeaders;
 import org.apache.log4j.Logger;
@@ -85,6 +89,11 @@ public class AzureSession extends SSLSession<CloudBlobClient> {
 
     private StorageEvent<SendingRequestEvent> listener;
 
+    /**
+     * Executor for blocks of large files shared by all transfers using this session
+     */
+    private SharedThreadPool parts;
+
     public AzureSession(final Host h) {
         super(h, new DisabledX509TrustManager(), new DefaultX509KeyManager());
     }
@@ -177,6 +186,30 @@ public class AzureSession extends SSLSession<CloudBlobClient> {
         context.getSendingRequestEventHandler().removeListener(listener);
     }
 
+    /**
+     * Tasks of all files are scheduled round robin in a pool limited to the maximum number of connections per route.
+     *
+     * @param concurrency Maximum number of blocks of a single file in flight
+     * @return Pool to submit blocks of a single file to. Shutdown when the file is complete
+     */
+    public synchronized ThreadPool getPartPool(final int concurrency) {
+        if(null == parts) {
+            parts = new SharedThreadPool("parts", PreferencesFactory.get().getInteger("http.connections.route"));
+        }
+        return parts.lane(concurrency);
+    }
+
+    @Override
+    protected void disconnect() {
+        synchronized(this) {
+            if(parts != null) {
+                parts.shutdown();
+                parts = null;
+            }
+        }
+        super.disconnect();
+    }
+
     @Override
     public AttributedList<Path> list(final Path directory, final ListProgressListener listener) throws BackgroundException {
         if(directory.isRoot()) {
@@ -196,6 +229,9 @@ public class AzureSession extends SSLSession<CloudBlobClient> {
         if(type == Write.class) {
             return (T) new AzureWriteFeature(this, context);
         }
+        if(type == Upload.class) {
+            return (T) new AzureThresholdUploadService(this, context);
+        }
         if(type == Directory.class) {
             return (T) new AzureDirectoryFeature(this, context);
         }
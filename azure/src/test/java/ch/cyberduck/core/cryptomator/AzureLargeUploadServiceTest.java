@@ -0,0 +1,115 @@
+package ch.cyberduck.core.cryptomator;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+import ch.cyberduck.core.AlphanumericRandomStringService;
+import ch.cyberduck.core.Credentials;
+import ch.cyberduck.core.DisabledCancelCallback;
+import ch.cyberduck.core.DisabledConnectionCallback;
+import ch.cyberduck.core.DisabledHostKeyCallback;
+import ch.cyberduck.core.DisabledLoginCallback;
+import ch.cyberduck.core.DisabledPasswordCallback;
+import ch.cyberduck.core.DisabledPasswordStore;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.azure.AzureAttributesFinderFeature;
+import ch.cyberduck.core.azure.AzureDeleteFeature;
+import ch.cyberduck.core.azure.AzureProtocol;
+import ch.cyberduck.core.azure.AzureReadFeature;
+import ch.cyberduck.core.azure.AzureSession;
+import ch.cyberduck.core.azure.AzureThresholdUploadService;
+import ch.cyberduck.core.azure.AzureWriteFeature;
+import ch.cyberduck.core.cryptomator.features.CryptoDeleteFeature;
+import ch.cyberduck.core.cryptomator.features.CryptoReadFeature;
+import ch.cyberduck.core.cryptomator.features.CryptoUploadFeature;
+import ch.cyberduck.core.features.Delete;
+import ch.cyberduck.core.io.BandwidthThrottle;
+import ch.cyberduck.core.io.DisabledStreamListener;
+import ch.cyberduck.core.transfer.TransferStatus;
+import ch.cyberduck.core.vault.DefaultVaultRegistry;
+import ch.cyberduck.core.vault.VaultCredentials;
+import ch.cyberduck.test.IntegrationTest;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.RandomUtils;
+import org.cryptomator.cryptolib.api.Cryptor;
+import org.cryptomator.cryptolib.api.FileHeader;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.UUID;
+
+import com.microsoft.azure.storage.OperationContext;
+
+import static org.junit.Assert.*;
+
+@Category(IntegrationTest.class)
+public class AzureLargeUploadServiceTest {
+
+    @Test
+    public void testUploadAboveThreshold() throws Exception {
+        final OperationContext context
+                = new OperationContext();
+        final Host host = new Host(new AzureProtocol(), "kahy9boj3eib.blob.core.windows.net", new Credentials(
+                System.getProperties().getProperty("azure.account"), System.getProperties().getProperty("azure.key")
+        ));
+        final AzureSession session = new AzureSession(host);
+        session.open(new DisabledHostKeyCallback(), new DisabledLoginCallback());
+        session.login(new DisabledPasswordStore(), new DisabledLoginCallback(), new DisabledCancelCallback());
+        final Path home = new Path("cyberduck", EnumSet.of(Path.Type.volume, Path.Type.directory));
+        final CryptoVault cryptomator = new CryptoVault(new Path(home, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.directory)), new DisabledPasswordStore());
+        final Path vault = cryptomator.create(session, null, new VaultCredentials("test"));
+        session.withRegistry(new DefaultVaultRegistry(new DisabledPasswordStore(), new DisabledPasswordCallback(), cryptomator));
+        final Path test = new Path(vault, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.file));
+        final Local local = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final byte[] content = RandomUtils.nextBytes(3 * 1024 * 1024 + 1);
+        final OutputStream out = local.getOutputStream(false);
+        IOUtils.write(content, out);
+        out.close();
+        final TransferStatus status = new TransferStatus();
+        final Cryptor cryptor = cryptomator.getCryptor();
+        final FileHeader header = cryptor.fileHeaderCryptor().create();
+        status.setHeader(cryptor.fileHeaderCryptor().encryptHeader(header));
+        status.setLength(content.length);
+        // Threshold below file size to select large upload
+        new CryptoUploadFeature<Void>(session, new AzureThresholdUploadService(session, context, 1024L * 1024L),
+                new AzureWriteFeature(session, context), cryptomator).upload(test, local, new BandwidthThrottle(BandwidthThrottle.UNLIMITED),
+                new DisabledStreamListener(), status, new DisabledConnectionCallback());
+        assertTrue(status.isComplete());
+        assertEquals(content.length, status.getOffset());
+        // Stored bytes must be ciphertext
+        final Path encrypted = cryptomator.encrypt(session, test);
+        final long size = cryptomator.toCiphertextSize(content.length);
+        assertEquals(size, new AzureAttributesFinderFeature(session, context).find(encrypted).getSize());
+        final byte[] ciphertext = new byte[(int) size];
+        final InputStream raw = new AzureReadFeature(session, context).read(encrypted, new TransferStatus().length(size), new DisabledConnectionCallback());
+        IOUtils.readFully(raw, ciphertext);
+        raw.close();
+        assertFalse(Arrays.equals(content, Arrays.copyOf(ciphertext, content.length)));
+        final byte[] cleartext = new byte[content.length];
+        final InputStream in = new CryptoReadFeature(session, new AzureReadFeature(session, context), cryptomator).read(test, new TransferStatus().length(content.length), new DisabledConnectionCallback());
+        IOUtils.readFully(in, cleartext);
+        in.close();
+        assertArrayEquals(content, cleartext);
+        new CryptoDeleteFeature(session, new AzureDeleteFeature(session, context), cryptomator).delete(Arrays.asList(test, vault), new DisabledLoginCallback(), new Delete.DisabledCallback());
+        local.delete();
+        session.close();
+    }
+}
@@ -53,6 +53,7 @@ public class B2BucketListService implements RootListService {
                 buckets.add(new Path(bucket.getBucketName(), EnumSet.of(Path.Type.directory, Path.Type.volume), attributes));
             }
             listener.chunk(directory, buckets);
+            session.getFileidCache().put(buckets);
             return buckets;
         }
         catch(B2ApiException e) {
@@ -28,6 +28,7 @@ import org.apache.log4j.Logger;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 
 import synapticloop.b2.exception.B2ApiException;
 
@@ -45,6 +46,9 @@ public class B2DeleteFeature implements Delete {
 
     @Override
     public void delete(final List<Path> files, final PasswordCallback prompt, final Callback callback) throws BackgroundException {
+        final B2FileidProvider fileid = new B2FileidProvider(session);
+        // Resolve identifiers of siblings with single listing
+        final Map<Path, String> ids = fileid.getFileids(files, new DisabledListProgressListener());
         for(Path file : files) {
             if(containerService.isContainer(file)) {
                 continue;
@@ -56,16 +60,17 @@ public class B2DeleteFeature implements Delete {
             else {
                 if(file.isDirectory()) {
                     // Delete /.bzEmpty if any
-                    final String fileid;
+                    final String placeholder;
                     try {
-                        fileid = new B2FileidProvider(session).getFileid(file, new DisabledListProgressListener());
+                        placeholder = fileid.getFileid(file, new DisabledListProgressListener());
                     }
                     catch(NotfoundException e) {
                         log.warn(String.format("Ignore failure %s deleting placeholder file for %s", e.getDetail(), file));
                         continue;
                     }
                     try {
-                        session.getClient().deleteFileVersion(containerService.getKey(file), fileid);
+                        session.getClient().deleteFileVersion(containerService.getKey(file), placeholder);
+                        session.getFileidCache().remove(file);
                     }
                     catch(B2ApiException e) {
                         log.warn(String.format("Ignore failure %s deleting placeholder file for %s", e.getMessage(), file));
@@ -76,7 +81,9 @@ public class B2DeleteFeature implements Delete {
                 }
                 else if(file.isFile()) {
                     try {
-                        session.getClient().deleteFileVersion(containerService.getKey(file), new B2FileidProvider(session).getFileid(file, new DisabledListProgressListener()));
+                        session.getClient().deleteFileVersion(containerService.getKey(file),
+                                ids.containsKey(file) ? ids.get(file) : fileid.getFileid(file, new DisabledListProgressListener()));
+                        session.getFileidCache().remove(file);
                     }
                     catch(B2ApiException e) {
                         throw new B2ExceptionMappingService().map("Cannot delete {0}", e, file);
@@ -92,7 +99,8 @@ public class B2DeleteFeature implements Delete {
                 if(containerService.isContainer(file)) {
                     callback.delete(file);
                     // Finally delete bucket itself
-                    session.getClient().deleteBucket(new B2FileidProvider(session).getFileid(file, new DisabledListProgressListener()));
+                    session.getClient().deleteBucket(fileid.getFileid(file, new DisabledListProgressListener()));
+                    session.getFileidCache().remove(file);
                 }
             }
             catch(B2ApiException e) {
@@ -19,6 +19,7 @@ import ch.cyberduck.core.AttributedList;
 import ch.cyberduck.core.Cache;
 import ch.cyberduck.core.DefaultIOExceptionMappingService;
 import ch.cyberduck.core.DisabledListProgressListener;
+import ch.cyberduck.core.FileidCache;
 import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.NullFilter;
 import ch.cyberduck.core.Path;
@@ -28,10 +29,17 @@ import ch.cyberduck.core.SimplePathPredicate;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.IdProvider;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 
 import org.apache.commons.lang3.StringUtils;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 import synapticloop.b2.exception.B2ApiException;
 import synapticloop.b2.response.B2FileInfoResponse;
@@ -52,8 +60,9 @@ public class B2FileidProvider implements IdProvider {
 
     @Override
     public String getFileid(final Path file, final ListProgressListener listener) throws BackgroundException {
-        if(StringUtils.isNotBlank(file.attributes().getVersionId())) {
-            return file.attributes().getVersionId();
+        final String cached = this.lookup(file);
+        if(null != cached) {
+            return cached;
         }
         if(containerService.isContainer(file)) {
             final AttributedList<Path> list;
@@ -70,16 +79,80 @@ public class B2FileidProvider implements IdProvider {
             }
             return found.attributes().getVersionId();
         }
+        final String bucket = this.getFileid(containerService.getContainer(file), listener);
+        return session.getFileidCache().get(file, new FileidCache.Loader() {
+            @Override
+            public String load(final Path file) throws BackgroundException {
+                try {
+                    final B2ListFilesResponse response = session.getClient().listFileNames(
+                            bucket, containerService.getKey(file), 2);
+                    for(B2FileInfoResponse info : response.getFiles()) {
+                        if(StringUtils.equals(containerService.getKey(file), info.getFileName())) {
+                            return info.getFileId();
+                        }
+                    }
+                    throw new NotfoundException(file.getAbsolute());
+                }
+                catch(B2ApiException e) {
+                    throw new B2ExceptionMappingService().map(e);
+                }
+                catch(IOException e) {
+                    throw new DefaultIOExceptionMappingService().map(e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Resolve identifiers of files missing in cache with the same parent directory by listing file names in the
+     * range of the keys requested only once
+     *
+     * @param files Files
+     * @return Identifiers by file. Files not found are not contained.
+     */
+    public Map<Path, String> getFileids(final List<Path> files, final ListProgressListener listener) throws BackgroundException {
+        final Map<Path, String> ids = new HashMap<Path, String>();
+        final Map<Path, List<Path>> missing = new LinkedHashMap<Path, List<Path>>();
+        for(Path file : files) {
+            final String cached = this.lookup(file);
+            if(null != cached) {
+                ids.put(file, cached);
+                continue;
+            }
+            if(containerService.isContainer(file) || file.isDirectory()) {
+                continue;
+            }
+            if(!missing.containsKey(file.getParent())) {
+                missing.put(file.getParent(), new ArrayList<Path>());
+            }
+            missing.get(file.getParent()).add(file);
+        }
         try {
-            final B2ListFilesResponse response = session.getClient().listFileNames(
-                    this.getFileid(containerService.getContainer(file), listener),
-                    containerService.getKey(file), 2);
-            for(B2FileInfoResponse info : response.getFiles()) {
-                if(StringUtils.equals(containerService.getKey(file), info.getFileName())) {
-                    return info.getFileId();
+            for(Map.Entry<Path, List<Path>> entry : missing.entrySet()) {
+                final Path directory = entry.getKey();
+                // Requested files sorted by key
+                final TreeMap<String, Path> keys = new TreeMap<String, Path>();
+                for(Path file : entry.getValue()) {
+                    keys.put(containerService.getKey(file), file);
+                }
+                final String bucket = this.getFileid(containerService.getContainer(directory), listener);
+                final String prefix = containerService.isContainer(directory) ? null
+                        : String.format("%s%s", containerService.getKey(directory), Path.DELIMITER);
+                String startFilename = keys.firstKey();
+                do {
+                    final B2ListFilesResponse response = session.getClient().listFileNames(bucket, startFilename,
+                            PreferencesFactory.get().getInteger("b2.listing.chunksize"), prefix, String.valueOf(Path.DELIMITER));
+                    for(B2FileInfoResponse info : response.getFiles()) {
+                        final Path file = keys.get(info.getFileName());
+                        if(null != file && StringUtils.isNotBlank(info.getFileId())) {
+                            session.getFileidCache().put(file, info.getFileId());
+                            ids.put(file, info.getFileId());
+                        }
+                    }
+                    startFilename = response.getNextFileName();
                 }
+                while(startFilename != null && startFilename.compareTo(keys.lastKey()) <= 0);
             }
-            throw new NotfoundException(file.getAbsolute());
         }
         catch(B2ApiException e) {
             throw new B2ExceptionMappingService().map(e);
@@ -87,6 +160,25 @@ public class B2FileidProvider implements IdProvider {
         catch(IOException e) {
             throw new DefaultIOExceptionMappingService().map(e);
         }
+        return ids;
+    }
+
+    /**
+     * @return Null if identifier is not known without query
+     */
+    private String lookup(final Path file) {
+        if(StringUtils.isNotBlank(file.attributes().getVersionId())) {
+            return file.attributes().getVersionId();
+        }
+        if(!containerService.isContainer(file) && !file.isDirectory()) {
+            if(cache.isCached(file.getParent())) {
+                final Path found = cache.get(file.getParent()).find(new SimplePathPredicate(file));
+                if(null != found && StringUtils.isNotBlank(found.attributes().getVersionId())) {
+                    return found.attributes().getVersionId();
+                }
+            }
+        }
+        return session.getFileidCache().get(file);
     }
 
     @Override
@@ -33,7 +33,6 @@ import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.io.StreamProgress;
 import ch.cyberduck.core.threading.BackgroundExceptionCallable;
 import ch.cyberduck.core.threading.DefaultRetryCallable;
-import ch.cyberduck.core.threading.DefaultThreadPool;
 import ch.cyberduck.core.threading.ThreadPool;
 import ch.cyberduck.core.transfer.TransferStatus;
 import ch.cyberduck.core.worker.DefaultExceptionMappingService;
@@ -94,7 +93,7 @@ public class B2LargeUploadService extends HttpUploadFeature<BaseB2Response, Mess
                                  final StreamListener listener,
                                  final TransferStatus status,
                                  final ConnectionCallback callback) throws BackgroundException {
-        final DefaultThreadPool pool = new DefaultThreadPool("largeupload", concurrency);
+        final ThreadPool pool = session.getPartPool(concurrency);
         try {
             final String fileid;
             // Get the results of the uploads in the order they were submitted
@@ -194,6 +193,7 @@ public class B2LargeUploadService extends HttpUploadFeature<BaseB2Response, Mess
                 checksums.add(part.getContentSha1());
             }
             final B2FinishLargeFileResponse response = session.getClient().finishLargeFileUpload(fileid, checksums.toArray(new String[checksums.size()]));
+            session.getFileidCache().put(file, response.getFileId());
             if(log.isInfoEnabled()) {
                 log.info(String.format("Finished large file upload %s with %d parts", file, completed.size()));
             }
@@ -25,6 +25,7 @@ import ch.cyberduck.core.PathAttributes;
 import ch.cyberduck.core.PathContainerService;
 import ch.cyberduck.core.VersionId;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.features.AttributesFinder;
 import ch.cyberduck.core.features.Find;
 import ch.cyberduck.core.features.MultipartWrite;
@@ -35,7 +36,9 @@ import ch.cyberduck.core.io.ChecksumCompute;
 import ch.cyberduck.core.io.ChecksumComputeFactory;
 import ch.cyberduck.core.io.DisabledChecksumCompute;
 import ch.cyberduck.core.io.HashAlgorithm;
+import ch.cyberduck.core.io.MemoryBufferPool;
 import ch.cyberduck.core.io.MemorySegementingOutputStream;
+import ch.cyberduck.core.io.PipelinedSegmentOutputStream;
 import ch.cyberduck.core.io.StatusOutputStream;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.shared.DefaultAttributesFinderFeature;
@@ -50,17 +53,14 @@ import org.apache.log4j.Logger;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.OutputStream;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 import synapticloop.b2.exception.B2ApiException;
 import synapticloop.b2.response.B2FileResponse;
-import synapticloop.b2.response.B2FinishLargeFileResponse;
+import synapticloop.b2.response.B2GetUploadPartUrlResponse;
 import synapticloop.b2.response.B2GetUploadUrlResponse;
 import synapticloop.b2.response.B2StartLargeFileResponse;
 import synapticloop.b2.response.B2UploadPartResponse;
@@ -77,21 +77,37 @@ public class B2LargeUploadWriteFeature implements MultipartWrite<VersionId> {
     private final Find finder;
     private final AttributesFinder attributes;
 
+    /**
+     * Part size and buffer length
+     */
+    private final Integer partsize;
+    /**
+     * Maximum number of parts uploaded concurrently while the stream is written to
+     */
+    private final Integer concurrency;
+
     public B2LargeUploadWriteFeature(final B2Session session) {
         this(session, new DefaultFindFeature(session), new DefaultAttributesFinderFeature(session));
     }
 
     public B2LargeUploadWriteFeature(final B2Session session, final Find finder, final AttributesFinder attributes) {
+        this(session, finder, attributes, PreferencesFactory.get().getInteger("b2.upload.largeobject.size.minimum"),
+            PreferencesFactory.get().getInteger("b2.upload.largeobject.concurrency"));
+    }
+
+    public B2LargeUploadWriteFeature(final B2Session session, final Find finder, final AttributesFinder attributes,
+                                     final Integer partsize, final Integer concurrency) {
         this.session = session;
         this.finder = finder;
         this.attributes = attributes;
+        this.partsize = partsize;
+        this.concurrency = concurrency;
     }
 
     @Override
     public StatusOutputStream<VersionId> write(final Path file, final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
         final LargeUploadOutputStream proxy = new LargeUploadOutputStream(file, status);
-        return new HttpResponseOutputStream<VersionId>(new MemorySegementingOutputStream(proxy,
-            PreferencesFactory.get().getInteger("b2.upload.largeobject.size.minimum"))) {
+        return new HttpResponseOutputStream<VersionId>(new MemorySegementingOutputStream(proxy, partsize)) {
             @Override
             public VersionId getStatus() throws BackgroundException {
                 return proxy.getFileId();
@@ -123,29 +139,29 @@ public class B2LargeUploadWriteFeature implements MultipartWrite<VersionId> {
         return new DisabledChecksumCompute();
     }
 
-    private final class LargeUploadOutputStream extends OutputStream {
-        final List<B2UploadPartResponse> completed = new ArrayList<B2UploadPartResponse>();
+    private final class LargeUploadOutputStream extends PipelinedSegmentOutputStream<B2UploadPartResponse> {
         private final Path file;
         private final TransferStatus overall;
-        private final AtomicBoolean close = new AtomicBoolean();
 
-        private VersionId version;
-        private int partNumber;
+        /**
+         * Upload URL for parts reused by each thread uploading parts
+         */
+        private final ThreadLocal<B2GetUploadPartUrlResponse> urls
+            = new ThreadLocal<B2GetUploadPartUrlResponse>();
+
+        private volatile VersionId version;
+        private boolean started;
 
         public LargeUploadOutputStream(final Path file, final TransferStatus status) {
+            super(session.getPartPool(concurrency), new MemoryBufferPool(concurrency, partsize));
             this.file = file;
             this.overall = status;
         }
 
-        @Override
-        public void write(final int value) throws IOException {
-            throw new IOException(new UnsupportedOperationException());
-        }
-
         @Override
         public void write(final byte[] content, final int off, final int len) throws IOException {
             try {
-                if(0 == partNumber && len < PreferencesFactory.get().getInteger("b2.upload.largeobject.size.minimum")) {
+                if(!started && len < partsize) {
                     // Write single upload
                     final B2GetUploadUrlResponse uploadUrl = session.getClient().getUploadUrl(new B2FileidProvider(session).getFileid(containerService.getContainer(file), new DisabledListProgressListener()));
                     final Checksum checksum = overall.getChecksum();
@@ -157,42 +173,21 @@ public class B2LargeUploadWriteFeature implements MultipartWrite<VersionId> {
                         log.debug(String.format("Upload finished for %s with response %s", file, response));
                     }
                     version = new VersionId(response.getFileId());
+                    session.getFileidCache().put(file, version.id);
+                    return;
                 }
-                else {
-                    if(0 == partNumber) {
-                        final Map<String, String> fileinfo = new HashMap<>(overall.getMetadata());
-                        if(null != overall.getTimestamp()) {
-                            fileinfo.put(X_BZ_INFO_SRC_LAST_MODIFIED_MILLIS, String.valueOf(overall.getTimestamp()));
-                        }
-                        final B2StartLargeFileResponse response = session.getClient().startLargeFileUpload(new B2FileidProvider(session).getFileid(containerService.getContainer(file), new DisabledListProgressListener()),
-                            containerService.getKey(file), overall.getMime(), fileinfo);
-                        version = new VersionId(response.getFileId());
-                        if(log.isDebugEnabled()) {
-                            log.debug(String.format("Multipart upload started for %s with ID %s", file, version));
-                        }
+                if(!started) {
+                    final Map<String, String> fileinfo = new HashMap<>(overall.getMetadata());
+                    if(null != overall.getTimestamp()) {
+                        fileinfo.put(X_BZ_INFO_SRC_LAST_MODIFIED_MILLIS, String.valueOf(overall.getTimestamp()));
                     }
-                    final int segment = ++partNumber;
+                    final B2StartLargeFileResponse response = session.getClient().startLargeFileUpload(new B2FileidProvider(session).getFileid(containerService.getContainer(file), new DisabledListProgressListener()),
+                        containerService.getKey(file), overall.getMime(), fileinfo);
+                    version = new VersionId(response.getFileId());
+                    started = true;
                     if(log.isDebugEnabled()) {
-                        log.debug(String.format("Write segment %d for upload %s", segment, version));
+                        log.debug(String.format("Multipart upload started for %s with ID %s", file, version));
                     }
-                    completed.add(new DefaultRetryCallable<B2UploadPartResponse>(new BackgroundExceptionCallable<B2UploadPartResponse>() {
-                        @Override
-                        public B2UploadPartResponse call() throws BackgroundException {
-                            final TransferStatus status = new TransferStatus().length(len);
-                            final ByteArrayEntity entity = new ByteArrayEntity(content, off, len);
-                            final Checksum checksum = ChecksumComputeFactory.get(HashAlgorithm.sha1)
-                                .compute(new ByteArrayInputStream(content, off, len), status);
-                            try {
-                                return session.getClient().uploadLargeFilePart(version.id, segment, entity, checksum.hash);
-                            }
-                            catch(B2ApiException e) {
-                                throw new B2ExceptionMappingService().map("Upload {0} failed", e, file);
-                            }
-                            catch(IOException e) {
-                                throw new DefaultIOExceptionMappingService().map("Upload {0} failed", e, file);
-                            }
-                        }
-                    }, new DisabledProgressListener(), new TransferBackgroundActionState(overall)).call());
                 }
             }
             catch(BackgroundException e) {
@@ -201,15 +196,56 @@ public class B2LargeUploadWriteFeature implements MultipartWrite<VersionId> {
             catch(B2ApiException e) {
                 throw new IOException(new B2ExceptionMappingService().map("Upload {0} failed", e, file));
             }
+            // Upload part in background
+            super.write(content, off, len);
         }
 
         @Override
-        public void close() throws IOException {
-            try {
-                if(close.get()) {
-                    log.warn(String.format("Skip double close of stream %s", this));
-                    return;
+        protected B2UploadPartResponse upload(final int segment, final byte[] content, final int len) throws BackgroundException {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Write segment %d for upload %s", segment, version));
+            }
+            return new DefaultRetryCallable<B2UploadPartResponse>(new BackgroundExceptionCallable<B2UploadPartResponse>() {
+                @Override
+                public B2UploadPartResponse call() throws BackgroundException {
+                    if(overall.isCanceled()) {
+                        throw new ConnectionCanceledException();
+                    }
+                    final TransferStatus status = new TransferStatus().length(len);
+                    final ByteArrayEntity entity = new ByteArrayEntity(content, 0, len);
+                    final Checksum checksum = ChecksumComputeFactory.get(HashAlgorithm.sha1)
+                        .compute(new ByteArrayInputStream(content, 0, len), status);
+                    try {
+                        B2GetUploadPartUrlResponse uploadUrl = urls.get();
+                        if(null == uploadUrl) {
+                            uploadUrl = session.getClient().getUploadPartUrl(version.id);
+                            if(log.isDebugEnabled()) {
+                                log.debug(String.format("Obtained upload URL %s for part %d of file %s", uploadUrl, segment, file));
+                            }
+                            urls.set(uploadUrl);
+                        }
+                        try {
+                            return session.getClient().uploadLargeFilePart(uploadUrl, segment, entity, checksum.hash);
+                        }
+                        catch(B2ApiException | IOException e) {
+                            // Obtain new upload URL on retry
+                            urls.remove();
+                            throw e;
+                        }
+                    }
+                    catch(B2ApiException e) {
+                        throw new B2ExceptionMappingService().map("Upload {0} failed", e, file);
+                    }
+                    catch(IOException e) {
+                        throw new DefaultIOExceptionMappingService().map("Upload {0} failed", e, file);
+                    }
                 }
+            }, new DisabledProgressListener(), new TransferBackgroundActionState(overall)).call();
+        }
+
+        @Override
+        protected void complete(final List<B2UploadPartResponse> completed) throws IOException {
+            try {
                 if(completed.isEmpty()) {
                     if(null == version) {
                         // No single file upload and zero parts
@@ -217,17 +253,12 @@ public class B2LargeUploadWriteFeature implements MultipartWrite<VersionId> {
                     }
                 }
                 else {
-                    completed.sort(new Comparator<B2UploadPartResponse>() {
-                        @Override
-                        public int compare(final B2UploadPartResponse o1, final B2UploadPartResponse o2) {
-                            return o1.getPartNumber().compareTo(o2.getPartNumber());
-                        }
-                    });
                     final List<String> checksums = new ArrayList<String>();
                     for(B2UploadPartResponse part : completed) {
                         checksums.add(part.getContentSha1());
                     }
-                    final B2FinishLargeFileResponse response = session.getClient().finishLargeFileUpload(version.id, checksums.toArray(new String[checksums.size()]));
+                    session.getClient().finishLargeFileUpload(version.id, checksums.toArray(new String[checksums.size()]));
+                    session.getFileidCache().put(file, version.id);
                     if(log.isInfoEnabled()) {
                         log.info(String.format("Finished large file upload %s with %d parts", file, completed.size()));
                     }
@@ -239,13 +270,19 @@ public class B2LargeUploadWriteFeature implements MultipartWrite<VersionId> {
             catch(B2ApiException e) {
                 throw new IOException(new B2ExceptionMappingService().map("Upload {0} failed", e, file));
             }
-            finally {
-                close.set(true);
-            }
         }
 
         public VersionId getFileId() {
             return version;
         }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder("LargeUploadOutputStream{");
+            sb.append("file=").append(file);
+            sb.append(", version=").append(version);
+            sb.append('}');
+            return sb.toString();
+        }
     }
 }
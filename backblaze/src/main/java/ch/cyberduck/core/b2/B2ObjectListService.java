@@ -97,6 +97,7 @@ public class B2ObjectListService implements ListService {
                 listener.chunk(directory, objects);
             }
             while(marker.hasNext());
+            session.getFileidCache().put(objects);
             return objects;
         }
         catch(B2ApiException e) {
@@ -17,6 +17,7 @@ package ch.cyberduck.core.b2;
 
 import ch.cyberduck.core.AttributedList;
 import ch.cyberduck.core.DefaultIOExceptionMappingService;
+import ch.cyberduck.core.FileidCache;
 import ch.cyberduck.core.Host;
 import ch.cyberduck.core.HostKeyCallback;
 import ch.cyberduck.core.HostPasswordStore;
@@ -46,6 +47,8 @@ public class B2Session extends HttpSession<B2ApiClient> {
 
     private B2ErrorResponseInterceptor retryHandler;
 
+    private final FileidCache fileids = new FileidCache();
+
     public B2Session(final Host host) {
         super(host, new ThreadLocalHostnameDelegatingTrustManager(new DisabledX509TrustManager(), host.getHostname()), new DefaultX509KeyManager());
     }
@@ -78,6 +81,13 @@ public class B2Session extends HttpSession<B2ApiClient> {
         return new B2ListService(this, new B2FileidProvider(this)).list(directory, listener);
     }
 
+    /**
+     * @return File identifiers shared by all lookups in this session
+     */
+    public FileidCache getFileidCache() {
+        return fileids;
+    }
+
     @Override
     public void login(final Proxy proxy, final HostPasswordStore keychain, final LoginCallback prompt, final CancelCallback cancel) throws BackgroundException {
         try {
@@ -27,6 +27,7 @@ import ch.cyberduck.core.Path;
 import ch.cyberduck.core.VersionId;
 import ch.cyberduck.core.features.Delete;
 import ch.cyberduck.core.io.StatusOutputStream;
+import ch.cyberduck.core.shared.DefaultAttributesFinderFeature;
 import ch.cyberduck.core.shared.DefaultFindFeature;
 import ch.cyberduck.core.transfer.TransferStatus;
 import ch.cyberduck.test.IntegrationTest;
@@ -111,6 +112,68 @@ public class B2LargeUploadWriteFeatureTest {
         session.close();
     }
 
+    @Test
+    public void testWritePartOrder() throws Exception {
+        final B2Session session = new B2Session(
+                new Host(new B2Protocol(), new B2Protocol().getDefaultHostname(),
+                        new Credentials(
+                                System.getProperties().getProperty("b2.user"), System.getProperties().getProperty("b2.key")
+                        )));
+        session.open(new DisabledHostKeyCallback(), new DisabledLoginCallback());
+        session.login(new DisabledPasswordStore(), new DisabledLoginCallback(), new DisabledCancelCallback());
+        // Parts uploaded concurrently and completed out of order
+        final B2LargeUploadWriteFeature feature = new B2LargeUploadWriteFeature(session,
+                new DefaultFindFeature(session), new DefaultAttributesFinderFeature(session), 5 * 1024 * 1024, 4);
+        final Path container = new Path("test-cyberduck", EnumSet.of(Path.Type.directory, Path.Type.volume));
+        final TransferStatus status = new TransferStatus();
+        status.setLength(-1L);
+        final Path file = new Path(container, UUID.randomUUID().toString(), EnumSet.of(Path.Type.file));
+        final StatusOutputStream<VersionId> out = feature.write(file, status, new DisabledConnectionCallback());
+        final byte[] content = RandomUtils.nextBytes(3 * 5 * 1024 * 1024 + 1);
+        final ByteArrayInputStream in = new ByteArrayInputStream(content);
+        assertEquals(content.length, IOUtils.copy(in, out));
+        in.close();
+        out.close();
+        assertEquals(new B2AttributesFinderFeature(session).find(file).getVersionId(), out.getStatus().id);
+        assertTrue(new B2LargeUploadPartService(session).find(file).isEmpty());
+        final byte[] compare = new byte[content.length];
+        final InputStream stream = new B2ReadFeature(session).read(file, new TransferStatus().length(content.length), new DisabledConnectionCallback());
+        IOUtils.readFully(stream, compare);
+        stream.close();
+        assertArrayEquals(content, compare);
+        new B2DeleteFeature(session).delete(Collections.singletonList(file), new DisabledLoginCallback(), new Delete.DisabledCallback());
+        session.close();
+    }
+
+    @Test
+    public void testWriteSinglePart() throws Exception {
+        final B2Session session = new B2Session(
+                new Host(new B2Protocol(), new B2Protocol().getDefaultHostname(),
+                        new Credentials(
+                                System.getProperties().getProperty("b2.user"), System.getProperties().getProperty("b2.key")
+                        )));
+        session.open(new DisabledHostKeyCallback(), new DisabledLoginCallback());
+        session.login(new DisabledPasswordStore(), new DisabledLoginCallback(), new DisabledCancelCallback());
+        final B2LargeUploadWriteFeature feature = new B2LargeUploadWriteFeature(session);
+        final Path container = new Path("test-cyberduck", EnumSet.of(Path.Type.directory, Path.Type.volume));
+        final TransferStatus status = new TransferStatus();
+        status.setLength(-1L);
+        final Path file = new Path(container, UUID.randomUUID().toString(), EnumSet.of(Path.Type.file));
+        final StatusOutputStream<VersionId> out = feature.write(file, status, new DisabledConnectionCallback());
+        final byte[] content = RandomUtils.nextBytes(1024);
+        final ByteArrayInputStream in = new ByteArrayInputStream(content);
+        assertEquals(content.length, IOUtils.copy(in, out));
+        in.close();
+        out.close();
+        // Uploaded with single request without starting large file upload
+        assertTrue(new B2LargeUploadPartService(session).find(file).isEmpty());
+        assertNotNull(out.getStatus());
+        assertEquals(new B2AttributesFinderFeature(session).find(file).getVersionId(), out.getStatus().id);
+        assertEquals(content.length, new B2AttributesFinderFeature(session).find(file).getSize());
+        new B2DeleteFeature(session).delete(Collections.singletonList(file), new DisabledLoginCallback(), new Delete.DisabledCallback());
+        session.close();
+    }
+
     @Test
     public void testWriteZeroLength() throws Exception {
         final B2Session session = new B2Session(
@@ -132,6 +195,8 @@ public class B2LargeUploadWriteFeatureTest {
         in.close();
         out.close();
         assertNotNull(out.getStatus());
+        assertEquals(new B2AttributesFinderFeature(session).find(file).getVersionId(), out.getStatus().id);
+        assertTrue(new B2LargeUploadPartService(session).find(file).isEmpty());
         assertTrue(new DefaultFindFeature(session).find(file));
         final byte[] compare = new byte[content.length];
         final InputStream stream = new B2ReadFeature(session).read(file, new TransferStatus().length(content.length), new DisabledConnectionCallback());
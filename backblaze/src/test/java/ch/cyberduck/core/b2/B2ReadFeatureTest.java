@@ -52,6 +52,7 @@ import java.util.Collections;
 import java.util.EnumSet;
 import java.util.UUID;
 
+import synapticloop.b2.response.B2FileResponse;
 import synapticloop.b2.response.BaseB2Response;
 
 import static org.junit.Assert.*;
@@ -220,4 +221,40 @@ public class B2ReadFeatureTest {
         new B2DeleteFeature(session).delete(Collections.singletonList(test), new DisabledLoginCallback(), new Delete.DisabledCallback());
         session.close();
     }
+
+    @Test
+    public void testReadOverwrite() throws Exception {
+        final B2Session session = new B2Session(
+                new Host(new B2Protocol(), new B2Protocol().getDefaultHostname(),
+                        new Credentials(
+                                System.getProperties().getProperty("b2.user"), System.getProperties().getProperty("b2.key")
+                        )));
+        session.open(new DisabledHostKeyCallback(), new DisabledLoginCallback());
+        session.login(new DisabledPasswordStore(), new DisabledLoginCallback(), new DisabledCancelCallback());
+        final Path bucket = new Path("test-cyberduck", EnumSet.of(Path.Type.directory, Path.Type.volume));
+        final Path file = new Path(bucket, UUID.randomUUID().toString(), EnumSet.of(Path.Type.file));
+        final String[] versions = new String[2];
+        final byte[] content = RandomUtils.nextBytes(923);
+        for(int i = 0; i < versions.length; i++) {
+            final byte[] reference = RandomUtils.nextBytes(923);
+            System.arraycopy(reference, 0, content, 0, reference.length);
+            final TransferStatus status = new TransferStatus();
+            status.setLength(content.length);
+            status.setChecksum(new SHA1ChecksumCompute().compute(new ByteArrayInputStream(content), status));
+            final HttpResponseOutputStream<BaseB2Response> out = new B2WriteFeature(session).write(file, status, new DisabledConnectionCallback());
+            IOUtils.write(content, out);
+            out.close();
+            versions[i] = ((B2FileResponse) out.getStatus()).getFileId();
+            assertEquals(versions[i], session.getFileidCache().get(file));
+            // Resolves file id of previous upload unless updated
+            final InputStream in = new B2ReadFeature(session).read(file, new TransferStatus(), new DisabledConnectionCallback());
+            assertArrayEquals(reference, IOUtils.toByteArray(in));
+            in.close();
+        }
+        assertNotEquals(versions[0], versions[1]);
+        new B2DeleteFeature(session).delete(Collections.singletonList(file), new DisabledLoginCallback(), new Delete.DisabledCallback());
+        assertNull(session.getFileidCache().get(file));
+        new B2DeleteFeature(session).delete(Collections.singletonList(file), new DisabledLoginCallback(), new Delete.DisabledCallback());
+        session.close();
+    }
 }
@@ -0,0 +1,107 @@
+package ch.cyberduck.core.benchmark;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.ui.browser.SearchFilter;
+import ch.cyberduck.ui.comparator.FilenameComparator;
+import ch.cyberduck.ui.comparator.SizeComparator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AttributedListBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private final List<Path> files = new ArrayList<Path>();
+    private AttributedList<Path> list;
+    private Path lookup;
+
+    @Setup(Level.Trial)
+    public void files() {
+        final Path directory = new Path("/d", EnumSet.of(Path.Type.directory));
+        for(int i = 0; i < size; i++) {
+            final Path file = new Path(directory, String.format("f-%d.txt", i), EnumSet.of(Path.Type.file));
+            file.attributes().setSize(i % 1024);
+            files.add(file);
+        }
+        lookup = new Path(directory, String.format("f-%d.txt", size / 2), EnumSet.of(Path.Type.file));
+    }
+
+    @Setup(Level.Invocation)
+    public void list() {
+        // Filter and sort are skipped for list already filtered with same filter or sorted with same comparator
+        list = new AttributedList<Path>(files);
+    }
+
+    @Benchmark
+    public AttributedList<Path> add() {
+        final AttributedList<Path> list = new AttributedList<Path>();
+        for(Path file : files) {
+            list.add(file);
+        }
+        return list;
+    }
+
+    @Benchmark
+    public AttributedList<Path> sortFilename() {
+        return list.filter(new FilenameComparator(true));
+    }
+
+    @Benchmark
+    public AttributedList<Path> sortSize() {
+        return list.filter(new SizeComparator(false));
+    }
+
+    @Benchmark
+    public AttributedList<Path> filterSearch() {
+        return list.filter(new FilenameComparator(true), new SearchFilter("f-1"));
+    }
+
+    @Benchmark
+    public boolean contains() {
+        return list.contains(lookup);
+    }
+
+    @Benchmark
+    public Path get() {
+        return list.get(lookup);
+    }
+}
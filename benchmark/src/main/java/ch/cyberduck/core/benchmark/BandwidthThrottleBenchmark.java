@@ -0,0 +1,69 @@
+package ch.cyberduck.core.benchmark;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.io.BandwidthThrottle;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of requesting bytes from throttle shared by concurrent transfers without waiting for rate limit
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BandwidthThrottleBenchmark {
+
+    private BandwidthThrottle unlimited;
+    private BandwidthThrottle limited;
+
+    @Setup
+    public void setup() {
+        unlimited = new BandwidthThrottle(BandwidthThrottle.UNLIMITED);
+        limited = new BandwidthThrottle(Float.MAX_VALUE);
+    }
+
+    @Benchmark
+    public int requestUnlimited() {
+        return unlimited.request(32768);
+    }
+
+    @Benchmark
+    public int requestLimited() {
+        return limited.request(32768);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int requestLimitedContended() {
+        return limited.request(32768);
+    }
+}
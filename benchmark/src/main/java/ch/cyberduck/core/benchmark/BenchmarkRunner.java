@@ -0,0 +1,48 @@
+package ch.cyberduck.core.benchmark;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Run benchmarks with results written in JSON format to <code>jmh-result.json</code> unless a different
+ * result format or file is given. Accepts all JMH command line options such as a regular expression to
+ * select benchmarks.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+        //
+    }
+
+    public static void main(final String... args) throws CommandLineOptionException, RunnerException {
+        final CommandLineOptions options = new CommandLineOptions(args);
+        final ChainedOptionsBuilder builder = new OptionsBuilder().parent(options);
+        if(!options.getResultFormat().hasValue()) {
+            builder.resultFormat(ResultFormatType.JSON);
+        }
+        if(!options.getResult().hasValue()) {
+            builder.result("jmh-result.json");
+        }
+        new Runner(builder.build()).run();
+    }
+}
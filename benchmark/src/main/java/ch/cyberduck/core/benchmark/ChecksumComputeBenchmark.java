@@ -0,0 +1,74 @@
+package ch.cyberduck.core.benchmark;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.exception.ChecksumException;
+import ch.cyberduck.core.io.Checksum;
+import ch.cyberduck.core.io.ChecksumComputeFactory;
+import ch.cyberduck.core.io.HashAlgorithm;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.apache.commons.lang3.RandomUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ChecksumComputeBenchmark {
+
+    @Param({"8388608"})
+    public int length;
+
+    @Param({"md5", "sha1", "sha256", "sha512", "crc32"})
+    public HashAlgorithm algorithm;
+
+    private byte[] content;
+
+    @Setup
+    public void setup() {
+        content = RandomUtils.nextBytes(length);
+    }
+
+    @Benchmark
+    public Checksum compute() throws ChecksumException {
+        return ChecksumComputeFactory.get(algorithm).compute(new ByteArrayInputStream(content), new TransferStatus());
+    }
+
+    /**
+     * Compute together with MD5 in a single pass
+     */
+    @Benchmark
+    public Map<HashAlgorithm, Checksum> computeWithMD5() throws ChecksumException {
+        return ChecksumComputeFactory.get(algorithm, HashAlgorithm.md5).compute(new ByteArrayInputStream(content));
+    }
+}
@@ -0,0 +1,113 @@
+package ch.cyberduck.core.benchmark;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.DisabledListProgressListener;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.ftp.FTPParserSelector;
+import ch.cyberduck.core.ftp.list.FTPInvalidListException;
+import ch.cyberduck.core.ftp.list.FTPListResponseReader;
+import ch.cyberduck.core.ftp.list.FTPMlsdListResponseReader;
+
+import org.apache.commons.net.ftp.FTPFile;
+import org.apache.commons.net.ftp.FTPFileEntryParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FTPListParserBenchmark {
+
+    /**
+     * Number of lines in directory listing
+     */
+    @Param({"1000"})
+    public int size;
+
+    @Param({"UNIX", "Windows_NT"})
+    public String system;
+
+    private final Path directory = new Path("/d", EnumSet.of(Path.Type.directory));
+
+    private final List<String> list = new ArrayList<String>();
+    private final List<String> mlsd = new ArrayList<String>();
+
+    private FTPFileEntryParser parser;
+
+    @Setup
+    public void setup() {
+        parser = new FTPParserSelector().getParser(system);
+        for(int i = 0; i < size; i++) {
+            switch(system) {
+                case "Windows_NT":
+                    list.add(String.format("05-30-17  03:04PM             %8d f-%d.txt", i * 1024, i));
+                    break;
+                default:
+                    list.add(String.format("-rw-r--r--    1 owner    group    %8d Sep 23  2017 f-%d.txt", i * 1024, i));
+                    break;
+            }
+            mlsd.add(String.format("Type=file;Size=%d;Modify=20170923150400;Perm=adfrw; f-%d.txt", i * 1024, i));
+        }
+    }
+
+    @Benchmark
+    public void parseFTPEntry(final Blackhole blackhole) {
+        for(String line : list) {
+            final FTPFile file = parser.parseFTPEntry(line);
+            blackhole.consume(file);
+        }
+    }
+
+    @Benchmark
+    public AttributedList<Path> read() throws IOException, FTPInvalidListException, ConnectionCanceledException {
+        return new FTPListResponseReader(parser).read(directory, list, new DisabledListProgressListener());
+    }
+
+    @Benchmark
+    public AttributedList<Path> readStream() throws IOException, FTPInvalidListException, ConnectionCanceledException {
+        return new FTPListResponseReader(parser).read(directory, new BufferedReader(new StringReader(
+                String.join("\r\n", list))), new DisabledListProgressListener());
+    }
+
+    @Benchmark
+    public AttributedList<Path> readMlsd() throws IOException, FTPInvalidListException, ConnectionCanceledException {
+        return new FTPMlsdListResponseReader().read(directory, mlsd, new DisabledListProgressListener());
+    }
+}
@@ -0,0 +1,91 @@
+package ch.cyberduck.core.benchmark;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.io.FileBuffer;
+
+import org.apache.commons.lang3.RandomUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FileBufferBenchmark {
+
+    /**
+     * Total length written and read
+     */
+    @Param({"8388608"})
+    public int length;
+
+    @Param({"32768"})
+    public int chunksize;
+
+    private byte[] chunk;
+    private FileBuffer buffer;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        chunk = RandomUtils.nextBytes(chunksize);
+        buffer = new FileBuffer();
+    }
+
+    @TearDown(Level.Iteration)
+    public void close() {
+        buffer.close();
+    }
+
+    @Benchmark
+    public long write() throws IOException {
+        long offset = 0L;
+        while(offset < length) {
+            offset += buffer.write(chunk, offset);
+        }
+        return offset;
+    }
+
+    @Benchmark
+    public long writeRead() throws IOException {
+        long offset = 0L;
+        while(offset < length) {
+            offset += buffer.write(chunk, offset);
+        }
+        long read = 0L;
+        int count;
+        while(read < length && (count = buffer.read(chunk, read)) != -1) {
+            read += count;
+        }
+        return read;
+    }
+}
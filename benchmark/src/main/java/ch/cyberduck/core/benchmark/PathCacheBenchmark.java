@@ -0,0 +1,105 @@
+package ch.cyberduck.core.benchmark;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathCache;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PathCacheBenchmark {
+
+    /**
+     * Number of directories cached
+     */
+    @Param({"1000"})
+    public int directories;
+
+    /**
+     * Number of children per directory
+     */
+    @Param({"100"})
+    public int children;
+
+    private final List<Path> keys = new ArrayList<Path>();
+    private PathCache cache;
+
+    @Setup
+    public void setup() {
+        cache = new PathCache(directories);
+        for(int i = 0; i < directories; i++) {
+            final Path directory = new Path(String.format("/d-%d", i), EnumSet.of(Path.Type.directory));
+            final AttributedList<Path> list = new AttributedList<Path>();
+            for(int j = 0; j < children; j++) {
+                list.add(new Path(directory, String.format("f-%d", j), EnumSet.of(Path.Type.file)));
+            }
+            cache.put(directory, list);
+            // Lookup with different instance of equal path
+            keys.add(new Path(String.format("/d-%d", i), EnumSet.of(Path.Type.directory)));
+        }
+    }
+
+    private Path key() {
+        return keys.get(ThreadLocalRandom.current().nextInt(keys.size()));
+    }
+
+    @Benchmark
+    public AttributedList<Path> get() {
+        return cache.get(this.key());
+    }
+
+    @Benchmark
+    public boolean isCached() {
+        return cache.isCached(this.key());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public AttributedList<Path> getContended() {
+        return cache.get(this.key());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public AttributedList<Path> putContended() {
+        final Path directory = this.key();
+        return cache.put(directory, cache.get(directory));
+    }
+}
@@ -0,0 +1,77 @@
+package ch.cyberduck.core.benchmark;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.io.MemorySegementingOutputStream;
+
+import org.apache.commons.io.output.NullOutputStream;
+import org.apache.commons.lang3.RandomUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SegmentingOutputStreamBenchmark {
+
+    @Param({"8388608"})
+    public int length;
+
+    /**
+     * Segment size
+     */
+    @Param({"1048576", "5242880"})
+    public int threshold;
+
+    /**
+     * Size of single write to stream
+     */
+    @Param({"32768"})
+    public int chunksize;
+
+    private byte[] content;
+
+    @Setup
+    public void setup() {
+        content = RandomUtils.nextBytes(length);
+    }
+
+    @Benchmark
+    public OutputStream write() throws IOException {
+        final OutputStream out = new MemorySegementingOutputStream(new NullOutputStream(), threshold);
+        for(int offset = 0; offset < content.length; offset += chunksize) {
+            out.write(content, offset, Math.min(chunksize, content.length - offset));
+        }
+        out.close();
+        return out;
+    }
+}
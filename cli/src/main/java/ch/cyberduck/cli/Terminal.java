@@ -39,6 +39,9 @@ import ch.cyberduck.core.local.ApplicationFinder;
 import ch.cyberduck.core.local.ApplicationFinderFactory;
 import ch.cyberduck.core.local.ApplicationQuitCallback;
 import ch.cyberduck.core.manta.MantaProtocol;
+import ch.cyberduck.core.metrics.JsonMetricsFormatter;
+import ch.cyberduck.core.metrics.MetricsRegistry;
+import ch.cyberduck.core.metrics.PrometheusMetricsFormatter;
 import ch.cyberduck.core.nio.LocalProtocol;
 import ch.cyberduck.core.onedrive.OneDriveProtocol;
 import ch.cyberduck.core.openstack.SwiftProtocol;
@@ -279,6 +282,11 @@ public class Terminal {
         finally {
             this.disconnect(source);
             this.disconnect(destination);
+            if(input.hasOption(TerminalOptionsBuilder.Params.metrics.name())) {
+                console.printf("%n%s", MetricsRegistry.get().format(
+                    "json".equals(input.getOptionValue(TerminalOptionsBuilder.Params.metrics.name()))
+                        ? new JsonMetricsFormatter() : new PrometheusMetricsFormatter()));
+            }
         }
         return Exit.failure;
     }
@@ -312,6 +320,9 @@ public class Terminal {
                 NumberUtils.toInt(input.getOptionValue(TerminalOptionsBuilder.Params.parallel.name()), 2));
         }
         preferences.setProperty("connection.login.keychain", !input.hasOption(TerminalOptionsBuilder.Params.nokeychain.name()));
+        if(input.hasOption(TerminalOptionsBuilder.Params.metrics.name())) {
+            preferences.setProperty("metrics.enable", true);
+        }
     }
 
     protected Exit transfer(final Transfer transfer, final SessionPool source, final SessionPool destination) {
@@ -384,10 +395,10 @@ public class Terminal {
         }
         final DeleteWorker worker;
         if(StringUtils.containsAny(remote.getName(), '*')) {
-            worker = new DeleteWorker(new TerminalLoginCallback(reader), files, cache, new DownloadGlobFilter(remote.getName()), progress);
+            worker = new DeleteWorker(new TerminalLoginCallback(reader), files, cache, new DownloadGlobFilter(remote.getName()), progress, session);
         }
         else {
-            worker = new DeleteWorker(new TerminalLoginCallback(reader), files, cache, progress);
+            worker = new DeleteWorker(new TerminalLoginCallback(reader), files, cache, new NullFilter<Path>(), progress, session);
         }
         final SessionBackgroundAction<List<Path>> action = new TerminalBackgroundAction<List<Path>>(controller, session, worker);
         if(!this.execute(action)) {
@@ -154,6 +154,12 @@ public final class TerminalOptionsBuilder {
                 .hasArg(true).withArgName("bytes per second")
                 .isRequired(false)
                 .create());
+        options.addOption(OptionBuilder
+                .withDescription("Print latency histograms and counters when done")
+                .withLongOpt(Params.metrics.name())
+                .hasOptionalArg().withArgName("json or prometheus")
+                .isRequired(false)
+                .create());
         options.addOption(OptionBuilder
                 .withDescription("Do not save passwords in keychain")
                 .withLongOpt(Params.nokeychain.name())
@@ -221,6 +227,7 @@ public final class TerminalOptionsBuilder {
         udt,
         parallel,
         throttle,
+        metrics,
         nokeychain,
         existing,
         verbose,
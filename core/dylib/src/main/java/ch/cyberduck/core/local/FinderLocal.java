@@ -174,6 +174,54 @@ public class FinderLocal extends Local {
         }
     }
 
+    @Override
+    public OutputStream getRandomAccessOutputStream(final long offset) throws AccessDeniedException {
+        final NSURL resolved;
+        try {
+            resolved = this.lock(false);
+        }
+        catch(LocalAccessDeniedException e) {
+            return super.getRandomAccessOutputStream(offset);
+        }
+        final OutputStream out;
+        try {
+            out = super.getRandomAccessOutputStream(offset);
+        }
+        catch(AccessDeniedException e) {
+            this.release(resolved);
+            throw e;
+        }
+        return new ProxyOutputStream(out) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                }
+                finally {
+                    release(resolved);
+                }
+            }
+        };
+    }
+
+    @Override
+    public void setLength(final long length) throws AccessDeniedException {
+        final NSURL resolved;
+        try {
+            resolved = this.lock(false);
+        }
+        catch(LocalAccessDeniedException e) {
+            super.setLength(length);
+            return;
+        }
+        try {
+            super.setLength(length);
+        }
+        finally {
+            this.release(resolved);
+        }
+    }
+
     /**
      * @param interactive Prompt to resolve bookmark of file outside of sandbox with choose panel
      */
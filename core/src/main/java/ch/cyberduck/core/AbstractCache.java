@@ -18,31 +18,43 @@ package ch.cyberduck.core;
  *  dkocher@cyberduck.ch
  */
 
-import org.apache.commons.collections4.map.LRUMap;
+import ch.cyberduck.core.collections.CacheStatistics;
+import ch.cyberduck.core.collections.ConcurrentLRUMap;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
 import org.apache.log4j.Logger;
 
-import java.util.Collections;
-import java.util.LinkedHashMap;
-import java.util.Map;
 import java.util.Set;
 
 public abstract class AbstractCache<T extends Referenceable> implements Cache<T> {
     private static final Logger log = Logger.getLogger(AbstractCache.class);
 
-    private final Map<T, AttributedList<T>> impl;
-
-    public AbstractCache(int size) {
-        if(size == Integer.MAX_VALUE) {
-            // Unlimited
-            impl = Collections.synchronizedMap(new LinkedHashMap<T, AttributedList<T>>());
-        }
-        else if(size == 0) {
-            impl = Collections.emptyMap();
-        }
-        else {
-            // Will inflate to the given size
-            impl = Collections.synchronizedMap(new LRUMap<T, AttributedList<T>>(size));
+    private static final ConcurrentLRUMap.Weigher<AttributedList> CHILDREN = new ConcurrentLRUMap.Weigher<AttributedList>() {
+        @Override
+        public int weigh(final AttributedList value) {
+            return value.size();
         }
+    };
+
+    private final ConcurrentLRUMap<T, AttributedList<T>> impl;
+
+    /**
+     * @param size Maximum number of directory listings. Zero to disable and Integer.MAX_VALUE for unlimited
+     */
+    public AbstractCache(final int size) {
+        this(size, size == Integer.MAX_VALUE ? Long.MAX_VALUE : PreferencesFactory.get().getLong("cache.children.size"),
+            size == Integer.MAX_VALUE ? -1L : PreferencesFactory.get().getLong("cache.ttl.seconds"));
+    }
+
+    /**
+     * @param size     Maximum number of directory listings. Zero to disable and Integer.MAX_VALUE for unlimited
+     * @param children Maximum number of children in all cached directory listings
+     * @param ttl      Time to live for a cached directory listing in seconds or -1 for no expiry
+     */
+    public AbstractCache(final int size, final long children, final long ttl) {
+        // Lookups do not lock with eviction of least recently used directory listings
+        impl = new ConcurrentLRUMap<T, AttributedList<T>>(size, children,
+            (ConcurrentLRUMap.Weigher) CHILDREN, ttl < 0 ? -1L : ttl * 1000L);
     }
 
     @Override
@@ -84,8 +96,6 @@ public abstract class AbstractCache<T extends Referenceable> implements Cache<T>
     /**
      * @param reference Absolute path
      * @return An empty list if no cached file listing is available
-     * @throws java.util.ConcurrentModificationException If the caller is iterating of the cache himself
-     *                                                   and requests a new filter here.
      */
     public AttributedList<T> get(final T reference) {
         AttributedList<T> children = impl.get(reference);
@@ -116,10 +126,11 @@ public abstract class AbstractCache<T extends Referenceable> implements Cache<T>
     }
 
     public boolean isValid(final T reference) {
-        if(this.isCached(reference)) {
-            return !this.get(reference).attributes().isInvalid();
+        final AttributedList<T> children = impl.get(reference);
+        if(null == children) {
+            return false;
         }
-        return false;
+        return !children.attributes().isInvalid();
     }
 
     /**
@@ -129,8 +140,9 @@ public abstract class AbstractCache<T extends Referenceable> implements Cache<T>
         if(log.isInfoEnabled()) {
             log.info(String.format("Invalidate %s", reference));
         }
-        if(this.containsKey(reference)) {
-            this.get(reference).attributes().setInvalid(true);
+        final AttributedList<T> children = impl.get(reference);
+        if(null != children) {
+            children.attributes().setInvalid(true);
         }
         else {
             log.warn(String.format("No cache for %s", reference));
@@ -147,10 +159,19 @@ public abstract class AbstractCache<T extends Referenceable> implements Cache<T>
         impl.clear();
     }
 
+    /**
+     * @return Hit, miss and eviction counters for directory listing lookups
+     */
+    public CacheStatistics getStatistics() {
+        return impl.getStatistics();
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("Cache{");
         sb.append("size=").append(impl.size());
+        sb.append(", children=").append(impl.weight());
+        sb.append(", statistics=").append(impl.getStatistics());
         sb.append('}');
         return sb.toString();
     }
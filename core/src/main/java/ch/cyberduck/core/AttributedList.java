@@ -20,17 +20,21 @@ package ch.cyberduck.core;
 
 import org.apache.log4j.Logger;
 
-import java.util.Collections;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.RandomAccess;
 import java.util.function.Predicate;
 
 /**
- * A sortable list with a map to lookup values by key.
+ * A sortable list with a map to lookup values by key. Appending does not copy the backing array and readers
+ * iterate a snapshot without locking. Lookups by reference are served from an index built on first use.
  */
 public class AttributedList<E extends Referenceable> implements Iterable<E> {
     private static final Logger log = Logger.getLogger(AttributedList.class);
@@ -52,8 +56,28 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
         }
     };
 
-    private final List<E> impl
-        = new CopyOnWriteArrayList<>();
+    /**
+     * Initial capacity of backing array
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * Published contents. Elements below the snapshot size are never modified once published. Appends write past
+     * the size into spare capacity and publish a new snapshot. All other mutations copy the array first.
+     */
+    private volatile Snapshot<E> impl
+        = new Snapshot<E>(new Object[0], 0);
+
+    /**
+     * Index of first occurrence by element. Built lazily and guarded by this list.
+     */
+    private Map<E, Integer> index;
+
+    /**
+     * Index of first occurrence by type and absolute path as compared by {@link SimplePathPredicate}. Keyed by the
+     * full string representation as the hash of different paths may collide. Built lazily and guarded by this list.
+     */
+    private Map<String, Integer> predicates;
 
     /**
      * Metadata of file listing
@@ -91,15 +115,58 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
         return attributes;
     }
 
-    public boolean add(final E e) {
+    public synchronized boolean add(final E e) {
         if(attributes.getFilter().accept(e)) {
-            return impl.add(e);
+            this.append(e);
+            return true;
         }
         return attributes.getHidden().add(e);
     }
 
-    public void add(final int index, final E e) {
-        impl.add(index, e);
+    /**
+     * Write element to spare capacity of backing array and update indexes if already built
+     */
+    private void append(final E e) {
+        final Snapshot<E> current = impl;
+        Object[] elements = current.elements;
+        if(current.size == elements.length) {
+            elements = Arrays.copyOf(elements, Math.max(DEFAULT_CAPACITY, elements.length + (elements.length >> 1)));
+        }
+        elements[current.size] = e;
+        impl = new Snapshot<E>(elements, current.size + 1);
+        if(index != null) {
+            index.putIfAbsent(e, current.size);
+        }
+        if(predicates != null) {
+            if(e instanceof Path) {
+                predicates.putIfAbsent(new SimplePathPredicate((Path) e).toString(), current.size);
+            }
+        }
+    }
+
+    /**
+     * Publish new contents and discard indexes
+     */
+    private void replace(final Object[] elements, final int size) {
+        impl = new Snapshot<E>(elements, size);
+        index = null;
+        predicates = null;
+    }
+
+    public synchronized void add(final int index, final E e) {
+        final Snapshot<E> current = impl;
+        if(index < 0 || index > current.size) {
+            throw new IndexOutOfBoundsException(String.format("Index %d for size %d", index, current.size));
+        }
+        if(index == current.size) {
+            this.append(e);
+            return;
+        }
+        final Object[] elements = new Object[Math.max(DEFAULT_CAPACITY, current.size + 1)];
+        System.arraycopy(current.elements, 0, elements, 0, index);
+        elements[index] = e;
+        System.arraycopy(current.elements, index, elements, index + 1, current.size - index);
+        this.replace(elements, current.size + 1);
     }
 
     public boolean addAll(final Iterable<? extends E> c) {
@@ -113,39 +180,51 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
         return impl.get(index);
     }
 
-    public E get(final E reference) {
-        final int index = impl.indexOf(reference);
+    public synchronized E get(final E reference) {
+        final int index = this.indexOf(reference);
         if(-1 == index) {
             return null;
         }
         return impl.get(index);
     }
 
-    public void set(final int i, final E e) {
-        impl.set(i, e);
+    public synchronized void set(final int i, final E e) {
+        final Snapshot<E> current = impl;
+        if(i < 0 || i >= current.size) {
+            throw new IndexOutOfBoundsException(String.format("Index %d for size %d", i, current.size));
+        }
+        final Object[] elements = Arrays.copyOf(current.elements, current.elements.length);
+        elements[i] = e;
+        this.replace(elements, current.size);
     }
 
+    /**
+     * @return Iterator over a snapshot of the list not affected by later modifications
+     */
     @Override
     public Iterator<E> iterator() {
         return impl.iterator();
     }
 
     /**
-     * The CopyOnWriteArrayList iterator does not support remove but the sort implementation
-     * makes use of it. Provide our own implementation here to circumvent.
+     * Sort a copy of the backing array and publish it. Iterators obtained before continue to see the previous
+     * order.
      *
      * @param comparator The comparator to use
-     * @see java.util.Collections#sort(java.util.List, java.util.Comparator)
-     * @see java.util.concurrent.CopyOnWriteArrayList#iterator()
+     * @see java.util.Arrays#sort(Object[], int, int, Comparator)
      */
-    private void doSort(final Comparator<E> comparator) {
+    @SuppressWarnings("unchecked")
+    private synchronized void doSort(final Comparator<E> comparator) {
         if(null == comparator) {
             return;
         }
         if(log.isDebugEnabled()) {
             log.debug(String.format("Sort list %s with comparator %s", this, comparator));
         }
-        Collections.sort(impl, comparator);
+        final Snapshot<E> current = impl;
+        final Object[] elements = Arrays.copyOf(current.elements, current.elements.length);
+        Arrays.sort(elements, 0, current.size, (Comparator) comparator);
+        this.replace(elements, current.size);
     }
 
     /**
@@ -165,7 +244,8 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
      * @param filter     Filter
      * @return Filtered list sorted with comparator
      */
-    public AttributedList<E> filter(final Comparator<E> comparator, final Filter<E> filter) {
+    @SuppressWarnings("unchecked")
+    public synchronized AttributedList<E> filter(final Comparator<E> comparator, final Filter<E> filter) {
         boolean needsSorting = false;
         if(null != comparator) {
             needsSorting = !attributes.getComparator().equals(comparator);
@@ -186,24 +266,23 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
             if(log.isDebugEnabled()) {
                 log.debug(String.format("Filter list %s with filter %s", this, filter));
             }
+            final Snapshot<E> current = impl;
             // Add previously hidden files to children
             final List<E> hidden = attributes.getHidden();
+            final Object[] elements = new Object[Math.max(DEFAULT_CAPACITY, current.size + hidden.size())];
+            int size = 0;
+            for(int i = 0; i < current.size; i++) {
+                size = this.accept(filter, current.get(i), elements, size);
+            }
             if(!hidden.isEmpty()) {
-                impl.addAll(hidden);
+                final Object[] previous = hidden.toArray();
                 // Clear the previously set of hidden files
                 hidden.clear();
-            }
-            impl.removeIf(new Predicate<E>() {
-                @Override
-                public boolean test(final E e) {
-                    final boolean accept = filter.accept(e);
-                    if(!accept) {
-                        // Child not accepted by filter; add to cached hidden files
-                        attributes.addHidden(e);
-                    }
-                    return !accept;
+                for(Object e : previous) {
+                    size = this.accept(filter, (E) e, elements, size);
                 }
-            });
+            }
+            this.replace(elements, size);
             // Saving last filter
             attributes.setFilter(filter);
             // Sort again because the list has changed
@@ -212,12 +291,25 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
         return this;
     }
 
+    /**
+     * @return New size of elements
+     */
+    private int accept(final Filter<E> filter, final E e, final Object[] elements, final int size) {
+        if(filter.accept(e)) {
+            elements[size] = e;
+            return size + 1;
+        }
+        // Child not accepted by filter; add to cached hidden files
+        attributes.addHidden(e);
+        return size;
+    }
+
     /**
      * Clear the list and all references.
      */
-    public void clear() {
+    public synchronized void clear() {
         attributes.clear();
-        impl.clear();
+        this.replace(new Object[0], 0);
     }
 
     public boolean isEmpty() {
@@ -228,34 +320,103 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
         return impl.size();
     }
 
-    public boolean contains(final E e) {
-        return impl.contains(e);
+    public synchronized boolean contains(final E e) {
+        return this.indexOf(e) != -1;
     }
 
+    /**
+     * Lookup with {@link SimplePathPredicate} is served from an index. Any other predicate is tested against
+     * all elements in order.
+     *
+     * @param predicate Match
+     * @return First element matching predicate or null
+     */
+    @SuppressWarnings("unchecked")
     public E find(final Predicate<E> predicate) {
-        final Optional<E> optional = impl.stream().filter(predicate).findFirst();
-        return optional.orElse(null);
+        if(predicate.getClass() == SimplePathPredicate.class) {
+            synchronized(this) {
+                final Snapshot<E> current = impl;
+                if(null == predicates) {
+                    predicates = new HashMap<String, Integer>(Math.max(DEFAULT_CAPACITY, current.size * 2));
+                    for(int i = 0; i < current.size; i++) {
+                        final E e = current.get(i);
+                        if(e instanceof Path) {
+                            predicates.putIfAbsent(new SimplePathPredicate((Path) e).toString(), i);
+                        }
+                    }
+                }
+                final Integer found = predicates.get(predicate.toString());
+                if(null == found) {
+                    return null;
+                }
+                return current.get(found);
+            }
+        }
+        final Snapshot<E> current = impl;
+        for(int i = 0; i < current.size; i++) {
+            final E e = current.get(i);
+            if(predicate.test(e)) {
+                return e;
+            }
+        }
+        return null;
     }
 
     @SuppressWarnings("unchecked")
     public E[] toArray() {
-        return (E[]) impl.toArray(new Referenceable[impl.size()]);
+        final Snapshot<E> current = impl;
+        return (E[]) current.toArray(new Referenceable[current.size]);
     }
 
+    /**
+     * @return Unmodifiable snapshot of the current contents
+     */
     public List<E> toList() {
         return impl;
     }
 
-    public int indexOf(final E e) {
-        return impl.indexOf(e);
+    public synchronized int indexOf(final E e) {
+        final Snapshot<E> current = impl;
+        if(null == index) {
+            index = new HashMap<E, Integer>(Math.max(DEFAULT_CAPACITY, current.size * 2));
+            for(int i = 0; i < current.size; i++) {
+                index.putIfAbsent(current.get(i), i);
+            }
+        }
+        final Integer found = index.get(e);
+        if(null == found) {
+            return -1;
+        }
+        return found;
     }
 
-    public boolean remove(final E e) {
-        return impl.remove(e);
+    public synchronized boolean remove(final E e) {
+        final int i = this.indexOf(e);
+        if(-1 == i) {
+            return false;
+        }
+        final Snapshot<E> current = impl;
+        final Object[] elements = new Object[Math.max(DEFAULT_CAPACITY, current.size)];
+        System.arraycopy(current.elements, 0, elements, 0, i);
+        System.arraycopy(current.elements, i + 1, elements, i, current.size - i - 1);
+        this.replace(elements, current.size - 1);
+        return true;
     }
 
-    public boolean removeAll(final java.util.Collection<E> e) {
-        return impl.removeAll(e);
+    public synchronized boolean removeAll(final Collection<E> e) {
+        final Snapshot<E> current = impl;
+        final Object[] elements = new Object[Math.max(DEFAULT_CAPACITY, current.size)];
+        int size = 0;
+        for(int i = 0; i < current.size; i++) {
+            if(!e.contains(current.get(i))) {
+                elements[size++] = current.get(i);
+            }
+        }
+        if(size == current.size) {
+            return false;
+        }
+        this.replace(elements, size);
+        return true;
     }
 
     @Override
@@ -274,4 +435,31 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
     public int hashCode() {
         return Objects.hash(impl);
     }
+
+    /**
+     * Immutable view of the first elements of a backing array
+     */
+    private static final class Snapshot<E> extends AbstractList<E> implements RandomAccess {
+        private final Object[] elements;
+        private final int size;
+
+        public Snapshot(final Object[] elements, final int size) {
+            this.elements = elements;
+            this.size = size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E get(final int index) {
+            if(index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException(String.format("Index %d for size %d", index, size));
+            }
+            return (E) elements[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
 }
@@ -15,24 +15,77 @@ package ch.cyberduck.core;
  * GNU General Public License for more details.
  */
 
+import ch.cyberduck.core.metrics.Histogram;
+
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 public class CountingMetrics implements Metrics {
 
-    private final Map<Object, AtomicLong> metrics = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Object, AtomicLong> metrics = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Object, Histogram> histograms = new ConcurrentHashMap<>();
 
     @Override
     public <T> void increment(final T key) {
-        if(!metrics.containsKey(key)) {
-            metrics.put(key, new AtomicLong());
-        }
-        metrics.get(key).getAndIncrement();
+        this.add(key, 1L);
     }
 
     @Override
     public <T> long get(final T key) {
-        return metrics.containsKey(key) ? metrics.get(key).longValue() : 0;
+        final AtomicLong counter = metrics.get(key);
+        return null == counter ? 0 : counter.longValue();
+    }
+
+    @Override
+    public <T> void add(final T key, final long delta) {
+        AtomicLong counter = metrics.get(key);
+        if(null == counter) {
+            final AtomicLong created = new AtomicLong();
+            counter = metrics.putIfAbsent(key, created);
+            if(null == counter) {
+                counter = created;
+            }
+        }
+        counter.getAndAdd(delta);
+    }
+
+    @Override
+    public <T> void record(final T key, final long value) {
+        Histogram histogram = histograms.get(key);
+        if(null == histogram) {
+            final Histogram created = new Histogram();
+            histogram = histograms.putIfAbsent(key, created);
+            if(null == histogram) {
+                histogram = created;
+            }
+        }
+        histogram.record(value);
+    }
+
+    @Override
+    public <T> Histogram histogram(final T key) {
+        return histograms.get(key);
+    }
+
+    /**
+     * @return Snapshot of all counters
+     */
+    public Map<Object, Long> getCounters() {
+        final Map<Object, Long> snapshot = new HashMap<>();
+        for(Map.Entry<Object, AtomicLong> entry : metrics.entrySet()) {
+            snapshot.put(entry.getKey(), entry.getValue().longValue());
+        }
+        return snapshot;
+    }
+
+    /**
+     * @return All histograms
+     */
+    public Map<Object, Histogram> getHistograms() {
+        return Collections.unmodifiableMap(histograms);
     }
 }
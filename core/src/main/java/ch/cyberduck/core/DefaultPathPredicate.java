@@ -64,6 +64,10 @@ public class DefaultPathPredicate implements CacheReference<Path> {
 
     @Override
     public int hashCode() {
+        if(this.getClass() == DefaultPathPredicate.class) {
+            // Same value cached by the path
+            return file.hashCode();
+        }
         return this.toString().hashCode();
     }
 
@@ -15,6 +15,8 @@ package ch.cyberduck.core;
  * GNU General Public License for more details.
  */
 
+import ch.cyberduck.core.metrics.Histogram;
+
 public class DisabledMetrics implements Metrics {
 
     public <T> void increment(final T key) {
@@ -23,4 +25,14 @@ public class DisabledMetrics implements Metrics {
     public <T> long get(final T key) {
         return 0;
     }
+
+    public <T> void add(final T key, final long delta) {
+    }
+
+    public <T> void record(final T key, final long value) {
+    }
+
+    public <T> Histogram histogram(final T key) {
+        return null;
+    }
 }
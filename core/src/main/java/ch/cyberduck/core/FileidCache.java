@@ -0,0 +1,193 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.collections.CacheStatistics;
+import ch.cyberduck.core.collections.ConcurrentLRUMap;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.metrics.MetricsRegistry;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded cache of file identifiers by path for protocols addressing files by identifier instead of path. Shared
+ * by all identifier lookups of a session and filled from directory listings.
+ */
+public class FileidCache {
+    private static final Logger log = Logger.getLogger(FileidCache.class);
+
+    public interface Loader {
+        /**
+         * @param file File not found in cache
+         * @return Identifier of file
+         */
+        String load(Path file) throws BackgroundException;
+    }
+
+    private final ConcurrentLRUMap<String, String> impl;
+
+    /**
+     * Lookups in progress
+     */
+    private final ConcurrentHashMap<String, Object> locks
+            = new ConcurrentHashMap<String, Object>();
+
+    public FileidCache() {
+        this(PreferencesFactory.get().getInteger("fileid.cache.size"));
+    }
+
+    /**
+     * @param capacity Maximum number of identifiers
+     */
+    public FileidCache(final int capacity) {
+        this.impl = new ConcurrentLRUMap<String, String>(capacity);
+        MetricsRegistry.get().register("fileid", impl);
+    }
+
+    /**
+     * @param file File or directory
+     * @return Null if not cached
+     */
+    public String get(final Path file) {
+        return impl.get(this.key(file));
+    }
+
+    public void put(final Path file, final String id) {
+        if(StringUtils.isBlank(id)) {
+            return;
+        }
+        impl.put(this.key(file), id);
+    }
+
+    /**
+     * Cache identifiers of all children in listing. Previous versions are skipped and of multiple files with the
+     * same name the most recently modified is cached.
+     *
+     * @param list Directory listing
+     */
+    public void put(final AttributedList<Path> list) {
+        final Map<String, Path> latest = new HashMap<String, Path>();
+        for(Path file : list) {
+            if(StringUtils.isBlank(file.attributes().getVersionId())) {
+                continue;
+            }
+            if(file.attributes().isDuplicate()) {
+                continue;
+            }
+            final String key = this.key(file);
+            final Path previous = latest.get(key);
+            if(null == previous || previous.attributes().getModificationDate() < file.attributes().getModificationDate()) {
+                latest.put(key, file);
+            }
+        }
+        for(Map.Entry<String, Path> entry : latest.entrySet()) {
+            impl.put(entry.getKey(), entry.getValue().attributes().getVersionId());
+        }
+    }
+
+    /**
+     * Lookup identifier in cache or load once when concurrently requested for the same file
+     *
+     * @param file   File or directory
+     * @param loader Lookup for file not cached
+     * @return Identifier of file
+     */
+    public String get(final Path file, final Loader loader) throws BackgroundException {
+        final String key = this.key(file);
+        final String cached = impl.get(key);
+        if(null != cached) {
+            return cached;
+        }
+        final Object lock = new Object();
+        final Object existing = locks.putIfAbsent(key, lock);
+        final Object monitor = null == existing ? lock : existing;
+        try {
+            synchronized(monitor) {
+                // Loaded by concurrent lookup
+                final String loaded = impl.get(key);
+                if(null != loaded) {
+                    return loaded;
+                }
+                final String id = loader.load(file);
+                this.put(file, id);
+                return id;
+            }
+        }
+        finally {
+            locks.remove(key, lock);
+        }
+    }
+
+    /**
+     * Invalidate identifier of file and all descendants if directory
+     *
+     * @param file File or directory moved or deleted
+     */
+    public void remove(final Path file) {
+        final String key = this.key(file);
+        impl.remove(key);
+        if(file.isDirectory()) {
+            for(String k : impl.keySet()) {
+                if(k.startsWith(key)) {
+                    impl.remove(k);
+                }
+            }
+        }
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Removed %s from cache", file));
+        }
+    }
+
+    public void clear() {
+        impl.clear();
+    }
+
+    public int size() {
+        return impl.size();
+    }
+
+    public CacheStatistics getStatistics() {
+        return impl.getStatistics();
+    }
+
+    /**
+     * @return Absolute path with trailing delimiter for directories
+     */
+    private String key(final Path file) {
+        if(file.isDirectory()) {
+            if(file.isRoot()) {
+                return file.getAbsolute();
+            }
+            return String.format("%s%s", file.getAbsolute(), Path.DELIMITER);
+        }
+        return file.getAbsolute();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("FileidCache{");
+        sb.append("size=").append(impl.size());
+        sb.append(", statistics=").append(impl.getStatistics());
+        sb.append('}');
+        return sb.toString();
+    }
+}
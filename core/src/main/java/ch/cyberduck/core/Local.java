@@ -22,6 +22,7 @@ import ch.cyberduck.core.exception.AccessDeniedException;
 import ch.cyberduck.core.exception.LocalAccessDeniedException;
 import ch.cyberduck.core.exception.LocalNotfoundException;
 import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.io.FileChannelOutputStream;
 import ch.cyberduck.core.io.LocalRepeatableFileInputStream;
 import ch.cyberduck.core.local.TildeExpander;
 import ch.cyberduck.core.local.WorkdirPrefixer;
@@ -41,6 +42,8 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
@@ -48,6 +51,7 @@ import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.text.MessageFormat;
 import java.util.EnumSet;
 import java.util.Objects;
@@ -403,6 +407,37 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
         }
     }
 
+    /**
+     * Open file for writing at offset without truncating existing content. Distinct regions of the same file
+     * can be written concurrently with multiple streams.
+     *
+     * @param offset Position in file to start writing at
+     */
+    public OutputStream getRandomAccessOutputStream(final long offset) throws AccessDeniedException {
+        try {
+            final FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            channel.position(offset);
+            return new FileChannelOutputStream(channel);
+        }
+        catch(IOException e) {
+            throw new LocalAccessDeniedException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Create file if missing and truncate or extend to length
+     *
+     * @param length Size of file
+     */
+    public void setLength(final long length) throws AccessDeniedException {
+        try (RandomAccessFile file = new RandomAccessFile(path, "rw")) {
+            file.setLength(length);
+        }
+        catch(IOException e) {
+            throw new LocalAccessDeniedException(e.getMessage(), e);
+        }
+    }
+
     public Object lock(final boolean interactive) throws AccessDeniedException {
         return null;
     }
@@ -15,9 +15,29 @@ package ch.cyberduck.core;
  * GNU General Public License for more details.
  */
 
+import ch.cyberduck.core.metrics.Histogram;
+
 public interface Metrics {
 
     <T> void increment(T key);
 
     <T> long get(T key);
+
+    /**
+     * @param key   Counter
+     * @param delta Value to add such as number of bytes transferred
+     */
+    <T> void add(T key, long delta);
+
+    /**
+     * @param key   Histogram
+     * @param value Sample such as a duration in nanoseconds
+     */
+    <T> void record(T key, long value);
+
+    /**
+     * @param key Histogram
+     * @return Null if no sample was recorded
+     */
+    <T> Histogram histogram(T key);
 }
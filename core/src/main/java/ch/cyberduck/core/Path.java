@@ -52,6 +52,11 @@ public class Path extends AbstractPath implements Referenceable, Serializable {
      */
     private final PathAttributes attributes;
 
+    /**
+     * Cached identity for hash code and equality. Recomputed when type, region or version changed.
+     */
+    private volatile Identity identity;
+
     /**
      * @param parent the absolute directory
      * @param name   the file relative to param path
@@ -220,29 +225,44 @@ public class Path extends AbstractPath implements Referenceable, Serializable {
     }
 
     /**
-     * @return The hashcode of #getAbsolute()
-     * @see #getAbsolute()
+     * @return The hashcode of the string representation of {@link DefaultPathPredicate}
+     * @see DefaultPathPredicate#toString()
      */
     @Override
     public int hashCode() {
-        return new DefaultPathPredicate(this).hashCode();
+        return this.identity().hash;
     }
 
     /**
      * @param other Path to compare with
-     * @return true if the other path has the same absolute path name
+     * @return true if the other path has the same absolute path name, type, region and version
      */
     @Override
     public boolean equals(Object other) {
         if(null == other) {
             return false;
         }
+        if(this == other) {
+            return true;
+        }
         if(other instanceof Path) {
-            return new DefaultPathPredicate(this).equals(new DefaultPathPredicate((Path) other));
+            final Identity identity = this.identity();
+            final Identity that = ((Path) other).identity();
+            return identity.hash == that.hash && identity.key.equals(that.key);
         }
         return false;
     }
 
+    private Identity identity() {
+        final Identity current = identity;
+        if(current != null && current.isValid(this)) {
+            return current;
+        }
+        final Identity computed = new Identity(this);
+        identity = computed;
+        return computed;
+    }
+
     /**
      * @return The absolute path name
      */
@@ -283,4 +303,31 @@ public class Path extends AbstractPath implements Referenceable, Serializable {
         }
         return false;
     }
-}
\ No newline at end of file
+
+    /**
+     * Key computed once from the state it depends on. Type and attributes are mutable and compared on every
+     * access to detect changes without allocation.
+     */
+    private static final class Identity {
+        private final EnumSet<Type> type;
+        private final String region;
+        private final String version;
+        private final String key;
+        private final int hash;
+
+        public Identity(final Path file) {
+            // Capture state before computing the key so that concurrent modifications invalidate it
+            this.type = EnumSet.copyOf(file.getType());
+            this.region = file.attributes().getRegion();
+            this.version = file.attributes().getVersionId();
+            this.key = new DefaultPathPredicate(file).toString();
+            this.hash = key.hashCode();
+        }
+
+        public boolean isValid(final Path file) {
+            return region == file.attributes().getRegion()
+                    && version == file.attributes().getVersionId()
+                    && type.equals(file.getType());
+        }
+    }
+}
@@ -32,6 +32,12 @@ import ch.cyberduck.core.features.Read;
 import ch.cyberduck.core.features.Search;
 import ch.cyberduck.core.features.Upload;
 import ch.cyberduck.core.features.Write;
+import ch.cyberduck.core.metrics.MetricsAttributesFinderFeature;
+import ch.cyberduck.core.metrics.MetricsFindFeature;
+import ch.cyberduck.core.metrics.MetricsListService;
+import ch.cyberduck.core.metrics.MetricsReadFeature;
+import ch.cyberduck.core.metrics.MetricsRegistry;
+import ch.cyberduck.core.metrics.MetricsWriteFeature;
 import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.proxy.Proxy;
@@ -67,7 +73,7 @@ public abstract class Session<C> implements ListService, TranscriptListener {
      */
     protected final Host host;
 
-    private Metrics metrics = new DisabledMetrics();
+    private Metrics metrics = MetricsRegistry.get().getMetrics();
 
     /**
      * Connection
@@ -296,7 +302,40 @@ public abstract class Session<C> implements ListService, TranscriptListener {
     @SuppressWarnings("unchecked")
     public <T> T getFeature(final Class<T> type) {
         metrics.increment(type);
-        return this.getFeature(type, this._getFeature(type));
+        return this.instrument(type, this.getFeature(type, this._getFeature(type)));
+    }
+
+    /**
+     * Record latency of feature when metrics are enabled
+     *
+     * @param type    Feature type
+     * @param feature Feature implementation
+     * @return Feature implementation
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T instrument(final Class<T> type, final T feature) {
+        if(null == feature) {
+            return null;
+        }
+        if(metrics instanceof DisabledMetrics) {
+            return feature;
+        }
+        if(type == ListService.class) {
+            return (T) new MetricsListService((ListService) feature, metrics);
+        }
+        if(type == Read.class) {
+            return (T) new MetricsReadFeature((Read) feature, metrics);
+        }
+        if(type == Write.class) {
+            return (T) new MetricsWriteFeature((Write) feature, metrics);
+        }
+        if(type == Find.class) {
+            return (T) new MetricsFindFeature((Find) feature, metrics);
+        }
+        if(type == AttributesFinder.class) {
+            return (T) new MetricsAttributesFinderFeature((AttributesFinder) feature, metrics);
+        }
+        return feature;
     }
 
     /**
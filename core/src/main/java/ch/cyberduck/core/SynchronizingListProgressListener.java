@@ -0,0 +1,43 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+
+/**
+ * Serialize notifications from listings running in parallel
+ */
+public class SynchronizingListProgressListener implements ListProgressListener {
+    private final ListProgressListener proxy;
+
+    public SynchronizingListProgressListener(final ListProgressListener proxy) {
+        this.proxy = proxy;
+    }
+
+    @Override
+    public void chunk(final Path folder, final AttributedList<Path> list) throws ConnectionCanceledException {
+        synchronized(this) {
+            proxy.chunk(folder, list);
+        }
+    }
+
+    @Override
+    public void message(final String message) {
+        synchronized(this) {
+            proxy.message(message);
+        }
+    }
+}
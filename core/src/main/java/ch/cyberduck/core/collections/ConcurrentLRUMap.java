@@ -0,0 +1,270 @@
+package ch.cyberduck.core.collections;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.apache.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrent map with approximate least recently used eviction. Lookups and insertions do not take a global lock.
+ * Eviction is bounded by number of entries and the total weight of all values and evicts the least recently
+ * accessed entries down to a low watermark in a single pass so its cost is amortized over many insertions.
+ * Entries optionally expire after a fixed time to live.
+ *
+ * @param <K> Key
+ * @param <V> Value
+ */
+public class ConcurrentLRUMap<K, V> {
+    private static final Logger log = Logger.getLogger(ConcurrentLRUMap.class);
+
+    /**
+     * Evict down to this fraction of the limits when exceeded
+     */
+    private static final double LOW_WATERMARK = 0.9d;
+
+    public interface Weigher<V> {
+        /**
+         * @param value Value
+         * @return Weight of value counted towards maximum weight
+         */
+        int weigh(V value);
+    }
+
+    private static final Weigher SINGLETON = new Weigher() {
+        @Override
+        public int weigh(final Object value) {
+            return 1;
+        }
+    };
+
+    private final ConcurrentHashMap<K, Entry<V>> impl
+        = new ConcurrentHashMap<K, Entry<V>>();
+
+    private final int capacity;
+    private final long weight;
+    private final long ttl;
+    private final Weigher<V> weigher;
+
+    /**
+     * Logical clock for access order
+     */
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param capacity Maximum number of entries
+     */
+    public ConcurrentLRUMap(final int capacity) {
+        this(capacity, Long.MAX_VALUE, (Weigher<V>) SINGLETON, -1L);
+    }
+
+    /**
+     * @param capacity Maximum number of entries. Zero to disable caching and Integer.MAX_VALUE for unlimited.
+     * @param weight   Maximum total weight of all values
+     * @param weigher  Weight of single value
+     * @param ttl      Time to live for entries in milliseconds or -1 for no expiry
+     */
+    public ConcurrentLRUMap(final int capacity, final long weight, final Weigher<V> weigher, final long ttl) {
+        this.capacity = capacity;
+        this.weight = weight;
+        this.weigher = weigher;
+        this.ttl = ttl;
+    }
+
+    /**
+     * @param key Key
+     * @return Null if not found or expired
+     */
+    public V get(final K key) {
+        final Entry<V> entry = this.lookup(key);
+        if(null == entry) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        entry.access = clock.incrementAndGet();
+        return entry.value;
+    }
+
+    /**
+     * Lookup without updating access order or statistics
+     *
+     * @param key Key
+     * @return True if a value is stored and has not expired
+     */
+    public boolean containsKey(final K key) {
+        return null != this.lookup(key);
+    }
+
+    private Entry<V> lookup(final K key) {
+        final Entry<V> entry = impl.get(key);
+        if(null == entry) {
+            return null;
+        }
+        if(entry.isExpired()) {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Remove expired entry for %s", key));
+            }
+            if(impl.remove(key, entry)) {
+                total.addAndGet(-entry.weight);
+            }
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * @return Previous value
+     */
+    public V put(final K key, final V value) {
+        if(0 == capacity) {
+            return null;
+        }
+        final Entry<V> entry = new Entry<V>(value, weigher.weigh(value), clock.incrementAndGet(),
+            ttl < 0 ? Long.MAX_VALUE : System.currentTimeMillis() + ttl);
+        final Entry<V> previous = impl.put(key, entry);
+        total.addAndGet(entry.weight);
+        if(null != previous) {
+            total.addAndGet(-previous.weight);
+        }
+        if(impl.size() > capacity || total.get() > weight) {
+            this.evict();
+        }
+        return null == previous ? null : previous.value;
+    }
+
+    /**
+     * @return Previous value
+     */
+    public V remove(final K key) {
+        final Entry<V> previous = impl.remove(key);
+        if(null == previous) {
+            return null;
+        }
+        total.addAndGet(-previous.weight);
+        return previous.value;
+    }
+
+    /**
+     * Evict least recently used entries until below low watermark. Skipped if another thread is already evicting.
+     */
+    private void evict() {
+        if(!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            final List<Map.Entry<K, Entry<V>>> candidates = new ArrayList<Map.Entry<K, Entry<V>>>(impl.entrySet());
+            Collections.sort(candidates, new Comparator<Map.Entry<K, Entry<V>>>() {
+                @Override
+                public int compare(final Map.Entry<K, Entry<V>> o1, final Map.Entry<K, Entry<V>> o2) {
+                    return Long.compare(o1.getValue().access, o2.getValue().access);
+                }
+            });
+            final long entries = Math.max(1L, (long) (capacity * LOW_WATERMARK));
+            final long weights = (long) (weight * LOW_WATERMARK);
+            // Never evict most recently used entry
+            for(Map.Entry<K, Entry<V>> candidate : candidates.subList(0, Math.max(0, candidates.size() - 1))) {
+                if(impl.size() <= entries && total.get() <= weights) {
+                    break;
+                }
+                if(impl.remove(candidate.getKey(), candidate.getValue())) {
+                    total.addAndGet(-candidate.getValue().weight);
+                    evictions.increment();
+                    if(log.isDebugEnabled()) {
+                        log.debug(String.format("Evict %s", candidate.getKey()));
+                    }
+                }
+            }
+        }
+        finally {
+            evicting.set(false);
+        }
+    }
+
+    public boolean isEmpty() {
+        return impl.isEmpty();
+    }
+
+    public int size() {
+        return impl.size();
+    }
+
+    /**
+     * @return Sum of weight of all values
+     */
+    public long weight() {
+        return total.get();
+    }
+
+    /**
+     * @return Live view of keys. Iteration never throws concurrent modification exception.
+     */
+    public Set<K> keySet() {
+        return impl.keySet();
+    }
+
+    public void clear() {
+        impl.clear();
+        total.set(0L);
+    }
+
+    public CacheStatistics getStatistics() {
+        return new CacheStatistics(hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final int weight;
+        private final long expiry;
+        private volatile long access;
+
+        public Entry(final V value, final int weight, final long access, final long expiry) {
+            this.value = value;
+            this.weight = weight;
+            this.access = access;
+            this.expiry = expiry;
+        }
+
+        public boolean isExpired() {
+            return System.currentTimeMillis() > expiry;
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ConcurrentLRUMap{");
+        sb.append("size=").append(impl.size());
+        sb.append(", weight=").append(total.get());
+        sb.append(", statistics=").append(this.getStatistics());
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -20,10 +20,13 @@ package ch.cyberduck.core.http;
  */
 
 import ch.cyberduck.core.Host;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.proxy.ProxyFactory;
 import ch.cyberduck.core.ssl.SSLSession;
 import ch.cyberduck.core.ssl.ThreadLocalHostnameDelegatingTrustManager;
 import ch.cyberduck.core.ssl.X509KeyManager;
+import ch.cyberduck.core.threading.SharedThreadPool;
+import ch.cyberduck.core.threading.ThreadPool;
 
 import javax.net.SocketFactory;
 
@@ -31,6 +34,11 @@ public abstract class HttpSession<C> extends SSLSession<C> {
 
     protected HttpConnectionPoolBuilder builder;
 
+    /**
+     * Executor for parts of large files shared by all transfers using this session
+     */
+    private SharedThreadPool parts;
+
     protected HttpSession(final Host host, final ThreadLocalHostnameDelegatingTrustManager trust, final X509KeyManager key) {
         super(host, trust, key);
         this.builder = new HttpConnectionPoolBuilder(host, trust, key, ProxyFactory.get());
@@ -44,4 +52,29 @@ public abstract class HttpSession<C> extends SSLSession<C> {
     public void setBuilder(final HttpConnectionPoolBuilder builder) {
         this.builder = builder;
     }
+
+    /**
+     * Tasks of all files are scheduled round robin in a pool limited to the maximum number of connections per route
+     * of the connection manager.
+     *
+     * @param concurrency Maximum number of parts of a single file in flight
+     * @return Pool to submit parts of a single file to. Shutdown when the file is complete
+     */
+    public synchronized ThreadPool getPartPool(final int concurrency) {
+        if(null == parts) {
+            parts = new SharedThreadPool("parts", PreferencesFactory.get().getInteger("http.connections.route"));
+        }
+        return parts.lane(concurrency);
+    }
+
+    @Override
+    protected void disconnect() {
+        synchronized(this) {
+            if(parts != null) {
+                parts.shutdown();
+                parts = null;
+            }
+        }
+        super.disconnect();
+    }
 }
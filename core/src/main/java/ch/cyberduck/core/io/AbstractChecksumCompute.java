@@ -34,6 +34,16 @@ import java.security.NoSuchAlgorithmException;
 
 public abstract class AbstractChecksumCompute implements ChecksumCompute {
 
+    /**
+     * Buffer reused for all checksum computations on the same thread
+     */
+    private static final ThreadLocal<byte[]> buffer = new ThreadLocal<byte[]>() {
+        @Override
+        protected byte[] initialValue() {
+            return new byte[65536];
+        }
+    };
+
     public Checksum compute(final String data, final TransferStatus status) throws ChecksumException {
         try {
             return this.compute(new ByteArrayInputStream(Hex.decodeHex(data.toCharArray())), status);
@@ -52,7 +62,7 @@ public abstract class AbstractChecksumCompute implements ChecksumCompute {
             throw new ChecksumException(LocaleFactory.localizedString("Checksum failure", "Error"), e.getMessage(), e);
         }
         try {
-            byte[] buffer = new byte[16384];
+            final byte[] buffer = this.buffer();
             int bytesRead;
             while((bytesRead = in.read(buffer, 0, buffer.length)) != -1) {
                 md.update(buffer, 0, bytesRead);
@@ -66,4 +76,11 @@ public abstract class AbstractChecksumCompute implements ChecksumCompute {
         }
         return md.digest();
     }
+
+    /**
+     * @return Buffer for exclusive use by the calling thread
+     */
+    protected byte[] buffer() {
+        return buffer.get();
+    }
 }
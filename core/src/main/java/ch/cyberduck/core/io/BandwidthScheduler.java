@@ -0,0 +1,113 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.log4j.Logger;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Bandwidth limits shared by all transfers. The throttle of a transfer is limited by the throttle for its host which
+ * is limited by the global throttle for all transfers.
+ */
+public final class BandwidthScheduler {
+    private static final Logger log = Logger.getLogger(BandwidthScheduler.class);
+
+    private static final BandwidthScheduler instance = new BandwidthScheduler(
+        PreferencesFactory.get().getFloat("queue.bandwidth.global.bytes"),
+        PreferencesFactory.get().getFloat("queue.bandwidth.host.bytes"));
+
+    public static BandwidthScheduler get() {
+        return instance;
+    }
+
+    private final BandwidthThrottle global;
+    private final ConcurrentMap<String, BandwidthThrottle> hosts
+        = new ConcurrentHashMap<String, BandwidthThrottle>();
+
+    /**
+     * Default limit for new hosts
+     */
+    private volatile float host;
+
+    /**
+     * @param global Bytes per second for all transfers
+     * @param host   Bytes per second for all transfers to the same host
+     */
+    public BandwidthScheduler(final float global, final float host) {
+        this.global = new BandwidthThrottle(global);
+        this.host = host;
+    }
+
+    /**
+     * @return Limit for all transfers
+     */
+    public BandwidthThrottle getGlobal() {
+        return global;
+    }
+
+    /**
+     * @param hostname Server
+     * @return Limit for all transfers to hostname
+     */
+    public BandwidthThrottle getHost(final String hostname) {
+        if(null == hostname) {
+            return global;
+        }
+        final BandwidthThrottle existing = hosts.get(hostname);
+        if(existing != null) {
+            return existing;
+        }
+        final BandwidthThrottle throttle = new BandwidthThrottle(host, global);
+        final BandwidthThrottle previous = hosts.putIfAbsent(hostname, throttle);
+        if(null == previous) {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Create bandwidth throttle %s for %s", throttle, hostname));
+            }
+            return throttle;
+        }
+        return previous;
+    }
+
+    /**
+     * @param bytesPerSecond Limit for all transfers
+     */
+    public void setGlobal(final float bytesPerSecond) {
+        global.setRate(bytesPerSecond);
+    }
+
+    /**
+     * @param bytesPerSecond Limit for transfers to any single host
+     */
+    public void setHost(final float bytesPerSecond) {
+        host = bytesPerSecond;
+        for(BandwidthThrottle throttle : hosts.values()) {
+            throttle.setRate(bytesPerSecond);
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("BandwidthScheduler{");
+        sb.append("global=").append(global);
+        sb.append(", hosts=").append(hosts.size());
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -2,14 +2,18 @@ package ch.cyberduck.core.io;
 
 import org.apache.log4j.Logger;
 
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
- * Limits throughput of a stream to at most N bytes per T seconds.  Mutable and
- * thread-safe.<p>
+ * Limits throughput of streams to at most N bytes per second.  Mutable and
+ * thread-safe without locking.<p>
  * <p/>
  * In the following example, <tt>throttle</tt> is used to send the contents of
- * <tt>buf</tt> to <tt>out</tt> at no more than <tt>N/T</tt> bytes per second:
+ * <tt>buf</tt> to <tt>out</tt> at no more than <tt>N</tt> bytes per second:
  * <pre>
- *      BandwidthThrottle throttle=new BandwidthThrottle(N, T);
+ *      BandwidthThrottle throttle=new BandwidthThrottle(N);
  *      OutputStream out=...;
  *      byte[] buf=...;
  *      for (int i=0; i<buf.length; ) {
@@ -19,38 +23,42 @@ import org.apache.log4j.Logger;
  *      }
  * </pre>
  * <p/>
- * This class works by allowing exactly N bytes to be sent every T seconds.  If
- * the number of bytes for a given window have been exceeded, subsequent calls
- * to request(..) will block.  The default value of T is 100 milliseconds.
- * Smaller window values T allow fairer bandwidth sharing and less noticeable
- * pauses but may decrease efficiency slightly.<p>
+ * Bytes are paced by keeping the time when all bytes granted so far are due at
+ * the configured rate. A request is granted as many bytes as are available within
+ * a window of 10 milliseconds and blocks otherwise. Bytes not requested by one
+ * stream are available to all other streams sharing the throttle. With multiple
+ * streams registered a single request is granted at most an equal share of the
+ * window.<p>
  * <p/>
- * Note that throttles are <i>not</i> cumulative.  In the future, this may allow
- * enable fancier control.  Also, BandwidthThrottle may be able delegate to
- * other throttles.  This would allow, for example, a 15 KB/s Gnutella messaging
- * throttle, with no more than 10 KB/s devoted to uploads.<p>
+ * Throttles are hierarchical. A throttle with a parent only grants bytes also
+ * granted by the parent such that a transfer limit is shared with the limits
+ * for all transfers to the same host and all transfers in total.<p>
  * <p/>
- * This implementation is based on the <a href="http://cvs.sourceforge.net/cgi-bin/viewcvs.cgi/freenet/freenet/src/freenet/support/io/Bandwidth.java">Bandwidth</a>
- * class from
- * the Freenet project.  It has been simplified and better documented.<p>
-
+ * This implementation was originally based on the <a href="http://cvs.sourceforge.net/cgi-bin/viewcvs.cgi/freenet/freenet/src/freenet/support/io/Bandwidth.java">Bandwidth</a>
+ * class from the Freenet project.<p>
  */
 public final class BandwidthThrottle {
     private static final Logger log = Logger.getLogger(BandwidthThrottle.class);
 
     /**
-     * The number of windows per second.
+     * Pacing window in nanoseconds
+     */
+    private static final long WINDOW = TimeUnit.MILLISECONDS.toNanos(10L);
+
+    /**
+     * No throttling
      */
-    private static final int TICKS_PER_SECOND = 10;
+    public static final int UNLIMITED = -1;
+
     /**
-     * The value of T, in milliseconds.
+     * Bytes per second allowed
      */
-    private static final int MILLIS_PER_TICK = 1000 / TICKS_PER_SECOND;
+    private volatile float rate = UNLIMITED;
 
     /**
-     * The bytes to send per tick.  Modified by setThrottle.
+     * Nanoseconds per byte
      */
-    private volatile int bytesPerTick;
+    private volatile double interval;
 
     /**
      * Whether or not we're only allowing bandwidth to be used every other
@@ -59,18 +67,22 @@ public final class BandwidthThrottle {
     private volatile boolean switching = false;
 
     /**
-     * The number of bytes remaining in this window.
+     * Limit shared with other throttles or null
+     */
+    private volatile BandwidthThrottle parent;
+
+    /**
+     * Time in nanoseconds when all bytes granted are due
      */
-    private int availableBytes;
+    private final AtomicLong due = new AtomicLong(System.nanoTime());
+
     /**
-     * The system time when the window is reset so more bytes can be sent.
+     * Number of streams sharing this throttle
      */
-    private long nextTickTime;
+    private final AtomicInteger streams = new AtomicInteger();
 
     /**
      * Creates a new bandwidth throttle at the given throttle rate.
-     * The default windows size T is used.  The bytes per windows N
-     * is calculated from bytesPerSecond.
      *
      * @param bytesPerSecond the limits in bytes (not bits!) per second
      *                       (not milliseconds!)
@@ -83,8 +95,6 @@ public final class BandwidthThrottle {
      * Creates a new bandwidth throttle at the given throttle rate,
      * only allowing bandwidth to be used every other second if
      * switching is true.
-     * The default windows size T is used.  The bytes per windows N
-     * is calculated from bytesPerSecond.
      *
      * @param bytesPerSecond the limits in bytes (not bits!) per second
      *                       (not milliseconds!)
@@ -94,28 +104,25 @@ public final class BandwidthThrottle {
     public BandwidthThrottle(float bytesPerSecond, boolean switching) {
         this.setRate(bytesPerSecond);
         this.setSwitching(switching);
-
     }
 
     /**
-     * No throttling
-     */
-    public static final int UNLIMITED = -1;
-
-    /**
-     * Bytes per second allowed
+     * @param bytesPerSecond the limits in bytes (not bits!) per second
+     * @param parent         Limit shared with other throttles or null
      */
-    private float rate = UNLIMITED;
+    public BandwidthThrottle(float bytesPerSecond, BandwidthThrottle parent) {
+        this.setRate(bytesPerSecond);
+        this.setParent(parent);
+    }
 
     /**
-     * Sets the throttle to the given throttle rate.  The default windows size
-     * T is used.  The bytes per windows N is calculated from bytesPerSecond.
+     * Sets the throttle to the given throttle rate.
      *
      * @param bytesPerSecond the limits in bytes (not bits!) per second
      *                       (not milliseconds!)
      */
     public void setRate(float bytesPerSecond) {
-        if(bytesPerSecond < 0) {
+        if(bytesPerSecond <= 0) {
             rate = UNLIMITED;
         }
         else {
@@ -123,11 +130,8 @@ public final class BandwidthThrottle {
                 log.debug(String.format("Set rate to %s bytes per second", bytesPerSecond));
             }
             rate = bytesPerSecond;
-            bytesPerTick = (int) (bytesPerSecond / TICKS_PER_SECOND);
-        }
-        if(switching) {
-            this.fixBytesPerTick(true);
         }
+        this.update();
     }
 
     /**
@@ -142,88 +146,154 @@ public final class BandwidthThrottle {
      */
     public void setSwitching(boolean switching) {
         log.debug("setSwitching:" + switching);
-        if(this.switching != switching) {
-            fixBytesPerTick(switching);
-        }
         this.switching = switching;
+        this.update();
+    }
+
+    private void update() {
+        if(UNLIMITED == rate) {
+            return;
+        }
+        // Double the rate when only sending every other second
+        interval = TimeUnit.SECONDS.toNanos(1L) / (switching ? 2d * rate : rate);
     }
 
     /**
-     * Modifies bytesPerTick to either be double or half of what it was.
-     * This is necessary because of the 'switching', which can effectively
-     * reduce or raise the amount of data transferred.
+     * @param parent Limit shared with other throttles or null
      */
-    private void fixBytesPerTick(boolean raise) {
-        int newBytesPerTick = bytesPerTick;
-        if(raise) {
-            newBytesPerTick *= 2;
+    public void setParent(final BandwidthThrottle parent) {
+        if(this == parent) {
+            throw new IllegalArgumentException();
         }
-        else {
-            newBytesPerTick /= 2;
+        this.parent = parent;
+    }
+
+    public BandwidthThrottle getParent() {
+        return parent;
+    }
+
+    /**
+     * Stream sharing this throttle opened
+     */
+    public void register() {
+        streams.incrementAndGet();
+        final BandwidthThrottle p = parent;
+        if(null != p) {
+            p.register();
         }
-        if(newBytesPerTick < 0) // overflowed?
-        {
-            newBytesPerTick = Integer.MAX_VALUE;
+    }
+
+    /**
+     * Stream sharing this throttle closed
+     */
+    public void unregister() {
+        streams.decrementAndGet();
+        final BandwidthThrottle p = parent;
+        if(null != p) {
+            p.unregister();
         }
-        bytesPerTick = newBytesPerTick;
     }
 
     /**
      * Blocks until the caller can send at least one byte without violating
-     * bandwidth constraints.  Records the number of byte sent.
+     * bandwidth constraints of this throttle and all parents.  Records the number of byte sent.
      *
      * @param desired the number of bytes the caller would like to send
      * @return the number of bytes the sender is expected to send, which
      *         is always greater than one and less than or equal to desired
      */
-    public synchronized int request(int desired) {
-        if(UNLIMITED == rate) {
+    public int request(int desired) {
+        if(desired <= 0) {
             return desired;
         }
-        waitForBandwidth();
-        int result = Math.min(desired, availableBytes);
-        availableBytes -= result;
-        return result;
+        final boolean limited = UNLIMITED != rate;
+        int granted = desired;
+        if(limited) {
+            granted = this.acquire(desired);
+        }
+        final BandwidthThrottle p = parent;
+        if(null != p) {
+            final int allowed = p.request(granted);
+            if(limited && allowed < granted) {
+                this.refund(granted - allowed);
+            }
+            granted = allowed;
+        }
+        return granted;
+    }
+
+    /**
+     * Return bytes granted but not sent to be available for other streams
+     *
+     * @param unused Number of bytes not used from previous request
+     */
+    public void release(int unused) {
+        if(unused <= 0) {
+            return;
+        }
+        if(UNLIMITED != rate) {
+            this.refund(unused);
+        }
+        final BandwidthThrottle p = parent;
+        if(null != p) {
+            p.release(unused);
+        }
+    }
+
+    private void refund(final int unused) {
+        due.addAndGet(-(long) (unused * interval));
     }
 
     /**
-     * Waits until data is _availableBytes.
+     * Wait until bytes are available in current window
+     *
+     * @return Bytes granted
      */
-    private void waitForBandwidth() {
+    private int acquire(final int desired) {
         while(true) {
-            long now = System.currentTimeMillis();
-            updateWindow(now);
-            if(availableBytes != 0) {
-                break;
+            final double nanos = interval;
+            // Allow at least one byte per window for very low rates
+            final double window = Math.max(WINDOW, nanos);
+            final long now = System.nanoTime();
+            if(switching && ((System.currentTimeMillis() / 1000) % 2) != 0) {
+                // Wait for the next second
+                this.sleep(TimeUnit.MILLISECONDS.toNanos(1000 - (System.currentTimeMillis() % 1000)));
+                continue;
             }
-            try {
-                if(log.isInfoEnabled()) {
-                    log.info(String.format("Throttling bandwidth for %d milliseconds", nextTickTime - now));
+            final long current = due.get();
+            final long start = Math.max(current, now);
+            final long available = (long) ((now + window - start) / nanos);
+            if(available > 0) {
+                final int granted = (int) Math.min(Math.min(desired, available), this.share(window, nanos));
+                if(due.compareAndSet(current, start + (long) (granted * nanos))) {
+                    return granted;
                 }
-                Thread.sleep(nextTickTime - now);
-            }
-            catch(InterruptedException e) {
-                log.error(e.getMessage(), e);
+                // Concurrent request
+                continue;
             }
+            this.sleep((long) (start + nanos - window) - now);
         }
     }
 
     /**
-     * Updates _availableBytes and _nextTickTime if possible.
+     * @return Maximum number of bytes granted to a single stream per window
      */
-    private void updateWindow(long now) {
-        if(now >= nextTickTime) {
-            if(!switching || ((now / 1000) % 2) == 0) {
-                availableBytes = bytesPerTick;
-                nextTickTime = now + MILLIS_PER_TICK;
-            }
-            else {
-                availableBytes = 0;
-                // the next tick time is the time we'll hit
-                // the next second.
-                long diff = 1000 - (now % 1000);
-                nextTickTime = now + diff;
+    private long share(final double window, final double nanos) {
+        return Math.max(1L, (long) (window / nanos) / Math.max(1, streams.get()));
+    }
+
+    private void sleep(final long nanos) {
+        if(nanos <= 0) {
+            return;
+        }
+        try {
+            if(log.isTraceEnabled()) {
+                log.trace(String.format("Throttling bandwidth for %d nanoseconds", nanos));
             }
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        }
+        catch(InterruptedException e) {
+            log.error(e.getMessage(), e);
         }
     }
 
@@ -246,4 +316,14 @@ public final class BandwidthThrottle {
     public int hashCode() {
         return (rate != +0.0f ? Float.floatToIntBits(rate) : 0);
     }
-}
\ No newline at end of file
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("BandwidthThrottle{");
+        sb.append("rate=").append(rate);
+        sb.append(", streams=").append(streams);
+        sb.append(", parent=").append(parent);
+        sb.append('}');
+        return sb.toString();
+    }
+}
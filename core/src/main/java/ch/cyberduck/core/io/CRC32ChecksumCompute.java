@@ -25,13 +25,13 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.zip.CRC32;
 
-public class CRC32ChecksumCompute implements ChecksumCompute {
+public class CRC32ChecksumCompute extends AbstractChecksumCompute {
 
     @Override
     public Checksum compute(final InputStream in, final TransferStatus status) throws ChecksumException {
         final CRC32 crc32 = new CRC32();
         try {
-            byte[] buffer = new byte[16384];
+            final byte[] buffer = this.buffer();
             int bytesRead;
             while((bytesRead = in.read(buffer, 0, buffer.length)) != -1) {
                 crc32.update(buffer, 0, bytesRead);
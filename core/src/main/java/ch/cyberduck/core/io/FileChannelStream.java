@@ -0,0 +1,29 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import java.nio.channels.FileChannel;
+
+/**
+ * Stream reading from or writing to a file channel without transforming the content
+ */
+public interface FileChannelStream {
+
+    /**
+     * @return Channel with position shared with this stream
+     */
+    FileChannel getChannel();
+}
@@ -21,9 +21,11 @@ package ch.cyberduck.core.io;
 import org.jets3t.service.io.RepeatableFileInputStream;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.nio.channels.FileChannel;
 
-public class LocalRepeatableFileInputStream extends RepeatableFileInputStream {
+public class LocalRepeatableFileInputStream extends RepeatableFileInputStream implements FileChannelStream {
 
     /**
      * Creates a repeatable input stream based on a file.
@@ -34,4 +36,12 @@ public class LocalRepeatableFileInputStream extends RepeatableFileInputStream {
     public LocalRepeatableFileInputStream(final File file) throws FileNotFoundException {
         super(file);
     }
+
+    /**
+     * @return Channel of file stream currently read from. Replaced when stream is reset.
+     */
+    @Override
+    public FileChannel getChannel() {
+        return ((FileInputStream) this.getWrappedInputStream()).getChannel();
+    }
 }
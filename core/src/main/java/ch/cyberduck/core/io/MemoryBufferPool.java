@@ -0,0 +1,92 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.apache.log4j.Logger;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Fixed number of reusable byte arrays. Callers block in {@link #acquire(int)} until a buffer is
+ * returned with {@link #release(byte[])} when all buffers are in use.
+ */
+public class MemoryBufferPool {
+    private static final Logger log = Logger.getLogger(MemoryBufferPool.class);
+
+    private final Queue<byte[]> free = new ConcurrentLinkedQueue<byte[]>();
+    private final Semaphore permits;
+    private final int size;
+
+    /**
+     * @param count Maximum number of buffers handed out at the same time
+     * @param size  Length of pooled buffers
+     */
+    public MemoryBufferPool(final int count, final int size) {
+        this.permits = new Semaphore(Math.max(1, count), true);
+        this.size = size;
+    }
+
+    /**
+     * Wait for a free buffer
+     *
+     * @param length Minimum length of buffer required
+     * @return Buffer with at least the requested length
+     */
+    public byte[] acquire(final int length) throws InterruptedException {
+        permits.acquire();
+        if(length > size) {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Allocate buffer with length %d exceeding pool buffer size %d", length, size));
+            }
+            return new byte[length];
+        }
+        final byte[] buffer = free.poll();
+        if(null == buffer) {
+            return new byte[size];
+        }
+        return buffer;
+    }
+
+    /**
+     * Return buffer to pool
+     *
+     * @param buffer Buffer previously obtained from {@link #acquire(int)}
+     */
+    public void release(final byte[] buffer) {
+        if(buffer.length == size) {
+            free.offer(buffer);
+        }
+        permits.release();
+    }
+
+    /**
+     * @return Number of buffers available without blocking
+     */
+    public int available() {
+        return permits.availablePermits();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("MemoryBufferPool{");
+        sb.append("size=").append(size);
+        sb.append(", available=").append(permits.availablePermits());
+        sb.append('}');
+        return sb.toString();
+    }
+}
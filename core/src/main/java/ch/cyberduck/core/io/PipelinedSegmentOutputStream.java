@@ -0,0 +1,177 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.threading.ThreadPool;
+
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Uploads each segment written in the background while the caller continues to write. The number of segments
+ * in flight is bounded by the buffer pool. Writes block until a buffer is released by a completed segment upload.
+ *
+ * @param <Reply> Server response for uploaded segment
+ */
+public abstract class PipelinedSegmentOutputStream<Reply> extends OutputStream {
+    private static final Logger log = Logger.getLogger(PipelinedSegmentOutputStream.class);
+
+    private final ThreadPool pool;
+    private final MemoryBufferPool buffers;
+
+    /**
+     * Pending segments in order of submission
+     */
+    private final List<Future<Reply>> segments = new ArrayList<Future<Reply>>();
+    /**
+     * First failure of any segment upload
+     */
+    private final AtomicReference<BackgroundException> failure = new AtomicReference<BackgroundException>();
+    private final AtomicBoolean close = new AtomicBoolean();
+
+    private int segment;
+
+    /**
+     * @param pool    Pool to run segment uploads in. Shutdown when stream is closed
+     * @param buffers Buffers for segments in flight
+     */
+    public PipelinedSegmentOutputStream(final ThreadPool pool, final MemoryBufferPool buffers) {
+        this.pool = pool;
+        this.buffers = buffers;
+    }
+
+    @Override
+    public void write(final int value) throws IOException {
+        throw new IOException(new UnsupportedOperationException());
+    }
+
+    @Override
+    public void write(final byte[] content, final int off, final int len) throws IOException {
+        this.check();
+        final byte[] buffer;
+        try {
+            buffer = buffers.acquire(len);
+        }
+        catch(InterruptedException e) {
+            throw new IOException(e.getMessage(), new ConnectionCanceledException(e));
+        }
+        System.arraycopy(content, off, buffer, 0, len);
+        final int number = ++segment;
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Submit segment %d with length %d of %s", number, len, this));
+        }
+        try {
+            segments.add(pool.execute(new Callable<Reply>() {
+                @Override
+                public Reply call() throws BackgroundException {
+                    try {
+                        return upload(number, buffer, len);
+                    }
+                    catch(BackgroundException e) {
+                        failure.compareAndSet(null, e);
+                        throw e;
+                    }
+                    finally {
+                        buffers.release(buffer);
+                    }
+                }
+            }));
+        }
+        catch(RejectedExecutionException e) {
+            buffers.release(buffer);
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Fail early when any segment upload has failed
+     */
+    private void check() throws IOException {
+        final BackgroundException e = failure.get();
+        if(null != e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Wait for all segments submitted to complete
+     *
+     * @return Replies in order of segments written
+     */
+    protected List<Reply> await() throws IOException {
+        final List<Reply> replies = new ArrayList<Reply>(segments.size());
+        for(Future<Reply> future : segments) {
+            try {
+                replies.add(future.get());
+            }
+            catch(InterruptedException e) {
+                log.error("Segment upload failed with interrupt failure");
+                throw new IOException(e.getMessage(), new ConnectionCanceledException(e));
+            }
+            catch(ExecutionException e) {
+                log.warn(String.format("Segment upload failed with execution failure %s", e.getMessage()));
+                if(e.getCause() instanceof BackgroundException) {
+                    throw new IOException(e.getCause().getMessage(), e.getCause());
+                }
+                throw new IOException(e.getCause());
+            }
+        }
+        return replies;
+    }
+
+    /**
+     * @param segment Segment number starting with 1
+     * @param content Buffer with segment data. Must not be retained after returning.
+     * @param len     Number of bytes in buffer
+     * @return Server response
+     */
+    protected abstract Reply upload(int segment, byte[] content, int len) throws BackgroundException;
+
+    /**
+     * Invoked once all segments have been uploaded successfully
+     *
+     * @param replies Server responses in order of segments written
+     */
+    protected abstract void complete(List<Reply> replies) throws IOException;
+
+    @Override
+    public void close() throws IOException {
+        if(close.get()) {
+            log.warn(String.format("Skip double close of stream %s", this));
+            return;
+        }
+        try {
+            this.complete(this.await());
+        }
+        finally {
+            // Cancel pending segments on failure
+            pool.shutdown(false);
+            close.set(true);
+        }
+    }
+}
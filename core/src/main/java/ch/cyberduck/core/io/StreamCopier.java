@@ -25,9 +25,14 @@ import ch.cyberduck.core.preferences.PreferencesFactory;
 
 import org.apache.log4j.Logger;
 
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
 
 public final class StreamCopier {
     private static final Logger log = Logger.getLogger(StreamCopier.class);
@@ -45,6 +50,12 @@ public final class StreamCopier {
     private Integer chunksize
             = PreferencesFactory.get().getInteger("connection.chunksize");
 
+    /**
+     * Maximum number of bytes copied at once between file channels
+     */
+    private Integer channelsize
+            = PreferencesFactory.get().getInteger("connection.chunksize.channel");
+
     private Long offset = 0L;
 
     private Long limit = -1L;
@@ -79,7 +90,8 @@ public final class StreamCopier {
     }
 
     /**
-     * Updates the current number of bytes transferred in the status reference.
+     * Updates the current number of bytes transferred in the status reference. When both streams are backed
+     * by a file channel the content is copied from channel to channel without passing through a heap buffer.
      *
      * @param in  The stream to read from
      * @param out The stream to write to
@@ -90,39 +102,16 @@ public final class StreamCopier {
                 if(offset > 0) {
                     skip(in, offset);
                 }
-                final byte[] buffer = new byte[chunksize];
-                long total = 0;
-                int len = chunksize;
-                if(limit > 0 && limit < chunksize) {
-                    // Cast will work because chunk size is int
-                    len = limit.intValue();
+                final FileChannel source = channel(in);
+                final FileChannel target = channel(out);
+                if(null == source || null == target) {
+                    this.copy(in, out);
                 }
-                while(len > 0 && !cancel.isCanceled()) {
-                    final int read = in.read(buffer, 0, len);
-                    if(-1 == read) {
-                        if(log.isDebugEnabled()) {
-                            log.debug(String.format("End of file reached with %d bytes read from stream", total));
-                        }
-                        progress.setComplete();
-                        break;
-                    }
-                    else {
-                        listener.recv(read);
-                        out.write(buffer, 0, read);
-                        progress.progress(read);
-                        listener.sent(read);
-                        total += read;
-                    }
-                    if(limit > 0) {
-                        // Only adjust if not reading to the end of the stream. Cast will work because chunk size is int
-                        len = (int) Math.min(limit - total, chunksize);
-                    }
-                    if(limit == total) {
-                        if(log.isDebugEnabled()) {
-                            log.debug(String.format("Limit %d reached reading from stream", limit));
-                        }
-                        progress.setComplete();
-                    }
+                else {
+                    final List<BandwidthThrottle> throttles = new ArrayList<BandwidthThrottle>();
+                    throttles(in, throttles);
+                    throttles(out, throttles);
+                    this.copy(source, target, throttles);
                 }
             }
             catch(IOException e) {
@@ -148,6 +137,140 @@ public final class StreamCopier {
         }
     }
 
+    private void copy(final InputStream in, final OutputStream out) throws IOException {
+        final byte[] buffer = new byte[chunksize];
+        long total = 0;
+        int len = chunksize;
+        if(limit > 0 && limit < chunksize) {
+            // Cast will work because chunk size is int
+            len = limit.intValue();
+        }
+        while(len > 0 && !cancel.isCanceled()) {
+            final int read = in.read(buffer, 0, len);
+            if(-1 == read) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("End of file reached with %d bytes read from stream", total));
+                }
+                progress.setComplete();
+                break;
+            }
+            else {
+                listener.recv(read);
+                out.write(buffer, 0, read);
+                progress.progress(read);
+                listener.sent(read);
+                total += read;
+            }
+            if(limit > 0) {
+                // Only adjust if not reading to the end of the stream. Cast will work because chunk size is int
+                len = (int) Math.min(limit - total, chunksize);
+            }
+            if(limit == total) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Limit %d reached reading from stream", limit));
+                }
+                progress.setComplete();
+            }
+        }
+    }
+
+    /**
+     * Copy in chunks from the current position of the source to the current position of the target
+     * channel to allow for progress updates, throttling and cancelation between chunks.
+     *
+     * @param source    Channel to read from
+     * @param target    Channel to write to
+     * @param throttles Bandwidth throttles of wrapping streams bypassed
+     */
+    private void copy(final FileChannel source, final FileChannel target, final List<BandwidthThrottle> throttles) throws IOException {
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Transfer from channel %s to channel %s", source, target));
+        }
+        long position = source.position();
+        long total = 0;
+        int len = channelsize;
+        if(limit > 0 && limit < channelsize) {
+            len = limit.intValue();
+        }
+        while(len > 0 && !cancel.isCanceled()) {
+            for(BandwidthThrottle throttle : throttles) {
+                len = throttle.request(len);
+            }
+            final long transferred = source.transferTo(position, len, target);
+            if(0 == transferred && position >= source.size()) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("End of file reached with %d bytes read from channel", total));
+                }
+                progress.setComplete();
+                break;
+            }
+            listener.recv(transferred);
+            progress.progress(transferred);
+            listener.sent(transferred);
+            position += transferred;
+            total += transferred;
+            if(limit > 0) {
+                len = (int) Math.min(limit - total, channelsize);
+            }
+            else {
+                len = channelsize;
+            }
+            if(limit == total) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Limit %d reached reading from channel", limit));
+                }
+                progress.setComplete();
+            }
+        }
+        source.position(position);
+    }
+
+    /**
+     * @return File channel backing stream or null if content is transformed or not read from a file
+     */
+    private static FileChannel channel(final InputStream in) {
+        if(in instanceof ThrottledInputStream) {
+            return channel(((ThrottledInputStream) in).getDelegate());
+        }
+        if(in instanceof FileInputStream) {
+            return ((FileInputStream) in).getChannel();
+        }
+        if(in instanceof FileChannelStream) {
+            return ((FileChannelStream) in).getChannel();
+        }
+        return null;
+    }
+
+    /**
+     * @return File channel backing stream or null if content is transformed or not written to a file
+     */
+    private static FileChannel channel(final OutputStream out) {
+        if(out instanceof ThrottledOutputStream) {
+            return channel(((ThrottledOutputStream) out).getDelegate());
+        }
+        if(out instanceof FileOutputStream) {
+            return ((FileOutputStream) out).getChannel();
+        }
+        if(out instanceof FileChannelStream) {
+            return ((FileChannelStream) out).getChannel();
+        }
+        return null;
+    }
+
+    private static void throttles(final InputStream in, final List<BandwidthThrottle> throttles) {
+        if(in instanceof ThrottledInputStream) {
+            throttles.add(((ThrottledInputStream) in).getThrottle());
+            throttles(((ThrottledInputStream) in).getDelegate(), throttles);
+        }
+    }
+
+    private static void throttles(final OutputStream out, final List<BandwidthThrottle> throttles) {
+        if(out instanceof ThrottledOutputStream) {
+            throttles.add(((ThrottledOutputStream) out).getThrottle());
+            throttles(((ThrottledOutputStream) out).getDelegate(), throttles);
+        }
+    }
+
     public static InputStream skip(final InputStream in, final long offset) throws BackgroundException {
         try {
             long skipped = in.skip(offset);
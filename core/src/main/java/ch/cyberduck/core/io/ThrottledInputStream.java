@@ -22,6 +22,7 @@ import org.apache.commons.io.input.ProxyInputStream;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class ThrottledInputStream extends ProxyInputStream {
 
@@ -35,10 +36,13 @@ public class ThrottledInputStream extends ProxyInputStream {
      */
     private final BandwidthThrottle throttle;
 
+    private final AtomicBoolean close = new AtomicBoolean();
+
     public ThrottledInputStream(final InputStream delegate, final BandwidthThrottle throttle) {
         super(delegate);
         this.delegate = delegate;
         this.throttle = throttle;
+        this.throttle.register();
     }
 
     /**
@@ -51,6 +55,30 @@ public class ThrottledInputStream extends ProxyInputStream {
      */
     @Override
     public int read(byte[] data, int offset, int len) throws IOException {
-        return delegate.read(data, offset, throttle.request(len));
+        final int granted = throttle.request(len);
+        final int read = delegate.read(data, offset, granted);
+        // Leave share not read to other streams
+        throttle.release(granted - Math.max(read, 0));
+        return read;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        }
+        finally {
+            if(close.compareAndSet(false, true)) {
+                throttle.unregister();
+            }
+        }
+    }
+
+    public InputStream getDelegate() {
+        return delegate;
+    }
+
+    public BandwidthThrottle getThrottle() {
+        return throttle;
     }
 }
\ No newline at end of file
@@ -21,6 +21,7 @@ import org.apache.commons.io.output.ProxyOutputStream;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class ThrottledOutputStream extends ProxyOutputStream {
 
@@ -33,6 +34,8 @@ public class ThrottledOutputStream extends ProxyOutputStream {
      */
     private final BandwidthThrottle throttle;
 
+    private final AtomicBoolean close = new AtomicBoolean();
+
     /**
      * Wraps the delegate stream with the given throttle.
      *
@@ -43,6 +46,7 @@ public class ThrottledOutputStream extends ProxyOutputStream {
         super(delegate);
         this.delegate = delegate;
         this.throttle = throttle;
+        this.throttle.register();
     }
 
     /**
@@ -79,4 +83,24 @@ public class ThrottledOutputStream extends ProxyOutputStream {
             offset += length;
         }
     }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        }
+        finally {
+            if(close.compareAndSet(false, true)) {
+                throttle.unregister();
+            }
+        }
+    }
+
+    public OutputStream getDelegate() {
+        return delegate;
+    }
+
+    public BandwidthThrottle getThrottle() {
+        return throttle;
+    }
 }
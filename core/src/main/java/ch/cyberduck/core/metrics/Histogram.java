@@ -0,0 +1,138 @@
+package ch.cyberduck.core.metrics;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock free histogram with buckets of powers of two. Bucket <code>i</code> counts values from <code>2^(i-1)</code> to
+ * <code>2^i - 1</code> and bucket zero all values not greater than zero. Percentiles are approximated by the upper
+ * bound of the bucket and therefore at most twice the actual value.
+ */
+public final class Histogram {
+
+    public static final int BUCKETS = Long.SIZE;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * @param value Sample such as a duration in nanoseconds
+     */
+    public void record(final long value) {
+        buckets.incrementAndGet(index(value));
+        count.increment();
+        sum.add(Math.max(0L, value));
+        long current;
+        while((current = max.get()) < value) {
+            if(max.compareAndSet(current, value)) {
+                break;
+            }
+        }
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getSum() {
+        return sum.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * @param bucket Index of bucket
+     * @return Number of samples in bucket
+     */
+    public long getBucket(final int bucket) {
+        return buckets.get(bucket);
+    }
+
+    /**
+     * @return Index of highest bucket with samples or -1 if empty
+     */
+    public int getHighestBucket() {
+        for(int i = BUCKETS - 1; i >= 0; i--) {
+            if(buckets.get(i) > 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param quantile Between 0 and 1
+     * @return Upper bound of bucket containing the quantile or zero if empty
+     */
+    public long getPercentile(final double quantile) {
+        final long[] snapshot = new long[BUCKETS];
+        long total = 0L;
+        for(int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = buckets.get(i);
+            total += snapshot[i];
+        }
+        if(0L == total) {
+            return 0L;
+        }
+        final long rank = (long) Math.ceil(quantile * total);
+        long cumulative = 0L;
+        for(int i = 0; i < BUCKETS; i++) {
+            cumulative += snapshot[i];
+            if(cumulative >= rank && snapshot[i] > 0) {
+                return Math.min(upper(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * @param bucket Index of bucket
+     * @return Largest value counted in bucket
+     */
+    public static long upper(final int bucket) {
+        if(0 == bucket) {
+            return 0L;
+        }
+        if(bucket >= BUCKETS - 1) {
+            return Long.MAX_VALUE;
+        }
+        return (1L << bucket) - 1;
+    }
+
+    private static int index(final long value) {
+        if(value <= 0L) {
+            return 0;
+        }
+        return Long.SIZE - Long.numberOfLeadingZeros(value);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("Histogram{");
+        sb.append("count=").append(count.sum());
+        sb.append(", sum=").append(sum.sum());
+        sb.append(", max=").append(max.get());
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,90 @@
+package ch.cyberduck.core.metrics;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.CountingMetrics;
+import ch.cyberduck.core.collections.CacheStatistics;
+
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.google.gson.stream.JsonWriter;
+
+public class JsonMetricsFormatter implements MetricsFormatter {
+    private static final Logger log = Logger.getLogger(JsonMetricsFormatter.class);
+
+    @Override
+    public String format(final CountingMetrics metrics, final Map<String, CacheStatistics> caches) {
+        final StringWriter out = new StringWriter();
+        try {
+            final JsonWriter writer = new JsonWriter(out);
+            writer.setIndent("  ");
+            writer.beginObject();
+            writer.name("counters").beginObject();
+            final Map<String, Long> counters = new TreeMap<String, Long>();
+            for(Map.Entry<Object, Long> entry : metrics.getCounters().entrySet()) {
+                counters.put(MetricsRegistry.name(entry.getKey()), entry.getValue());
+            }
+            for(Map.Entry<String, Long> entry : counters.entrySet()) {
+                writer.name(entry.getKey()).value(entry.getValue());
+            }
+            writer.endObject();
+            writer.name("histograms").beginObject();
+            final Map<String, Histogram> histograms = new TreeMap<String, Histogram>();
+            for(Map.Entry<Object, Histogram> entry : metrics.getHistograms().entrySet()) {
+                histograms.put(MetricsRegistry.name(entry.getKey()), entry.getValue());
+            }
+            for(Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+                final Histogram histogram = entry.getValue();
+                writer.name(entry.getKey()).beginObject();
+                writer.name("count").value(histogram.getCount());
+                writer.name("sum").value(histogram.getSum());
+                writer.name("max").value(histogram.getMax());
+                writer.name("p50").value(histogram.getPercentile(0.5d));
+                writer.name("p90").value(histogram.getPercentile(0.9d));
+                writer.name("p99").value(histogram.getPercentile(0.99d));
+                writer.endObject();
+            }
+            writer.endObject();
+            writer.name("caches").beginObject();
+            for(Map.Entry<String, CacheStatistics> entry : caches.entrySet()) {
+                final CacheStatistics statistics = entry.getValue();
+                writer.name(entry.getKey()).beginObject();
+                writer.name("hits").value(statistics.getHits());
+                writer.name("misses").value(statistics.getMisses());
+                writer.name("evictions").value(statistics.getEvictions());
+                writer.name("ratio").value(statistics.getHitRatio());
+                writer.endObject();
+            }
+            writer.endObject();
+            writer.endObject();
+            writer.flush();
+        }
+        catch(IOException e) {
+            log.error(String.format("Failure %s writing metrics", e));
+        }
+        return out.toString();
+    }
+
+    @Override
+    public String getContentType() {
+        return "application/json; charset=utf-8";
+    }
+}
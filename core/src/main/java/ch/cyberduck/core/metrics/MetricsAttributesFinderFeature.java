@@ -0,0 +1,61 @@
+package ch.cyberduck.core.metrics;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Cache;
+import ch.cyberduck.core.Metrics;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathAttributes;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.features.AttributesFinder;
+
+public class MetricsAttributesFinderFeature implements AttributesFinder {
+
+    public static final String LATENCY = "attributes.latency.nanoseconds";
+
+    private final AttributesFinder proxy;
+    private final Metrics metrics;
+
+    public MetricsAttributesFinderFeature(final AttributesFinder proxy, final Metrics metrics) {
+        this.proxy = proxy;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public PathAttributes find(final Path file) throws BackgroundException {
+        final long start = System.nanoTime();
+        try {
+            return proxy.find(file);
+        }
+        finally {
+            metrics.record(LATENCY, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public AttributesFinder withCache(final Cache<Path> cache) {
+        proxy.withCache(cache);
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("MetricsAttributesFinderFeature{");
+        sb.append("proxy=").append(proxy);
+        sb.append('}');
+        return sb.toString();
+    }
+}
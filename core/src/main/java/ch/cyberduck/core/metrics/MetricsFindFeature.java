@@ -0,0 +1,60 @@
+package ch.cyberduck.core.metrics;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Cache;
+import ch.cyberduck.core.Metrics;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.features.Find;
+
+public class MetricsFindFeature implements Find {
+
+    public static final String LATENCY = "find.latency.nanoseconds";
+
+    private final Find proxy;
+    private final Metrics metrics;
+
+    public MetricsFindFeature(final Find proxy, final Metrics metrics) {
+        this.proxy = proxy;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public boolean find(final Path file) throws BackgroundException {
+        final long start = System.nanoTime();
+        try {
+            return proxy.find(file);
+        }
+        finally {
+            metrics.record(LATENCY, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public Find withCache(final Cache<Path> cache) {
+        proxy.withCache(cache);
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("MetricsFindFeature{");
+        sb.append("proxy=").append(proxy);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,85 @@
+package ch.cyberduck.core.metrics;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Serve metrics on the loopback interface. Prometheus text format at <code>/metrics</code> and JSON at
+ * <code>/metrics.json</code>.
+ */
+public class MetricsHttpServer {
+    private static final Logger log = Logger.getLogger(MetricsHttpServer.class);
+
+    private final MetricsRegistry registry;
+    private final int port;
+
+    private HttpServer server;
+
+    public MetricsHttpServer(final MetricsRegistry registry, final int port) {
+        this.registry = registry;
+        this.port = port;
+    }
+
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/metrics", new FormatterHandler(new PrometheusMetricsFormatter()));
+        server.createContext("/metrics.json", new FormatterHandler(new JsonMetricsFormatter()));
+        server.start();
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Serving metrics on %s", server.getAddress()));
+        }
+    }
+
+    public void stop() {
+        if(server != null) {
+            server.stop(0);
+        }
+    }
+
+    private final class FormatterHandler implements HttpHandler {
+        private final MetricsFormatter formatter;
+
+        public FormatterHandler(final MetricsFormatter formatter) {
+            this.formatter = formatter;
+        }
+
+        @Override
+        public void handle(final HttpExchange exchange) throws IOException {
+            try {
+                final byte[] body = registry.format(formatter).getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", formatter.getContentType());
+                exchange.sendResponseHeaders(200, body.length);
+                final OutputStream out = exchange.getResponseBody();
+                out.write(body);
+                out.close();
+            }
+            finally {
+                exchange.close();
+            }
+        }
+    }
+}
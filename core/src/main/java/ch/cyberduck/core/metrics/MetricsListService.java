@@ -0,0 +1,60 @@
+package ch.cyberduck.core.metrics;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.ListProgressListener;
+import ch.cyberduck.core.ListService;
+import ch.cyberduck.core.Metrics;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.BackgroundException;
+
+public class MetricsListService implements ListService {
+
+    public static final String LATENCY = "list.latency.nanoseconds";
+    public static final String FAILURES = "list.failures";
+
+    private final ListService proxy;
+    private final Metrics metrics;
+
+    public MetricsListService(final ListService proxy, final Metrics metrics) {
+        this.proxy = proxy;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public AttributedList<Path> list(final Path directory, final ListProgressListener listener) throws BackgroundException {
+        final long start = System.nanoTime();
+        try {
+            return proxy.list(directory, listener);
+        }
+        catch(BackgroundException e) {
+            metrics.increment(FAILURES);
+            throw e;
+        }
+        finally {
+            metrics.record(LATENCY, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("MetricsListService{");
+        sb.append("proxy=").append(proxy);
+        sb.append('}');
+        return sb.toString();
+    }
+}
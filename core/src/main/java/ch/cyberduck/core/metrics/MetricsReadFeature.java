@@ -0,0 +1,163 @@
+package ch.cyberduck.core.metrics;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.ConnectionCallback;
+import ch.cyberduck.core.DefaultIOExceptionMappingService;
+import ch.cyberduck.core.Metrics;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.features.Read;
+import ch.cyberduck.core.io.FileChannelStream;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.apache.commons.io.input.CountingInputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class MetricsReadFeature implements Read {
+
+    /**
+     * Time to open stream
+     */
+    public static final String LATENCY = "read.latency.nanoseconds";
+    public static final String FAILURES = "read.failures";
+    public static final String BYTES = "read.bytes";
+    /**
+     * Throughput of each stream from open until closed
+     */
+    public static final String THROUGHPUT = "read.throughput.bytes_per_second";
+
+    private final Read proxy;
+    private final Metrics metrics;
+
+    public MetricsReadFeature(final Read proxy, final Metrics metrics) {
+        this.proxy = proxy;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public InputStream read(final Path file, final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
+        final long start = System.nanoTime();
+        final InputStream in;
+        try {
+            in = proxy.read(file, status, callback);
+        }
+        catch(BackgroundException e) {
+            metrics.increment(FAILURES);
+            throw e;
+        }
+        finally {
+            metrics.record(LATENCY, System.nanoTime() - start);
+        }
+        if(in instanceof FileChannelStream) {
+            // Keep channel visible to copy from channel to channel bypassing the stream
+            final FileChannel channel = ((FileChannelStream) in).getChannel();
+            try {
+                return new ChannelMetricsInputStream(in, start, channel, channel.position());
+            }
+            catch(IOException e) {
+                throw new DefaultIOExceptionMappingService().map(e);
+            }
+        }
+        return new MetricsInputStream(in, start);
+    }
+
+    @Override
+    public boolean offset(final Path file) throws BackgroundException {
+        return proxy.offset(file);
+    }
+
+    private class MetricsInputStream extends CountingInputStream {
+        /**
+         * Time stream was opened
+         */
+        private final long start;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        public MetricsInputStream(final InputStream proxy, final long start) {
+            super(proxy);
+            this.start = start;
+        }
+
+        /**
+         * @return Number of bytes read
+         */
+        protected long count() {
+            return this.getByteCount();
+        }
+
+        @Override
+        public void close() throws IOException {
+            final long count = this.count();
+            try {
+                super.close();
+            }
+            finally {
+                if(closed.compareAndSet(false, true)) {
+                    metrics.add(BYTES, count);
+                    final long elapsed = System.nanoTime() - start;
+                    if(count > 0 && elapsed > 0) {
+                        metrics.record(THROUGHPUT, (long) ((double) count / elapsed * TimeUnit.SECONDS.toNanos(1)));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Count bytes by position of channel including content transferred from the channel directly
+     */
+    private final class ChannelMetricsInputStream extends MetricsInputStream implements FileChannelStream {
+        private final FileChannel channel;
+        private final long position;
+
+        public ChannelMetricsInputStream(final InputStream proxy, final long start,
+                                         final FileChannel channel, final long position) {
+            super(proxy, start);
+            this.channel = channel;
+            this.position = position;
+        }
+
+        @Override
+        protected long count() {
+            try {
+                return channel.position() - position;
+            }
+            catch(IOException e) {
+                // Channel already closed
+                return 0L;
+            }
+        }
+
+        @Override
+        public FileChannel getChannel() {
+            return channel;
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("MetricsReadFeature{");
+        sb.append("proxy=").append(proxy);
+        sb.append('}');
+        return sb.toString();
+    }
+}
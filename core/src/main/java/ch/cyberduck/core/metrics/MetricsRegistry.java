@@ -0,0 +1,152 @@
+package ch.cyberduck.core.metrics;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.CountingMetrics;
+import ch.cyberduck.core.DisabledMetrics;
+import ch.cyberduck.core.Metrics;
+import ch.cyberduck.core.collections.CacheStatistics;
+import ch.cyberduck.core.collections.ConcurrentLRUMap;
+import ch.cyberduck.core.preferences.Preferences;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Process wide metrics of all sessions and registered caches. Collecting is enabled with
+ * <code>metrics.enable</code> and the local HTTP endpoint with <code>metrics.http.port</code>.
+ */
+public final class MetricsRegistry {
+    private static final Logger log = Logger.getLogger(MetricsRegistry.class);
+
+    private static final MetricsRegistry instance = new MetricsRegistry();
+
+    public static MetricsRegistry get() {
+        return instance;
+    }
+
+    private final CountingMetrics metrics = new CountingMetrics();
+    private final Metrics disabled = new DisabledMetrics();
+
+    /**
+     * Caches by name. Caches are only weakly referenced and removed when no longer used.
+     */
+    private final ConcurrentMap<String, Set<ConcurrentLRUMap<?, ?>>> caches
+        = new ConcurrentHashMap<String, Set<ConcurrentLRUMap<?, ?>>>();
+
+    private final AtomicBoolean server = new AtomicBoolean();
+
+    /**
+     * @return Disabled metrics unless enabled in preferences
+     */
+    public Metrics getMetrics() {
+        final Preferences preferences = PreferencesFactory.get();
+        if(!preferences.getBoolean("metrics.enable")) {
+            return disabled;
+        }
+        final int port = preferences.getInteger("metrics.http.port");
+        if(port > 0 && server.compareAndSet(false, true)) {
+            try {
+                new MetricsHttpServer(this, port).start();
+            }
+            catch(IOException e) {
+                log.warn(String.format("Failure %s starting metrics endpoint on port %d", e, port));
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * @param name  Name of cache in export. Statistics of caches with the same name are added.
+     * @param cache Cache
+     */
+    public void register(final String name, final ConcurrentLRUMap<?, ?> cache) {
+        Set<ConcurrentLRUMap<?, ?>> set = caches.get(name);
+        if(null == set) {
+            final Set<ConcurrentLRUMap<?, ?>> created = Collections.synchronizedSet(
+                Collections.newSetFromMap(new WeakHashMap<ConcurrentLRUMap<?, ?>, Boolean>()));
+            set = caches.putIfAbsent(name, created);
+            if(null == set) {
+                set = created;
+            }
+        }
+        set.add(cache);
+    }
+
+    /**
+     * @return Statistics by cache name
+     */
+    public Map<String, CacheStatistics> getCacheStatistics() {
+        final Map<String, CacheStatistics> statistics = new TreeMap<String, CacheStatistics>();
+        for(Map.Entry<String, Set<ConcurrentLRUMap<?, ?>>> entry : caches.entrySet()) {
+            final List<ConcurrentLRUMap<?, ?>> snapshot;
+            synchronized(entry.getValue()) {
+                snapshot = new ArrayList<ConcurrentLRUMap<?, ?>>(entry.getValue());
+            }
+            if(snapshot.isEmpty()) {
+                continue;
+            }
+            long hits = 0L, misses = 0L, evictions = 0L;
+            for(ConcurrentLRUMap<?, ?> cache : snapshot) {
+                final CacheStatistics s = cache.getStatistics();
+                hits += s.getHits();
+                misses += s.getMisses();
+                evictions += s.getEvictions();
+            }
+            statistics.put(entry.getKey(), new CacheStatistics(hits, misses, evictions));
+        }
+        return statistics;
+    }
+
+    /**
+     * @param formatter Output format
+     * @return All metrics collected
+     */
+    public String format(final MetricsFormatter formatter) {
+        return formatter.format(metrics, this.getCacheStatistics());
+    }
+
+    /**
+     * @param key Metric key
+     * @return Name of metric in export
+     */
+    public static String name(final Object key) {
+        if(key instanceof Class) {
+            return String.format("feature.%s", ((Class<?>) key).getSimpleName());
+        }
+        return String.valueOf(key);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("MetricsRegistry{");
+        sb.append("caches=").append(caches.keySet());
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,192 @@
+package ch.cyberduck.core.metrics;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Cache;
+import ch.cyberduck.core.ConnectionCallback;
+import ch.cyberduck.core.DefaultIOExceptionMappingService;
+import ch.cyberduck.core.Metrics;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.features.Write;
+import ch.cyberduck.core.io.ChecksumCompute;
+import ch.cyberduck.core.io.FileChannelStream;
+import ch.cyberduck.core.io.StatusOutputStream;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class MetricsWriteFeature<Reply> implements Write<Reply> {
+
+    /**
+     * Time to open stream
+     */
+    public static final String LATENCY = "write.latency.nanoseconds";
+    public static final String FAILURES = "write.failures";
+    public static final String BYTES = "write.bytes";
+    /**
+     * Throughput of each stream from open until closed
+     */
+    public static final String THROUGHPUT = "write.throughput.bytes_per_second";
+
+    private final Write<Reply> proxy;
+    private final Metrics metrics;
+
+    public MetricsWriteFeature(final Write<Reply> proxy, final Metrics metrics) {
+        this.proxy = proxy;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public StatusOutputStream<Reply> write(final Path file, final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
+        final long start = System.nanoTime();
+        final StatusOutputStream<Reply> out;
+        try {
+            out = proxy.write(file, status, callback);
+        }
+        catch(BackgroundException e) {
+            metrics.increment(FAILURES);
+            throw e;
+        }
+        finally {
+            metrics.record(LATENCY, System.nanoTime() - start);
+        }
+        if(out instanceof FileChannelStream) {
+            // Keep channel visible to copy from channel to channel bypassing the stream
+            final FileChannel channel = ((FileChannelStream) out).getChannel();
+            try {
+                return new ChannelMetricsOutputStream(out, start, channel, channel.position());
+            }
+            catch(IOException e) {
+                throw new DefaultIOExceptionMappingService().map(e);
+            }
+        }
+        return new MetricsOutputStream(out, start);
+    }
+
+    @Override
+    public Append append(final Path file, final Long length, final Cache<Path> cache) throws BackgroundException {
+        return proxy.append(file, length, cache);
+    }
+
+    @Override
+    public boolean temporary() {
+        return proxy.temporary();
+    }
+
+    @Override
+    public boolean random() {
+        return proxy.random();
+    }
+
+    @Override
+    public ChecksumCompute checksum(final Path file) {
+        return proxy.checksum(file);
+    }
+
+    private class MetricsOutputStream extends StatusOutputStream<Reply> {
+        private final StatusOutputStream<Reply> proxy;
+        /**
+         * Time stream was opened
+         */
+        private final long start;
+        private final AtomicLong bytes = new AtomicLong();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        public MetricsOutputStream(final StatusOutputStream<Reply> proxy, final long start) {
+            super(proxy);
+            this.proxy = proxy;
+            this.start = start;
+        }
+
+        @Override
+        protected void afterWrite(final int n) {
+            bytes.addAndGet(n);
+        }
+
+        /**
+         * @return Number of bytes written
+         */
+        protected long count() {
+            return bytes.get();
+        }
+
+        @Override
+        public void close() throws IOException {
+            final long count = this.count();
+            try {
+                super.close();
+            }
+            finally {
+                if(closed.compareAndSet(false, true)) {
+                    metrics.add(BYTES, count);
+                    final long elapsed = System.nanoTime() - start;
+                    if(count > 0 && elapsed > 0) {
+                        metrics.record(THROUGHPUT, (long) ((double) count / elapsed * TimeUnit.SECONDS.toNanos(1)));
+                    }
+                }
+            }
+        }
+
+        @Override
+        public Reply getStatus() throws BackgroundException {
+            return proxy.getStatus();
+        }
+    }
+
+    /**
+     * Count bytes by position of channel including content transferred to the channel directly
+     */
+    private final class ChannelMetricsOutputStream extends MetricsOutputStream implements FileChannelStream {
+        private final FileChannel channel;
+        private final long position;
+
+        public ChannelMetricsOutputStream(final StatusOutputStream<Reply> proxy, final long start,
+                                          final FileChannel channel, final long position) {
+            super(proxy, start);
+            this.channel = channel;
+            this.position = position;
+        }
+
+        @Override
+        protected long count() {
+            try {
+                return channel.position() - position;
+            }
+            catch(IOException e) {
+                // Channel already closed
+                return 0L;
+            }
+        }
+
+        @Override
+        public FileChannel getChannel() {
+            return channel;
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("MetricsWriteFeature{");
+        sb.append("proxy=").append(proxy);
+        sb.append('}');
+        return sb.toString();
+    }
+}
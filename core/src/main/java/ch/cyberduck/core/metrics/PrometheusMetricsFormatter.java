@@ -0,0 +1,105 @@
+package ch.cyberduck.core.metrics;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.CountingMetrics;
+import ch.cyberduck.core.collections.CacheStatistics;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Prometheus text exposition format
+ */
+public class PrometheusMetricsFormatter implements MetricsFormatter {
+
+    private static final String PREFIX = "cyberduck_";
+
+    @Override
+    public String format(final CountingMetrics metrics, final Map<String, CacheStatistics> caches) {
+        final StringBuilder out = new StringBuilder();
+        final Map<String, Long> counters = new TreeMap<String, Long>();
+        for(Map.Entry<Object, Long> entry : metrics.getCounters().entrySet()) {
+            counters.put(this.sanitize(MetricsRegistry.name(entry.getKey())), entry.getValue());
+        }
+        for(Map.Entry<String, Long> entry : counters.entrySet()) {
+            final String name = String.format("%s%s_total", PREFIX, entry.getKey());
+            out.append("# TYPE ").append(name).append(" counter\n");
+            out.append(name).append(' ').append(entry.getValue()).append('\n');
+        }
+        final Map<String, Histogram> histograms = new TreeMap<String, Histogram>();
+        for(Map.Entry<Object, Histogram> entry : metrics.getHistograms().entrySet()) {
+            histograms.put(this.sanitize(MetricsRegistry.name(entry.getKey())), entry.getValue());
+        }
+        for(Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+            final String name = String.format("%s%s", PREFIX, entry.getKey());
+            final Histogram histogram = entry.getValue();
+            out.append("# TYPE ").append(name).append(" histogram\n");
+            long cumulative = 0L;
+            for(int i = 0; i <= histogram.getHighestBucket() && i < Histogram.BUCKETS - 1; i++) {
+                cumulative += histogram.getBucket(i);
+                out.append(name).append("_bucket{le=\"").append(Histogram.upper(i)).append("\"} ").append(cumulative).append('\n');
+            }
+            out.append(name).append("_bucket{le=\"+Inf\"} ").append(histogram.getCount()).append('\n');
+            out.append(name).append("_sum ").append(histogram.getSum()).append('\n');
+            out.append(name).append("_count ").append(histogram.getCount()).append('\n');
+        }
+        if(!caches.isEmpty()) {
+            out.append("# TYPE ").append(PREFIX).append("cache_hits_total counter\n");
+            for(Map.Entry<String, CacheStatistics> entry : caches.entrySet()) {
+                this.cache(out, "cache_hits_total", entry.getKey()).append(entry.getValue().getHits()).append('\n');
+            }
+            out.append("# TYPE ").append(PREFIX).append("cache_misses_total counter\n");
+            for(Map.Entry<String, CacheStatistics> entry : caches.entrySet()) {
+                this.cache(out, "cache_misses_total", entry.getKey()).append(entry.getValue().getMisses()).append('\n');
+            }
+            out.append("# TYPE ").append(PREFIX).append("cache_evictions_total counter\n");
+            for(Map.Entry<String, CacheStatistics> entry : caches.entrySet()) {
+                this.cache(out, "cache_evictions_total", entry.getKey()).append(entry.getValue().getEvictions()).append('\n');
+            }
+            out.append("# TYPE ").append(PREFIX).append("cache_hit_ratio gauge\n");
+            for(Map.Entry<String, CacheStatistics> entry : caches.entrySet()) {
+                this.cache(out, "cache_hit_ratio", entry.getKey()).append(entry.getValue().getHitRatio()).append('\n');
+            }
+        }
+        return out.toString();
+    }
+
+    @Override
+    public String getContentType() {
+        return "text/plain; version=0.0.4; charset=utf-8";
+    }
+
+    private StringBuilder cache(final StringBuilder out, final String metric, final String cache) {
+        return out.append(PREFIX).append(metric).append("{cache=\"").append(this.sanitize(cache)).append("\"} ");
+    }
+
+    /**
+     * @return Name with any character not allowed in metric names replaced
+     */
+    private String sanitize(final String name) {
+        final StringBuilder sb = new StringBuilder(name.length());
+        for(char c : name.toCharArray()) {
+            if((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_') {
+                sb.append(Character.toLowerCase(c));
+            }
+            else {
+                sb.append('_');
+            }
+        }
+        return sb.toString();
+    }
+}
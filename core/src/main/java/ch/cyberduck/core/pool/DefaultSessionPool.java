@@ -24,6 +24,7 @@ import ch.cyberduck.core.SessionFactory;
 import ch.cyberduck.core.TranscriptListener;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.metrics.MetricsRegistry;
 import ch.cyberduck.core.ssl.DefaultX509KeyManager;
 import ch.cyberduck.core.ssl.DisabledX509TrustManager;
 import ch.cyberduck.core.ssl.X509KeyManager;
@@ -50,6 +51,11 @@ public class DefaultSessionPool implements SessionPool {
     private static final long BORROW_MAX_WAIT_INTERVAL = 1000L;
     private static final int POOL_WARNING_THRESHOLD = 5;
 
+    /**
+     * Time waiting for idle or new session
+     */
+    public static final String BORROW = "pool.borrow.nanoseconds";
+
     private final FailureDiagnostics<BackgroundException> diagnostics
             = new DefaultFailureDiagnostics();
 
@@ -135,6 +141,7 @@ public class DefaultSessionPool implements SessionPool {
         if(numActive > POOL_WARNING_THRESHOLD) {
             log.warn(String.format("Possibly large number of open connections (%d) in pool %s", numActive, this));
         }
+        final long start = System.nanoTime();
         try {
             /*
              * The number of times this action has been run
@@ -146,6 +153,7 @@ public class DefaultSessionPool implements SessionPool {
                         log.info(String.format("Borrow session from pool %s", this));
                     }
                     final Session<?> session = pool.borrowObject();
+                    MetricsRegistry.get().getMetrics().record(BORROW, System.nanoTime() - start);
                     if(log.isInfoEnabled()) {
                         log.info(String.format("Borrowed session %s from pool %s", session, this));
                     }
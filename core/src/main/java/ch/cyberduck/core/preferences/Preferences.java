@@ -306,6 +306,26 @@ public abstract class Preferences {
         defaults.put("browser.cache.size", String.valueOf(1000));
         defaults.put("transfer.cache.size", String.valueOf(100));
         defaults.put("icon.cache.size", String.valueOf(200));
+        /*
+          Maximum number of files in all cached directory listings
+         */
+        defaults.put("cache.children.size", String.valueOf(500000));
+        /*
+          Expire cached directory listings after seconds. -1 to disable
+         */
+        defaults.put("cache.ttl.seconds", String.valueOf(-1));
+        /*
+          Maximum number of cached file identifiers per session
+         */
+        defaults.put("fileid.cache.size", String.valueOf(100000));
+        /*
+          Collect latency histograms and counters for features, connection pool and caches
+         */
+        defaults.put("metrics.enable", String.valueOf(false));
+        /*
+          Serve collected metrics on loopback interface. -1 to disable
+         */
+        defaults.put("metrics.http.port", String.valueOf(-1));
 
         /*
           Caching NS* proxy instances.
@@ -317,6 +337,22 @@ public abstract class Preferences {
          */
         defaults.put("browser.list.limit.directory", String.valueOf(5000));
         defaults.put("browser.list.limit.container", String.valueOf(100));
+        /*
+          Number of directories listed in parallel with connections from pool for recursive search
+         */
+        defaults.put("browser.search.concurrency", String.valueOf(4));
+        /*
+          Maximum number of directories queued for recursive search
+         */
+        defaults.put("browser.search.queue.size", String.valueOf(10000));
+        /*
+          Number of delete requests in parallel with connections from pool
+         */
+        defaults.put("delete.concurrency", String.valueOf(5));
+        /*
+          Maximum number of files passed at once to delete feature
+         */
+        defaults.put("delete.batch.size", String.valueOf(1000));
 
         defaults.put("info.toolbar.selected", String.valueOf(0));
         defaults.put("preferences.toolbar.selected", String.valueOf(0));
@@ -566,11 +602,34 @@ public abstract class Preferences {
           Bandwidth throttle download stream
          */
         defaults.put("queue.download.bandwidth.bytes", String.valueOf(-1));
+        /*
+          Bandwidth throttle for all transfers
+         */
+        defaults.put("queue.bandwidth.global.bytes", String.valueOf(-1));
+        /*
+          Bandwidth throttle for all transfers to the same host
+         */
+        defaults.put("queue.bandwidth.host.bytes", String.valueOf(-1));
 
+        /*
+          Start transferring files while directories are still listed. Bulk features are only passed the root items
+          of the transfer. Not supported for bulk jobs requiring the complete list of files in advance.
+         */
+        defaults.put("queue.prepare.streaming", String.valueOf(false));
+        /*
+          Maximum number of files pending in memory. Additional files are spooled to disk.
+         */
+        defaults.put("queue.prepare.streaming.memory", String.valueOf(10000));
         /*
          * Concurrent connections
          */
         defaults.put("queue.connections.limit", String.valueOf(2));
+        /*
+          Adjust number of concurrent connections at runtime starting with the configured limit. Increased as long
+          as throughput improves and decreased when the server throttles requests.
+         */
+        defaults.put("queue.connections.adaptive", String.valueOf(false));
+        defaults.put("queue.connections.adaptive.max", String.valueOf(10));
         {
             final StringBuilder options = new StringBuilder();
             options.append(1).append(",");
@@ -598,6 +657,16 @@ public abstract class Preferences {
         defaults.put("queue.prompt.upload.action.default", TransferAction.overwrite.name());
         defaults.put("queue.prompt.copy.action.default", TransferAction.overwrite.name());
         defaults.put("queue.prompt.move.action.default", TransferAction.overwrite.name());
+        /*
+          Persist attributes of files found equal when synchronizing to skip comparing files unchanged since. Files
+          with unchanged size and modification date are then reported equal without checksum verification.
+         */
+        defaults.put("queue.sync.index.enable", String.valueOf(false));
+        /*
+          Reuse remote directory listing from previous synchronization when modification date or ETag of directory
+          is unchanged. Only enable for servers updating these for any change of the directory contents.
+         */
+        defaults.put("queue.sync.index.listing", String.valueOf(false));
 
         defaults.put("queue.transcript.open", String.valueOf(false));
         defaults.put("queue.transcript.size.height", String.valueOf(200));
@@ -636,6 +705,10 @@ public abstract class Preferences {
         defaults.put("ftp.command.lista", String.valueOf(true));
         defaults.put("ftp.command.stat", String.valueOf(true));
         defaults.put("ftp.command.mlsd", String.valueOf(true));
+        /*
+          Number of entries parsed from directory listing before updating the browser while the data connection is open
+         */
+        defaults.put("ftp.listing.chunksize", String.valueOf(1000));
 
         /*
           Fallback to active or passive mode respectively
@@ -743,6 +816,13 @@ public abstract class Preferences {
         defaults.put("azure.metadata.default", StringUtils.EMPTY);
         defaults.put("azure.listing.chunksize", String.valueOf(1000));
         defaults.put("azure.upload.md5", String.valueOf(false));
+        /*
+          Upload files exceeding threshold as block blob with blocks staged concurrently
+         */
+        defaults.put("azure.upload.largeobject", String.valueOf(true));
+        defaults.put("azure.upload.largeobject.concurrency", String.valueOf(5));
+        defaults.put("azure.upload.largeobject.threshold", String.valueOf(100L * 1024L * 1024L)); // 100MB
+        defaults.put("azure.upload.largeobject.size", String.valueOf(10L * 1024L * 1024L)); // 10MB
 
         // Legacy authentication
 //        defaults.put("openstack.authentication.context", "/v1.0");
@@ -773,6 +853,10 @@ public abstract class Preferences {
 
         defaults.put("googledrive.list.limit", String.valueOf(1000));
         defaults.put("googledrive.teamdrive.enable", String.valueOf(true));
+        /*
+          Maximum number of calls in batch request
+         */
+        defaults.put("googledrive.delete.multiple.partition", String.valueOf(100));
 
         defaults.put("b2.bucket.acl.default", "allPrivate");
         defaults.put("b2.listing.chunksize", String.valueOf(100));
@@ -816,6 +900,12 @@ public abstract class Preferences {
         defaults.put("webdav.redirect.PUT.follow", String.valueOf(false));
         defaults.put("webdav.redirect.PROPFIND.follow", String.valueOf(true));
 
+        /*
+          List with a single PROPFIND request of infinite depth and serve listings of subdirectories from the response
+         */
+        defaults.put("webdav.listing.depth.infinity", String.valueOf(false));
+        defaults.put("webdav.listing.depth.infinity.ttl", String.valueOf(60000)); // 1 minute
+
         defaults.put("webdav.upload.md5", String.valueOf(false));
         defaults.put("webdav.metadata.default", StringUtils.EMPTY);
 
@@ -957,6 +1047,10 @@ public abstract class Preferences {
           Transfer read buffer size
          */
         defaults.put("connection.chunksize", String.valueOf(32768));
+        /*
+          Maximum size of chunk copied between local file channels
+         */
+        defaults.put("connection.chunksize.channel", String.valueOf(8388608));
         /*
           Buffer size for wrapped buffered streams
          */
@@ -998,6 +1092,10 @@ public abstract class Preferences {
 
         defaults.put("ssh.heartbeat.provider", "keep-alive");
         defaults.put("ssh.heartbeat.seconds", String.valueOf(60));
+        /*
+          Local channel window size limiting data received before it is consumed
+         */
+        defaults.put("ssh.window.size", String.valueOf(16L * 1024L * 1024L));
 
         /*
           Enable ZLIB compression
@@ -1013,6 +1111,16 @@ public abstract class Preferences {
 
         defaults.put("sftp.read.maxunconfirmed", String.valueOf(64));
         defaults.put("sftp.write.maxunconfirmed", String.valueOf(64));
+        /*
+          Length of data in single SSH_FXP_READ and SSH_FXP_WRITE request. Servers are only required to
+          support 32768 bytes.
+         */
+        defaults.put("sftp.read.chunksize", String.valueOf(32768));
+        defaults.put("sftp.write.chunksize", String.valueOf(32768));
+        /*
+          Split large downloads into segments transferred concurrently with multiple connections
+         */
+        defaults.put("sftp.download.segments", String.valueOf(false));
 
         defaults.put("archive.default", "tar.gz");
 
@@ -1050,9 +1158,22 @@ public abstract class Preferences {
 
         defaults.put("threading.pool.size.max", String.valueOf(20));
         defaults.put("threading.pool.keepalive.seconds", String.valueOf(60L));
+        /*
+          Use virtual threads for the pool shared by part uploads when supported by the runtime
+         */
+        defaults.put("threading.pool.virtual", String.valueOf(false));
 
         defaults.put("cryptomator.enable", String.valueOf(true));
         defaults.put("cryptomator.vault.autodetect", String.valueOf(true));
+        /*
+          Number of file content chunks encrypted or decrypted in parallel
+         */
+        defaults.put("cryptomator.chunk.batch", String.valueOf(16));
+        /*
+          Maximum number of cached directory IDs and encrypted filenames in vault
+         */
+        defaults.put("cryptomator.cache.directory.size", String.valueOf(10000));
+        defaults.put("cryptomator.cache.filename.size", String.valueOf(100000));
     }
 
     protected void setLogging() {
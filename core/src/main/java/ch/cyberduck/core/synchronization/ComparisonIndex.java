@@ -0,0 +1,401 @@
+package ch.cyberduck.core.synchronization;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.LocalAttributes;
+import ch.cyberduck.core.LocalFactory;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathAttributes;
+import ch.cyberduck.core.Permission;
+import ch.cyberduck.core.exception.AccessDeniedException;
+import ch.cyberduck.core.exception.LocalAccessDeniedException;
+import ch.cyberduck.core.io.Checksum;
+import ch.cyberduck.core.io.HashAlgorithm;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Persistent state of files found equal and of remote directory listings from previous synchronizations. Files
+ * with attributes unchanged on both sides since found equal are not compared again and listings of directories
+ * with unchanged modification marker are not requested again.
+ */
+public class ComparisonIndex {
+    private static final Logger log = Logger.getLogger(ComparisonIndex.class);
+
+    private static final int VERSION = 1;
+
+    private final Local file;
+
+    /**
+     * Attributes of files found equal keyed by remote path
+     */
+    private final Map<String, Entry> files = new ConcurrentHashMap<String, Entry>();
+
+    /**
+     * Remote directory listings keyed by remote path
+     */
+    private final Map<String, Listing> directories = new ConcurrentHashMap<String, Listing>();
+
+    /**
+     * @param file Index file
+     */
+    public ComparisonIndex(final Local file) {
+        this.file = file;
+    }
+
+    /**
+     * @param file   Remote file
+     * @param remote Current remote attributes
+     * @param local  Local file
+     * @return True if remote and local file are unchanged since both were found equal
+     */
+    public boolean isUnchanged(final Path file, final PathAttributes remote, final Local local) {
+        final Entry entry = files.get(file.getAbsolute());
+        if(null == entry) {
+            return false;
+        }
+        final LocalAttributes attributes = local.attributes();
+        return entry.local.size == attributes.getSize()
+                && entry.local.modified == attributes.getModificationDate()
+                && entry.remote.matches(remote);
+    }
+
+    /**
+     * Record state of remote and local file found equal
+     */
+    public void put(final Path file, final PathAttributes remote, final Local local) {
+        final LocalAttributes attributes = local.attributes();
+        final Attributes l = new Attributes();
+        l.size = attributes.getSize();
+        l.modified = attributes.getModificationDate();
+        files.put(file.getAbsolute(), new Entry(new Attributes(remote), l));
+    }
+
+    /**
+     * @param directory Remote directory with attributes from listing of parent
+     * @return Recorded listing if modification marker of directory is unchanged or null
+     */
+    public AttributedList<Path> get(final Path directory) {
+        final String marker = marker(directory.attributes());
+        if(null == marker) {
+            return null;
+        }
+        final Listing listing = directories.get(directory.getAbsolute());
+        if(null == listing) {
+            return null;
+        }
+        if(!marker.equals(listing.marker)) {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Marker of %s changed from %s to %s", directory, listing.marker, marker));
+            }
+            return null;
+        }
+        final AttributedList<Path> children = new AttributedList<Path>();
+        for(Child child : listing.children) {
+            children.add(new Path(directory, child.name, child.type, child.attributes.toAttributes()));
+        }
+        return children;
+    }
+
+    /**
+     * Record listing of directory unless it has no modification marker or contains symbolic links. State of
+     * files no longer contained in directory is discarded.
+     *
+     * @param directory Remote directory with attributes from listing of parent
+     * @param list      Children
+     */
+    public void put(final Path directory, final AttributedList<Path> list) {
+        final String marker = marker(directory.attributes());
+        if(null == marker) {
+            return;
+        }
+        final List<Child> children = new ArrayList<Child>(list.size());
+        final Set<String> names = new HashSet<String>();
+        for(Path f : list) {
+            names.add(f.getName());
+            if(f.isSymbolicLink()) {
+                continue;
+            }
+            children.add(new Child(f.getName(), f.getType(), new Attributes(f.attributes())));
+        }
+        final Listing previous = children.size() == list.size()
+                ? directories.put(directory.getAbsolute(), new Listing(marker, children))
+                : directories.remove(directory.getAbsolute());
+        if(null != previous) {
+            for(Child child : previous.children) {
+                if(!names.contains(child.name)) {
+                    // Discard state of files no longer found
+                    this.remove(new Path(directory, child.name, child.type));
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove state of file or directory and all its descendants
+     */
+    public void remove(final Path file) {
+        files.remove(file.getAbsolute());
+        if(file.isDirectory()) {
+            final String prefix = String.format("%s%s", file.getAbsolute(), Path.DELIMITER);
+            directories.remove(file.getAbsolute());
+            directories.keySet().removeIf(new Predicate<String>() {
+                @Override
+                public boolean test(final String key) {
+                    return key.startsWith(prefix);
+                }
+            });
+            files.keySet().removeIf(new Predicate<String>() {
+                @Override
+                public boolean test(final String key) {
+                    return key.startsWith(prefix);
+                }
+            });
+        }
+    }
+
+    /**
+     * @return Entity tag or modification date changed by the server when the contents of the directory change
+     */
+    private static String marker(final PathAttributes attributes) {
+        if(StringUtils.isNotBlank(attributes.getETag())) {
+            return attributes.getETag();
+        }
+        if(attributes.getModificationDate() > 0) {
+            return String.valueOf(attributes.getModificationDate());
+        }
+        return null;
+    }
+
+    public void load() throws AccessDeniedException {
+        files.clear();
+        directories.clear();
+        if(!file.exists()) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(file.getInputStream())))) {
+            if(in.readInt() != VERSION) {
+                log.warn(String.format("Ignore index %s with unknown version", file));
+                return;
+            }
+            for(int i = in.readInt(); i > 0; i--) {
+                final String path = in.readUTF();
+                files.put(path, new Entry(Attributes.read(in), Attributes.read(in)));
+            }
+            for(int i = in.readInt(); i > 0; i--) {
+                final String path = in.readUTF();
+                final String marker = in.readUTF();
+                final int size = in.readInt();
+                final List<Child> children = new ArrayList<Child>(size);
+                for(int j = 0; j < size; j++) {
+                    final String name = in.readUTF();
+                    final EnumSet<Path.Type> type = EnumSet.noneOf(Path.Type.class);
+                    for(String t : StringUtils.split(in.readUTF(), ',')) {
+                        type.add(Path.Type.valueOf(t));
+                    }
+                    children.add(new Child(name, type, Attributes.read(in)));
+                }
+                directories.put(path, new Listing(marker, children));
+            }
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Loaded %d files and %d directories from index %s", files.size(), directories.size(), file));
+            }
+        }
+        catch(IOException | IllegalArgumentException e) {
+            log.warn(String.format("Failure %s reading index %s", e, file));
+            files.clear();
+            directories.clear();
+        }
+    }
+
+    public void save() throws AccessDeniedException {
+        final Local folder = file.getParent();
+        if(!folder.exists()) {
+            folder.mkdir();
+        }
+        final Local temporary = LocalFactory.get(folder, String.format("%s.tmp", file.getName()));
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(temporary.getOutputStream(false))))) {
+            out.writeInt(VERSION);
+            out.writeInt(files.size());
+            for(Map.Entry<String, Entry> entry : files.entrySet()) {
+                out.writeUTF(entry.getKey());
+                entry.getValue().remote.write(out);
+                entry.getValue().local.write(out);
+            }
+            out.writeInt(directories.size());
+            for(Map.Entry<String, Listing> entry : directories.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeUTF(entry.getValue().marker);
+                out.writeInt(entry.getValue().children.size());
+                for(Child child : entry.getValue().children) {
+                    out.writeUTF(child.name);
+                    out.writeUTF(StringUtils.join(child.type, ','));
+                    child.attributes.write(out);
+                }
+            }
+        }
+        catch(IOException e) {
+            throw new LocalAccessDeniedException(e.getMessage(), e);
+        }
+        // Replace previous index
+        temporary.rename(file);
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Saved %d files and %d directories to index %s", files.size(), directories.size(), file));
+        }
+    }
+
+    private static final class Entry {
+        private final Attributes remote;
+        private final Attributes local;
+
+        public Entry(final Attributes remote, final Attributes local) {
+            this.remote = remote;
+            this.local = local;
+        }
+    }
+
+    private static final class Listing {
+        private final String marker;
+        private final List<Child> children;
+
+        public Listing(final String marker, final List<Child> children) {
+            this.marker = marker;
+            this.children = children;
+        }
+    }
+
+    private static final class Child {
+        private final String name;
+        private final EnumSet<Path.Type> type;
+        private final Attributes attributes;
+
+        public Child(final String name, final EnumSet<Path.Type> type, final Attributes attributes) {
+            this.name = name;
+            this.type = type;
+            this.attributes = attributes;
+        }
+    }
+
+    /**
+     * Subset of attributes used for comparison
+     */
+    private static final class Attributes {
+        private long size;
+        private long modified;
+        private String checksum = StringUtils.EMPTY;
+        private String etag = StringUtils.EMPTY;
+        private String version = StringUtils.EMPTY;
+        private String permission = StringUtils.EMPTY;
+
+        public Attributes() {
+        }
+
+        public Attributes(final PathAttributes attributes) {
+            this.size = attributes.getSize();
+            this.modified = attributes.getModificationDate();
+            if(Checksum.NONE != attributes.getChecksum()) {
+                this.checksum = String.format("%s:%s", attributes.getChecksum().algorithm, attributes.getChecksum().hash);
+            }
+            this.etag = StringUtils.defaultString(attributes.getETag());
+            this.version = StringUtils.defaultString(attributes.getVersionId());
+            if(!Permission.EMPTY.equals(attributes.getPermission())) {
+                this.permission = attributes.getPermission().getMode();
+            }
+        }
+
+        /**
+         * @return True if attributes of remote file are unchanged
+         */
+        public boolean matches(final PathAttributes attributes) {
+            final Attributes other = new Attributes(attributes);
+            return size == other.size
+                    && modified == other.modified
+                    && Objects.equals(checksum, other.checksum)
+                    && Objects.equals(etag, other.etag)
+                    && Objects.equals(version, other.version);
+        }
+
+        public PathAttributes toAttributes() {
+            final PathAttributes attributes = new PathAttributes();
+            attributes.setSize(size);
+            attributes.setModificationDate(modified);
+            if(StringUtils.isNotEmpty(checksum)) {
+                attributes.setChecksum(new Checksum(HashAlgorithm.valueOf(StringUtils.substringBefore(checksum, ":")),
+                        StringUtils.substringAfter(checksum, ":")));
+            }
+            if(StringUtils.isNotEmpty(etag)) {
+                attributes.setETag(etag);
+            }
+            if(StringUtils.isNotEmpty(version)) {
+                attributes.setVersionId(version);
+            }
+            if(StringUtils.isNotEmpty(permission)) {
+                attributes.setPermission(new Permission(permission));
+            }
+            return attributes;
+        }
+
+        public void write(final DataOutputStream out) throws IOException {
+            out.writeLong(size);
+            out.writeLong(modified);
+            out.writeUTF(checksum);
+            out.writeUTF(etag);
+            out.writeUTF(version);
+            out.writeUTF(permission);
+        }
+
+        public static Attributes read(final DataInputStream in) throws IOException {
+            final Attributes attributes = new Attributes();
+            attributes.size = in.readLong();
+            attributes.modified = in.readLong();
+            attributes.checksum = in.readUTF();
+            attributes.etag = in.readUTF();
+            attributes.version = in.readUTF();
+            attributes.permission = in.readUTF();
+            return attributes;
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ComparisonIndex{");
+        sb.append("file=").append(file);
+        sb.append(", files=").append(files.size());
+        sb.append(", directories=").append(directories.size());
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -34,10 +34,13 @@ import ch.cyberduck.core.shared.DefaultAttributesFinderFeature;
 import ch.cyberduck.core.shared.DefaultFindFeature;
 import ch.cyberduck.core.transfer.TransferStatus;
 
+import org.apache.log4j.Logger;
+
 import java.text.MessageFormat;
 import java.util.TimeZone;
 
 public class ComparisonServiceFilter implements ComparePathFilter {
+    private static final Logger log = Logger.getLogger(ComparisonServiceFilter.class);
 
     private Find finder;
 
@@ -51,6 +54,8 @@ public class ComparisonServiceFilter implements ComparePathFilter {
 
     private final ProgressListener progress;
 
+    private ComparisonIndex index;
+
     public ComparisonServiceFilter(final Session<?> session, final TimeZone tz, final ProgressListener listener) {
         this.finder = session.getFeature(Find.class, new DefaultFindFeature(session));
         this.attribute = session.getFeature(AttributesFinder.class, new DefaultAttributesFinderFeature(session));
@@ -70,6 +75,14 @@ public class ComparisonServiceFilter implements ComparePathFilter {
         return this;
     }
 
+    /**
+     * @param index State of files found equal in previous synchronization
+     */
+    public ComparisonServiceFilter withIndex(final ComparisonIndex index) {
+        this.index = index;
+        return this;
+    }
+
     public ComparisonServiceFilter withCache(final Cache<Path> cache) {
         finder.withCache(cache);
         attribute.withCache(cache);
@@ -85,37 +98,21 @@ public class ComparisonServiceFilter implements ComparePathFilter {
                     return Comparison.equal;
                 }
                 final PathAttributes attributes = attribute.find(file);
-                {
-                    // MD5/ETag Checksum is supported
-                    if(Checksum.NONE != attributes.getChecksum()) {
-                        progress.message(MessageFormat.format(
-                                LocaleFactory.localizedString("Compute MD5 hash of {0}", "Status"), file.getName()));
-                        local.attributes().setChecksum(ChecksumComputeFactory.get(attributes.getChecksum().algorithm)
-                                .compute(local.getInputStream(), new TransferStatus()));
-                        final Comparison comparison = checksum.compare(attributes, local.attributes());
-                        if(!Comparison.notequal.equals(comparison)) {
-                            // Decision is available
-                            return comparison;
+                if(null != index) {
+                    if(index.isUnchanged(file, attributes, local)) {
+                        if(log.isDebugEnabled()) {
+                            log.debug(String.format("Skip comparison of %s unchanged since found equal", file));
                         }
+                        return Comparison.equal;
                     }
                 }
-                // We must always compare the size because the download filter will have already created a temporary 0 byte file
-                {
-                    final Comparison comparison = size.compare(attributes, local.attributes());
-                    if(!Comparison.notequal.equals(comparison)) {
-                        // Decision is available. Equal local or remote.
-                        return comparison;
-                    }
-                    // Continue to decide with timestamp when both files exist and are not zero bytes
-                }
-                // Default comparison is using timestamp of file.
-                {
-                    final Comparison comparison = timestamp.compare(attributes, local.attributes());
-                    if(!Comparison.notequal.equals(comparison)) {
-                        // Decision is available
-                        return comparison;
+                final Comparison comparison = this.compare(file, attributes, local);
+                if(null != index) {
+                    if(Comparison.equal.equals(comparison)) {
+                        index.put(file, attributes, local);
                     }
                 }
+                return comparison;
             }
             else {
                 // Only the local file exists
@@ -130,4 +127,39 @@ public class ComparisonServiceFilter implements ComparePathFilter {
         }
         return Comparison.equal;
     }
+
+    private Comparison compare(final Path file, final PathAttributes attributes, final Local local) throws BackgroundException {
+        {
+            // MD5/ETag Checksum is supported
+            if(Checksum.NONE != attributes.getChecksum()) {
+                progress.message(MessageFormat.format(
+                        LocaleFactory.localizedString("Compute MD5 hash of {0}", "Status"), file.getName()));
+                local.attributes().setChecksum(ChecksumComputeFactory.get(attributes.getChecksum().algorithm)
+                        .compute(local.getInputStream(), new TransferStatus()));
+                final Comparison comparison = checksum.compare(attributes, local.attributes());
+                if(!Comparison.notequal.equals(comparison)) {
+                    // Decision is available
+                    return comparison;
+                }
+            }
+        }
+        // We must always compare the size because the download filter will have already created a temporary 0 byte file
+        {
+            final Comparison comparison = size.compare(attributes, local.attributes());
+            if(!Comparison.notequal.equals(comparison)) {
+                // Decision is available. Equal local or remote.
+                return comparison;
+            }
+            // Continue to decide with timestamp when both files exist and are not zero bytes
+        }
+        // Default comparison is using timestamp of file.
+        {
+            final Comparison comparison = timestamp.compare(attributes, local.attributes());
+            if(!Comparison.notequal.equals(comparison)) {
+                // Decision is available
+                return comparison;
+            }
+        }
+        return Comparison.equal;
+    }
 }
@@ -20,6 +20,7 @@ import ch.cyberduck.core.ProgressListener;
 import ch.cyberduck.core.date.RemainingPeriodFormatter;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.RetriableAccessDeniedException;
+import ch.cyberduck.core.metrics.MetricsRegistry;
 import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 
@@ -31,6 +32,8 @@ import java.util.concurrent.Callable;
 public abstract class AbstractRetryCallable<T> implements Callable<T> {
     private static final Logger log = Logger.getLogger(AbstractRetryCallable.class);
 
+    public static final String RETRY = "connection.retry";
+
     private final Preferences preferences = PreferencesFactory.get();
 
     /**
@@ -79,6 +82,7 @@ public abstract class AbstractRetryCallable<T> implements Callable<T> {
                 return false;
         }
         log.warn(String.format("Retry for failure %s with delay of %ds", failure, delay));
+        MetricsRegistry.get().getMetrics().increment(RETRY);
         if(delay > 0) {
             final BackgroundActionPauser pause = new BackgroundActionPauser(new BackgroundActionPauser.Callback() {
                 @Override
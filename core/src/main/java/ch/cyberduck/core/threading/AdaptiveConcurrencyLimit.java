@@ -0,0 +1,173 @@
+package ch.cyberduck.core.threading;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.apache.log4j.Logger;
+
+/**
+ * Number of concurrent connections adjusted with additive increase and multiplicative decrease. Samples of
+ * completed tasks are aggregated in windows of as many tasks as the current limit allows to run concurrently. The
+ * limit is increased by one after every window unless the server throttled requests or latency has grown without
+ * any gain in throughput.
+ */
+public class AdaptiveConcurrencyLimit {
+    private static final Logger log = Logger.getLogger(AdaptiveConcurrencyLimit.class);
+
+    /**
+     * Factor to multiply limit with when server responds with throttling
+     */
+    private static final double THROTTLE_BACKOFF = 0.5d;
+    /**
+     * Factor to multiply limit with when latency increases without gain in throughput
+     */
+    private static final double LATENCY_BACKOFF = 0.75d;
+    /**
+     * Latency of a window compared to the lowest latency observed considered congestion
+     */
+    private static final double LATENCY_TOLERANCE = 2.0d;
+
+    private final int min;
+    private final int max;
+
+    private double limit;
+
+    /**
+     * Samples in current window
+     */
+    private int samples;
+    private long bytes;
+    private long latency;
+    private long start = System.currentTimeMillis();
+    /**
+     * Throttled in current window
+     */
+    private boolean throttled;
+
+    /**
+     * Throughput in bytes per second of previous window
+     */
+    private double throughput;
+    /**
+     * Lowest average latency of any window
+     */
+    private double baseline = Double.MAX_VALUE;
+
+    /**
+     * Fixed limit
+     *
+     * @param limit Number of concurrent connections
+     */
+    public AdaptiveConcurrencyLimit(final int limit) {
+        this(limit, limit, limit);
+    }
+
+    /**
+     * @param initial Initial number of concurrent connections
+     * @param min     Minimum number of concurrent connections
+     * @param max     Maximum number of concurrent connections
+     */
+    public AdaptiveConcurrencyLimit(final int initial, final int min, final int max) {
+        this.min = Math.max(1, min);
+        this.max = Math.max(this.min, max);
+        this.limit = Math.min(this.max, Math.max(this.min, initial));
+    }
+
+    /**
+     * @return Number of tasks allowed to run concurrently
+     */
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public int getMaximum() {
+        return max;
+    }
+
+    /**
+     * @param length Number of bytes transferred
+     * @param millis Duration of task
+     */
+    public synchronized void sample(final long length, final long millis) {
+        samples++;
+        bytes += length;
+        latency += millis;
+        if(samples < (int) limit) {
+            return;
+        }
+        final long elapsed = Math.max(1L, System.currentTimeMillis() - start);
+        final double rate = bytes * 1000d / elapsed;
+        final double average = (double) latency / samples;
+        if(!throttled) {
+            if(average > baseline * LATENCY_TOLERANCE && rate <= throughput) {
+                this.decrease(LATENCY_BACKOFF);
+            }
+            else {
+                this.increase();
+            }
+        }
+        baseline = Math.min(baseline, average);
+        throughput = rate;
+        this.reset();
+    }
+
+    /**
+     * Server responded with rate limiting. Decrease limit at most once per window.
+     */
+    public synchronized void throttle() {
+        if(throttled) {
+            return;
+        }
+        throttled = true;
+        this.decrease(THROTTLE_BACKOFF);
+    }
+
+    private void increase() {
+        if(limit < max) {
+            limit = Math.min(max, limit + 1);
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Increase limit to %d in %s", (int) limit, this));
+            }
+        }
+    }
+
+    private void decrease(final double factor) {
+        if(limit > min) {
+            limit = Math.max(min, limit * factor);
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Decrease limit to %d in %s", (int) limit, this));
+            }
+        }
+    }
+
+    private void reset() {
+        samples = 0;
+        bytes = 0L;
+        latency = 0L;
+        start = System.currentTimeMillis();
+        throttled = false;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("AdaptiveConcurrencyLimit{");
+        sb.append("limit=").append(limit);
+        sb.append(", min=").append(min);
+        sb.append(", max=").append(max);
+        sb.append(", throughput=").append(throughput);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,339 @@
+package ch.cyberduck.core.threading;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.log4j.Logger;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pool with a global limit of concurrent tasks shared by multiple clients. Each client obtains its own view with
+ * {@link #lane(int)} and tasks of lanes are scheduled round robin so that a client submitting many tasks cannot
+ * starve others. Shutting down a lane only cancels its own tasks.
+ */
+public class SharedThreadPool {
+    private static final Logger log = Logger.getLogger(SharedThreadPool.class);
+
+    private final ThreadPoolExecutor pool;
+
+    /**
+     * Maximum number of tasks running concurrently for all lanes
+     */
+    private final int limit;
+
+    /**
+     * Lanes with pending tasks in order of next turn
+     */
+    private final Deque<Lane> ready = new ArrayDeque<Lane>();
+
+    /**
+     * Lanes not yet shutdown and terminated
+     */
+    private final Set<Lane> lanes = new HashSet<Lane>();
+
+    private int running;
+
+    private boolean shutdown;
+
+    public SharedThreadPool(final String prefix, final int limit) {
+        this(prefix, limit, PreferencesFactory.get().getBoolean("threading.pool.virtual"));
+    }
+
+    /**
+     * @param prefix  Thread name prefix
+     * @param limit   Maximum number of concurrent tasks
+     * @param virtual Use virtual threads if supported by the runtime
+     */
+    public SharedThreadPool(final String prefix, final int limit, final boolean virtual) {
+        this.limit = Math.max(1, limit);
+        this.pool = new ThreadPoolExecutor(this.limit, this.limit,
+            PreferencesFactory.get().getLong("threading.pool.keepalive.seconds"), TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), virtual ? factory(prefix) : new NamedThreadFactory(prefix));
+        this.pool.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * @return Virtual thread factory or platform threads when running on a runtime prior to Java 21
+     */
+    private static ThreadFactory factory(final String prefix) {
+        try {
+            final Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            Object instance = Thread.class.getMethod("ofVirtual").invoke(null);
+            instance = builder.getMethod("name", String.class, long.class).invoke(instance, String.format("%s-", prefix), 1L);
+            instance = builder.getMethod("uncaughtExceptionHandler", Thread.UncaughtExceptionHandler.class)
+                .invoke(instance, new LoggingUncaughtExceptionHandler());
+            return (ThreadFactory) builder.getMethod("factory").invoke(instance);
+        }
+        catch(ClassNotFoundException | NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            log.warn(String.format("Virtual threads not supported. %s", e.getMessage()));
+            return new NamedThreadFactory(prefix);
+        }
+    }
+
+    /**
+     * @param concurrency Maximum number of tasks of this lane running concurrently
+     * @return Pool to submit tasks of a single client to
+     */
+    public ThreadPool lane(final int concurrency) {
+        final Lane lane = new Lane(Math.max(1, concurrency));
+        synchronized(this) {
+            if(shutdown) {
+                lane.shutdown();
+            }
+            else {
+                lanes.add(lane);
+            }
+        }
+        return new ExecutorServiceThreadPool(lane) {
+        };
+    }
+
+    /**
+     * Cancel tasks of all lanes and reject further submissions
+     */
+    public void shutdown() {
+        final List<Lane> live;
+        synchronized(this) {
+            shutdown = true;
+            // Includes lanes with pending tasks at their concurrency limit not in ready queue
+            live = new ArrayList<Lane>(lanes);
+            ready.clear();
+        }
+        for(Lane lane : live) {
+            lane.shutdownNow();
+        }
+        pool.shutdownNow();
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    private synchronized void enqueue(final Lane lane, final Runnable task) {
+        if(shutdown) {
+            throw new RejectedExecutionException(String.format("Pool %s is shutdown", this));
+        }
+        lane.pending.add(task);
+        if(!ready.contains(lane) && lane.running < lane.concurrency) {
+            ready.add(lane);
+        }
+        this.dispatch();
+    }
+
+    private synchronized void release(final Lane lane) {
+        lanes.remove(lane);
+    }
+
+    private synchronized List<Runnable> drain(final Lane lane) {
+        ready.remove(lane);
+        final List<Runnable> tasks = new ArrayList<Runnable>(lane.pending);
+        lane.pending.clear();
+        return tasks;
+    }
+
+    private synchronized void dispatch() {
+        while(!shutdown && running < limit && !ready.isEmpty()) {
+            final Lane lane = ready.poll();
+            final Runnable task = lane.pending.poll();
+            if(null == task) {
+                continue;
+            }
+            running++;
+            lane.running++;
+            if(!lane.pending.isEmpty() && lane.running < lane.concurrency) {
+                // Move to end of queue to give other lanes a turn
+                ready.add(lane);
+            }
+            pool.execute(new Runnable() {
+                @Override
+                public void run() {
+                    final Thread thread = Thread.currentThread();
+                    lane.started(thread);
+                    try {
+                        task.run();
+                    }
+                    finally {
+                        lane.finished(thread);
+                        completed(lane);
+                    }
+                }
+            });
+        }
+    }
+
+    private synchronized void completed(final Lane lane) {
+        running--;
+        lane.running--;
+        if(!shutdown && !lane.pending.isEmpty() && !ready.contains(lane)) {
+            ready.add(lane);
+        }
+        this.dispatch();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("SharedThreadPool{");
+        sb.append("limit=").append(limit);
+        sb.append(", running=").append(running);
+        sb.append('}');
+        return sb.toString();
+    }
+
+    private final class Lane extends AbstractExecutorService {
+        /**
+         * Guarded by the enclosing pool
+         */
+        private final Deque<Runnable> pending = new ArrayDeque<Runnable>();
+        private final int concurrency;
+        /**
+         * Guarded by the enclosing pool
+         */
+        private int running;
+
+        /**
+         * Threads currently running a task of this lane. Guarded by this lane
+         */
+        private final Set<Thread> threads = new HashSet<Thread>();
+        /**
+         * Number of tasks submitted and not yet completed or drained. Guarded by this lane
+         */
+        private int active;
+        private volatile boolean terminated;
+
+        public Lane(final int concurrency) {
+            this.concurrency = concurrency;
+        }
+
+        @Override
+        public void execute(final Runnable command) {
+            synchronized(this) {
+                if(terminated) {
+                    throw new RejectedExecutionException(String.format("Lane of pool %s is shutdown", SharedThreadPool.this));
+                }
+                active++;
+            }
+            try {
+                enqueue(this, command);
+            }
+            catch(RejectedExecutionException e) {
+                this.done(1);
+                throw e;
+            }
+        }
+
+        private synchronized void started(final Thread thread) {
+            threads.add(thread);
+        }
+
+        private void finished(final Thread thread) {
+            synchronized(this) {
+                threads.remove(thread);
+            }
+            // Clear interrupt flag set by cancellation before the thread is reused
+            Thread.interrupted();
+            this.done(1);
+            if(this.isTerminated()) {
+                release(this);
+            }
+        }
+
+        private synchronized void done(final int count) {
+            active -= count;
+            if(0 == active) {
+                this.notifyAll();
+            }
+        }
+
+        @Override
+        public void shutdown() {
+            synchronized(this) {
+                terminated = true;
+            }
+            if(this.isTerminated()) {
+                release(this);
+            }
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            final List<Runnable> tasks;
+            synchronized(this) {
+                terminated = true;
+                for(Thread thread : threads) {
+                    thread.interrupt();
+                }
+            }
+            tasks = drain(this);
+            for(Runnable task : tasks) {
+                if(task instanceof Future) {
+                    // Release callers waiting for result
+                    ((Future) task).cancel(false);
+                }
+            }
+            this.done(tasks.size());
+            release(this);
+            return tasks;
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return terminated;
+        }
+
+        @Override
+        public synchronized boolean isTerminated() {
+            return terminated && 0 == active;
+        }
+
+        @Override
+        public synchronized boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+            long remaining = unit.toMillis(timeout);
+            final long deadline = System.currentTimeMillis() + remaining;
+            while(!this.isTerminated()) {
+                if(remaining <= 0) {
+                    return false;
+                }
+                this.wait(remaining);
+                remaining = deadline - System.currentTimeMillis();
+            }
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder("Lane{");
+            sb.append("concurrency=").append(concurrency);
+            sb.append(", pool=").append(SharedThreadPool.this);
+            sb.append('}');
+            return sb.toString();
+        }
+    }
+}
@@ -63,7 +63,7 @@ public class DownloadTransfer extends Transfer {
 
     private final DownloadSymlinkResolver symlinkResolver;
 
-    private DownloadFilterOptions options = new DownloadFilterOptions();
+    private DownloadFilterOptions options;
 
     public DownloadTransfer(final Host host, final Path root, final Local local) {
         this(host, Collections.singletonList(new TransferItem(root, local)),
@@ -88,6 +88,7 @@ public class DownloadTransfer extends Transfer {
         this.filter = f;
         this.comparator = comparator;
         this.symlinkResolver = new DownloadSymlinkResolver(roots);
+        this.options = new DownloadFilterOptions(host);
     }
 
     @Override
@@ -252,6 +253,13 @@ public class DownloadTransfer extends Transfer {
             }
         }
         if(file.isFile()) {
+            if(status.isSegment() && status.isComplete()) {
+                if(log.isInfoEnabled()) {
+                    log.info(String.format("Skip segment %s completed in previous attempt", status));
+                }
+                this.addTransferred(status.getLength());
+                return file;
+            }
             listener.message(MessageFormat.format(LocaleFactory.localizedString("Downloading {0}", "Status"),
                     file.getName()));
             final Local folder = local.getParent();
@@ -24,11 +24,14 @@ import ch.cyberduck.core.ConnectionCallback;
 import ch.cyberduck.core.Host;
 import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.Local;
+import ch.cyberduck.core.LocalFactory;
 import ch.cyberduck.core.PasswordCallback;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathCache;
 import ch.cyberduck.core.ProgressListener;
 import ch.cyberduck.core.Session;
+import ch.cyberduck.core.SupportDirectoryFinderFactory;
+import ch.cyberduck.core.exception.AccessDeniedException;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.features.Find;
 import ch.cyberduck.core.io.BandwidthThrottle;
@@ -38,9 +41,11 @@ import ch.cyberduck.core.serializer.Serializer;
 import ch.cyberduck.core.shared.DefaultFindFeature;
 import ch.cyberduck.core.synchronization.CachingComparisonServiceFilter;
 import ch.cyberduck.core.synchronization.Comparison;
+import ch.cyberduck.core.synchronization.ComparisonIndex;
 import ch.cyberduck.core.synchronization.ComparisonServiceFilter;
 import ch.cyberduck.core.transfer.synchronisation.SynchronizationPathFilter;
 
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.collections4.map.LRUMap;
 import org.apache.log4j.Logger;
 
@@ -76,6 +81,11 @@ public class SyncTransfer extends Transfer {
     private final Map<TransferItem, Comparison> comparisons = Collections.synchronizedMap(new LRUMap<TransferItem, Comparison>(
         PreferencesFactory.get().getInteger("transfer.cache.size")));
 
+    /**
+     * Persistent state of previous synchronization or null if disabled
+     */
+    private final ComparisonIndex index;
+
     public SyncTransfer(final Host host, final TransferItem item) {
         this(host, item, TransferAction.callback);
     }
@@ -86,6 +96,13 @@ public class SyncTransfer extends Transfer {
         this.init();
         this.item = item;
         this.action = action;
+        if(PreferencesFactory.get().getBoolean("queue.sync.index.enable")) {
+            this.index = new ComparisonIndex(LocalFactory.get(LocalFactory.get(SupportDirectoryFinderFactory.get().find(), "Sync"),
+                String.format("%s-%s.index", host.getUuid(), DigestUtils.md5Hex(String.format("%s%s", item.remote.getAbsolute(), item.local.getAbsolute())))));
+        }
+        else {
+            this.index = null;
+        }
     }
 
     private void init() {
@@ -158,7 +175,7 @@ public class SyncTransfer extends Transfer {
         // Set chosen action (upload, download, mirror) from prompt
         return new SynchronizationPathFilter(
             comparison = new CachingComparisonServiceFilter(
-                new ComparisonServiceFilter(source, source.getHost().getTimezone(), listener).withCache(cache)
+                new ComparisonServiceFilter(source, source.getHost().getTimezone(), listener).withCache(cache).withIndex(index)
             ).withCache(comparisons),
             download.filter(source, destination, TransferAction.overwrite, listener),
             upload.filter(source, destination, TransferAction.overwrite, listener),
@@ -178,9 +195,27 @@ public class SyncTransfer extends Transfer {
             log.debug(String.format("Children for %s", directory));
         }
         final Set<TransferItem> children = new HashSet<TransferItem>();
+        if(null != index) {
+            if(PreferencesFactory.get().getBoolean("queue.sync.index.listing")) {
+                if(!cache.isCached(directory)) {
+                    final AttributedList<Path> list = index.get(directory);
+                    if(null != list) {
+                        if(log.isInfoEnabled()) {
+                            log.info(String.format("Use listing of %s from previous synchronization", directory));
+                        }
+                        cache.put(directory, list);
+                    }
+                }
+            }
+        }
         final Find finder = source.getFeature(Find.class, new DefaultFindFeature(source)).withCache(cache);
         if(finder.find(directory)) {
             children.addAll(download.list(source, destination, directory, local, listener));
+            if(null != index) {
+                if(cache.isCached(directory)) {
+                    index.put(directory, cache.get(directory));
+                }
+            }
         }
         if(local.exists()) {
             children.addAll(upload.list(source, destination, directory, local, listener));
@@ -238,6 +273,14 @@ public class SyncTransfer extends Transfer {
     public void start() {
         download.start();
         upload.start();
+        if(null != index) {
+            try {
+                index.load();
+            }
+            catch(AccessDeniedException e) {
+                log.warn(String.format("Failure %s loading index %s", e, index));
+            }
+        }
         super.start();
     }
 
@@ -245,6 +288,14 @@ public class SyncTransfer extends Transfer {
     public void stop() {
         download.stop();
         upload.stop();
+        if(null != index) {
+            try {
+                index.save();
+            }
+            catch(AccessDeniedException e) {
+                log.warn(String.format("Failure %s saving index %s", e, index));
+            }
+        }
         cache.clear();
         comparisons.clear();
         super.stop();
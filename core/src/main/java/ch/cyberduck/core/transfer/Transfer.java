@@ -32,6 +32,7 @@ import ch.cyberduck.core.Serializable;
 import ch.cyberduck.core.Session;
 import ch.cyberduck.core.UUIDRandomStringService;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.io.BandwidthScheduler;
 import ch.cyberduck.core.io.BandwidthThrottle;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.serializer.Serializer;
@@ -163,7 +164,7 @@ public abstract class Transfer implements Serializable {
     public Transfer(final Host host, final List<TransferItem> roots, final BandwidthThrottle bandwidth) {
         this.host = host;
         this.roots.addAll(roots);
-        this.bandwidth = bandwidth;
+        this.bandwidth = this.share(bandwidth);
     }
 
     public abstract Transfer withCache(final Cache<Path> cache);
@@ -199,7 +200,17 @@ public abstract class Transfer implements Serializable {
     }
 
     public void setBandwidth(final BandwidthThrottle bandwidth) {
-        this.bandwidth = bandwidth;
+        this.bandwidth = this.share(bandwidth);
+    }
+
+    /**
+     * Limit transfer by throttles shared with other transfers to the same host and all transfers
+     */
+    private BandwidthThrottle share(final BandwidthThrottle bandwidth) {
+        if(bandwidth != null) {
+            bandwidth.setParent(BandwidthScheduler.get().getHost(null == host ? null : host.getHostname()));
+        }
+        return bandwidth;
     }
 
     /**
@@ -41,6 +41,12 @@ public final class TransferOptions {
     public boolean open =
             PreferencesFactory.get().getBoolean("queue.download.complete.open");
 
+    /**
+     * Start transferring files while directories are still listed
+     */
+    public boolean streaming =
+            PreferencesFactory.get().getBoolean("queue.prepare.streaming");
+
     public TransferOptions open(boolean e) {
         open = e;
         return this;
@@ -51,6 +57,11 @@ public final class TransferOptions {
         return this;
     }
 
+    public TransferOptions streaming(boolean e) {
+        streaming = e;
+        return this;
+    }
+
     public TransferOptions reload(boolean e) {
         reloadRequested = e;
         return this;
@@ -68,6 +79,7 @@ public final class TransferOptions {
         sb.append("{resumeRequested=").append(resumeRequested);
         sb.append(", reloadRequested=").append(reloadRequested);
         sb.append(", quarantine=").append(quarantine);
+        sb.append(", streaming=").append(streaming);
         sb.append('}');
         return sb.toString();
     }
@@ -75,6 +75,11 @@ public class TransferStatus implements StreamCancelation, StreamProgress {
      */
     private boolean segment = false;
 
+    /**
+     * Position of segment in file. Unlike the offset not incremented with progress
+     */
+    private long start = 0L;
+
     /**
      * Not accepted
      */
@@ -353,6 +358,22 @@ public class TransferStatus implements StreamCancelation, StreamProgress {
         return this;
     }
 
+    /**
+     * @return Position of segment in file
+     */
+    public long getStart() {
+        return start;
+    }
+
+    public void setStart(final long start) {
+        this.start = start;
+    }
+
+    public TransferStatus start(final long start) {
+        this.setStart(start);
+        return this;
+    }
+
     public void setRejected(boolean rejected) {
         this.rejected = rejected;
     }
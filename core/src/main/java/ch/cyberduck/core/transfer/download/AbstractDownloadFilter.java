@@ -54,13 +54,20 @@ import ch.cyberduck.core.transfer.TransferStatus;
 import ch.cyberduck.core.transfer.symlink.SymlinkResolver;
 
 import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.apache.log4j.Logger;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.text.MessageFormat;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public abstract class AbstractDownloadFilter implements TransferPathFilter {
     private static final Logger log = Logger.getLogger(AbstractDownloadFilter.class);
@@ -212,21 +219,20 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
                                 status.getLength() / preferences.getInteger("queue.connections.limit"));
                         // Sorted list
                         final List<TransferStatus> segments = new ArrayList<TransferStatus>();
-                        final Local segmentsFolder = LocalFactory.get(local.getParent(), String.format("%s.cyberducksegment", local.getName()));
-                        for(int segmentNumber = 1; remaining > 0; segmentNumber++) {
-                            final Local segmentFile = LocalFactory.get(
-                                    segmentsFolder, String.format("%s-%d.cyberducksegment", local.getName(), segmentNumber));
-                            boolean skip = false;
-                            // Last part can be less than 5 MB. Adjust part size.
+                        // Segments are written to their offset in temporary file moved in place when complete
+                        final Local segmented = LocalFactory.get(local.getParent(), String.format("%s.cyberducksegment", local.getName()));
+                        while(remaining > 0) {
+                            // Last part can be less than part size
                             Long length = Math.min(partsize, remaining);
                             final TransferStatus segmentStatus = new TransferStatus()
                                     .segment(true)
                                     .append(true)
+                                    .start(offset)
                                     .skip(offset)
                                     .length(length)
-                                    .rename(segmentFile);
+                                    .rename(segmented);
                             if(log.isDebugEnabled()) {
-                                log.debug(String.format("Adding status %s for segment %s", segmentStatus, segmentFile));
+                                log.debug(String.format("Adding status %s for segment in %s", segmentStatus, segmented));
                             }
                             segments.add(segmentStatus);
                             remaining -= length;
@@ -246,7 +252,84 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
     @Override
     public void apply(final Path file, final Local local, final TransferStatus status,
                       final ProgressListener listener) throws BackgroundException {
-        //
+        if(status.isSegmented()) {
+            final Local segmented = status.getSegments().iterator().next().getRename().local;
+            final Local folder = segmented.getParent();
+            if(!folder.exists()) {
+                folder.mkdir();
+            }
+            boolean resume = false;
+            for(TransferStatus segment : status.getSegments()) {
+                if(segment.isComplete()) {
+                    resume = true;
+                    break;
+                }
+            }
+            if(!resume) {
+                final Local progress = this.progress(segmented);
+                if(progress.exists()) {
+                    // Discard progress of previous attempt
+                    progress.delete();
+                }
+            }
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Allocate %d bytes for segments in %s", status.getLength(), segmented));
+            }
+            segmented.setLength(status.getLength());
+        }
+    }
+
+    /**
+     * @param segmented Temporary file segments are written to
+     * @return File recording the end offset of every completed segment
+     */
+    protected Local progress(final Local segmented) {
+        return LocalFactory.get(segmented.getParent(), String.format("%s.progress", segmented.getName()));
+    }
+
+    /**
+     * @param segmented Temporary file segments are written to
+     * @return End offsets of segments completed in a previous attempt
+     */
+    protected Set<Long> completed(final Local segmented) {
+        final Set<Long> offsets = new HashSet<Long>();
+        final Local progress = this.progress(segmented);
+        if(progress.exists()) {
+            try (InputStream in = progress.getInputStream()) {
+                for(String line : IOUtils.readLines(in, StandardCharsets.UTF_8)) {
+                    final long offset = NumberUtils.toLong(StringUtils.trim(line), -1L);
+                    if(offset > 0L) {
+                        offsets.add(offset);
+                    }
+                }
+            }
+            catch(IOException | AccessDeniedException e) {
+                log.warn(String.format("Failure %s reading progress of segments from %s", e.getMessage(), progress));
+            }
+        }
+        return offsets;
+    }
+
+    /**
+     * Append end offset of completed segment to progress file unless recorded in a previous attempt
+     */
+    private void record(final Local segmented, final TransferStatus segment) {
+        final Local progress = this.progress(segmented);
+        final long end = segment.getStart() + segment.getLength();
+        synchronized(AbstractDownloadFilter.class) {
+            if(this.completed(segmented).contains(end)) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Skip recording segment %s completed in previous attempt", segment));
+                }
+                return;
+            }
+            try (OutputStream out = progress.getOutputStream(true)) {
+                out.write(String.format("%d%n", end).getBytes(StandardCharsets.UTF_8));
+            }
+            catch(IOException | AccessDeniedException e) {
+                log.warn(String.format("Failure %s recording progress of segment %s in %s", e.getMessage(), segment, progress));
+            }
+        }
     }
 
     /**
@@ -263,37 +346,24 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
             if(log.isDebugEnabled()) {
                 log.debug(String.format("Skip completion for single segment %s", status));
             }
+            if(status.isComplete()) {
+                // Allow to resume with remaining segments
+                this.record(local, status);
+            }
             return;
         }
         if(status.isComplete()) {
             if(status.isSegmented()) {
-                // Obtain ordered list of segments to reassemble
+                // Obtain ordered list of segments written to temporary file
                 final List<TransferStatus> segments = status.getSegments();
+                final Local segmented = segments.iterator().next().getRename().local;
                 if(log.isInfoEnabled()) {
-                    log.info(String.format("Compile %d segments to file %s", segments.size(), local));
-                }
-                if(local.exists()) {
-                    local.delete();
+                    log.info(String.format("Move %s with %d segments to %s", segmented, segments.size(), local));
                 }
-                for(Iterator<TransferStatus> iterator = segments.iterator(); iterator.hasNext(); ) {
-                    final TransferStatus segmentStatus = iterator.next();
-                    // Segment
-                    final Local segmentFile = segmentStatus.getRename().local;
-                    if(log.isInfoEnabled()) {
-                        log.info(String.format("Append segment %s to %s", segmentFile, local));
-                    }
-                    segmentFile.copy(local, new Local.CopyOptions().append(true));
-                    if(log.isInfoEnabled()) {
-                        log.info(String.format("Delete segment %s", segmentFile));
-                    }
-                    segmentFile.delete();
-                    if(!iterator.hasNext()) {
-                        final Local folder = segmentFile.getParent();
-                        if(log.isInfoEnabled()) {
-                            log.info(String.format("Remove segment folder %s", folder));
-                        }
-                        folder.delete();
-                    }
+                segmented.rename(local);
+                final Local progress = this.progress(segmented);
+                if(progress.exists()) {
+                    progress.delete();
                 }
             }
             if(log.isDebugEnabled()) {
@@ -18,6 +18,7 @@ package ch.cyberduck.core.transfer.download;
  * feedback@cyberduck.ch
  */
 
+import ch.cyberduck.core.Host;
 import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 
@@ -34,8 +35,20 @@ public final class DownloadFilterOptions {
     public final boolean checksum;
 
     public DownloadFilterOptions() {
+        this(PreferencesFactory.get().getBoolean("queue.download.segments"));
+    }
+
+    /**
+     * @param host Bookmark with protocol that may enable segmented downloads with its own setting
+     */
+    public DownloadFilterOptions(final Host host) {
+        this(PreferencesFactory.get().getBoolean("queue.download.segments")
+                || PreferencesFactory.get().getBoolean(String.format("%s.download.segments", host.getProtocol().getIdentifier())));
+    }
+
+    private DownloadFilterOptions(final boolean segments) {
         final Preferences preferences = PreferencesFactory.get();
-        segments = preferences.getBoolean("queue.download.segments");
+        this.segments = segments;
         permissions = preferences.getBoolean("queue.download.permissions.change");
         timestamp = preferences.getBoolean("queue.download.timestamp.change");
         wherefrom = preferences.getBoolean("queue.download.wherefrom");
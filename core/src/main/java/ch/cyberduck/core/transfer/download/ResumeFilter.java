@@ -32,6 +32,8 @@ import ch.cyberduck.core.transfer.symlink.SymlinkResolver;
 
 import org.apache.log4j.Logger;
 
+import java.util.Set;
+
 public class ResumeFilter extends AbstractDownloadFilter {
     private static final Logger log = Logger.getLogger(ResumeFilter.class);
 
@@ -88,16 +90,15 @@ public class ResumeFilter extends AbstractDownloadFilter {
     public TransferStatus prepare(final Path file, final Local local, final TransferStatus parent, final ProgressListener progress) throws BackgroundException {
         final TransferStatus status = super.prepare(file, local, parent, progress);
         if(status.isSegmented()) {
-            for(TransferStatus segmentStatus : status.getSegments()) {
-                final Local segmentFile = segmentStatus.getRename().local;
-                if(segmentFile.exists()) {
-                    if(log.isInfoEnabled()) {
-                        log.info(String.format("Determine if part %s can be skipped", segmentStatus));
-                    }
-                    if(segmentFile.attributes().getSize() > 0) {
-                        segmentStatus.setAppend(true);
-                        segmentStatus.setLength(segmentStatus.getLength() - segmentFile.attributes().getSize());
-                        segmentStatus.setOffset(segmentStatus.getOffset() + segmentFile.attributes().getSize());
+            final Local segmented = status.getSegments().iterator().next().getRename().local;
+            if(segmented.exists() && segmented.attributes().getSize() == status.getLength()) {
+                final Set<Long> completed = this.completed(segmented);
+                for(TransferStatus segmentStatus : status.getSegments()) {
+                    if(completed.contains(segmentStatus.getStart() + segmentStatus.getLength())) {
+                        if(log.isInfoEnabled()) {
+                            log.info(String.format("Skip completed segment %s", segmentStatus));
+                        }
+                        segmentStatus.setComplete();
                     }
                 }
             }
@@ -37,6 +37,7 @@ import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.notification.NotificationService;
 import ch.cyberduck.core.notification.NotificationServiceFactory;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.threading.TransferBackgroundActionState;
 import ch.cyberduck.core.transfer.SynchronizingTransferErrorCallback;
 import ch.cyberduck.core.transfer.Transfer;
@@ -58,6 +59,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
 
 public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
@@ -100,6 +102,12 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
 
     private final StreamListener stream;
 
+    /**
+     * Streaming transfer of a single file. The table of transfer status only holds files in flight when streaming
+     * and its size cannot tell a single file transfer.
+     */
+    private volatile boolean single;
+
     public AbstractTransferWorker(final Transfer transfer, final TransferOptions options,
                                   final TransferPrompt prompt, final TransferSpeedometer meter,
                                   final TransferErrorCallback error,
@@ -117,7 +125,7 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                                   final StreamListener stream,
                                   final ConnectionCallback connectionCallback, final PasswordCallback passwordCallback,
                                   final Cache<TransferItem> cache) {
-        this(transfer, options, prompt, meter, error, progress, stream, connectionCallback, passwordCallback, cache, new HashMap<Path, TransferStatus>());
+        this(transfer, options, prompt, meter, error, progress, stream, connectionCallback, passwordCallback, cache, new ConcurrentHashMap<Path, TransferStatus>());
     }
 
     public AbstractTransferWorker(final Transfer transfer, final TransferOptions options,
@@ -149,6 +157,13 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
 
     protected abstract Future<TransferStatus> submit(TransferCallable callable) throws BackgroundException;
 
+    /**
+     * @param lane Queue for scheduling concurrent tasks
+     */
+    protected Future<TransferStatus> submit(final TransferCallable callable, final TransferScheduler.Lane lane) throws BackgroundException {
+        return this.submit(callable);
+    }
+
     protected abstract Session<?> borrow(Connection type) throws BackgroundException;
 
     protected abstract void release(Session session, Connection type) throws BackgroundException;
@@ -172,6 +187,32 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
         // No need to implement for single threaded transfer
     }
 
+    /**
+     * Wait for any submitted task to complete
+     *
+     * @return False if there are no incomplete tasks
+     */
+    protected boolean poll() throws BackgroundException {
+        // No need to implement for single threaded transfer
+        return false;
+    }
+
+    /**
+     * @return Number of submitted tasks not yet completed
+     */
+    protected int getIncomplete() {
+        return 0;
+    }
+
+    /**
+     * Invoked for every failure of a task including failures that are retried
+     *
+     * @param failure Failure
+     */
+    protected void diagnose(final BackgroundException failure) {
+        //
+    }
+
     @Override
     public Boolean run(final Session<?> source, final Session<?> destination) throws BackgroundException {
         final String lock = sleep.lock();
@@ -207,18 +248,23 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
             progress.message(MessageFormat.format(LocaleFactory.localizedString("Prepare {0} ({1})", "Status"), transfer.getName(), action.getTitle()));
             transfer.normalize();
 
-            // Calculate information about the files in advance to give progress information
-            for(TransferItem next : transfer.getRoots()) {
-                this.prepare(next.remote, next.local, new TransferStatus().exists(true), action);
+            if(options.streaming) {
+                this.stream(source, destination, action);
             }
-            this.await();
-            meter.reset();
-            transfer.pre(source, destination, table, connectionCallback);
-            // Transfer all files sequentially
-            for(TransferItem next : transfer.getRoots()) {
-                this.transfer(next, action);
+            else {
+                // Calculate information about the files in advance to give progress information
+                for(TransferItem next : transfer.getRoots()) {
+                    this.prepare(next.remote, next.local, new TransferStatus().exists(true), action);
+                }
+                this.await();
+                meter.reset();
+                transfer.pre(source, destination, table, connectionCallback);
+                // Transfer all files sequentially
+                for(TransferItem next : transfer.getRoots()) {
+                    this.transfer(next, action);
+                }
+                this.await();
             }
-            this.await();
         }
         finally {
             transfer.post(source, destination, table, connectionCallback);
@@ -232,6 +278,54 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
         return true;
     }
 
+    /**
+     * Transfer files while directories are still being listed. Files are submitted for transfer as soon as their
+     * status is determined and directory listings not yet prepared are queued with a bounded number of items in
+     * memory. No directory listing is retained after its children have been queued.
+     *
+     * @param action Transfer action for existing files
+     */
+    protected void stream(final Session<?> source, final Session<?> destination, final TransferAction action) throws BackgroundException {
+        final SpoolingTransferItemQueue pending = new SpoolingTransferItemQueue();
+        try {
+            meter.reset();
+            // Bulk features only obtain the root items as files are not known in advance
+            final Map<Path, TransferStatus> roots = new HashMap<Path, TransferStatus>();
+            for(TransferItem next : transfer.getRoots()) {
+                roots.put(next.remote, new TransferStatus().exists(true));
+            }
+            transfer.pre(source, destination, roots, connectionCallback);
+            single = roots.size() == 1 && roots.keySet().iterator().next().isFile();
+            for(TransferItem next : transfer.getRoots()) {
+                this.prepare(next.remote, next.local, new TransferStatus().exists(true), action, pending);
+            }
+            final int limit = PreferencesFactory.get().getInteger("queue.prepare.streaming.memory");
+            while(!this.isCanceled()) {
+                if(this.getIncomplete() >= limit) {
+                    // Bound number of items in flight
+                    this.poll();
+                    continue;
+                }
+                final SpoolingTransferItemQueue.Entry next = pending.poll();
+                if(null == next) {
+                    // Wait for running listings to add more items
+                    if(this.poll()) {
+                        continue;
+                    }
+                    if(pending.isEmpty()) {
+                        break;
+                    }
+                    continue;
+                }
+                this.prepare(next.getItem().remote, next.getItem().local, next.getParent(), action, pending);
+            }
+            this.await();
+        }
+        finally {
+            pending.close();
+        }
+    }
+
     /**
      * To be called before any file is actually transferred
      *
@@ -239,6 +333,16 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
      * @param action Transfer action for existing files
      */
     public Future<TransferStatus> prepare(final Path file, final Local local, final TransferStatus parent, final TransferAction action) throws BackgroundException {
+        return this.prepare(file, local, parent, action, null);
+    }
+
+    /**
+     * @param file    File to transfer
+     * @param action  Transfer action for existing files
+     * @param pending Queue for children of directory or null to recursively prepare all files before transfer
+     */
+    private Future<TransferStatus> prepare(final Path file, final Local local, final TransferStatus parent, final TransferAction action,
+                                           final SpoolingTransferItemQueue pending) throws BackgroundException {
         if(log.isDebugEnabled()) {
             log.debug(String.format("Find transfer status of %s for transfer %s", file, this));
         }
@@ -291,13 +395,27 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                                 final List<TransferItem> children;
                                 // Call recursively for all children
                                 children = transfer.list(source, destination, file, local, new WorkerListProgressListener(AbstractTransferWorker.this, progress));
-                                // Put into cache for later reference when transferring
-                                cache.put(item, new AttributedList<TransferItem>(children));
-                                // Call recursively
-                                for(TransferItem f : children) {
-                                    // Change download path relative to parent local folder
-                                    prepare(f.remote, f.local, status, action);
+                                if(null == pending) {
+                                    // Put into cache for later reference when transferring
+                                    cache.put(item, new AttributedList<TransferItem>(children));
+                                    // Call recursively
+                                    for(TransferItem f : children) {
+                                        // Change download path relative to parent local folder
+                                        prepare(f.remote, f.local, status, action);
+                                    }
                                 }
+                                else {
+                                    // Create directory before any of its children is transferred
+                                    item.remote = transfer.transfer(source, destination, item.remote, item.local,
+                                            options, status, connectionCallback, passwordCallback, progress, stream);
+                                    filter.complete(item.remote, item.local, options, status, progress);
+                                    table.remove(file);
+                                    pending.add(status, children);
+                                }
+                            }
+                            else if(null != pending) {
+                                // Submit for transfer without waiting for other files to be prepared
+                                transfer(new TransferItem(file, local), action);
                             }
                             if(log.isInfoEnabled()) {
                                 log.info(String.format("Determined transfer status %s of %s for transfer %s", status, file, this));
@@ -309,11 +427,12 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                         throw e;
                     }
                     catch(BackgroundException e) {
+                        diagnose(e);
                         if(this.retry(e, progress, new TransferBackgroundActionState(parent))) {
                             // Retry immediately
                             return call();
                         }
-                        if(table.size() == 0) {
+                        if(options.streaming ? single : table.size() == 0) {
                             throw e;
                         }
                         // Prompt to continue or abort for application errors
@@ -414,6 +533,7 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                             throw e;
                         }
                         catch(BackgroundException e) {
+                            diagnose(e);
                             if(this.retry(e, progress, new TransferBackgroundActionState(status))) {
                                 // Set retry count to make multipart uploads search for existing segments
                                 segment.setRetry(this.getCount());
@@ -422,7 +542,7 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                                 return call();
                             }
                             segment.setFailure();
-                            if(table.size() == 1) {
+                            if(options.streaming ? single : table.size() == 1) {
                                 throw e;
                             }
                             // Prompt to continue or abort for application errors
@@ -454,7 +574,7 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                         sb.append('}');
                         return sb.toString();
                     }
-                });
+                }, status.isSegmented() ? TransferScheduler.Lane.segment : TransferScheduler.Lane.file);
             }
             return this.submit(new TransferCallable() {
                 @Override
@@ -504,7 +624,7 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                     sb.append('}');
                     return sb.toString();
                 }
-            });
+            }, status.isSegmented() ? TransferScheduler.Lane.segment : TransferScheduler.Lane.prepare);
         }
         else {
             log.warn(String.format("Skip file %s with unknown transfer status", item));
@@ -25,11 +25,13 @@ import ch.cyberduck.core.ProgressListener;
 import ch.cyberduck.core.Session;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.exception.RetriableAccessDeniedException;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.pool.SessionPool;
+import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.AdaptiveConcurrencyLimit;
 import ch.cyberduck.core.threading.BackgroundActionState;
-import ch.cyberduck.core.threading.ThreadPool;
 import ch.cyberduck.core.threading.ThreadPoolFactory;
 import ch.cyberduck.core.transfer.Transfer;
 import ch.cyberduck.core.transfer.TransferErrorCallback;
@@ -40,10 +42,13 @@ import ch.cyberduck.core.transfer.TransferStatus;
 
 import org.apache.log4j.Logger;
 
-import java.util.concurrent.CompletionService;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class ConcurrentTransferWorker extends AbstractTransferWorker {
@@ -52,7 +57,11 @@ public class ConcurrentTransferWorker extends AbstractTransferWorker {
     private final SessionPool source;
     private final SessionPool destination;
 
-    private final CompletionService<TransferStatus> completion;
+    private final TransferScheduler scheduler;
+    /**
+     * Completed tasks in order of completion
+     */
+    private final BlockingQueue<Future<TransferStatus>> completion = new LinkedBlockingQueue<Future<TransferStatus>>();
     // Keep number of submited tasks
     private final AtomicInteger size = new AtomicInteger();
 
@@ -70,10 +79,21 @@ public class ConcurrentTransferWorker extends AbstractTransferWorker {
         super(transfer, options, prompt, meter, error, progressListener, streamListener, connectionCallback, passwordCallback);
         this.source = source;
         this.destination = destination;
-        final ThreadPool pool = ThreadPoolFactory.get("transfer",
-                transfer.getSource().getTransferType() == Host.TransferType.newconnection ?
-                        1 : PreferencesFactory.get().getInteger("queue.connections.limit"));
-        this.completion = new ExecutorCompletionService<TransferStatus>(pool.executor());
+        final AdaptiveConcurrencyLimit limit = this.limit(transfer);
+        this.scheduler = new TransferScheduler(ThreadPoolFactory.get("transfer", limit.getMaximum()), limit);
+    }
+
+    private AdaptiveConcurrencyLimit limit(final Transfer transfer) {
+        if(transfer.getSource().getTransferType() == Host.TransferType.newconnection) {
+            return new AdaptiveConcurrencyLimit(1);
+        }
+        final Preferences preferences = PreferencesFactory.get();
+        final int connections = preferences.getInteger("queue.connections.limit");
+        if(preferences.getBoolean("queue.connections.adaptive")) {
+            return new AdaptiveConcurrencyLimit(connections, 1,
+                    Math.max(connections, preferences.getInteger("queue.connections.adaptive.max")));
+        }
+        return new AdaptiveConcurrencyLimit(connections);
     }
 
     @Override
@@ -121,12 +141,75 @@ public class ConcurrentTransferWorker extends AbstractTransferWorker {
 
     @Override
     public Future<TransferStatus> submit(final TransferCallable callable) throws BackgroundException {
+        return this.submit(callable, TransferScheduler.Lane.prepare);
+    }
+
+    @Override
+    protected Future<TransferStatus> submit(final TransferCallable callable, final TransferScheduler.Lane lane) throws BackgroundException {
         if(log.isInfoEnabled()) {
-            log.info(String.format("Submit %s to pool", callable));
+            log.info(String.format("Submit %s to queue %s", callable, lane));
         }
-        final Future<TransferStatus> f = completion.submit(callable);
+        final FutureTask<TransferStatus> task = new FutureTask<TransferStatus>(new Callable<TransferStatus>() {
+            @Override
+            public TransferStatus call() throws BackgroundException {
+                final long start = System.currentTimeMillis();
+                final TransferStatus status = callable.call();
+                if(TransferScheduler.Lane.prepare != lane && null != status && !status.isSegmented()) {
+                    // Only sample tasks transferring content
+                    scheduler.getLimit().sample(status.getLength(), System.currentTimeMillis() - start);
+                }
+                return status;
+            }
+        }) {
+            @Override
+            protected void done() {
+                completion.add(this);
+            }
+        };
+        // Count before submitting to never report no incomplete tasks while task is being submitted
         size.incrementAndGet();
-        return f;
+        scheduler.execute(task, lane);
+        return task;
+    }
+
+    @Override
+    protected void diagnose(final BackgroundException failure) {
+        if(failure instanceof RetriableAccessDeniedException) {
+            // Rate limiting or service unavailable
+            scheduler.getLimit().throttle();
+        }
+    }
+
+    @Override
+    protected int getIncomplete() {
+        return size.get();
+    }
+
+    @Override
+    protected boolean poll() throws BackgroundException {
+        if(size.get() == 0) {
+            return false;
+        }
+        try {
+            final TransferStatus status = completion.take().get();
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Finished task with return value %s", status));
+            }
+        }
+        catch(InterruptedException | CancellationException e) {
+            log.warn(String.format("Unhandled failure %s", e));
+            throw new ConnectionCanceledException(e);
+        }
+        catch(ExecutionException e) {
+            if(e.getCause() instanceof BackgroundException) {
+                throw (BackgroundException) e.getCause();
+            }
+            throw new DefaultExceptionMappingService().map(e.getCause());
+        }
+        finally {
+            size.decrementAndGet();
+        }
+        return true;
     }
 
     @Override
@@ -145,7 +228,7 @@ public class ConcurrentTransferWorker extends AbstractTransferWorker {
                     log.info(String.format("Finished task with return value %s", status));
                 }
             }
-            catch(InterruptedException e) {
+            catch(InterruptedException | CancellationException e) {
                 // Errors are handled in transfer worker error callback already
                 log.warn(String.format("Unhandled failure %s", e));
                 throw new ConnectionCanceledException(e);
@@ -168,7 +251,7 @@ public class ConcurrentTransferWorker extends AbstractTransferWorker {
         final StringBuilder sb = new StringBuilder("ConcurrentTransferWorker{");
         sb.append("source=").append(source);
         sb.append(", destination=").append(destination);
-        sb.append(", pool=").append(completion);
+        sb.append(", scheduler=").append(scheduler);
         sb.append('}');
         return sb.toString();
     }
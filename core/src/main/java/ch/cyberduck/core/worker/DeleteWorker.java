@@ -32,6 +32,14 @@ import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.exception.UnsupportedException;
 import ch.cyberduck.core.features.Delete;
+import ch.cyberduck.core.pool.SessionPool;
+import ch.cyberduck.core.pool.StatefulSessionPool;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.BackgroundActionState;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
+
+import org.apache.log4j.Logger;
 
 import java.text.MessageFormat;
 import java.util.ArrayList;
@@ -40,8 +48,16 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class DeleteWorker extends Worker<List<Path>> {
+    private static final Logger log = Logger.getLogger(DeleteWorker.class);
 
     private final Cache<Path> cache;
     /**
@@ -51,23 +67,52 @@ public class DeleteWorker extends Worker<List<Path>> {
     private final LoginCallback prompt;
     private final ProgressListener listener;
     private final Filter<Path> filter;
+    /**
+     * Pool to borrow connections from for deleting files in parallel or null
+     */
+    private final SessionPool pool;
+    private final int concurrency;
+    private final int size;
 
     public DeleteWorker(final LoginCallback prompt, final List<Path> files, final Cache<Path> cache, final ProgressListener listener) {
         this(prompt, files, cache, new NullFilter<Path>(), listener);
     }
 
     public DeleteWorker(final LoginCallback prompt, final List<Path> files, final Cache<Path> cache, final Filter<Path> filter, final ProgressListener listener) {
+        this(prompt, files, cache, filter, listener, null);
+    }
+
+    public DeleteWorker(final LoginCallback prompt, final List<Path> files, final Cache<Path> cache, final Filter<Path> filter, final ProgressListener listener,
+                        final SessionPool pool) {
+        this(prompt, files, cache, filter, listener, pool,
+            PreferencesFactory.get().getInteger("delete.concurrency"),
+            PreferencesFactory.get().getInteger("delete.batch.size"));
+    }
+
+    /**
+     * @param pool        Connection pool to borrow sessions from for parallel delete or null
+     * @param concurrency Maximum number of delete requests in parallel
+     * @param size        Maximum number of files passed to delete feature at once
+     */
+    public DeleteWorker(final LoginCallback prompt, final List<Path> files, final Cache<Path> cache, final Filter<Path> filter, final ProgressListener listener,
+                        final SessionPool pool, final int concurrency, final int size) {
         this.files = files;
         this.prompt = prompt;
         this.listener = listener;
         this.filter = filter;
         this.cache = cache;
+        this.pool = pool;
+        this.concurrency = concurrency;
+        this.size = size;
     }
 
     @Override
     public List<Path> run(final Session<?> session) throws BackgroundException {
         final Delete delete = session.getFeature(Delete.class);
         final ListService list = session.getFeature(ListService.class);
+        if(null != pool && !(pool instanceof StatefulSessionPool) && concurrency > 1 && !delete.isRecursive()) {
+            return new Pipeline().run(delete, list);
+        }
         final List<Path> recursive = new ArrayList<Path>();
         for(Path file : files) {
             if(this.isCanceled()) {
@@ -151,7 +196,227 @@ public class DeleteWorker extends Worker<List<Path>> {
     public String toString() {
         final StringBuilder sb = new StringBuilder("DeleteWorker{");
         sb.append("files=").append(files);
+        sb.append(", concurrency=").append(concurrency);
         sb.append('}');
         return sb.toString();
     }
+
+    private final class Pipeline {
+        private final ThreadPool threads = ThreadPoolFactory.get("delete", concurrency);
+        /**
+         * Delete requests in progress
+         */
+        private final Semaphore permits = new Semaphore(concurrency);
+        /**
+         * Files not yet passed to delete feature
+         */
+        private final List<Node> buffer = new ArrayList<Node>();
+        /**
+         * Directories with all children deleted
+         */
+        private final BlockingQueue<Node> ready = new LinkedBlockingQueue<Node>();
+        /**
+         * Number of files found and not yet deleted
+         */
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicReference<BackgroundException> failure = new AtomicReference<BackgroundException>();
+        private final List<Path> deleted = Collections.synchronizedList(new ArrayList<Path>());
+
+        /**
+         * Delete files in batches while listing directories and delete directories once empty
+         */
+        public List<Path> run(final Delete delete, final ListService list) throws BackgroundException {
+            try {
+                final ListProgressListener progress = new WorkerListProgressListener(DeleteWorker.this, listener);
+                for(Path file : files) {
+                    if(DeleteWorker.this.isCanceled()) {
+                        throw new ConnectionCanceledException();
+                    }
+                    if(!delete.isSupported(file)) {
+                        throw new UnsupportedException();
+                    }
+                    this.compile(delete, list, progress, new Node(file, null));
+                }
+                // Wait for directories to become empty
+                while(outstanding.get() > 0) {
+                    this.verify();
+                    try {
+                        final Node directory = ready.poll(100L, TimeUnit.MILLISECONDS);
+                        if(null != directory) {
+                            buffer.add(directory);
+                        }
+                    }
+                    catch(InterruptedException e) {
+                        throw new ConnectionCanceledException(e);
+                    }
+                    ready.drainTo(buffer);
+                    this.flush();
+                }
+                this.verify();
+            }
+            finally {
+                threads.shutdown(null == failure.get());
+            }
+            return new ArrayList<Path>(deleted);
+        }
+
+        private void compile(final Delete delete, final ListService list, final ListProgressListener progress, final Node node) throws BackgroundException {
+            if(node.file.isFile() || node.file.isSymbolicLink()) {
+                // Never follow symbolic link to directory
+                outstanding.incrementAndGet();
+                this.offer(node);
+            }
+            else if(node.file.isDirectory()) {
+                outstanding.incrementAndGet();
+                for(Path child : list.list(node.file, progress).filter(filter)) {
+                    this.verify();
+                    if(!delete.isSupported(child)) {
+                        throw new UnsupportedException();
+                    }
+                    if(!child.isFile() && !child.isSymbolicLink() && !child.isDirectory()) {
+                        continue;
+                    }
+                    node.pending.incrementAndGet();
+                    this.compile(delete, list, progress, new Node(child, node));
+                }
+                if(node.pending.decrementAndGet() > 0) {
+                    // Delete after children
+                    return;
+                }
+                this.offer(node);
+            }
+        }
+
+        private void offer(final Node node) throws BackgroundException {
+            buffer.add(node);
+            ready.drainTo(buffer);
+            if(buffer.size() < size) {
+                if(permits.tryAcquire()) {
+                    // Idle connection available
+                    this.submit(this.take(), true);
+                }
+                return;
+            }
+            this.flush();
+        }
+
+        /**
+         * Submit all files buffered waiting for free slots
+         */
+        private void flush() throws BackgroundException {
+            while(!buffer.isEmpty()) {
+                this.submit(this.take(), false);
+            }
+        }
+
+        private List<Node> take() {
+            final List<Node> batch = new ArrayList<Node>(buffer.subList(0, Math.min(size, buffer.size())));
+            buffer.subList(0, batch.size()).clear();
+            return batch;
+        }
+
+        private void submit(final List<Node> batch, final boolean acquired) throws BackgroundException {
+            if(!acquired) {
+                try {
+                    while(!permits.tryAcquire(100L, TimeUnit.MILLISECONDS)) {
+                        this.verify();
+                    }
+                }
+                catch(InterruptedException e) {
+                    throw new ConnectionCanceledException(e);
+                }
+            }
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Submit %d files for delete", batch.size()));
+            }
+            threads.execute(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    try {
+                        delete(batch);
+                    }
+                    catch(BackgroundException e) {
+                        failure.compareAndSet(null, e);
+                    }
+                    finally {
+                        permits.release();
+                    }
+                    return null;
+                }
+            });
+        }
+
+        private void delete(final List<Node> batch) throws BackgroundException {
+            final List<Path> paths = new ArrayList<Path>(batch.size());
+            for(Node node : batch) {
+                paths.add(node.file);
+            }
+            final Session<?> session = pool.borrow(new BackgroundActionState() {
+                @Override
+                public boolean isCanceled() {
+                    return DeleteWorker.this.isCanceled();
+                }
+
+                @Override
+                public boolean isRunning() {
+                    return true;
+                }
+            });
+            BackgroundException cause = null;
+            try {
+                session.getFeature(Delete.class).delete(paths, prompt, new Delete.Callback() {
+                    @Override
+                    public void delete(final Path file) {
+                        listener.message(MessageFormat.format(LocaleFactory.localizedString("Deleting {0}", "Status"),
+                            file.getName()));
+                    }
+                });
+            }
+            catch(BackgroundException e) {
+                cause = e;
+                throw e;
+            }
+            finally {
+                pool.release(session, cause);
+            }
+            deleted.addAll(paths);
+            for(Node node : batch) {
+                if(null != node.parent) {
+                    if(node.parent.pending.decrementAndGet() == 0) {
+                        ready.add(node.parent);
+                    }
+                }
+                outstanding.decrementAndGet();
+            }
+        }
+
+        /**
+         * Fail with first error from delete requests or when canceled
+         */
+        private void verify() throws BackgroundException {
+            if(failure.get() != null) {
+                throw failure.get();
+            }
+            if(DeleteWorker.this.isCanceled()) {
+                throw new ConnectionCanceledException();
+            }
+        }
+    }
+
+    /**
+     * File to delete with number of children not yet deleted
+     */
+    private static final class Node {
+        private final Path file;
+        private final Node parent;
+        /**
+         * Children not yet deleted and listing in progress
+         */
+        private final AtomicInteger pending = new AtomicInteger(1);
+
+        private Node(final Path file, final Node parent) {
+            this.file = file;
+            this.parent = parent;
+        }
+    }
 }
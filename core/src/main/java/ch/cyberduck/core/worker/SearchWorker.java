@@ -21,17 +21,34 @@ import ch.cyberduck.core.Filter;
 import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.LocaleFactory;
 import ch.cyberduck.core.Path;
+import ch.cyberduck.core.ProxyListProgressListener;
 import ch.cyberduck.core.Session;
+import ch.cyberduck.core.SynchronizingListProgressListener;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.features.Search;
+import ch.cyberduck.core.pool.SessionPool;
+import ch.cyberduck.core.pool.StatefulSessionPool;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.BackgroundActionState;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
 
 import org.apache.log4j.Logger;
 
 import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Pattern;
 
 public class SearchWorker extends Worker<AttributedList<Path>> {
@@ -41,19 +58,52 @@ public class SearchWorker extends Worker<AttributedList<Path>> {
     private final Filter<Path> filter;
     private final Cache<Path> cache;
     private final ListProgressListener listener;
+    /**
+     * Pool to borrow additional connections from for searching directories in parallel or null
+     */
+    private final SessionPool pool;
+    private final int concurrency;
+    private final int capacity;
 
     public SearchWorker(final Path directory, final Filter<Path> filter, final Cache<Path> cache, final ListProgressListener listener) {
+        this(directory, filter, cache, listener, null);
+    }
+
+    public SearchWorker(final Path directory, final Filter<Path> filter, final Cache<Path> cache, final ListProgressListener listener,
+                        final SessionPool pool) {
+        this(directory, filter, cache, listener, pool,
+            PreferencesFactory.get().getInteger("browser.search.concurrency"),
+            PreferencesFactory.get().getInteger("browser.search.queue.size"));
+    }
+
+    /**
+     * @param pool        Connection pool to borrow sessions from for parallel search or null
+     * @param concurrency Maximum number of directories listed in parallel
+     * @param capacity    Maximum number of directories queued for search
+     */
+    public SearchWorker(final Path directory, final Filter<Path> filter, final Cache<Path> cache, final ListProgressListener listener,
+                        final SessionPool pool, final int concurrency, final int capacity) {
         this.directory = directory;
         this.filter = filter;
         this.cache = cache;
         this.listener = listener;
+        this.pool = pool;
+        this.concurrency = concurrency;
+        this.capacity = capacity;
     }
 
     @Override
     public AttributedList<Path> run(final Session<?> session) throws BackgroundException {
-        // Run recursively
         final Search search = session.getFeature(Search.class).withCache(cache);
-        return this.search(search, directory);
+        if(search.isRecursive() || null == pool || concurrency < 2) {
+            // Run recursively
+            return this.search(search, directory);
+        }
+        if(pool instanceof StatefulSessionPool) {
+            // Single connection already borrowed for this worker
+            return this.search(search, directory);
+        }
+        return this.parallel(search);
     }
 
     private AttributedList<Path> search(final Search search, final Path workdir) throws BackgroundException {
@@ -61,7 +111,8 @@ public class SearchWorker extends Worker<AttributedList<Path>> {
             throw new ConnectionCanceledException();
         }
         // Get filtered list from search
-        final AttributedList<Path> list = search.search(workdir, new RecursiveSearchFilter(), new WorkerListProgressListener(this, listener));
+        final AttributedList<Path> list = search.search(workdir, new RecursiveSearchFilter(),
+            new ProxyListProgressListener(new WorkerListProgressListener(this, listener), listener));
         if(!search.isRecursive()) {
             final Set<Path> removal = new HashSet<>();
             for(final Path file : list) {
@@ -81,6 +132,137 @@ public class SearchWorker extends Worker<AttributedList<Path>> {
         return list;
     }
 
+    /**
+     * Breadth first search with directories queued for listing by the calling thread and additional connections
+     * borrowed from the pool. Directories without any match in their subtree are removed from the listing of the
+     * parent once all descendants have been searched.
+     */
+    private AttributedList<Path> parallel(final Search search) throws BackgroundException {
+        final BlockingQueue<Node> queue = new LinkedBlockingQueue<Node>(capacity);
+        final CountDownLatch done = new CountDownLatch(1);
+        final AtomicReference<BackgroundException> failure = new AtomicReference<BackgroundException>();
+        final Node root = new Node(directory, null);
+        if(!queue.offer(root)) {
+            return this.search(search, directory);
+        }
+        // Notified from multiple threads
+        final ListProgressListener synchronizing = new SynchronizingListProgressListener(listener);
+        final ThreadPool threads = ThreadPoolFactory.get("search", concurrency - 1);
+        try {
+            for(int i = 0; i < concurrency - 1; i++) {
+                threads.execute(new Callable<Void>() {
+                    @Override
+                    public Void call() {
+                        final Session<?> session;
+                        try {
+                            session = pool.borrow(new BackgroundActionState() {
+                                @Override
+                                public boolean isCanceled() {
+                                    return SearchWorker.this.isCanceled();
+                                }
+
+                                @Override
+                                public boolean isRunning() {
+                                    return true;
+                                }
+                            });
+                        }
+                        catch(BackgroundException e) {
+                            log.warn(String.format("Failure %s obtaining connection for search", e));
+                            return null;
+                        }
+                        try {
+                            poll(session.getFeature(Search.class).withCache(cache), queue, done, failure, synchronizing);
+                        }
+                        finally {
+                            pool.release(session, failure.get());
+                        }
+                        return null;
+                    }
+                });
+            }
+            // Calling thread searches with its own connection
+            this.poll(search, queue, done, failure, synchronizing);
+        }
+        finally {
+            threads.shutdown(null == failure.get());
+        }
+        if(failure.get() != null) {
+            throw failure.get();
+        }
+        return root.list;
+    }
+
+    private void poll(final Search search, final BlockingQueue<Node> queue, final CountDownLatch done,
+                      final AtomicReference<BackgroundException> failure, final ListProgressListener listener) {
+        while(done.getCount() > 0) {
+            try {
+                final Node node = queue.poll(100L, TimeUnit.MILLISECONDS);
+                if(null == node) {
+                    continue;
+                }
+                this.search(search, queue, node, done, listener);
+            }
+            catch(InterruptedException e) {
+                log.warn("Interrupted while waiting for directory to search");
+                failure.compareAndSet(null, new ConnectionCanceledException(e));
+                done.countDown();
+            }
+            catch(BackgroundException e) {
+                failure.compareAndSet(null, e);
+                done.countDown();
+            }
+        }
+    }
+
+    private void search(final Search search, final BlockingQueue<Node> queue, final Node node, final CountDownLatch done,
+                        final ListProgressListener listener) throws BackgroundException {
+        if(this.isCanceled()) {
+            throw new ConnectionCanceledException();
+        }
+        node.list = search.search(node.directory, new RecursiveSearchFilter(),
+            new ProxyListProgressListener(new WorkerListProgressListener(this, listener), listener));
+        final List<Node> children = new ArrayList<Node>();
+        for(final Path file : node.list) {
+            if(file.isDirectory()) {
+                children.add(new Node(file, node));
+            }
+        }
+        // Released once listing is complete
+        node.pending.addAndGet(children.size());
+        for(Node child : children) {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Recursively search in %s", child.directory));
+            }
+            if(!queue.offer(child)) {
+                // Queue full
+                this.search(search, queue, child, done, listener);
+            }
+        }
+        this.release(node, done);
+    }
+
+    private void release(final Node node, final CountDownLatch done) {
+        if(node.pending.decrementAndGet() > 0) {
+            return;
+        }
+        synchronized(node) {
+            node.list.removeAll(node.removal);
+        }
+        if(null == node.parent) {
+            done.countDown();
+            return;
+        }
+        if(node.list.isEmpty()) {
+            synchronized(node.parent) {
+                if(node.parent.list.attributes().addHidden(node.directory)) {
+                    node.parent.removal.add(node.directory);
+                }
+            }
+        }
+        this.release(node.parent, done);
+    }
+
     @Override
     public AttributedList<Path> initialize() {
         return AttributedList.emptyList();
@@ -112,6 +294,7 @@ public class SearchWorker extends Worker<AttributedList<Path>> {
     public String toString() {
         final StringBuilder sb = new StringBuilder("SearchWorker{");
         sb.append("filter='").append(filter).append('\'');
+        sb.append(", concurrency=").append(concurrency);
         sb.append('}');
         return sb.toString();
     }
@@ -143,4 +326,26 @@ public class SearchWorker extends Worker<AttributedList<Path>> {
             return false;
         }
     }
+
+    /**
+     * Directory to search with number of pending subdirectories
+     */
+    private static final class Node {
+        private final Path directory;
+        private final Node parent;
+        /**
+         * Listing of directory and subdirectories not yet searched
+         */
+        private final AtomicInteger pending = new AtomicInteger(1);
+        /**
+         * Subdirectories without match
+         */
+        private final Set<Path> removal = new HashSet<Path>();
+        private volatile AttributedList<Path> list;
+
+        private Node(final Path directory, final Node parent) {
+            this.directory = directory;
+            this.parent = parent;
+        }
+    }
 }
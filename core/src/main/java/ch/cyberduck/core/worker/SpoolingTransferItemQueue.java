@@ -0,0 +1,265 @@
+package ch.cyberduck.core.worker;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.LocalFactory;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathAttributes;
+import ch.cyberduck.core.Permission;
+import ch.cyberduck.core.exception.AccessDeniedException;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.io.Checksum;
+import ch.cyberduck.core.io.HashAlgorithm;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.transfer.TransferItem;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * First-in-first-out queue of files pending to be prepared for transfer. Keeps up to a given number of items in
+ * memory and appends any further directory listings to a spool file on disk until the queue is drained.
+ * <p>
+ * Spooled items retain the same subset of attributes as the serialized transfer queue. Items referencing a vault
+ * or symbolic link target are always kept in memory.
+ */
+public class SpoolingTransferItemQueue {
+    private static final Logger log = Logger.getLogger(SpoolingTransferItemQueue.class);
+
+    /**
+     * Maximum number of items kept in memory
+     */
+    private final int budget;
+
+    private final Deque<Segment> segments = new ArrayDeque<Segment>();
+
+    /**
+     * Number of items currently held in memory
+     */
+    private int memory;
+
+    private File spool;
+    private DataOutputStream writer;
+    private DataInputStream reader;
+
+    public SpoolingTransferItemQueue() {
+        this(PreferencesFactory.get().getInteger("queue.prepare.streaming.memory"));
+    }
+
+    /**
+     * @param budget Maximum number of items kept in memory
+     */
+    public SpoolingTransferItemQueue(final int budget) {
+        this.budget = budget;
+    }
+
+    /**
+     * @param parent   Transfer status of parent directory
+     * @param children Directory listing
+     */
+    public synchronized void add(final TransferStatus parent, final List<TransferItem> children) throws BackgroundException {
+        if(children.isEmpty()) {
+            return;
+        }
+        if(memory + children.size() <= budget) {
+            memory += children.size();
+            segments.add(new Segment(parent, new ArrayDeque<TransferItem>(children), 0));
+            return;
+        }
+        final Deque<TransferItem> resident = new ArrayDeque<TransferItem>();
+        final List<TransferItem> spooled = new ArrayList<TransferItem>(children.size());
+        for(TransferItem item : children) {
+            if(this.isSpoolable(item)) {
+                spooled.add(item);
+            }
+            else {
+                resident.add(item);
+            }
+        }
+        if(!spooled.isEmpty()) {
+            try {
+                for(TransferItem item : spooled) {
+                    this.write(item);
+                }
+                writer.flush();
+            }
+            catch(IOException e) {
+                throw new AccessDeniedException(e.getMessage(), e);
+            }
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Spooled %d items to %s", spooled.size(), spool));
+            }
+        }
+        memory += resident.size();
+        segments.add(new Segment(parent, resident, spooled.size()));
+    }
+
+    /**
+     * @return Null if queue is empty
+     */
+    public synchronized Entry poll() throws BackgroundException {
+        for(Iterator<Segment> iter = segments.iterator(); iter.hasNext(); ) {
+            final Segment segment = iter.next();
+            if(!segment.resident.isEmpty()) {
+                memory--;
+                return new Entry(segment.parent, segment.resident.poll());
+            }
+            if(segment.spooled > 0) {
+                segment.spooled--;
+                try {
+                    return new Entry(segment.parent, this.read());
+                }
+                catch(IOException e) {
+                    throw new AccessDeniedException(e.getMessage(), e);
+                }
+            }
+            iter.remove();
+        }
+        return null;
+    }
+
+    public synchronized boolean isEmpty() {
+        for(Segment segment : segments) {
+            if(!segment.resident.isEmpty() || segment.spooled > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Delete spool file
+     */
+    public synchronized void close() {
+        IOUtils.closeQuietly(writer);
+        IOUtils.closeQuietly(reader);
+        if(spool != null) {
+            if(!spool.delete()) {
+                log.warn(String.format("Failure deleting spool file %s", spool));
+            }
+        }
+        segments.clear();
+        memory = 0;
+    }
+
+    private boolean isSpoolable(final TransferItem item) {
+        if(item.remote.isSymbolicLink()) {
+            return false;
+        }
+        return null == item.remote.attributes().getVault();
+    }
+
+    private void write(final TransferItem item) throws IOException {
+        if(null == writer) {
+            spool = File.createTempFile("transfer", ".spool",
+                new File(PreferencesFactory.get().getProperty("tmp.dir")));
+            spool.deleteOnExit();
+            writer = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(spool)));
+            reader = new DataInputStream(new BufferedInputStream(new FileInputStream(spool)));
+        }
+        final PathAttributes attributes = item.remote.attributes();
+        writer.writeUTF(item.remote.getAbsolute());
+        writer.writeUTF(StringUtils.join(item.remote.getType(), ','));
+        writer.writeLong(attributes.getSize());
+        writer.writeLong(attributes.getModificationDate());
+        writer.writeUTF(attributes.getPermission().getMode());
+        writer.writeUTF(StringUtils.defaultString(attributes.getVersionId()));
+        writer.writeUTF(StringUtils.defaultString(attributes.getRegion()));
+        writer.writeUTF(StringUtils.defaultString(attributes.getStorageClass()));
+        writer.writeUTF(StringUtils.defaultString(attributes.getETag()));
+        final Checksum checksum = attributes.getChecksum();
+        writer.writeUTF(null == checksum || null == checksum.algorithm ? StringUtils.EMPTY : checksum.algorithm.name());
+        writer.writeUTF(null == checksum || null == checksum.hash ? StringUtils.EMPTY : checksum.hash);
+        writer.writeUTF(null == item.local ? StringUtils.EMPTY : item.local.getAbsolute());
+    }
+
+    private TransferItem read() throws IOException {
+        final String absolute = reader.readUTF();
+        final EnumSet<Path.Type> type = EnumSet.noneOf(Path.Type.class);
+        for(String t : StringUtils.split(reader.readUTF(), ',')) {
+            type.add(Path.Type.valueOf(t));
+        }
+        final PathAttributes attributes = new PathAttributes();
+        attributes.setSize(reader.readLong());
+        attributes.setModificationDate(reader.readLong());
+        attributes.setPermission(new Permission(reader.readUTF()));
+        attributes.setVersionId(StringUtils.defaultIfEmpty(reader.readUTF(), null));
+        attributes.setRegion(StringUtils.defaultIfEmpty(reader.readUTF(), null));
+        attributes.setStorageClass(StringUtils.defaultIfEmpty(reader.readUTF(), null));
+        attributes.setETag(StringUtils.defaultIfEmpty(reader.readUTF(), null));
+        final String algorithm = reader.readUTF();
+        final String hash = reader.readUTF();
+        if(StringUtils.isNotEmpty(algorithm)) {
+            attributes.setChecksum(new Checksum(HashAlgorithm.valueOf(algorithm), hash));
+        }
+        final String local = reader.readUTF();
+        return new TransferItem(new Path(absolute, type, attributes),
+            StringUtils.isEmpty(local) ? null : LocalFactory.get(local));
+    }
+
+    private static final class Segment {
+        private final TransferStatus parent;
+        private final Deque<TransferItem> resident;
+        /**
+         * Number of items remaining in spool file
+         */
+        private int spooled;
+
+        public Segment(final TransferStatus parent, final Deque<TransferItem> resident, final int spooled) {
+            this.parent = parent;
+            this.resident = resident;
+            this.spooled = spooled;
+        }
+    }
+
+    public static final class Entry {
+        private final TransferStatus parent;
+        private final TransferItem item;
+
+        public Entry(final TransferStatus parent, final TransferItem item) {
+            this.parent = parent;
+            this.item = item;
+        }
+
+        /**
+         * @return Transfer status of parent directory
+         */
+        public TransferStatus getParent() {
+            return parent;
+        }
+
+        public TransferItem getItem() {
+            return item;
+        }
+    }
+}
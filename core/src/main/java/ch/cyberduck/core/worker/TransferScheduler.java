@@ -0,0 +1,167 @@
+package ch.cyberduck.core.worker;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.threading.AdaptiveConcurrencyLimit;
+import ch.cyberduck.core.threading.ThreadPool;
+
+import org.apache.log4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs transfer tasks with the number of concurrently running tasks bounded by an adaptive limit. Tasks for
+ * whole files and segments of large files are kept in separate first-in-first-out queues that are served in turn.
+ * When one queue is empty tasks are taken from the other queue.
+ */
+public class TransferScheduler {
+    private static final Logger log = Logger.getLogger(TransferScheduler.class);
+
+    public enum Lane {
+        /**
+         * Determine transfer status and complete transfers not transferring any content
+         */
+        prepare,
+        /**
+         * Transfer of file without segments
+         */
+        file,
+        /**
+         * Transfer of segment of large file and concatenation of segments
+         */
+        segment
+    }
+
+    private final ThreadPool pool;
+    private final AdaptiveConcurrencyLimit limit;
+
+    private final Deque<FutureTask<?>> files = new ArrayDeque<FutureTask<?>>();
+    private final Deque<FutureTask<?>> segments = new ArrayDeque<FutureTask<?>>();
+
+    /**
+     * Number of tasks running
+     */
+    private int active;
+    /**
+     * Take next task from queue with segments
+     */
+    private boolean turn;
+
+    /**
+     * @param pool  Pool with at least as many threads as the maximum of the limit
+     * @param limit Number of tasks allowed to run concurrently
+     */
+    public TransferScheduler(final ThreadPool pool, final AdaptiveConcurrencyLimit limit) {
+        this.pool = pool;
+        this.limit = limit;
+    }
+
+    /**
+     * Queue task to run when a slot becomes available
+     *
+     * @param task Task
+     * @param lane Queue
+     */
+    public void execute(final FutureTask<?> task, final Lane lane) {
+        synchronized(this) {
+            switch(lane) {
+                case segment:
+                    segments.add(task);
+                    break;
+                default:
+                    files.add(task);
+                    break;
+            }
+        }
+        this.dispatch();
+    }
+
+    /**
+     * Start queued tasks while below limit
+     */
+    private void dispatch() {
+        final List<FutureTask<?>> ready = new ArrayList<FutureTask<?>>();
+        synchronized(this) {
+            while(active < limit.getLimit()) {
+                final FutureTask<?> next = this.next();
+                if(null == next) {
+                    break;
+                }
+                active++;
+                ready.add(next);
+            }
+        }
+        for(final FutureTask<?> task : ready) {
+            try {
+                pool.executor().execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            task.run();
+                        }
+                        finally {
+                            synchronized(TransferScheduler.this) {
+                                active--;
+                            }
+                            dispatch();
+                        }
+                    }
+                });
+            }
+            catch(RejectedExecutionException e) {
+                log.warn(String.format("Failure %s submitting task to pool %s", e, pool));
+                synchronized(this) {
+                    active--;
+                }
+                // Notify any waiting caller
+                task.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * @return Next task taking turns between queues or null if both queues are empty
+     */
+    private FutureTask<?> next() {
+        final Deque<FutureTask<?>> preferred = turn ? segments : files;
+        final Deque<FutureTask<?>> other = turn ? files : segments;
+        turn = !turn;
+        if(!preferred.isEmpty()) {
+            return preferred.poll();
+        }
+        return other.poll();
+    }
+
+    public AdaptiveConcurrencyLimit getLimit() {
+        return limit;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("TransferScheduler{");
+        sb.append("limit=").append(limit);
+        sb.append(", active=").append(active);
+        sb.append(", files=").append(files.size());
+        sb.append(", segments=").append(segments.size());
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -4,6 +4,7 @@ import org.junit.Test;
 
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.Iterator;
 import java.util.regex.Pattern;
 
 import static org.junit.Assert.*;
@@ -75,4 +76,69 @@ public class AttributedListTest {
         list.filter(new NullFilter<>());
         assertNotNull(list.find(new SimplePathPredicate(a)));
     }
+
+    @Test
+    public void testFindHashCollision() throws Exception {
+        final AttributedList<Path> list = new AttributedList<Path>();
+        // Same hash code of string representation
+        final Path a = new Path("/Aa", EnumSet.of(Path.Type.file));
+        final Path b = new Path("/BB", EnumSet.of(Path.Type.file));
+        assertEquals(new SimplePathPredicate(a).hashCode(), new SimplePathPredicate(b).hashCode());
+        assertTrue(list.add(a));
+        assertSame(a, list.find(new SimplePathPredicate(a)));
+        assertNull(list.find(new SimplePathPredicate(b)));
+        assertTrue(list.add(b));
+        assertSame(a, list.find(new SimplePathPredicate(a)));
+        assertSame(b, list.find(new SimplePathPredicate(b)));
+    }
+
+    @Test
+    public void testIndexAfterModification() throws Exception {
+        final AttributedList<Path> list = new AttributedList<Path>();
+        final Path a = new Path("/a", EnumSet.of(Path.Type.file));
+        final Path b = new Path("/b", EnumSet.of(Path.Type.file));
+        final Path c = new Path("/c", EnumSet.of(Path.Type.file));
+        assertTrue(list.add(a));
+        assertTrue(list.add(b));
+        assertEquals(1, list.indexOf(b));
+        assertEquals(-1, list.indexOf(c));
+        assertTrue(list.add(c));
+        assertEquals(2, list.indexOf(c));
+        assertSame(c, list.find(new SimplePathPredicate(new Path("/c", EnumSet.of(Path.Type.file)))));
+        assertTrue(list.remove(a));
+        assertEquals(0, list.indexOf(b));
+        assertFalse(list.contains(a));
+        assertNull(list.find(new SimplePathPredicate(a)));
+        list.add(0, a);
+        assertEquals(0, list.indexOf(a));
+        assertEquals(2, list.indexOf(c));
+        list.set(0, c);
+        assertEquals(0, list.indexOf(c));
+        assertSame(c, list.get(new Path("/c", EnumSet.of(Path.Type.file))));
+        assertNull(list.get(a));
+        assertTrue(list.removeAll(Collections.singletonList(c)));
+        assertEquals(1, list.size());
+        assertEquals(b, list.get(0));
+    }
+
+    @Test
+    public void testIterateSnapshot() throws Exception {
+        final AttributedList<Path> list = new AttributedList<Path>();
+        for(int i = 0; i < 100; i++) {
+            list.add(new Path(String.format("/f-%d", i), EnumSet.of(Path.Type.file)));
+        }
+        final Iterator<Path> iterator = list.iterator();
+        for(int i = 100; i < 200; i++) {
+            list.add(new Path(String.format("/f-%d", i), EnumSet.of(Path.Type.file)));
+        }
+        list.remove(list.get(0));
+        int count = 0;
+        while(iterator.hasNext()) {
+            assertEquals(String.format("/f-%d", count), iterator.next().getAbsolute());
+            count++;
+        }
+        assertEquals(100, count);
+        assertEquals(199, list.size());
+        assertEquals(199, list.toList().size());
+    }
 }
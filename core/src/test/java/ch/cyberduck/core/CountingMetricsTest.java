@@ -0,0 +1,55 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.features.Read;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class CountingMetricsTest {
+
+    @Test
+    public void testIncrementConcurrent() throws Exception {
+        final CountingMetrics metrics = new CountingMetrics();
+        final List<Thread> threads = new ArrayList<Thread>();
+        for(int i = 0; i < 8; i++) {
+            final Thread t = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for(int j = 0; j < 1000; j++) {
+                        metrics.increment(Read.class);
+                        metrics.record("latency", j);
+                    }
+                }
+            });
+            threads.add(t);
+            t.start();
+        }
+        for(Thread t : threads) {
+            t.join();
+        }
+        assertEquals(8000L, metrics.get(Read.class));
+        assertEquals(8000L, metrics.histogram("latency").getCount());
+        assertEquals(0L, metrics.get("none"));
+        assertNull(metrics.histogram("none"));
+    }
+}
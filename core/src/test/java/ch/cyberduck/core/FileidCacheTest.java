@@ -0,0 +1,116 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.exception.BackgroundException;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class FileidCacheTest {
+
+    @Test
+    public void testListing() {
+        final FileidCache cache = new FileidCache(10);
+        final Path directory = new Path("/d", EnumSet.of(Path.Type.directory));
+        final AttributedList<Path> list = new AttributedList<Path>();
+        list.add(new Path(directory, "a", EnumSet.of(Path.Type.file), new PathAttributes().withVersionId("1")));
+        final PathAttributes previous = new PathAttributes().withVersionId("2");
+        previous.setDuplicate(true);
+        list.add(new Path(directory, "a", EnumSet.of(Path.Type.file), previous));
+        final PathAttributes older = new PathAttributes().withVersionId("3");
+        older.setModificationDate(1L);
+        list.add(new Path(directory, "b", EnumSet.of(Path.Type.file), older));
+        final PathAttributes newer = new PathAttributes().withVersionId("4");
+        newer.setModificationDate(2L);
+        list.add(new Path(directory, "b", EnumSet.of(Path.Type.file), newer));
+        list.add(new Path(directory, "b", EnumSet.of(Path.Type.directory), new PathAttributes().withVersionId("5")));
+        cache.put(list);
+        assertEquals("1", cache.get(new Path("/d/a", EnumSet.of(Path.Type.file))));
+        assertEquals("4", cache.get(new Path("/d/b", EnumSet.of(Path.Type.file))));
+        assertEquals("5", cache.get(new Path("/d/b", EnumSet.of(Path.Type.directory))));
+        assertNull(cache.get(new Path("/d/c", EnumSet.of(Path.Type.file))));
+    }
+
+    @Test
+    public void testRemove() {
+        final FileidCache cache = new FileidCache(10);
+        cache.put(new Path("/d", EnumSet.of(Path.Type.directory)), "1");
+        cache.put(new Path("/d/a", EnumSet.of(Path.Type.file)), "2");
+        cache.put(new Path("/d/e", EnumSet.of(Path.Type.directory)), "3");
+        cache.put(new Path("/d/e/f", EnumSet.of(Path.Type.file)), "4");
+        cache.put(new Path("/da", EnumSet.of(Path.Type.file)), "5");
+        cache.remove(new Path("/d/a", EnumSet.of(Path.Type.file)));
+        assertNull(cache.get(new Path("/d/a", EnumSet.of(Path.Type.file))));
+        assertEquals("1", cache.get(new Path("/d", EnumSet.of(Path.Type.directory))));
+        cache.remove(new Path("/d", EnumSet.of(Path.Type.directory)));
+        assertNull(cache.get(new Path("/d", EnumSet.of(Path.Type.directory))));
+        assertNull(cache.get(new Path("/d/e/f", EnumSet.of(Path.Type.file))));
+        assertEquals("5", cache.get(new Path("/da", EnumSet.of(Path.Type.file))));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testLoadOnce() throws Exception {
+        final FileidCache cache = new FileidCache(10);
+        final AtomicInteger count = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(1);
+        final Path file = new Path("/d/a", EnumSet.of(Path.Type.file));
+        final FileidCache.Loader loader = new FileidCache.Loader() {
+            @Override
+            public String load(final Path file) throws BackgroundException {
+                count.incrementAndGet();
+                try {
+                    latch.await();
+                }
+                catch(InterruptedException e) {
+                    fail();
+                }
+                return "1";
+            }
+        };
+        final List<Thread> threads = new ArrayList<Thread>();
+        for(int i = 0; i < 4; i++) {
+            final Thread t = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        assertEquals("1", cache.get(file, loader));
+                    }
+                    catch(BackgroundException e) {
+                        fail();
+                    }
+                }
+            });
+            t.start();
+            threads.add(t);
+        }
+        Thread.sleep(100L);
+        latch.countDown();
+        for(Thread t : threads) {
+            t.join();
+        }
+        assertEquals(1, count.get());
+        assertEquals("1", cache.get(file));
+    }
+}
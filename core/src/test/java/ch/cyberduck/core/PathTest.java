@@ -219,4 +219,23 @@ public class PathTest {
         assertTrue(attributes.isSymbolicLink());
         assertTrue(attributes.isDirectory());
     }
+
+    @Test
+    public void testHashCodeChangedAttributes() {
+        final Path file = new Path("/container/f", EnumSet.of(Path.Type.file));
+        assertEquals(new DefaultPathPredicate(file).toString().hashCode(), file.hashCode());
+        final Path version = new Path("/container/f", EnumSet.of(Path.Type.file));
+        assertEquals(file, version);
+        version.attributes().setVersionId("1");
+        assertNotEquals(file, version);
+        assertEquals(new DefaultPathPredicate(version).toString().hashCode(), version.hashCode());
+        file.attributes().setVersionId("1");
+        assertEquals(file, version);
+        assertEquals(file.hashCode(), version.hashCode());
+        file.getType().add(Path.Type.directory);
+        assertNotEquals(file, version);
+        assertEquals(new DefaultPathPredicate(file).toString().hashCode(), file.hashCode());
+        file.setType(EnumSet.of(Path.Type.file, Path.Type.placeholder));
+        assertEquals(file, version);
+    }
 }
@@ -0,0 +1,102 @@
+package ch.cyberduck.core.collections;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ConcurrentLRUMapTest {
+
+    @Test
+    public void testEvictLeastRecentlyUsed() {
+        final ConcurrentLRUMap<String, String> map = new ConcurrentLRUMap<String, String>(10);
+        for(int i = 0; i < 10; i++) {
+            map.put(String.valueOf(i), String.valueOf(i));
+        }
+        assertEquals(10, map.size());
+        // Touch first entry
+        assertEquals("0", map.get("0"));
+        map.put("10", "10");
+        assertEquals(9, map.size());
+        assertTrue(map.containsKey("0"));
+        assertTrue(map.containsKey("10"));
+        assertFalse(map.containsKey("1"));
+        assertEquals(2L, map.getStatistics().getEvictions());
+    }
+
+    @Test
+    public void testSingleEntry() {
+        final ConcurrentLRUMap<String, String> map = new ConcurrentLRUMap<String, String>(1);
+        map.put("a", "a");
+        map.put("b", "b");
+        assertEquals(1, map.size());
+        assertEquals("b", map.get("b"));
+    }
+
+    @Test
+    public void testWeight() {
+        final ConcurrentLRUMap<String, String> map = new ConcurrentLRUMap<String, String>(Integer.MAX_VALUE, 10L,
+            new ConcurrentLRUMap.Weigher<String>() {
+                @Override
+                public int weigh(final String value) {
+                    return value.length();
+                }
+            }, -1L);
+        map.put("a", "aaaaa");
+        map.put("b", "bbbbb");
+        assertEquals(10L, map.weight());
+        map.put("c", "cc");
+        assertEquals(2L, map.weight());
+        assertFalse(map.containsKey("a"));
+        map.remove("c");
+        assertEquals(0L, map.weight());
+    }
+
+    @Test
+    public void testExpiry() throws Exception {
+        final ConcurrentLRUMap<String, String> map = new ConcurrentLRUMap<String, String>(Integer.MAX_VALUE, Long.MAX_VALUE,
+            new ConcurrentLRUMap.Weigher<String>() {
+                @Override
+                public int weigh(final String value) {
+                    return 1;
+                }
+            }, 1L);
+        map.put("a", "a");
+        Thread.sleep(10L);
+        assertNull(map.get("a"));
+        assertTrue(map.isEmpty());
+        assertEquals(0L, map.weight());
+    }
+
+    @Test
+    public void testStatistics() {
+        final ConcurrentLRUMap<String, String> map = new ConcurrentLRUMap<String, String>(10);
+        assertNull(map.get("a"));
+        map.put("a", "a");
+        assertNotNull(map.get("a"));
+        assertEquals(1L, map.getStatistics().getHits());
+        assertEquals(1L, map.getStatistics().getMisses());
+        assertEquals(0.5d, map.getStatistics().getHitRatio(), 0d);
+    }
+
+    @Test
+    public void testDisabled() {
+        final ConcurrentLRUMap<String, String> map = new ConcurrentLRUMap<String, String>(0);
+        map.put("a", "a");
+        assertTrue(map.isEmpty());
+    }
+}
@@ -0,0 +1,81 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BandwidthThrottleTest {
+
+    @Test
+    public void testUnlimited() {
+        final BandwidthThrottle throttle = new BandwidthThrottle(BandwidthThrottle.UNLIMITED);
+        assertEquals(Integer.MAX_VALUE, throttle.request(Integer.MAX_VALUE));
+        assertEquals(0, throttle.request(0));
+    }
+
+    @Test
+    public void testRequestWithinWindow() {
+        final BandwidthThrottle throttle = new BandwidthThrottle(1000000f);
+        // 10 milliseconds at 1MB/s
+        final int granted = throttle.request(1000000);
+        assertTrue(granted > 0);
+        assertTrue(granted <= 10001);
+    }
+
+    @Test
+    public void testRelease() {
+        final BandwidthThrottle throttle = new BandwidthThrottle(1000000f);
+        final int granted = throttle.request(1000000);
+        throttle.release(granted);
+        assertEquals(granted, throttle.request(granted), 1);
+    }
+
+    @Test
+    public void testSharedWithParent() throws Exception {
+        final BandwidthThrottle parent = new BandwidthThrottle(1000000f);
+        final List<Thread> threads = new ArrayList<Thread>();
+        final long start = System.nanoTime();
+        for(int i = 0; i < 4; i++) {
+            // Unlimited transfers limited by shared parent
+            final BandwidthThrottle throttle = new BandwidthThrottle(BandwidthThrottle.UNLIMITED, parent);
+            throttle.register();
+            final Thread t = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    int remaining = 100000;
+                    while(remaining > 0) {
+                        remaining -= throttle.request(remaining);
+                    }
+                    throttle.unregister();
+                }
+            });
+            threads.add(t);
+            t.start();
+        }
+        for(Thread t : threads) {
+            t.join();
+        }
+        // 400KB at 1MB/s with initial burst of 10ms
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 350L);
+    }
+}
@@ -0,0 +1,107 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.InteroperabilityException;
+import ch.cyberduck.core.threading.DefaultThreadPool;
+
+import org.apache.commons.lang3.RandomUtils;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class PipelinedSegmentOutputStreamTest {
+
+    @Test
+    public void testWriteOrder() throws Exception {
+        final byte[] content = RandomUtils.nextBytes(40500);
+        final ByteArrayOutputStream result = new ByteArrayOutputStream();
+        final AtomicInteger concurrent = new AtomicInteger();
+        final AtomicInteger max = new AtomicInteger();
+        final PipelinedSegmentOutputStream<byte[]> out = new PipelinedSegmentOutputStream<byte[]>(
+            new DefaultThreadPool(4), new MemoryBufferPool(2, 1000)) {
+            @Override
+            protected byte[] upload(final int segment, final byte[] buffer, final int len) {
+                max.set(Math.max(max.get(), concurrent.incrementAndGet()));
+                try {
+                    Thread.sleep(RandomUtils.nextLong(0L, 5L));
+                }
+                catch(InterruptedException e) {
+                    fail();
+                }
+                concurrent.decrementAndGet();
+                return Arrays.copyOf(buffer, len);
+            }
+
+            @Override
+            protected void complete(final List<byte[]> replies) throws IOException {
+                assertEquals(41, replies.size());
+                for(byte[] reply : replies) {
+                    result.write(reply);
+                }
+            }
+        };
+        for(int offset = 0; offset < content.length; offset += 1000) {
+            out.write(content, offset, Math.min(1000, content.length - offset));
+        }
+        out.close();
+        assertArrayEquals(content, result.toByteArray());
+        assertTrue(max.get() <= 2);
+    }
+
+    @Test(expected = IOException.class)
+    public void testFailure() throws Exception {
+        final PipelinedSegmentOutputStream<Integer> out = new PipelinedSegmentOutputStream<Integer>(
+            new DefaultThreadPool(2), new MemoryBufferPool(2, 10)) {
+            @Override
+            protected Integer upload(final int segment, final byte[] buffer, final int len) throws BackgroundException {
+                if(segment == 2) {
+                    throw new InteroperabilityException("Failure");
+                }
+                return segment;
+            }
+
+            @Override
+            protected void complete(final List<Integer> replies) {
+                fail();
+            }
+        };
+        out.write(new byte[10], 0, 10);
+        out.write(new byte[10], 0, 10);
+        out.close();
+    }
+
+    @Test
+    public void testBufferPool() throws Exception {
+        final MemoryBufferPool pool = new MemoryBufferPool(2, 10);
+        final byte[] b1 = pool.acquire(10);
+        assertEquals(1, pool.available());
+        final byte[] b2 = pool.acquire(20);
+        assertEquals(20, b2.length);
+        assertEquals(0, pool.available());
+        pool.release(b1);
+        pool.release(b2);
+        assertEquals(2, pool.available());
+        assertSame(b1, pool.acquire(5));
+    }
+}
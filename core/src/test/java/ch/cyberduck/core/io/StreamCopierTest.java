@@ -1,17 +1,24 @@
 package ch.cyberduck.core.io;
 
+import ch.cyberduck.core.BytecountStreamListener;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.transfer.TransferStatus;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.input.NullInputStream;
 import org.apache.commons.io.output.NullOutputStream;
+import org.apache.commons.lang3.RandomUtils;
 import org.apache.commons.text.RandomStringGenerator;
 import org.junit.Test;
 
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.nio.charset.Charset;
+import java.util.UUID;
 import java.util.concurrent.BrokenBarrierException;
 import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -168,4 +175,49 @@ public class StreamCopierTest {
         assertTrue(status.isCanceled());
         assertEquals(32768L, status.getOffset());
     }
+
+    @Test
+    public void testTransferFileChannel() throws Exception {
+        final byte[] content = RandomUtils.nextBytes(432768);
+        final File source = new File(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final File target = new File(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        FileUtils.writeByteArrayToFile(source, content);
+        try {
+            final TransferStatus status = new TransferStatus();
+            final BytecountStreamListener listener = new BytecountStreamListener(new DisabledStreamListener());
+            new StreamCopier(status, status).withOffset(1L).withLimit(432766L).withListener(listener)
+                    .transfer(new ThrottledInputStream(new LocalRepeatableFileInputStream(source), new BandwidthThrottle(BandwidthThrottle.UNLIMITED)),
+                            new ThrottledOutputStream(new FileOutputStream(target), new BandwidthThrottle(BandwidthThrottle.UNLIMITED)));
+            assertTrue(status.isComplete());
+            assertEquals(432766L, status.getOffset(), 0L);
+            assertEquals(432766L, listener.getSent());
+            assertEquals(432766L, listener.getRecv());
+            final byte[] expected = new byte[432766];
+            System.arraycopy(content, 1, expected, 0, expected.length);
+            assertArrayEquals(expected, FileUtils.readFileToByteArray(target));
+        }
+        finally {
+            source.delete();
+            target.delete();
+        }
+    }
+
+    @Test
+    public void testTransferFileChannelEndOfFile() throws Exception {
+        final byte[] content = RandomUtils.nextBytes(1000);
+        final File source = new File(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final File target = new File(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        FileUtils.writeByteArrayToFile(source, content);
+        try {
+            final TransferStatus status = new TransferStatus();
+            new StreamCopier(status, status).transfer(new FileInputStream(source), new FileOutputStream(target));
+            assertTrue(status.isComplete());
+            assertEquals(1000L, status.getOffset(), 0L);
+            assertArrayEquals(content, FileUtils.readFileToByteArray(target));
+        }
+        finally {
+            source.delete();
+            target.delete();
+        }
+    }
 }
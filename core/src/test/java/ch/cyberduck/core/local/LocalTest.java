@@ -6,9 +6,12 @@ import ch.cyberduck.core.exception.AccessDeniedException;
 import ch.cyberduck.core.exception.LocalAccessDeniedException;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.junit.Test;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.UUID;
 
 import static org.junit.Assert.*;
@@ -33,6 +36,25 @@ public class LocalTest {
         l.getInputStream();
     }
 
+    @Test
+    public void testRandomAccessWrite() throws Exception {
+        final Local l = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        l.setLength(6L);
+        try {
+            final OutputStream second = l.getRandomAccessOutputStream(3L);
+            final OutputStream first = l.getRandomAccessOutputStream(0L);
+            IOUtils.write("def", second, StandardCharsets.UTF_8);
+            IOUtils.write("abc", first, StandardCharsets.UTF_8);
+            second.close();
+            first.close();
+            assertEquals(6L, l.attributes().getSize());
+            assertEquals("abcdef", IOUtils.toString(l.getInputStream(), StandardCharsets.UTF_8));
+        }
+        finally {
+            l.delete();
+        }
+    }
+
     @Test
     public void testGetParent() throws Exception {
         assertNotNull(new TestLocal(System.getProperty("java.io.tmpdir")).getParent());
@@ -0,0 +1,65 @@
+package ch.cyberduck.core.metrics;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class HistogramTest {
+
+    @Test
+    public void testEmpty() {
+        final Histogram histogram = new Histogram();
+        assertEquals(0L, histogram.getCount());
+        assertEquals(-1, histogram.getHighestBucket());
+        assertEquals(0L, histogram.getPercentile(0.5d));
+    }
+
+    @Test
+    public void testRecord() {
+        final Histogram histogram = new Histogram();
+        for(int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+        assertEquals(100L, histogram.getCount());
+        assertEquals(5050L, histogram.getSum());
+        assertEquals(100L, histogram.getMax());
+        // 50 in bucket 33..63
+        assertEquals(63L, histogram.getPercentile(0.5d));
+        // Bounded by maximum
+        assertEquals(100L, histogram.getPercentile(0.99d));
+        assertEquals(7, histogram.getHighestBucket());
+    }
+
+    @Test
+    public void testBuckets() {
+        final Histogram histogram = new Histogram();
+        histogram.record(0L);
+        histogram.record(1L);
+        histogram.record(2L);
+        histogram.record(3L);
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(1L, histogram.getBucket(0));
+        assertEquals(1L, histogram.getBucket(1));
+        assertEquals(2L, histogram.getBucket(2));
+        assertEquals(1L, histogram.getBucket(Histogram.BUCKETS - 1));
+        assertEquals(0L, Histogram.upper(0));
+        assertEquals(1L, Histogram.upper(1));
+        assertEquals(3L, Histogram.upper(2));
+        assertEquals(Long.MAX_VALUE, Histogram.upper(Histogram.BUCKETS - 1));
+    }
+}
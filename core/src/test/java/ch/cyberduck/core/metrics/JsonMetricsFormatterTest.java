@@ -0,0 +1,48 @@
+package ch.cyberduck.core.metrics;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.CountingMetrics;
+import ch.cyberduck.core.collections.CacheStatistics;
+import ch.cyberduck.core.threading.AbstractRetryCallable;
+
+import org.junit.Test;
+
+import java.util.Collections;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import static org.junit.Assert.assertEquals;
+
+public class JsonMetricsFormatterTest {
+
+    @Test
+    public void testFormat() {
+        final CountingMetrics metrics = new CountingMetrics();
+        metrics.increment(AbstractRetryCallable.RETRY);
+        metrics.record(MetricsReadFeature.LATENCY, 100L);
+        metrics.record(MetricsReadFeature.LATENCY, 200L);
+        final JsonObject json = new JsonParser().parse(new JsonMetricsFormatter().format(metrics,
+            Collections.singletonMap("fileid", new CacheStatistics(1L, 1L, 0L)))).getAsJsonObject();
+        assertEquals(1L, json.getAsJsonObject("counters").get(AbstractRetryCallable.RETRY).getAsLong());
+        final JsonObject histogram = json.getAsJsonObject("histograms").getAsJsonObject(MetricsReadFeature.LATENCY);
+        assertEquals(2L, histogram.get("count").getAsLong());
+        assertEquals(300L, histogram.get("sum").getAsLong());
+        assertEquals(200L, histogram.get("max").getAsLong());
+        assertEquals(0.5d, json.getAsJsonObject("caches").getAsJsonObject("fileid").get("ratio").getAsDouble(), 0d);
+    }
+}
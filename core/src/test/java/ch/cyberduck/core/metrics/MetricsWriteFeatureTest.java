@@ -0,0 +1,98 @@
+package ch.cyberduck.core.metrics;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+import ch.cyberduck.core.ConnectionCallback;
+import ch.cyberduck.core.CountingMetrics;
+import ch.cyberduck.core.DisabledConnectionCallback;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.NullSession;
+import ch.cyberduck.core.NullWriteFeature;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.TestProtocol;
+import ch.cyberduck.core.io.FileChannelOutputStream;
+import ch.cyberduck.core.io.FileChannelStream;
+import ch.cyberduck.core.io.StatusOutputStream;
+import ch.cyberduck.core.io.StreamCopier;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.input.NullInputStream;
+import org.apache.commons.lang3.RandomUtils;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumSet;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class MetricsWriteFeatureTest {
+
+    @Test
+    public void testWrite() throws Exception {
+        final CountingMetrics metrics = new CountingMetrics();
+        final MetricsWriteFeature<Void> feature = new MetricsWriteFeature<Void>(new NullWriteFeature(new NullSession(new Host(new TestProtocol()))), metrics);
+        final TransferStatus status = new TransferStatus().length(1000L);
+        final StatusOutputStream<Void> out = feature.write(new Path("/f", EnumSet.of(Path.Type.file)), status, new DisabledConnectionCallback());
+        assertFalse(out instanceof FileChannelStream);
+        new StreamCopier(status, status).transfer(new NullInputStream(1000L), out);
+        assertEquals(1000L, metrics.get(MetricsWriteFeature.BYTES));
+        assertEquals(1L, metrics.histogram(MetricsWriteFeature.LATENCY).getCount());
+    }
+
+    @Test
+    public void testWriteFileChannel() throws Exception {
+        final byte[] content = RandomUtils.nextBytes(432768);
+        final File source = new File(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final File target = new File(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        FileUtils.writeByteArrayToFile(source, content);
+        try {
+            final CountingMetrics metrics = new CountingMetrics();
+            final MetricsWriteFeature<Void> feature = new MetricsWriteFeature<Void>(new NullWriteFeature(new NullSession(new Host(new TestProtocol()))) {
+                @Override
+                public StatusOutputStream<Void> write(final Path file, final TransferStatus status, final ConnectionCallback callback) {
+                    try {
+                        return new FileChannelOutputStream(FileChannel.open(target.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                            @Override
+                            public void write(final byte[] b, final int off, final int len) {
+                                fail("Content must be copied from channel to channel");
+                            }
+                        };
+                    }
+                    catch(IOException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+            }, metrics);
+            final TransferStatus status = new TransferStatus().length(content.length);
+            final StatusOutputStream<Void> out = feature.write(new Path("/f", EnumSet.of(Path.Type.file)), status, new DisabledConnectionCallback());
+            // Channel not hidden by counting stream
+            assertTrue(out instanceof FileChannelStream);
+            new StreamCopier(status, status).withLimit((long) content.length).transfer(new FileInputStream(source), out);
+            assertTrue(status.isComplete());
+            assertArrayEquals(content, FileUtils.readFileToByteArray(target));
+            assertEquals(content.length, metrics.get(MetricsWriteFeature.BYTES));
+        }
+        finally {
+            source.delete();
+            target.delete();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package ch.cyberduck.core.metrics;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.CountingMetrics;
+import ch.cyberduck.core.collections.CacheStatistics;
+import ch.cyberduck.core.features.Read;
+
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertTrue;
+
+public class PrometheusMetricsFormatterTest {
+
+    @Test
+    public void testFormat() {
+        final CountingMetrics metrics = new CountingMetrics();
+        metrics.increment(Read.class);
+        metrics.add(MetricsReadFeature.BYTES, 1024L);
+        metrics.record(MetricsListService.LATENCY, 3L);
+        final String output = new PrometheusMetricsFormatter().format(metrics,
+            Collections.singletonMap("fileid", new CacheStatistics(3L, 1L, 0L)));
+        assertTrue(output.contains("cyberduck_feature_read_total 1\n"));
+        assertTrue(output.contains("# TYPE cyberduck_read_bytes_total counter\n"));
+        assertTrue(output.contains("cyberduck_read_bytes_total 1024\n"));
+        assertTrue(output.contains("# TYPE cyberduck_list_latency_nanoseconds histogram\n"));
+        assertTrue(output.contains("cyberduck_list_latency_nanoseconds_bucket{le=\"1\"} 0\n"));
+        assertTrue(output.contains("cyberduck_list_latency_nanoseconds_bucket{le=\"3\"} 1\n"));
+        assertTrue(output.contains("cyberduck_list_latency_nanoseconds_bucket{le=\"+Inf\"} 1\n"));
+        assertTrue(output.contains("cyberduck_list_latency_nanoseconds_sum 3\n"));
+        assertTrue(output.contains("cyberduck_list_latency_nanoseconds_count 1\n"));
+        assertTrue(output.contains("cyberduck_cache_hit_ratio{cache=\"fileid\"} 0.75\n"));
+    }
+}
@@ -0,0 +1,101 @@
+package ch.cyberduck.core.synchronization;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathAttributes;
+import ch.cyberduck.core.io.Checksum;
+import ch.cyberduck.core.io.HashAlgorithm;
+
+import org.junit.Test;
+
+import java.util.EnumSet;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class ComparisonIndexTest {
+
+    @Test
+    public void testFile() throws Exception {
+        final Local local = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        local.touch();
+        final Local store = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        try {
+            final Path file = new Path("/d/f", EnumSet.of(Path.Type.file));
+            final PathAttributes remote = new PathAttributes();
+            remote.setSize(0L);
+            remote.setModificationDate(1000L);
+            remote.setChecksum(new Checksum(HashAlgorithm.md5, "d41d8cd98f00b204e9800998ecf8427e"));
+            final ComparisonIndex index = new ComparisonIndex(store);
+            assertFalse(index.isUnchanged(file, remote, local));
+            index.put(file, remote, local);
+            assertTrue(index.isUnchanged(file, remote, local));
+            index.save();
+            assertTrue(store.exists());
+            final ComparisonIndex reloaded = new ComparisonIndex(store);
+            reloaded.load();
+            assertTrue(reloaded.isUnchanged(file, remote, local));
+            final PathAttributes modified = new PathAttributes();
+            modified.setSize(0L);
+            modified.setModificationDate(2000L);
+            modified.setChecksum(new Checksum(HashAlgorithm.md5, "d41d8cd98f00b204e9800998ecf8427e"));
+            assertFalse(reloaded.isUnchanged(file, modified, local));
+            reloaded.remove(new Path("/d", EnumSet.of(Path.Type.directory)));
+            assertFalse(reloaded.isUnchanged(file, remote, local));
+        }
+        finally {
+            local.delete();
+            store.delete();
+        }
+    }
+
+    @Test
+    public void testListing() throws Exception {
+        final ComparisonIndex index = new ComparisonIndex(new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString()));
+        final PathAttributes attributes = new PathAttributes();
+        attributes.setETag("e1");
+        final Path directory = new Path("/d", EnumSet.of(Path.Type.directory), attributes);
+        assertNull(index.get(directory));
+        final AttributedList<Path> list = new AttributedList<Path>();
+        final PathAttributes child = new PathAttributes();
+        child.setSize(3L);
+        list.add(new Path(directory, "f", EnumSet.of(Path.Type.file), child));
+        index.put(directory, list);
+        final AttributedList<Path> cached = index.get(directory);
+        assertNotNull(cached);
+        assertEquals(1, cached.size());
+        assertEquals(new Path("/d/f", EnumSet.of(Path.Type.file)), cached.get(0));
+        assertEquals(3L, cached.get(0).attributes().getSize());
+        final PathAttributes changed = new PathAttributes();
+        changed.setETag("e2");
+        assertNull(index.get(new Path("/d", EnumSet.of(Path.Type.directory), changed)));
+    }
+
+    @Test
+    public void testListingSymbolicLink() throws Exception {
+        final ComparisonIndex index = new ComparisonIndex(new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString()));
+        final PathAttributes attributes = new PathAttributes();
+        attributes.setModificationDate(1000L);
+        final Path directory = new Path("/d", EnumSet.of(Path.Type.directory), attributes);
+        final AttributedList<Path> list = new AttributedList<Path>();
+        list.add(new Path(directory, "l", EnumSet.of(Path.Type.file, Path.Type.symboliclink)));
+        index.put(directory, list);
+        assertNull(index.get(directory));
+    }
+}
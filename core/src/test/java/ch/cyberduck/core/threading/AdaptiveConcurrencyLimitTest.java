@@ -0,0 +1,71 @@
+package ch.cyberduck.core.threading;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class AdaptiveConcurrencyLimitTest {
+
+    @Test
+    public void testFixed() {
+        final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2);
+        for(int i = 0; i < 10; i++) {
+            limit.sample(1000L, 10L);
+        }
+        assertEquals(2, limit.getLimit());
+        limit.throttle();
+        assertEquals(2, limit.getLimit());
+    }
+
+    @Test
+    public void testIncrease() {
+        final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(1, 1, 4);
+        limit.sample(1000L, 10L);
+        assertEquals(2, limit.getLimit());
+        limit.sample(1000L, 10L);
+        assertEquals(2, limit.getLimit());
+        limit.sample(1000L, 10L);
+        assertEquals(3, limit.getLimit());
+        for(int i = 0; i < 10; i++) {
+            limit.sample(1000L, 10L);
+        }
+        assertEquals(4, limit.getLimit());
+    }
+
+    @Test
+    public void testThrottle() {
+        final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(8, 1, 10);
+        limit.throttle();
+        assertEquals(4, limit.getLimit());
+        // Decrease at most once per window
+        limit.throttle();
+        assertEquals(4, limit.getLimit());
+        for(int i = 0; i < 4; i++) {
+            limit.sample(1000L, 10L);
+        }
+        // No increase in window with throttling
+        assertEquals(4, limit.getLimit());
+        limit.throttle();
+        assertEquals(2, limit.getLimit());
+        limit.throttle();
+        limit.sample(0L, 10L);
+        limit.sample(0L, 10L);
+        limit.throttle();
+        assertEquals(1, limit.getLimit());
+    }
+}
@@ -0,0 +1,255 @@
+package ch.cyberduck.core.threading;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class SharedThreadPoolTest {
+
+    @Test
+    public void testLimit() throws Exception {
+        final SharedThreadPool pool = new SharedThreadPool("test", 2, false);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger max = new AtomicInteger();
+        final List<Future<Integer>> futures = new ArrayList<Future<Integer>>();
+        final ThreadPool a = pool.lane(10);
+        final ThreadPool b = pool.lane(10);
+        for(int i = 0; i < 20; i++) {
+            final Callable<Integer> task = new Callable<Integer>() {
+                @Override
+                public Integer call() throws Exception {
+                    final int current = running.incrementAndGet();
+                    update(max, current);
+                    Thread.sleep(2L);
+                    running.decrementAndGet();
+                    return current;
+                }
+            };
+            futures.add(a.execute(task));
+            futures.add(b.execute(task));
+        }
+        for(Future<Integer> future : futures) {
+            future.get();
+        }
+        assertTrue(max.get() <= 2);
+        a.shutdown(true);
+        b.shutdown(true);
+        pool.shutdown();
+    }
+
+    @Test
+    public void testLaneConcurrency() throws Exception {
+        final SharedThreadPool pool = new SharedThreadPool("test", 10, false);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger max = new AtomicInteger();
+        final ThreadPool lane = pool.lane(2);
+        final List<Future<Integer>> futures = new ArrayList<Future<Integer>>();
+        for(int i = 0; i < 20; i++) {
+            futures.add(lane.execute(new Callable<Integer>() {
+                @Override
+                public Integer call() throws Exception {
+                    final int current = running.incrementAndGet();
+                    update(max, current);
+                    Thread.sleep(2L);
+                    running.decrementAndGet();
+                    return current;
+                }
+            }));
+        }
+        for(Future<Integer> future : futures) {
+            future.get();
+        }
+        assertTrue(max.get() <= 2);
+        lane.shutdown(true);
+        pool.shutdown();
+    }
+
+    @Test
+    public void testRoundRobin() throws Exception {
+        final SharedThreadPool pool = new SharedThreadPool("test", 1, false);
+        final List<String> order = Collections.synchronizedList(new ArrayList<String>());
+        final CountDownLatch latch = new CountDownLatch(1);
+        final ThreadPool a = pool.lane(10);
+        final ThreadPool b = pool.lane(10);
+        final List<Future<String>> futures = new ArrayList<Future<String>>();
+        futures.add(a.execute(new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                latch.await();
+                order.add("a0");
+                return "a0";
+            }
+        }));
+        for(int i = 1; i < 5; i++) {
+            final String name = String.format("a%d", i);
+            futures.add(a.execute(new Callable<String>() {
+                @Override
+                public String call() {
+                    order.add(name);
+                    return name;
+                }
+            }));
+        }
+        futures.add(b.execute(new Callable<String>() {
+            @Override
+            public String call() {
+                order.add("b0");
+                return "b0";
+            }
+        }));
+        latch.countDown();
+        for(Future<String> future : futures) {
+            future.get();
+        }
+        // Lane b is not queued behind all tasks of lane a
+        assertEquals(2, order.indexOf("b0"));
+        pool.shutdown();
+    }
+
+    @Test
+    public void testShutdownLane() throws Exception {
+        final SharedThreadPool pool = new SharedThreadPool("test", 1, false);
+        final CountDownLatch latch = new CountDownLatch(1);
+        final ThreadPool a = pool.lane(1);
+        final ThreadPool b = pool.lane(1);
+        final Future<Integer> running = b.execute(new Callable<Integer>() {
+            @Override
+            public Integer call() throws Exception {
+                latch.await();
+                return 1;
+            }
+        });
+        final Future<Integer> pending = a.execute(new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                fail();
+                return 0;
+            }
+        });
+        a.shutdown(false);
+        try {
+            pending.get();
+            fail();
+        }
+        catch(CancellationException e) {
+            // Expected
+        }
+        try {
+            a.execute(new Callable<Integer>() {
+                @Override
+                public Integer call() {
+                    return 0;
+                }
+            });
+            fail();
+        }
+        catch(RejectedExecutionException e) {
+            // Expected
+        }
+        latch.countDown();
+        assertEquals(Integer.valueOf(1), running.get());
+        final Future<Integer> next = b.execute(new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                return 2;
+            }
+        });
+        assertEquals(Integer.valueOf(2), next.get());
+        b.shutdown(true);
+        pool.shutdown();
+    }
+
+    @Test
+    public void testShutdownLaneAtConcurrencyLimit() throws Exception {
+        final SharedThreadPool pool = new SharedThreadPool("test", 2, false);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch latch = new CountDownLatch(1);
+        final ThreadPool lane = pool.lane(1);
+        final Future<Integer> running = lane.execute(new Callable<Integer>() {
+            @Override
+            public Integer call() throws Exception {
+                started.countDown();
+                latch.await();
+                return 1;
+            }
+        });
+        started.await();
+        // Pending tasks exceeding concurrency of lane
+        final List<Future<Integer>> pending = new ArrayList<Future<Integer>>();
+        for(int i = 0; i < 2; i++) {
+            pending.add(lane.execute(new Callable<Integer>() {
+                @Override
+                public Integer call() {
+                    fail();
+                    return 0;
+                }
+            }));
+        }
+        pool.shutdown();
+        for(Future<Integer> f : pending) {
+            try {
+                f.get(10L, TimeUnit.SECONDS);
+                fail();
+            }
+            catch(CancellationException e) {
+                // Expected
+            }
+        }
+        assertTrue(lane.executor().isShutdown());
+        assertTrue(lane.executor().awaitTermination(10L, TimeUnit.SECONDS));
+        try {
+            running.get();
+            fail();
+        }
+        catch(ExecutionException e) {
+            // Interrupted
+            assertTrue(e.getCause() instanceof InterruptedException);
+        }
+        try {
+            pool.lane(1).execute(new Callable<Integer>() {
+                @Override
+                public Integer call() {
+                    return 0;
+                }
+            });
+            fail();
+        }
+        catch(RejectedExecutionException e) {
+            // Expected
+        }
+    }
+
+    private static void update(final AtomicInteger max, final int value) {
+        int current = max.get();
+        while(value > current && !max.compareAndSet(current, value)) {
+            current = max.get();
+        }
+    }
+}
@@ -1,21 +1,30 @@
 package ch.cyberduck.core.transfer.download;
 
+import ch.cyberduck.core.Cache;
 import ch.cyberduck.core.DisabledProgressListener;
 import ch.cyberduck.core.Host;
+import ch.cyberduck.core.Local;
 import ch.cyberduck.core.LocalAttributes;
 import ch.cyberduck.core.NullLocal;
 import ch.cyberduck.core.NullSession;
 import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathAttributes;
 import ch.cyberduck.core.TestProtocol;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.features.AttributesFinder;
+import ch.cyberduck.core.features.Download;
 import ch.cyberduck.core.features.Read;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.shared.DefaultDownloadFeature;
+import ch.cyberduck.core.transfer.TransferOptions;
 import ch.cyberduck.core.transfer.TransferStatus;
 import ch.cyberduck.core.transfer.symlink.DisabledDownloadSymlinkResolver;
 
 import org.junit.Test;
 
 import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
 
 import static org.junit.Assert.*;
 
@@ -141,4 +150,158 @@ public class ResumeFilterTest {
         final TransferStatus status = f.prepare(p, local, new TransferStatus(), new DisabledProgressListener());
         assertFalse(status.isAppend());
     }
+
+    @Test
+    public void testPrepareSegmented() throws Exception {
+        PreferencesFactory.get().setProperty("queue.download.segments", true);
+        PreferencesFactory.get().setProperty("queue.download.segments.threshold", 10L);
+        PreferencesFactory.get().setProperty("queue.download.segments.size", 10L);
+        try {
+            final Download download = new DefaultDownloadFeature(new NullSession(new Host(new TestProtocol())).getFeature(Read.class)) {
+                @Override
+                public boolean offset(final Path file) {
+                    return true;
+                }
+            };
+            final NullSession session = new NullSession(new Host(new TestProtocol())) {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <T> T _getFeature(final Class<T> type) {
+                    if(type == Download.class) {
+                        return (T) download;
+                    }
+                    return super._getFeature(type);
+                }
+            };
+            final ResumeFilter f = new ResumeFilter(new DisabledDownloadSymlinkResolver(), session,
+                new DownloadFilterOptions(), download);
+            f.withAttributes(new AttributesFinder() {
+                @Override
+                public PathAttributes find(final Path file) {
+                    final PathAttributes attributes = new PathAttributes();
+                    attributes.setSize(40L);
+                    return attributes;
+                }
+
+                @Override
+                public AttributesFinder withCache(final Cache<Path> cache) {
+                    return this;
+                }
+            });
+            final Path p = new Path("/a", EnumSet.of(Path.Type.file));
+            final Local local = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+            final TransferStatus status = f.prepare(p, local, new TransferStatus(), new DisabledProgressListener());
+            assertTrue(status.isSegmented());
+            final List<TransferStatus> segments = status.getSegments();
+            assertTrue(segments.size() > 1);
+            f.apply(p, local, status, new DisabledProgressListener());
+            final Local segmented = segments.get(0).getRename().local;
+            assertEquals(40L, segmented.attributes().getSize());
+            // Complete first segment only
+            final TransferStatus first = segments.get(0);
+            first.progress(first.getLength());
+            first.setComplete();
+            f.complete(p, segmented, new TransferOptions(), first, new DisabledProgressListener());
+            assertTrue(f.progress(segmented).exists());
+            // Resume
+            final TransferStatus resume = f.prepare(p, local, new TransferStatus(), new DisabledProgressListener());
+            assertEquals(segments.size(), resume.getSegments().size());
+            assertTrue(resume.getSegments().get(0).isComplete());
+            for(TransferStatus segment : resume.getSegments().subList(1, resume.getSegments().size())) {
+                assertFalse(segment.isComplete());
+            }
+            // Progress is kept when resuming
+            f.apply(p, local, resume, new DisabledProgressListener());
+            assertTrue(f.progress(segmented).exists());
+            f.progress(segmented).delete();
+            segmented.delete();
+        }
+        finally {
+            PreferencesFactory.get().deleteProperty("queue.download.segments");
+            PreferencesFactory.get().deleteProperty("queue.download.segments.threshold");
+            PreferencesFactory.get().deleteProperty("queue.download.segments.size");
+        }
+    }
+
+    @Test
+    public void testPrepareSegmentedInterruptedTwice() throws Exception {
+        PreferencesFactory.get().setProperty("queue.download.segments", true);
+        PreferencesFactory.get().setProperty("queue.download.segments.threshold", 10L);
+        PreferencesFactory.get().setProperty("queue.download.segments.size", 10L);
+        PreferencesFactory.get().setProperty("queue.connections.limit", 4);
+        try {
+            final Download download = new DefaultDownloadFeature(new NullSession(new Host(new TestProtocol())).getFeature(Read.class)) {
+                @Override
+                public boolean offset(final Path file) {
+                    return true;
+                }
+            };
+            final NullSession session = new NullSession(new Host(new TestProtocol())) {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <T> T _getFeature(final Class<T> type) {
+                    if(type == Download.class) {
+                        return (T) download;
+                    }
+                    return super._getFeature(type);
+                }
+            };
+            final ResumeFilter f = new ResumeFilter(new DisabledDownloadSymlinkResolver(), session,
+                new DownloadFilterOptions(), download);
+            f.withAttributes(new AttributesFinder() {
+                @Override
+                public PathAttributes find(final Path file) {
+                    final PathAttributes attributes = new PathAttributes();
+                    attributes.setSize(40L);
+                    return attributes;
+                }
+
+                @Override
+                public AttributesFinder withCache(final Cache<Path> cache) {
+                    return this;
+                }
+            });
+            final Path p = new Path("/a", EnumSet.of(Path.Type.file));
+            final Local local = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+            final TransferStatus status = f.prepare(p, local, new TransferStatus(), new DisabledProgressListener());
+            final List<TransferStatus> segments = status.getSegments();
+            assertEquals(4, segments.size());
+            f.apply(p, local, status, new DisabledProgressListener());
+            final Local segmented = segments.get(0).getRename().local;
+            // First attempt interrupted after completing second segment
+            final TransferStatus second = segments.get(1);
+            second.progress(second.getLength());
+            second.setComplete();
+            f.complete(p, segmented, new TransferOptions(), second, new DisabledProgressListener());
+            // Second attempt skips second segment and is interrupted after completing last segment
+            final TransferStatus resume = f.prepare(p, local, new TransferStatus(), new DisabledProgressListener());
+            f.apply(p, local, resume, new DisabledProgressListener());
+            assertTrue(resume.getSegments().get(1).isComplete());
+            for(TransferStatus segment : resume.getSegments()) {
+                if(segment.isComplete()) {
+                    // Skipped segment is passed to completion without progress
+                    f.complete(p, segmented, new TransferOptions(), segment, new DisabledProgressListener());
+                }
+            }
+            final TransferStatus last = resume.getSegments().get(3);
+            last.progress(last.getLength());
+            last.setComplete();
+            f.complete(p, segmented, new TransferOptions(), last, new DisabledProgressListener());
+            assertEquals(2, f.completed(segmented).size());
+            // Third attempt
+            final TransferStatus third = f.prepare(p, local, new TransferStatus(), new DisabledProgressListener());
+            assertFalse(third.getSegments().get(0).isComplete());
+            assertTrue(third.getSegments().get(1).isComplete());
+            assertFalse(third.getSegments().get(2).isComplete());
+            assertTrue(third.getSegments().get(3).isComplete());
+            f.progress(segmented).delete();
+            segmented.delete();
+        }
+        finally {
+            PreferencesFactory.get().deleteProperty("queue.download.segments");
+            PreferencesFactory.get().deleteProperty("queue.download.segments.threshold");
+            PreferencesFactory.get().deleteProperty("queue.download.segments.size");
+            PreferencesFactory.get().deleteProperty("queue.connections.limit");
+        }
+    }
 }
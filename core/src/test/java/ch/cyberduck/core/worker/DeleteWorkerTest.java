@@ -3,27 +3,35 @@ package ch.cyberduck.core.worker;
 import ch.cyberduck.core.AbstractPath;
 import ch.cyberduck.core.AttributedList;
 import ch.cyberduck.core.DisabledLoginCallback;
+import ch.cyberduck.core.DisabledPasswordCallback;
 import ch.cyberduck.core.DisabledProgressListener;
+import ch.cyberduck.core.DisabledTranscriptListener;
 import ch.cyberduck.core.Host;
 import ch.cyberduck.core.ListProgressListener;
+import ch.cyberduck.core.NullFilter;
 import ch.cyberduck.core.NullSession;
 import ch.cyberduck.core.PasswordCallback;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathCache;
 import ch.cyberduck.core.Session;
+import ch.cyberduck.core.TestLoginConnectionService;
 import ch.cyberduck.core.TestProtocol;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.UnsupportedException;
 import ch.cyberduck.core.features.Delete;
+import ch.cyberduck.core.pool.StatelessSessionPool;
+import ch.cyberduck.core.vault.DefaultVaultRegistry;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 public class DeleteWorkerTest {
@@ -175,4 +183,121 @@ public class DeleteWorkerTest {
             PathCache.empty(), new DisabledProgressListener());
         worker.run(session);
     }
+
+    @Test
+    public void testRunParallel() throws Exception {
+        final List<Path> deleted = Collections.synchronizedList(new ArrayList<Path>());
+        final Path root = new Path("/t", EnumSet.of(Path.Type.directory));
+        final Session session = new NullSession(new Host(new TestProtocol())) {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> T _getFeature(final Class<T> type) {
+                if(type == Delete.class) {
+                    return (T) new Delete() {
+                        @Override
+                        public void delete(final List<Path> files, final PasswordCallback prompt, final Callback callback) throws BackgroundException {
+                            assertTrue(files.size() <= 3);
+                            for(Path file : files) {
+                                // Parent must not be deleted before children
+                                assertTrue(file.isRoot() || !deleted.contains(file.getParent()));
+                            }
+                            deleted.addAll(files);
+                        }
+
+                        @Override
+                        public boolean isSupported(final Path file) {
+                            return true;
+                        }
+
+                        @Override
+                        public boolean isRecursive() {
+                            return false;
+                        }
+                    };
+                }
+                return (T) super._getFeature(type);
+            }
+
+            @Override
+            public AttributedList<Path> list(final Path file, final ListProgressListener listener) {
+                final AttributedList<Path> list = new AttributedList<Path>();
+                if(file.equals(root)) {
+                    for(int i = 0; i < 5; i++) {
+                        list.add(new Path(root, String.format("d%d", i), EnumSet.of(Path.Type.directory)));
+                    }
+                }
+                for(int i = 0; i < 10; i++) {
+                    list.add(new Path(file, String.format("f%d", i), EnumSet.of(Path.Type.file)));
+                }
+                return list;
+            }
+        };
+        final DeleteWorker worker = new DeleteWorker(new DisabledLoginCallback(), Collections.singletonList(root),
+            PathCache.empty(), new NullFilter<Path>(), new DisabledProgressListener(),
+            new StatelessSessionPool(new TestLoginConnectionService(), session, PathCache.empty(), new DisabledTranscriptListener(),
+                new DefaultVaultRegistry(new DisabledPasswordCallback())), 4, 3);
+        final List<Path> result = worker.run(session);
+        assertEquals(66, result.size());
+        assertEquals(66, deleted.size());
+        assertEquals(root, deleted.get(deleted.size() - 1));
+        for(int i = 0; i < 5; i++) {
+            final Path directory = new Path(root, String.format("d%d", i), EnumSet.of(Path.Type.directory));
+            for(int j = 0; j < 10; j++) {
+                assertTrue(deleted.indexOf(new Path(directory, String.format("f%d", j), EnumSet.of(Path.Type.file))) < deleted.indexOf(directory));
+            }
+        }
+    }
+
+    @Test
+    public void testRunParallelSymlink() throws Exception {
+        final List<Path> deleted = Collections.synchronizedList(new ArrayList<Path>());
+        final Path root = new Path("/t", EnumSet.of(Path.Type.directory));
+        final Path link = new Path(root, "s", EnumSet.of(Path.Type.directory, AbstractPath.Type.symboliclink));
+        final Session session = new NullSession(new Host(new TestProtocol())) {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> T _getFeature(final Class<T> type) {
+                if(type == Delete.class) {
+                    return (T) new Delete() {
+                        @Override
+                        public void delete(final List<Path> files, final PasswordCallback prompt, final Callback callback) throws BackgroundException {
+                            deleted.addAll(files);
+                        }
+
+                        @Override
+                        public boolean isSupported(final Path file) {
+                            return true;
+                        }
+
+                        @Override
+                        public boolean isRecursive() {
+                            return false;
+                        }
+                    };
+                }
+                return (T) super._getFeature(type);
+            }
+
+            @Override
+            public AttributedList<Path> list(final Path file, final ListProgressListener listener) {
+                // Must not list target of symbolic link
+                assertEquals(root, file);
+                final AttributedList<Path> list = new AttributedList<Path>();
+                list.add(link);
+                list.add(new Path(root, "f", EnumSet.of(Path.Type.file)));
+                return list;
+            }
+        };
+        final DeleteWorker worker = new DeleteWorker(new DisabledLoginCallback(), Arrays.asList(root,
+            new Path("/l", EnumSet.of(Path.Type.directory, AbstractPath.Type.symboliclink))),
+            PathCache.empty(), new NullFilter<Path>(), new DisabledProgressListener(),
+            new StatelessSessionPool(new TestLoginConnectionService(), session, PathCache.empty(), new DisabledTranscriptListener(),
+                new DefaultVaultRegistry(new DisabledPasswordCallback())), 4, 3);
+        final List<Path> result = worker.run(session);
+        assertEquals(4, result.size());
+        assertEquals(4, deleted.size());
+        assertTrue(deleted.contains(link));
+        assertTrue(deleted.contains(new Path("/l", EnumSet.of(Path.Type.directory, AbstractPath.Type.symboliclink))));
+        assertTrue(deleted.indexOf(link) < deleted.indexOf(root));
+    }
 }
@@ -17,18 +17,24 @@ package ch.cyberduck.core.worker;
 
 import ch.cyberduck.core.AttributedList;
 import ch.cyberduck.core.DisabledListProgressListener;
+import ch.cyberduck.core.DisabledPasswordCallback;
+import ch.cyberduck.core.DisabledTranscriptListener;
 import ch.cyberduck.core.Host;
 import ch.cyberduck.core.NullFilter;
 import ch.cyberduck.core.NullSession;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathCache;
+import ch.cyberduck.core.TestLoginConnectionService;
 import ch.cyberduck.core.TestProtocol;
+import ch.cyberduck.core.pool.StatelessSessionPool;
+import ch.cyberduck.core.vault.DefaultVaultRegistry;
 import ch.cyberduck.ui.browser.SearchFilter;
 
 import org.junit.Test;
 
 import java.util.EnumSet;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -94,4 +100,38 @@ public class SearchWorkerTest {
         assertTrue(cache.get(new Path("/folder", EnumSet.of(Path.Type.directory))).contains(
             new Path(new Path("/folder", EnumSet.of(Path.Type.directory)), "/t2.gif", EnumSet.of(Path.Type.file))));
     }
+
+    @Test
+    public void testRunParallel() throws Exception {
+        final PathCache cache = new PathCache(Integer.MAX_VALUE);
+        final Path home = new Path("/", EnumSet.of(Path.Type.directory));
+        final AttributedList<Path> root = new AttributedList<>();
+        root.add(new Path("/t1.png", EnumSet.of(Path.Type.file)));
+        for(int i = 0; i < 20; i++) {
+            final Path directory = new Path(home, String.format("folder%d", i), EnumSet.of(Path.Type.directory));
+            root.add(directory);
+            final AttributedList<Path> children = new AttributedList<>();
+            final Path sub = new Path(directory, "sub", EnumSet.of(Path.Type.directory));
+            children.add(sub);
+            children.add(new Path(directory, "t2.gif", EnumSet.of(Path.Type.file)));
+            cache.put(directory, children);
+            final AttributedList<Path> leaf = new AttributedList<>();
+            // Only even folders have a match in subdirectory
+            leaf.add(new Path(sub, i % 2 == 0 ? "t3.png" : "t3.gif", EnumSet.of(Path.Type.file)));
+            cache.put(sub, leaf);
+        }
+        cache.put(home, root);
+        final NullSession session = new NullSession(new Host(new TestProtocol()));
+        final AttributedList<Path> found = new SearchWorker(home, new SearchFilter(".png"), cache, new DisabledListProgressListener(),
+            new StatelessSessionPool(new TestLoginConnectionService(), session, PathCache.empty(), new DisabledTranscriptListener(),
+                new DefaultVaultRegistry(new DisabledPasswordCallback())), 4, 2).run(session);
+        assertTrue(found.contains(new Path("/t1.png", EnumSet.of(Path.Type.file))));
+        for(int i = 0; i < 20; i++) {
+            final Path directory = new Path(home, String.format("folder%d", i), EnumSet.of(Path.Type.directory));
+            assertEquals(i % 2 == 0, found.contains(directory));
+            assertEquals(i % 2 == 0, cache.get(directory).contains(new Path(directory, "sub", EnumSet.of(Path.Type.directory))));
+            assertFalse(cache.get(directory).contains(new Path(directory, "t2.gif", EnumSet.of(Path.Type.file))));
+        }
+        assertEquals(11, found.size());
+    }
 }
@@ -13,6 +13,7 @@ import ch.cyberduck.core.transfer.DisabledTransferPrompt;
 import ch.cyberduck.core.transfer.DownloadTransfer;
 import ch.cyberduck.core.transfer.Transfer;
 import ch.cyberduck.core.transfer.TransferAction;
+import ch.cyberduck.core.transfer.TransferErrorCallback;
 import ch.cyberduck.core.transfer.TransferItem;
 import ch.cyberduck.core.transfer.TransferOptions;
 import ch.cyberduck.core.transfer.TransferSpeedometer;
@@ -24,7 +25,10 @@ import org.junit.Test;
 
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
 
@@ -250,6 +254,71 @@ public class SingleTransferWorkerTest {
         assertTrue(cache.isEmpty());
     }
 
+    @Test
+    public void testStreamPromptFailure() throws Exception {
+        final Path root = new Path("/t", EnumSet.of(Path.Type.directory));
+        final NullLocal local = new NullLocal("l") {
+            @Override
+            public AttributedList<Local> list() throws LocalAccessDeniedException {
+                final AttributedList<Local> l = new AttributedList<Local>();
+                for(String name : new String[]{"a", "b", "c"}) {
+                    l.add(new NullLocal(this.getAbsolute(), name) {
+                        @Override
+                        public boolean exists() {
+                            return true;
+                        }
+                    });
+                }
+                return l;
+            }
+
+            @Override
+            public boolean exists() {
+                return true;
+            }
+        };
+        final Set<Path> transferred = new HashSet<Path>();
+        final Transfer t = new UploadTransfer(new Host(new TestProtocol()), root, local) {
+            @Override
+            public Path transfer(final Session<?> source, final Session<?> destination, final Path file, Local local,
+                                 final TransferOptions options, final TransferStatus status,
+                                 final ConnectionCallback connectionCallback,
+                                 final PasswordCallback passwordCallback, final ProgressListener listener, final StreamListener streamListener) throws BackgroundException {
+                if(file.getName().equals("b")) {
+                    throw new AccessDeniedException("b");
+                }
+                transferred.add(file);
+                return file;
+            }
+        };
+        final NullSession session = new NullSession(new Host(new TestProtocol())) {
+            @Override
+            public AttributedList<Path> list(final Path file, final ListProgressListener listener) {
+                return new AttributedList<Path>(Collections.singletonList(new Path("/t", EnumSet.of(Path.Type.directory))));
+            }
+        };
+        final AtomicInteger prompts = new AtomicInteger();
+        assertTrue(new SingleTransferWorker(session, session, t, new TransferOptions().streaming(true), new TransferSpeedometer(t), new DisabledTransferPrompt() {
+            @Override
+            public TransferAction prompt(final TransferItem file) {
+                return TransferAction.overwrite;
+            }
+        }, new TransferErrorCallback() {
+            @Override
+            public boolean prompt(final BackgroundException failure) {
+                // Continue with other files
+                prompts.incrementAndGet();
+                return true;
+            }
+        },
+                new DisabledProgressListener(), new DisabledStreamListener(), new DisabledLoginCallback(), new DisabledPasswordCallback(), TransferItemCache.empty()).run(session, session));
+        assertEquals(1, prompts.get());
+        assertTrue(transferred.contains(root));
+        assertTrue(transferred.contains(new Path(root, "a", EnumSet.of(Path.Type.file))));
+        assertTrue(transferred.contains(new Path(root, "c", EnumSet.of(Path.Type.file))));
+        assertEquals(3, transferred.size());
+    }
+
     @Test(expected = NotfoundException.class)
     public void testUploadFileNotFound() throws Exception {
         // #7791
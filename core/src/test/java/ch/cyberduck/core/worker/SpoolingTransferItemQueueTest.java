@@ -0,0 +1,82 @@
+package ch.cyberduck.core.worker;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.io.Checksum;
+import ch.cyberduck.core.io.HashAlgorithm;
+import ch.cyberduck.core.transfer.TransferItem;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+
+import static org.junit.Assert.*;
+
+public class SpoolingTransferItemQueueTest {
+
+    @Test
+    public void testSpool() throws Exception {
+        final SpoolingTransferItemQueue queue = new SpoolingTransferItemQueue(2);
+        assertTrue(queue.isEmpty());
+        assertNull(queue.poll());
+        final TransferStatus parent = new TransferStatus().exists(true);
+        final Path directory = new Path("/d", EnumSet.of(Path.Type.directory));
+        final Path a = new Path(directory, "a", EnumSet.of(Path.Type.file));
+        final Path b = new Path(directory, "b", EnumSet.of(Path.Type.file));
+        final Path c = new Path(directory, "c", EnumSet.of(Path.Type.directory));
+        queue.add(parent, Arrays.asList(new TransferItem(a, new Local("/tmp/a"))));
+        // Exceeds budget
+        queue.add(parent, Arrays.asList(new TransferItem(b), new TransferItem(c, new Local("/tmp/c"))));
+        assertFalse(queue.isEmpty());
+        final SpoolingTransferItemQueue.Entry first = queue.poll();
+        assertSame(parent, first.getParent());
+        assertSame(a, first.getItem().remote);
+        final SpoolingTransferItemQueue.Entry second = queue.poll();
+        assertSame(parent, second.getParent());
+        assertEquals(b, second.getItem().remote);
+        assertNull(second.getItem().local);
+        final SpoolingTransferItemQueue.Entry third = queue.poll();
+        assertEquals(c, third.getItem().remote);
+        assertTrue(third.getItem().remote.isDirectory());
+        assertEquals(new Local("/tmp/c"), third.getItem().local);
+        assertNull(queue.poll());
+        assertTrue(queue.isEmpty());
+        queue.close();
+    }
+
+    @Test
+    public void testSpoolAttributes() throws Exception {
+        final SpoolingTransferItemQueue queue = new SpoolingTransferItemQueue(0);
+        final Path a = new Path("/d/a", EnumSet.of(Path.Type.file));
+        a.attributes().setSize(3L);
+        a.attributes().setModificationDate(1000L);
+        a.attributes().setVersionId("v1");
+        a.attributes().setChecksum(new Checksum(HashAlgorithm.md5, "d41d8cd98f00b204e9800998ecf8427e"));
+        queue.add(new TransferStatus(), Arrays.asList(new TransferItem(a)));
+        final Path spooled = queue.poll().getItem().remote;
+        assertNotSame(a, spooled);
+        assertEquals(a.getAbsolute(), spooled.getAbsolute());
+        assertEquals(3L, spooled.attributes().getSize());
+        assertEquals(1000L, spooled.attributes().getModificationDate());
+        assertEquals("v1", spooled.attributes().getVersionId());
+        assertEquals(a.attributes().getChecksum(), spooled.attributes().getChecksum());
+        queue.close();
+    }
+}
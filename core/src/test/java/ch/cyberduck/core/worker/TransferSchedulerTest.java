@@ -0,0 +1,127 @@
+package ch.cyberduck.core.worker;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+import ch.cyberduck.core.threading.AdaptiveConcurrencyLimit;
+import ch.cyberduck.core.threading.DefaultThreadPool;
+import ch.cyberduck.core.threading.ThreadPool;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class TransferSchedulerTest {
+
+    @Test
+    public void testOrder() throws Exception {
+        final ThreadPool pool = new DefaultThreadPool("test", 4);
+        final TransferScheduler scheduler = new TransferScheduler(pool, new AdaptiveConcurrencyLimit(1));
+        final CountDownLatch latch = new CountDownLatch(1);
+        final FutureTask<String> blocking = new FutureTask<String>(new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                latch.await();
+                return "b";
+            }
+        });
+        scheduler.execute(blocking, TransferScheduler.Lane.file);
+        final List<String> order = Collections.synchronizedList(new ArrayList<String>());
+        final List<FutureTask<String>> tasks = new ArrayList<FutureTask<String>>();
+        for(String name : Arrays.asList("f1", "f2")) {
+            final FutureTask<String> task = this.task(order, name);
+            tasks.add(task);
+            scheduler.execute(task, TransferScheduler.Lane.file);
+        }
+        for(String name : Arrays.asList("s1", "s2")) {
+            final FutureTask<String> task = this.task(order, name);
+            tasks.add(task);
+            scheduler.execute(task, TransferScheduler.Lane.segment);
+        }
+        // Queued while limit is reached
+        assertTrue(order.isEmpty());
+        latch.countDown();
+        assertEquals("b", blocking.get());
+        for(FutureTask<String> task : tasks) {
+            task.get();
+        }
+        // Queues served in turn and first in first out
+        assertEquals(Arrays.asList("s1", "f1", "s2", "f2"), order);
+        pool.shutdown(true);
+    }
+
+    @Test
+    public void testLimit() throws Exception {
+        final ThreadPool pool = new DefaultThreadPool("test", 8);
+        final TransferScheduler scheduler = new TransferScheduler(pool, new AdaptiveConcurrencyLimit(2));
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger max = new AtomicInteger();
+        final List<FutureTask<Integer>> tasks = new ArrayList<FutureTask<Integer>>();
+        for(int i = 0; i < 10; i++) {
+            final FutureTask<Integer> task = new FutureTask<Integer>(new Callable<Integer>() {
+                @Override
+                public Integer call() throws Exception {
+                    update(max, running.incrementAndGet());
+                    Thread.sleep(20L);
+                    running.decrementAndGet();
+                    return 0;
+                }
+            });
+            tasks.add(task);
+            scheduler.execute(task, i % 2 == 0 ? TransferScheduler.Lane.file : TransferScheduler.Lane.segment);
+        }
+        for(FutureTask<Integer> task : tasks) {
+            task.get();
+        }
+        assertEquals(2, max.get());
+        pool.shutdown(true);
+    }
+
+    @Test
+    public void testRejected() throws Exception {
+        final ThreadPool pool = new DefaultThreadPool("test", 1);
+        pool.shutdown(true);
+        final TransferScheduler scheduler = new TransferScheduler(pool, new AdaptiveConcurrencyLimit(1));
+        final FutureTask<String> task = this.task(new ArrayList<String>(), "f");
+        scheduler.execute(task, TransferScheduler.Lane.file);
+        // Released waiting caller
+        assertTrue(task.isCancelled());
+    }
+
+    private FutureTask<String> task(final List<String> order, final String name) {
+        return new FutureTask<String>(new Callable<String>() {
+            @Override
+            public String call() {
+                order.add(name);
+                return name;
+            }
+        });
+    }
+
+    private static void update(final AtomicInteger max, final int value) {
+        int current = max.get();
+        while(value > current && !max.compareAndSet(current, value)) {
+            current = max.get();
+        }
+    }
+}
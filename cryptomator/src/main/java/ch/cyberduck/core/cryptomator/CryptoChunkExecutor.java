@@ -0,0 +1,85 @@
+package ch.cyberduck.core.cryptomator;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.cryptomator.cryptolib.api.CryptoException;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Encrypt or decrypt independent file content chunks on the fork join pool. Chunk number and nonce must be
+ * assigned by the caller in order.
+ */
+final class CryptoChunkExecutor {
+
+    private CryptoChunkExecutor() {
+        //
+    }
+
+    /**
+     * @param chunks Chunks to encrypt or decrypt
+     * @return Result in order of chunks
+     */
+    static List<ByteBuffer> execute(final List<Callable<ByteBuffer>> chunks) throws IOException {
+        final List<ByteBuffer> result = new ArrayList<ByteBuffer>(chunks.size());
+        try {
+            if(chunks.size() == 1) {
+                result.add(chunks.get(0).call());
+                return result;
+            }
+            final List<ForkJoinTask<ByteBuffer>> tasks = new ArrayList<ForkJoinTask<ByteBuffer>>(chunks.size());
+            // Fork all but first chunk which is processed by calling thread
+            for(Callable<ByteBuffer> chunk : chunks.subList(1, chunks.size())) {
+                tasks.add(ForkJoinPool.commonPool().submit(chunk));
+            }
+            result.add(chunks.get(0).call());
+            for(ForkJoinTask<ByteBuffer> task : tasks) {
+                result.add(task.get());
+            }
+            return result;
+        }
+        catch(InterruptedException e) {
+            throw new InterruptedIOException(e.getMessage());
+        }
+        catch(ExecutionException e) {
+            throw failure(e.getCause());
+        }
+        catch(Exception e) {
+            throw failure(e);
+        }
+    }
+
+    private static IOException failure(final Throwable e) {
+        if(e instanceof CryptoException) {
+            return new IOException(e.getMessage(), new CryptoAuthenticationException(e.getMessage(), e));
+        }
+        if(e instanceof IOException) {
+            return (IOException) e;
+        }
+        if(e instanceof RuntimeException) {
+            throw (RuntimeException) e;
+        }
+        return new IOException(e.getMessage(), e);
+    }
+}
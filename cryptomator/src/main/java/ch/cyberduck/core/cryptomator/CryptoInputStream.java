@@ -15,15 +15,21 @@ package ch.cyberduck.core.cryptomator;
  * GNU General Public License for more details.
  */
 
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.input.ProxyInputStream;
-import org.cryptomator.cryptolib.api.CryptoException;
 import org.cryptomator.cryptolib.api.Cryptor;
 import org.cryptomator.cryptolib.api.FileHeader;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
 
 public class CryptoInputStream extends ProxyInputStream {
 
@@ -33,6 +39,15 @@ public class CryptoInputStream extends ProxyInputStream {
 
     private ByteBuffer buffer = ByteBuffer.allocate(0);
 
+    /**
+     * Decrypted chunks of current batch not yet read
+     */
+    private Iterator<ByteBuffer> chunks = Collections.<ByteBuffer>emptyList().iterator();
+    /**
+     * Ciphertext of batch reused for all reads
+     */
+    private final byte[] ciphertext;
+
     /**
      * Position proxy content cryptor
      */
@@ -40,12 +55,21 @@ public class CryptoInputStream extends ProxyInputStream {
     private final int chunkSize;
 
     public CryptoInputStream(final InputStream proxy, final Cryptor cryptor, final FileHeader header, final long chunkIndexOffset) throws IOException {
+        this(proxy, cryptor, header, chunkIndexOffset, PreferencesFactory.get().getInteger("cryptomator.chunk.batch"));
+    }
+
+    /**
+     * @param batch Number of chunks to read ahead and decrypt in parallel
+     */
+    public CryptoInputStream(final InputStream proxy, final Cryptor cryptor, final FileHeader header, final long chunkIndexOffset,
+                             final int batch) throws IOException {
         super(proxy);
         this.proxy = proxy;
         this.cryptor = cryptor;
         this.header = header;
         this.chunkSize = cryptor.fileContentCryptor().ciphertextChunkSize();
         this.chunkIndexOffset = chunkIndexOffset;
+        this.ciphertext = new byte[Math.max(1, batch) * chunkSize];
     }
 
     @Override
@@ -80,19 +104,28 @@ public class CryptoInputStream extends ProxyInputStream {
     }
 
     private int readNextChunk() throws IOException {
-        final ByteBuffer ciphertextBuf = ByteBuffer.allocate(chunkSize);
-        final int read = IOUtils.read(proxy, ciphertextBuf.array());
+        if(chunks.hasNext()) {
+            buffer = chunks.next();
+            return buffer.remaining();
+        }
+        final int read = IOUtils.read(proxy, ciphertext);
         if(read == 0) {
             return IOUtils.EOF;
         }
-        ciphertextBuf.position(read);
-        ciphertextBuf.flip();
-        try {
-            buffer = cryptor.fileContentCryptor().decryptChunk(ciphertextBuf, chunkIndexOffset++, header, true);
-        }
-        catch(CryptoException e) {
-            throw new IOException(e.getMessage(), new CryptoAuthenticationException(e.getMessage(), e));
+        // Decrypt batch in parallel
+        final List<Callable<ByteBuffer>> batch = new ArrayList<Callable<ByteBuffer>>();
+        for(int offset = 0; offset < read; offset += chunkSize) {
+            final ByteBuffer ciphertextBuf = ByteBuffer.wrap(ciphertext, offset, Math.min(chunkSize, read - offset)).slice();
+            final long chunkIndex = chunkIndexOffset++;
+            batch.add(new Callable<ByteBuffer>() {
+                @Override
+                public ByteBuffer call() {
+                    return cryptor.fileContentCryptor().decryptChunk(ciphertextBuf, chunkIndex, header, true);
+                }
+            });
         }
+        chunks = CryptoChunkExecutor.execute(batch).iterator();
+        buffer = chunks.next();
         return read;
     }
 }
@@ -18,17 +18,19 @@ package ch.cyberduck.core.cryptomator;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.io.MemorySegementingOutputStream;
 import ch.cyberduck.core.io.StatusOutputStream;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.random.NonceGenerator;
 
 import org.apache.commons.io.output.ProxyOutputStream;
-import org.cryptomator.cryptolib.api.CryptoException;
 import org.cryptomator.cryptolib.api.Cryptor;
 import org.cryptomator.cryptolib.api.FileHeader;
 
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
 
 public class CryptoOutputStream<Reply> extends StatusOutputStream<Reply> {
 
@@ -36,7 +38,15 @@ public class CryptoOutputStream<Reply> extends StatusOutputStream<Reply> {
 
     public CryptoOutputStream(final StatusOutputStream<Reply> proxy, final Cryptor cryptor, final FileHeader header,
                               final NonceGenerator nonces, final long chunkIndexOffset) {
-        super(new MemorySegementingOutputStream(new EncryptingOutputStream(proxy, cryptor, header, nonces, chunkIndexOffset),
+        this(proxy, cryptor, header, nonces, chunkIndexOffset, PreferencesFactory.get().getInteger("cryptomator.chunk.batch"));
+    }
+
+    /**
+     * @param batch Number of chunks to encrypt in parallel
+     */
+    public CryptoOutputStream(final StatusOutputStream<Reply> proxy, final Cryptor cryptor, final FileHeader header,
+                              final NonceGenerator nonces, final long chunkIndexOffset, final int batch) {
+        super(new MemorySegementingOutputStream(new EncryptingOutputStream(proxy, cryptor, header, nonces, chunkIndexOffset, batch),
                 cryptor.fileContentCryptor().cleartextChunkSize()));
         this.proxy = proxy;
     }
@@ -63,14 +73,27 @@ public class CryptoOutputStream<Reply> extends StatusOutputStream<Reply> {
         private final NonceGenerator nonces;
         private long chunkIndexOffset;
 
+        /**
+         * Cleartext of chunks not yet encrypted reused for all batches
+         */
+        private final byte[] buffer;
+        /**
+         * Length of each chunk in buffer
+         */
+        private final int[] lengths;
+        private int count;
+        private int position;
+
         public EncryptingOutputStream(final OutputStream proxy, final Cryptor cryptor, final FileHeader header,
-                                      final NonceGenerator nonces, final long chunkIndexOffset) {
+                                      final NonceGenerator nonces, final long chunkIndexOffset, final int batch) {
             super(proxy);
             this.cryptor = cryptor;
             this.header = header;
             this.chunksize = cryptor.fileContentCryptor().cleartextChunkSize();
             this.nonces = nonces;
             this.chunkIndexOffset = chunkIndexOffset;
+            this.buffer = new byte[Math.max(1, batch) * chunksize];
+            this.lengths = new int[Math.max(1, batch)];
         }
 
         @Override
@@ -80,18 +103,55 @@ public class CryptoOutputStream<Reply> extends StatusOutputStream<Reply> {
 
         @Override
         public void write(final byte[] b, final int off, final int len) throws IOException {
-            try {
-                for(int chunkOffset = off; chunkOffset < len; chunkOffset += chunksize) {
-                    int chunkLen = Math.min(chunksize, len - chunkOffset);
-                    final ByteBuffer encryptedChunk = cryptor.fileContentCryptor().encryptChunk(
-                            ByteBuffer.wrap(Arrays.copyOfRange(b, chunkOffset, chunkOffset + chunkLen)),
-                            chunkIndexOffset++, header, nonces.next());
-                    super.write(encryptedChunk.array());
+            for(int chunkOffset = off; chunkOffset < off + len; chunkOffset += chunksize) {
+                int chunkLen = Math.min(chunksize, off + len - chunkOffset);
+                System.arraycopy(b, chunkOffset, buffer, position, chunkLen);
+                lengths[count++] = chunkLen;
+                position += chunkLen;
+                if(count == lengths.length) {
+                    this.encrypt();
                 }
             }
-            catch(CryptoException e) {
-                throw new IOException(e.getMessage(), new CryptoAuthenticationException(e.getMessage(), e));
+        }
+
+        /**
+         * Encrypt buffered chunks in parallel and write in order
+         */
+        private void encrypt() throws IOException {
+            if(0 == count) {
+                return;
+            }
+            final List<Callable<ByteBuffer>> chunks = new ArrayList<Callable<ByteBuffer>>(count);
+            for(int i = 0, offset = 0; i < count; offset += lengths[i++]) {
+                final ByteBuffer cleartext = ByteBuffer.wrap(buffer, offset, lengths[i]).slice();
+                final long chunkIndex = chunkIndexOffset++;
+                final byte[] nonce = nonces.next();
+                chunks.add(new Callable<ByteBuffer>() {
+                    @Override
+                    public ByteBuffer call() {
+                        return cryptor.fileContentCryptor().encryptChunk(cleartext, chunkIndex, header, nonce);
+                    }
+                });
             }
+            final List<ByteBuffer> encrypted = CryptoChunkExecutor.execute(chunks);
+            // Reuse buffer
+            count = 0;
+            position = 0;
+            for(ByteBuffer encryptedChunk : encrypted) {
+                super.write(encryptedChunk.array());
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            this.encrypt();
+            super.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.encrypt();
+            super.close();
         }
     }
 }
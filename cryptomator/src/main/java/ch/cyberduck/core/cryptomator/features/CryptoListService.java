@@ -20,17 +20,17 @@ import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.ListService;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.Session;
+import ch.cyberduck.core.cryptomator.CryptoVault;
 import ch.cyberduck.core.exception.BackgroundException;
-import ch.cyberduck.core.features.Vault;
 import ch.cyberduck.core.vault.DecryptingListProgressListener;
 
 public class CryptoListService implements ListService {
 
     private final Session<?> session;
     private final ListService delegate;
-    private final Vault vault;
+    private final CryptoVault vault;
 
-    public CryptoListService(final Session<?> session, final ListService delegate, final Vault vault) {
+    public CryptoListService(final Session<?> session, final ListService delegate, final CryptoVault vault) {
         this.session = session;
         this.delegate = delegate;
         this.vault = vault;
@@ -38,8 +38,12 @@ public class CryptoListService implements ListService {
 
     @Override
     public AttributedList<Path> list(final Path directory, final ListProgressListener listener) throws BackgroundException {
-        return delegate.list(vault.encrypt(session, directory),
+        final Path encrypted = vault.encrypt(session, directory);
+        final AttributedList<Path> list = delegate.list(encrypted,
                 new DecryptingListProgressListener(session, vault, listener));
+        // Encrypted names of listed files for later lookups
+        vault.getDirectoryProvider().cache(encrypted, list);
+        return list;
     }
 
     @Override
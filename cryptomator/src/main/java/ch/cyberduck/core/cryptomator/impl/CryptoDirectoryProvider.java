@@ -16,6 +16,7 @@ package ch.cyberduck.core.cryptomator.impl;
  */
 
 import ch.cyberduck.core.AbstractPath;
+import ch.cyberduck.core.AttributedList;
 import ch.cyberduck.core.CacheReference;
 import ch.cyberduck.core.DefaultPathPredicate;
 import ch.cyberduck.core.Path;
@@ -24,19 +25,20 @@ import ch.cyberduck.core.RandomStringService;
 import ch.cyberduck.core.Session;
 import ch.cyberduck.core.SimplePathPredicate;
 import ch.cyberduck.core.UUIDRandomStringService;
+import ch.cyberduck.core.collections.CacheStatistics;
+import ch.cyberduck.core.collections.ConcurrentLRUMap;
 import ch.cyberduck.core.cryptomator.ContentReader;
 import ch.cyberduck.core.cryptomator.CryptoVault;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.metrics.MetricsRegistry;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 
-import org.apache.commons.collections4.map.LRUMap;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
 
 import java.nio.charset.StandardCharsets;
 import java.util.EnumSet;
-import java.util.Map;
 
 public class CryptoDirectoryProvider {
     private static final Logger log = Logger.getLogger(CryptoDirectoryProvider.class);
@@ -51,13 +53,24 @@ public class CryptoDirectoryProvider {
     private final RandomStringService random
             = new UUIDRandomStringService();
 
-    private final Map<CacheReference<Path>, String> cache = new LRUMap<CacheReference<Path>, String>(
-            PreferencesFactory.get().getInteger("browser.cache.size"));
+    /**
+     * Directory ID by clear text directory
+     */
+    private final ConcurrentLRUMap<CacheReference<Path>, String> cache = new ConcurrentLRUMap<CacheReference<Path>, String>(
+            PreferencesFactory.get().getInteger("cryptomator.cache.directory.size"));
+
+    /**
+     * Encrypted and deflated filename by directory ID and clear text filename
+     */
+    private final ConcurrentLRUMap<String, String> names = new ConcurrentLRUMap<String, String>(
+            PreferencesFactory.get().getInteger("cryptomator.cache.filename.size"));
 
     public CryptoDirectoryProvider(final Path vault, final CryptoVault cryptomator) {
         this.home = vault;
         this.dataRoot = new Path(vault, DATA_DIR_NAME, vault.getType());
         this.cryptomator = cryptomator;
+        MetricsRegistry.get().register("cryptomator.directory", cache);
+        MetricsRegistry.get().register("cryptomator.filename", names);
     }
 
     /**
@@ -71,12 +84,43 @@ public class CryptoDirectoryProvider {
      */
     public String toEncrypted(final Session<?> session, final String directoryId, final String filename, final EnumSet<AbstractPath.Type> type) throws BackgroundException {
         final String prefix = type.contains(Path.Type.directory) ? CryptoVault.DIR_PREFIX : "";
+        final String key = this.key(directoryId, prefix, filename);
+        final String cached = names.get(key);
+        if(null != cached) {
+            return cached;
+        }
         final String ciphertextName = String.format("%s%s", prefix,
                 cryptomator.getCryptor().fileNameCryptor().encryptFilename(filename, directoryId.getBytes(StandardCharsets.UTF_8)));
         if(log.isDebugEnabled()) {
             log.debug(String.format("Encrypted filename %s to %s", filename, ciphertextName));
         }
-        return cryptomator.getFilenameProvider().deflate(session, ciphertextName);
+        final String deflated = cryptomator.getFilenameProvider().deflate(session, ciphertextName);
+        names.put(key, deflated);
+        return deflated;
+    }
+
+    /**
+     * Cache encrypted filenames of all files in decrypted directory listing
+     *
+     * @param directory Encrypted directory listed with directory ID resolved
+     * @param list      Decrypted files with reference to encrypted file
+     */
+    public void cache(final Path directory, final AttributedList<Path> list) {
+        final String directoryId = directory.attributes().getDirectoryId();
+        if(null == directoryId) {
+            return;
+        }
+        for(Path file : list) {
+            final Path encrypted = file.attributes().getEncrypted();
+            if(null == encrypted || !file.getType().contains(Path.Type.decrypted)) {
+                continue;
+            }
+            names.put(this.key(directoryId, file.isDirectory() ? CryptoVault.DIR_PREFIX : "", file.getName()), encrypted.getName());
+        }
+    }
+
+    private String key(final String directoryId, final String prefix, final String filename) {
+        return String.format("%s%s%s%s", directoryId, Path.DELIMITER, prefix, filename);
     }
 
     /**
@@ -116,8 +160,9 @@ public class CryptoDirectoryProvider {
             return ROOT_DIR_ID;
         }
         if(StringUtils.isBlank(directoryId)) {
-            if(cache.containsKey(new DefaultPathPredicate(directory))) {
-                return cache.get(new DefaultPathPredicate(directory));
+            final String cached = cache.get(new DefaultPathPredicate(directory));
+            if(null != cached) {
+                return cached;
             }
             final String id = this.load(session, directory);
             cache.put(new DefaultPathPredicate(directory), id);
@@ -154,5 +199,20 @@ public class CryptoDirectoryProvider {
 
     public void destroy() {
         cache.clear();
+        names.clear();
+    }
+
+    /**
+     * @return Directory ID lookups
+     */
+    public CacheStatistics getStatistics() {
+        return cache.getStatistics();
+    }
+
+    /**
+     * @return Encrypted filename lookups
+     */
+    public CacheStatistics getFilenameStatistics() {
+        return names.getStatistics();
     }
 }
@@ -17,20 +17,21 @@ package ch.cyberduck.core.cryptomator.impl;
 
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.Session;
+import ch.cyberduck.core.collections.CacheStatistics;
+import ch.cyberduck.core.collections.ConcurrentLRUMap;
 import ch.cyberduck.core.cryptomator.ContentReader;
 import ch.cyberduck.core.cryptomator.ContentWriter;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.features.Directory;
 import ch.cyberduck.core.features.Find;
+import ch.cyberduck.core.metrics.MetricsRegistry;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.transfer.TransferStatus;
 
-import org.apache.commons.collections4.map.LRUMap;
 import org.apache.log4j.Logger;
 import org.cryptomator.cryptolib.common.MessageDigestSupplier;
 
 import java.util.EnumSet;
-import java.util.Map;
 
 import com.google.common.io.BaseEncoding;
 
@@ -47,11 +48,22 @@ public class CryptoFilenameProvider {
 
     private final Path metadataRoot;
 
-    private final Map<String, String> cache = new LRUMap<String, String>(
-        PreferencesFactory.get().getInteger("browser.cache.size"));
+    /**
+     * Shortened name by long filename
+     */
+    private final ConcurrentLRUMap<String, String> cache = new ConcurrentLRUMap<String, String>(
+        PreferencesFactory.get().getInteger("cryptomator.cache.filename.size"));
+
+    /**
+     * Long filename by shortened name
+     */
+    private final ConcurrentLRUMap<String, String> inflated = new ConcurrentLRUMap<String, String>(
+        PreferencesFactory.get().getInteger("cryptomator.cache.filename.size"));
 
     public CryptoFilenameProvider(final Path vault) {
         this.metadataRoot = new Path(vault, METADATA_DIR_NAME, vault.getType());
+        MetricsRegistry.get().register("cryptomator.deflate", cache);
+        MetricsRegistry.get().register("cryptomator.inflate", inflated);
     }
 
     public boolean isDeflated(final String filename) {
@@ -59,15 +71,24 @@ public class CryptoFilenameProvider {
     }
 
     public String inflate(final Session<?> session, final String shortName) throws BackgroundException {
-        return new ContentReader(session).read(resolve(shortName));
+        final String cached = inflated.get(shortName);
+        if(null != cached) {
+            return cached;
+        }
+        final String filename = new ContentReader(session).read(resolve(shortName));
+        inflated.put(shortName, filename);
+        // Metadata file exists
+        cache.put(filename, shortName);
+        return filename;
     }
 
     public String deflate(final Session<?> session, final String filename) throws BackgroundException {
         if(filename.length() < NAME_SHORTENING_THRESHOLD) {
             return filename;
         }
-        if(cache.containsKey(filename)) {
-            return cache.get(filename);
+        final String cached = cache.get(filename);
+        if(null != cached) {
+            return cached;
         }
         final byte[] longFileNameBytes = filename.getBytes(UTF_8);
         final byte[] hash = MessageDigestSupplier.SHA1.get().digest(longFileNameBytes);
@@ -93,6 +114,7 @@ public class CryptoFilenameProvider {
             log.info(String.format("Deflated %s to %s", filename, shortName));
         }
         cache.put(filename, shortName);
+        inflated.put(shortName, filename);
         return shortName;
     }
 
@@ -106,5 +128,13 @@ public class CryptoFilenameProvider {
 
     public void destroy() {
         cache.clear();
+        inflated.clear();
+    }
+
+    /**
+     * @return Lookups of shortened names
+     */
+    public CacheStatistics getStatistics() {
+        return cache.getStatistics();
     }
 }
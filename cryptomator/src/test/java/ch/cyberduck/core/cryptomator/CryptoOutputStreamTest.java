@@ -150,4 +150,38 @@ public class CryptoOutputStreamTest {
 
         assertArrayEquals(cleartext, read);
     }
+
+    @Test
+    public void testWriteParallelBatches() throws Exception {
+        final CryptoVault vault = this.getVault();
+        final ByteArrayOutputStream cipherText = new ByteArrayOutputStream();
+        final FileHeader header = vault.getCryptor().fileHeaderCryptor().create();
+        final CryptoOutputStream<?> stream = new CryptoOutputStream<>(new StatusOutputStream<Void>(cipherText) {
+            @Override
+            public Void getStatus() throws BackgroundException {
+                return null;
+            }
+        }, vault.getCryptor(), header, new RandomNonceGenerator(), 0, 4);
+
+        final int chunksize = vault.getCryptor().fileContentCryptor().cleartextChunkSize();
+        final byte[] cleartext = RandomUtils.nextBytes(10 * chunksize + 17);
+        for(int offset = 0; offset < cleartext.length; offset += 1000) {
+            stream.write(cleartext, offset, Math.min(1000, cleartext.length - offset));
+        }
+        stream.close();
+        assertEquals(vault.toCiphertextSize(cleartext.length) - vault.getCryptor().fileHeaderCryptor().headerSize(), cipherText.size());
+
+        final byte[] read = new byte[cleartext.length];
+        final CryptoInputStream cryptoInputStream = new CryptoInputStream(new ByteArrayInputStream(cipherText.toByteArray()), vault.getCryptor(), header, 0, 3);
+        IOUtils.readFully(cryptoInputStream, read);
+        assertEquals(-1, cryptoInputStream.read(new byte[1]));
+        cryptoInputStream.close();
+
+        assertArrayEquals(cleartext, read);
+        // Sequential decryption of parallel encrypted content
+        final CryptoInputStream sequential = new CryptoInputStream(new ByteArrayInputStream(cipherText.toByteArray()), vault.getCryptor(), header, 0, 1);
+        IOUtils.readFully(sequential, read);
+        sequential.close();
+        assertArrayEquals(cleartext, read);
+    }
 }
@@ -15,6 +15,7 @@ package ch.cyberduck.core.cryptomator.impl;
  * GNU General Public License for more details.
  */
 
+import ch.cyberduck.core.AttributedList;
 import ch.cyberduck.core.ConnectionCallback;
 import ch.cyberduck.core.Credentials;
 import ch.cyberduck.core.DisabledPasswordCallback;
@@ -23,6 +24,7 @@ import ch.cyberduck.core.Host;
 import ch.cyberduck.core.LoginOptions;
 import ch.cyberduck.core.NullSession;
 import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathAttributes;
 import ch.cyberduck.core.TestProtocol;
 import ch.cyberduck.core.cryptomator.CryptoVault;
 import ch.cyberduck.core.exception.BackgroundException;
@@ -41,6 +43,7 @@ import java.util.EnumSet;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 public class CryptoDirectoryProviderTest {
 
@@ -104,5 +107,33 @@ public class CryptoDirectoryProviderTest {
         final Path f = new Path("/vault/f", EnumSet.of(Path.Type.directory));
         assertNotNull(provider.toEncrypted(session, null, f));
         assertEquals(provider.toEncrypted(session, null, f), provider.toEncrypted(session, null, f));
+        assertTrue(provider.getStatistics().getHits() > 0L);
+        final String name = provider.toEncrypted(session, "id", "a", EnumSet.of(Path.Type.file));
+        assertEquals(name, provider.toEncrypted(session, "id", "a", EnumSet.of(Path.Type.file)));
+        assertEquals(1L, provider.getFilenameStatistics().getHits());
+        // Different name for directory
+        assertEquals(CryptoVault.DIR_PREFIX + name, provider.toEncrypted(session, "id", "a", EnumSet.of(Path.Type.directory)));
+    }
+
+    @Test
+    public void testCacheListing() throws Exception {
+        final Path home = new Path("/vault", EnumSet.of(Path.Type.directory));
+        final CryptoVault vault = new CryptoVault(home, new DisabledPasswordStore());
+        final CryptoDirectoryProvider provider = new CryptoDirectoryProvider(home, vault);
+        final PathAttributes attributes = new PathAttributes();
+        attributes.setDirectoryId("id");
+        final Path directory = new Path("/vault/d/aa/bb", EnumSet.of(Path.Type.directory, Path.Type.encrypted), attributes);
+        // Parent of encrypted reference in listing has no directory ID
+        final Path encrypted = new Path(new Path("/vault/d/aa/bb", EnumSet.of(Path.Type.directory)), "ciphertext",
+                EnumSet.of(Path.Type.file, Path.Type.encrypted));
+        final Path decrypted = new Path("/vault/a", EnumSet.of(Path.Type.file, Path.Type.decrypted));
+        decrypted.attributes().setEncrypted(encrypted);
+        final AttributedList<Path> list = new AttributedList<Path>();
+        list.add(decrypted);
+        list.add(new Path("/vault/b", EnumSet.of(Path.Type.file)));
+        provider.cache(directory, list);
+        // No encryption with vault not unlocked
+        assertEquals("ciphertext", provider.toEncrypted(new NullSession(new Host(new TestProtocol())), "id", "a", EnumSet.of(Path.Type.file)));
+        assertEquals(1L, provider.getFilenameStatistics().getHits());
     }
 }
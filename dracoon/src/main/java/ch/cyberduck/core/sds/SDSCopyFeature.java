@@ -53,6 +53,8 @@ public class SDSCopyFeature implements Copy {
                 new CopyNodesRequest()
                     .addNodeIdsItem(Long.parseLong(new SDSNodeIdProvider(session).getFileid(source, new DisabledListProgressListener())))
                     .resolutionStrategy(CopyNodesRequest.ResolutionStrategyEnum.OVERWRITE), null);
+            // Overwritten target is replaced with a new node
+            session.getFileidCache().remove(target);
             return new Path(target.getParent(), target.getName(), target.getType(),
                 new PathAttributes(target.attributes()).withVersionId(String.valueOf(node.getId())));
         }
@@ -30,6 +30,7 @@ import org.apache.log4j.Logger;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 public class SDSDeleteFeature implements Delete {
@@ -46,10 +47,14 @@ public class SDSDeleteFeature implements Delete {
 
     @Override
     public void delete(final List<Path> files, final PasswordCallback prompt, final Callback callback) throws BackgroundException {
+        final SDSNodeIdProvider nodeid = new SDSNodeIdProvider(session);
+        // Resolve identifiers of siblings with single listing
+        final Map<Path, String> ids = nodeid.getFileids(files, new DisabledListProgressListener());
         for(Path file : files) {
             try {
                 new NodesApi(session.getClient()).deleteNode(StringUtils.EMPTY,
-                    Long.parseLong(new SDSNodeIdProvider(session).getFileid(file, new DisabledListProgressListener())));
+                    Long.parseLong(ids.containsKey(file) ? ids.get(file) : nodeid.getFileid(file, new DisabledListProgressListener())));
+                session.getFileidCache().remove(file);
             }
             catch(ApiException e) {
                 throw new SDSExceptionMappingService().map("Cannot delete {0}", e, file);
@@ -96,6 +96,7 @@ public class SDSListService implements ListService {
                 offset += chunksize;
             }
             while(nodes.getItems().size() == chunksize);
+            session.getFileidCache().put(children);
         }
         catch(ApiException e) {
             throw new SDSExceptionMappingService().map("Listing directory {0} failed", e, directory);
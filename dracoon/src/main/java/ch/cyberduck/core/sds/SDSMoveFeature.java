@@ -81,6 +81,9 @@ public class SDSMoveFeature implements Move {
                         new UpdateFileRequest().name(renamed.getName()), null);
                 }
             }
+            session.getFileidCache().remove(file);
+            session.getFileidCache().remove(new Path(renamed.getParent(), file.getName(), file.getType()));
+            session.getFileidCache().remove(renamed);
             return new Path(renamed.getParent(), renamed.getName(), renamed.getType(),
                 new PathAttributes(renamed.attributes()).withVersionId(file.attributes().getVersionId()));
         }
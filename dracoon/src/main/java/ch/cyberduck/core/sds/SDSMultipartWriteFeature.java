@@ -228,6 +228,7 @@ public class SDSMultipartWriteFeature implements MultipartWrite<VersionId> {
                 }
                 final Node upload = new NodesApi(session.getClient()).completeFileUpload(StringUtils.EMPTY, uploadId, null, body);
                 versionId = new VersionId(String.valueOf(upload.getId()));
+                session.getFileidCache().put(file, versionId.id);
             }
             catch(ApiException e) {
                 throw new IOException(new SDSExceptionMappingService().map("Upload {0} failed", e, file));
@@ -17,9 +17,12 @@ package ch.cyberduck.core.sds;
 
 import ch.cyberduck.core.Cache;
 import ch.cyberduck.core.DisabledListProgressListener;
+import ch.cyberduck.core.FileidCache;
 import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathCache;
 import ch.cyberduck.core.PathContainerService;
+import ch.cyberduck.core.SimplePathPredicate;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.IdProvider;
@@ -31,6 +34,12 @@ import ch.cyberduck.core.sds.io.swagger.client.model.NodeList;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 public class SDSNodeIdProvider implements IdProvider {
     private static final Logger log = Logger.getLogger(SDSNodeIdProvider.class);
 
@@ -39,7 +48,9 @@ public class SDSNodeIdProvider implements IdProvider {
     private final SDSSession session;
 
     private final PathContainerService containerService
-            = new SDSPathContainerService();
+        = new SDSPathContainerService();
+
+    private Cache<Path> cache = PathCache.empty();
 
     public SDSNodeIdProvider(final SDSSession session) {
         this.session = session;
@@ -47,50 +58,111 @@ public class SDSNodeIdProvider implements IdProvider {
 
     @Override
     public String getFileid(final Path file, final ListProgressListener listener) throws BackgroundException {
-        if(StringUtils.isNotBlank(file.attributes().getVersionId())) {
+        final String cached = this.lookup(file);
+        if(null != cached) {
             if(log.isInfoEnabled()) {
-                log.info(String.format("Return cached node %s for file %s", file.attributes().getVersionId(), file));
+                log.info(String.format("Return cached node %s for file %s", cached, file));
             }
-            return file.attributes().getVersionId();
-        }
-        if(file.isRoot()) {
-            return ROOT_NODE_ID;
+            return cached;
         }
-        try {
-            final String type;
-            if(file.isDirectory()) {
-                if(containerService.isContainer(file)) {
-                    type = "room";
+        return session.getFileidCache().get(file, new FileidCache.Loader() {
+            @Override
+            public String load(final Path file) throws BackgroundException {
+                try {
+                    final String type;
+                    if(file.isDirectory()) {
+                        if(containerService.isContainer(file)) {
+                            type = "room";
+                        }
+                        else {
+                            type = "folder";
+                        }
+                    }
+                    else {
+                        type = "file";
+                    }
+                    // Top-level nodes only
+                    final NodeList nodes = new NodesApi(session.getClient()).getFsNodes(StringUtils.EMPTY, null, 0,
+                        Long.parseLong(getFileid(file.getParent(), new DisabledListProgressListener())),
+                        null, String.format("type:eq:%s|name:cn:%s", type, file.getName()),
+                        null, null, null);
+                    for(Node node : nodes.getItems()) {
+                        if(node.getName().equals(file.getName())) {
+                            if(log.isInfoEnabled()) {
+                                log.info(String.format("Return node %s for file %s", node.getId(), file));
+                            }
+                            return node.getId().toString();
+                        }
+                    }
+                    throw new NotfoundException(file.getAbsolute());
                 }
-                else {
-                    type = "folder";
+                catch(ApiException e) {
+                    throw new SDSExceptionMappingService().map("Failure to read attributes of {0}", e, file);
                 }
             }
-            else {
-                type = "file";
+        });
+    }
+
+    /**
+     * Resolve identifiers of files missing in cache. Multiple files with the same parent are resolved with a
+     * single listing of the parent.
+     *
+     * @param files Files
+     * @return Identifiers by file. Files not found are not contained.
+     */
+    public Map<Path, String> getFileids(final List<Path> files, final ListProgressListener listener) throws BackgroundException {
+        final Map<Path, String> ids = new HashMap<Path, String>();
+        final Map<Path, List<Path>> missing = new LinkedHashMap<Path, List<Path>>();
+        for(Path file : files) {
+            final String cached = this.lookup(file);
+            if(null != cached) {
+                ids.put(file, cached);
+                continue;
             }
-            // Top-level nodes only
-            final NodeList nodes = new NodesApi(session.getClient()).getFsNodes(StringUtils.EMPTY, null, 0,
-                    Long.parseLong(this.getFileid(file.getParent(), new DisabledListProgressListener())),
-                    null, String.format("type:eq:%s|name:cn:%s", type, file.getName()),
-                    null, null, null);
-            for(Node node : nodes.getItems()) {
-                if(node.getName().equals(file.getName())) {
-                    if(log.isInfoEnabled()) {
-                        log.info(String.format("Return node %s for file %s", node.getId(), file));
-                    }
-                    return node.getId().toString();
+            if(!missing.containsKey(file.getParent())) {
+                missing.put(file.getParent(), new ArrayList<Path>());
+            }
+            missing.get(file.getParent()).add(file);
+        }
+        for(Map.Entry<Path, List<Path>> entry : missing.entrySet()) {
+            if(entry.getValue().size() < 2) {
+                // Lookup single file with filter on demand
+                continue;
+            }
+            // Fills cache with identifiers of all children
+            new SDSListService(session).list(entry.getKey(), listener);
+            for(Path file : entry.getValue()) {
+                final String id = session.getFileidCache().get(file);
+                if(null != id) {
+                    ids.put(file, id);
                 }
             }
-            throw new NotfoundException(file.getAbsolute());
         }
-        catch(ApiException e) {
-            throw new SDSExceptionMappingService().map("Failure to read attributes of {0}", e, file);
+        return ids;
+    }
+
+    /**
+     * @return Null if identifier is not known without query
+     */
+    private String lookup(final Path file) {
+        if(StringUtils.isNotBlank(file.attributes().getVersionId())) {
+            return file.attributes().getVersionId();
+        }
+        if(file.isRoot()) {
+            return ROOT_NODE_ID;
+        }
+        if(cache.isCached(file.getParent())) {
+            final Path found = cache.get(file.getParent()).find(new SimplePathPredicate(file));
+            if(null != found && StringUtils.isNotBlank(found.attributes().getVersionId())) {
+                return found.attributes().getVersionId();
+            }
         }
+        return session.getFileidCache().get(file);
     }
 
     @Override
     public IdProvider withCache(final Cache<Path> cache) {
+        this.cache = cache;
         return this;
     }
 }
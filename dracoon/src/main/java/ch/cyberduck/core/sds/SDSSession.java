@@ -18,6 +18,7 @@ package ch.cyberduck.core.sds;
 import ch.cyberduck.core.AttributedList;
 import ch.cyberduck.core.Credentials;
 import ch.cyberduck.core.ExpiringObjectHolder;
+import ch.cyberduck.core.FileidCache;
 import ch.cyberduck.core.Host;
 import ch.cyberduck.core.HostKeyCallback;
 import ch.cyberduck.core.HostPasswordStore;
@@ -88,6 +89,8 @@ public class SDSSession extends HttpSession<SDSApiClient> {
 
     private final List<KeyValueEntry> configuration = new ArrayList<>();
 
+    private final FileidCache fileids = new FileidCache();
+
     public SDSSession(final Host host, final X509TrustManager trust, final X509KeyManager key) {
         super(host, new ThreadLocalHostnameDelegatingTrustManager(trust, host.getHostname()), key);
     }
@@ -231,6 +234,13 @@ public class SDSSession extends HttpSession<SDSApiClient> {
         return new SDSListService(this).list(directory, listener);
     }
 
+    /**
+     * @return File identifiers shared by all lookups in this session
+     */
+    public FileidCache getFileidCache() {
+        return fileids;
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public <T> T _getFeature(final Class<T> type) {
@@ -133,6 +133,8 @@ public class SDSWriteFeature extends AbstractHttpWriteFeature<VersionId> {
                             body.setFileKey(TripleCryptConverter.toSwaggerFileKey(encryptFileKey));
                         }
                         final Node upload = new NodesApi(client).completeFileUpload(StringUtils.EMPTY, uploadId, null, body);
+                        // Overwrite replaces the node
+                        session.getFileidCache().put(file, String.valueOf(upload.getId()));
                         return new VersionId(String.valueOf(upload.getId()));
                     }
                     catch(IOException e) {
@@ -0,0 +1,30 @@
+package ch.cyberduck.core.ftp;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.exception.BackgroundException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+public interface DataConnectionReader<T> {
+
+    /**
+     * @param reader Lines as received on the open data connection
+     * @return Parsed response
+     */
+    T read(BufferedReader reader) throws IOException, BackgroundException;
+}
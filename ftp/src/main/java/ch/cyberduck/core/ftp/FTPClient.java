@@ -20,6 +20,7 @@ package ch.cyberduck.core.ftp;
  */
 
 import ch.cyberduck.core.Protocol;
+import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 
@@ -196,6 +197,48 @@ public class FTPClient extends FTPSClient {
         return results;
     }
 
+    /**
+     * Parse listing while the data connection is open instead of reading all lines first
+     *
+     * @param reader Consumer of lines received
+     * @return Result of reader
+     */
+    public <T> T list(final FTPCmd command, final String pathname, final DataConnectionReader<T> reader) throws IOException, BackgroundException {
+        this.pret(command, pathname);
+
+        final Socket socket = _openDataConnection_(command, pathname);
+
+        final BufferedReader lines = new BufferedReader(
+                new InputStreamReader(socket.getInputStream(), getControlEncoding())) {
+            @Override
+            public String readLine() throws IOException {
+                final String line = super.readLine();
+                if(line != null) {
+                    _commandSupport_.fireReplyReceived(-1, line);
+                }
+                return line;
+            }
+        };
+        final T result;
+        try {
+            result = reader.read(lines);
+        }
+        catch(BackgroundException e) {
+            lines.close();
+            socket.close();
+            // Read reply for transfer aborted by closing data connection
+            this.completePendingCommand();
+            throw e;
+        }
+        lines.close();
+        socket.close();
+
+        if(!this.completePendingCommand()) {
+            throw new FTPException(this.getReplyCode(), this.getReplyString());
+        }
+        return result;
+    }
+
     /**
      * Query the server for a supported feature, and returns its values (if any).
      * Caches the parsed response to avoid resending the command repeatedly.
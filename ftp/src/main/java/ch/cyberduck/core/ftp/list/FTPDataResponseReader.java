@@ -20,6 +20,7 @@ import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
 
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.util.List;
 
@@ -27,4 +28,12 @@ public interface FTPDataResponseReader {
 
     AttributedList<Path> read(Path parent, List<String> replies, ListProgressListener listener)
         throws IOException, FTPInvalidListException, ConnectionCanceledException;
+
+    /**
+     * Parse lines as they are received and notify listener with entries parsed so far
+     *
+     * @param replies Lines from data connection
+     */
+    AttributedList<Path> read(Path parent, BufferedReader replies, ListProgressListener listener)
+        throws IOException, FTPInvalidListException, ConnectionCanceledException;
 }
@@ -23,14 +23,18 @@ import ch.cyberduck.core.PathNormalizer;
 import ch.cyberduck.core.Permission;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.ftp.parser.FTPExtendedFile;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.net.ftp.FTPFile;
 import org.apache.commons.net.ftp.FTPFileEntryParser;
 import org.apache.log4j.Logger;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
 
@@ -39,14 +43,23 @@ public class FTPListResponseReader implements FTPDataResponseReader {
 
     private final FTPFileEntryParser parser;
     private final boolean lenient;
+    private final int chunksize;
 
     public FTPListResponseReader(final FTPFileEntryParser parser) {
         this(parser, false);
     }
 
     public FTPListResponseReader(final FTPFileEntryParser parser, final boolean lenient) {
+        this(parser, lenient, PreferencesFactory.get().getInteger("ftp.listing.chunksize"));
+    }
+
+    /**
+     * @param chunksize Number of entries parsed before notifying listener when reading from data connection
+     */
+    public FTPListResponseReader(final FTPFileEntryParser parser, final boolean lenient, final int chunksize) {
         this.parser = parser;
         this.lenient = lenient;
+        this.chunksize = chunksize;
     }
 
     @Override
@@ -59,111 +72,149 @@ public class FTPListResponseReader implements FTPDataResponseReader {
         // from the server stream, but before any clients see the list
         parser.preParse(replies);
         for(String line : replies) {
-            final FTPFile f = parser.parseFTPEntry(line);
-            if(null == f) {
-                continue;
+            success |= this.parse(directory, line, success, children);
+        }
+        if(!success) {
+            throw new FTPInvalidListException(children);
+        }
+        return children;
+    }
+
+    @Override
+    public AttributedList<Path> read(final Path directory, final BufferedReader replies, final ListProgressListener listener)
+            throws IOException, FTPInvalidListException, ConnectionCanceledException {
+        final AttributedList<Path> children = new AttributedList<Path>();
+        // At least one entry successfully parsed
+        boolean success = false;
+        String line = replies.readLine();
+        if(line != null) {
+            // Call pre-parse hook with first line only which may be a header that is removed
+            final List<String> header = new ArrayList<String>(Collections.singletonList(line));
+            parser.preParse(header);
+            for(String h : header) {
+                success |= this.parse(directory, h, success, children);
             }
-            final String name = f.getName();
-            if(!success) {
-                if(lenient) {
-                    // Workaround for #2410. STAT only returns ls of directory itself
-                    // Workaround for #2434. STAT of symbolic link directory only lists the directory itself.
-                    if(directory.getName().equals(name)) {
-                        log.warn(String.format("Skip %s matching parent directory name", f.getName()));
-                        continue;
-                    }
-                    if(name.contains(String.valueOf(Path.DELIMITER))) {
-                        if(!name.startsWith(directory.getAbsolute() + Path.DELIMITER)) {
-                            // Workaround for #2434.
-                            log.warn(String.format("Skip %s with delimiter in name", name));
-                            continue;
-                        }
-                    }
-                }
+        }
+        int notified = children.size();
+        while((line = replies.readLine()) != null) {
+            success |= this.parse(directory, line, success, children);
+            if(children.size() - notified >= chunksize) {
+                notified = children.size();
+                listener.chunk(directory, children);
             }
-            success = true;
-            if(name.equals(".") || name.equals("..")) {
-                if(log.isDebugEnabled()) {
-                    log.debug(String.format("Skip %s", f.getName()));
+        }
+        if(!success) {
+            throw new FTPInvalidListException(children);
+        }
+        return children;
+    }
+
+    /**
+     * @param success  At least one entry previously parsed
+     * @param children Add parsed entry
+     * @return True if line is a valid entry
+     */
+    private boolean parse(final Path directory, final String line, final boolean success, final AttributedList<Path> children) {
+        final FTPFile f = parser.parseFTPEntry(line);
+        if(null == f) {
+            return false;
+        }
+        final String name = f.getName();
+        if(!success) {
+            if(lenient) {
+                // Workaround for #2410. STAT only returns ls of directory itself
+                // Workaround for #2434. STAT of symbolic link directory only lists the directory itself.
+                if(directory.getName().equals(name)) {
+                    log.warn(String.format("Skip %s matching parent directory name", f.getName()));
+                    return false;
                 }
-                continue;
-            }
-            final Path parsed = new Path(directory, PathNormalizer.name(name), f.getType() == FTPFile.DIRECTORY_TYPE ? EnumSet.of(Path.Type.directory) : EnumSet.of(Path.Type.file));
-            switch(f.getType()) {
-                case FTPFile.SYMBOLIC_LINK_TYPE:
-                    parsed.setType(EnumSet.of(Path.Type.file, Path.Type.symboliclink));
-                    // Symbolic link target may be an absolute or relative path
-                    final String target = f.getLink();
-                    if(StringUtils.isBlank(target)) {
-                        log.warn(String.format("Missing symbolic link target for %s", parsed));
-                        final EnumSet<AbstractPath.Type> type = parsed.getType();
-                        type.remove(AbstractPath.Type.symboliclink);
-                    }
-                    else if(StringUtils.startsWith(target, String.valueOf(Path.DELIMITER))) {
-                        parsed.setSymlinkTarget(new Path(target, EnumSet.of(Path.Type.file)));
+                if(name.contains(String.valueOf(Path.DELIMITER))) {
+                    if(!name.startsWith(directory.getAbsolute() + Path.DELIMITER)) {
+                        // Workaround for #2434.
+                        log.warn(String.format("Skip %s with delimiter in name", name));
+                        return false;
                     }
-                    else if(StringUtils.equals("..", target)) {
-                        parsed.setSymlinkTarget(directory);
-                    }
-                    else if(StringUtils.equals(".", target)) {
-                        parsed.setSymlinkTarget(parsed);
-                    }
-                    else {
-                        parsed.setSymlinkTarget(new Path(directory, target, EnumSet.of(Path.Type.file)));
-                    }
-                    break;
-            }
-            if(parsed.isFile()) {
-                parsed.attributes().setSize(f.getSize());
-            }
-            parsed.attributes().setOwner(f.getUser());
-            parsed.attributes().setGroup(f.getGroup());
-            Permission.Action u = Permission.Action.none;
-            if(f.hasPermission(FTPFile.USER_ACCESS, FTPFile.READ_PERMISSION)) {
-                u = u.or(Permission.Action.read);
-            }
-            if(f.hasPermission(FTPFile.USER_ACCESS, FTPFile.WRITE_PERMISSION)) {
-                u = u.or(Permission.Action.write);
-            }
-            if(f.hasPermission(FTPFile.USER_ACCESS, FTPFile.EXECUTE_PERMISSION)) {
-                u = u.or(Permission.Action.execute);
-            }
-            Permission.Action g = Permission.Action.none;
-            if(f.hasPermission(FTPFile.GROUP_ACCESS, FTPFile.READ_PERMISSION)) {
-                g = g.or(Permission.Action.read);
-            }
-            if(f.hasPermission(FTPFile.GROUP_ACCESS, FTPFile.WRITE_PERMISSION)) {
-                g = g.or(Permission.Action.write);
-            }
-            if(f.hasPermission(FTPFile.GROUP_ACCESS, FTPFile.EXECUTE_PERMISSION)) {
-                g = g.or(Permission.Action.execute);
-            }
-            Permission.Action o = Permission.Action.none;
-            if(f.hasPermission(FTPFile.WORLD_ACCESS, FTPFile.READ_PERMISSION)) {
-                o = o.or(Permission.Action.read);
-            }
-            if(f.hasPermission(FTPFile.WORLD_ACCESS, FTPFile.WRITE_PERMISSION)) {
-                o = o.or(Permission.Action.write);
-            }
-            if(f.hasPermission(FTPFile.WORLD_ACCESS, FTPFile.EXECUTE_PERMISSION)) {
-                o = o.or(Permission.Action.execute);
-            }
-            final Permission permission = new Permission(u, g, o);
-            if(f instanceof FTPExtendedFile) {
-                permission.setSetuid(((FTPExtendedFile) f).isSetuid());
-                permission.setSetgid(((FTPExtendedFile) f).isSetgid());
-                permission.setSticky(((FTPExtendedFile) f).isSticky());
+                }
             }
-            parsed.attributes().setPermission(permission);
-            final Calendar timestamp = f.getTimestamp();
-            if(timestamp != null) {
-                parsed.attributes().setModificationDate(timestamp.getTimeInMillis());
+        }
+        if(name.equals(".") || name.equals("..")) {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Skip %s", f.getName()));
             }
-            children.add(parsed);
+            return true;
         }
-        if(!success) {
-            throw new FTPInvalidListException(children);
+        final Path parsed = new Path(directory, PathNormalizer.name(name), f.getType() == FTPFile.DIRECTORY_TYPE ? EnumSet.of(Path.Type.directory) : EnumSet.of(Path.Type.file));
+        switch(f.getType()) {
+            case FTPFile.SYMBOLIC_LINK_TYPE:
+                parsed.setType(EnumSet.of(Path.Type.file, Path.Type.symboliclink));
+                // Symbolic link target may be an absolute or relative path
+                final String target = f.getLink();
+                if(StringUtils.isBlank(target)) {
+                    log.warn(String.format("Missing symbolic link target for %s", parsed));
+                    final EnumSet<AbstractPath.Type> type = parsed.getType();
+                    type.remove(AbstractPath.Type.symboliclink);
+                }
+                else if(StringUtils.startsWith(target, String.valueOf(Path.DELIMITER))) {
+                    parsed.setSymlinkTarget(new Path(target, EnumSet.of(Path.Type.file)));
+                }
+                else if(StringUtils.equals("..", target)) {
+                    parsed.setSymlinkTarget(directory);
+                }
+                else if(StringUtils.equals(".", target)) {
+                    parsed.setSymlinkTarget(parsed);
+                }
+                else {
+                    parsed.setSymlinkTarget(new Path(directory, target, EnumSet.of(Path.Type.file)));
+                }
+                break;
         }
-        return children;
+        if(parsed.isFile()) {
+            parsed.attributes().setSize(f.getSize());
+        }
+        parsed.attributes().setOwner(f.getUser());
+        parsed.attributes().setGroup(f.getGroup());
+        Permission.Action u = Permission.Action.none;
+        if(f.hasPermission(FTPFile.USER_ACCESS, FTPFile.READ_PERMISSION)) {
+            u = u.or(Permission.Action.read);
+        }
+        if(f.hasPermission(FTPFile.USER_ACCESS, FTPFile.WRITE_PERMISSION)) {
+            u = u.or(Permission.Action.write);
+        }
+        if(f.hasPermission(FTPFile.USER_ACCESS, FTPFile.EXECUTE_PERMISSION)) {
+            u = u.or(Permission.Action.execute);
+        }
+        Permission.Action g = Permission.Action.none;
+        if(f.hasPermission(FTPFile.GROUP_ACCESS, FTPFile.READ_PERMISSION)) {
+            g = g.or(Permission.Action.read);
+        }
+        if(f.hasPermission(FTPFile.GROUP_ACCESS, FTPFile.WRITE_PERMISSION)) {
+            g = g.or(Permission.Action.write);
+        }
+        if(f.hasPermission(FTPFile.GROUP_ACCESS, FTPFile.EXECUTE_PERMISSION)) {
+            g = g.or(Permission.Action.execute);
+        }
+        Permission.Action o = Permission.Action.none;
+        if(f.hasPermission(FTPFile.WORLD_ACCESS, FTPFile.READ_PERMISSION)) {
+            o = o.or(Permission.Action.read);
+        }
+        if(f.hasPermission(FTPFile.WORLD_ACCESS, FTPFile.WRITE_PERMISSION)) {
+            o = o.or(Permission.Action.write);
+        }
+        if(f.hasPermission(FTPFile.WORLD_ACCESS, FTPFile.EXECUTE_PERMISSION)) {
+            o = o.or(Permission.Action.execute);
+        }
+        final Permission permission = new Permission(u, g, o);
+        if(f instanceof FTPExtendedFile) {
+            permission.setSetuid(((FTPExtendedFile) f).isSetuid());
+            permission.setSetgid(((FTPExtendedFile) f).isSetgid());
+            permission.setSticky(((FTPExtendedFile) f).isSticky());
+        }
+        parsed.attributes().setPermission(permission);
+        final Calendar timestamp = f.getTimestamp();
+        if(timestamp != null) {
+            parsed.attributes().setModificationDate(timestamp.getTimeInMillis());
+        }
+        children.add(parsed);
+        return true;
     }
 }
@@ -24,10 +24,12 @@ import ch.cyberduck.core.date.InvalidDateException;
 import ch.cyberduck.core.date.MDTMMillisecondsDateFormatter;
 import ch.cyberduck.core.date.MDTMSecondsDateFormatter;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
 
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.util.Date;
 import java.util.EnumSet;
@@ -35,14 +37,21 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 public class FTPMlsdListResponseReader implements FTPDataResponseReader {
     private static final Logger log = Logger.getLogger(FTPMlsdListResponseReader.class);
 
+    private final int chunksize;
+
     public FTPMlsdListResponseReader() {
-        //
+        this(PreferencesFactory.get().getInteger("ftp.listing.chunksize"));
+    }
+
+    /**
+     * @param chunksize Number of entries parsed before notifying listener when reading from data connection
+     */
+    public FTPMlsdListResponseReader(final int chunksize) {
+        this.chunksize = chunksize;
     }
 
     @Override
@@ -52,124 +61,156 @@ public class FTPMlsdListResponseReader implements FTPDataResponseReader {
         // At least one entry successfully parsed
         boolean success = false;
         for(String line : replies) {
-            final Map<String, Map<String, String>> file = this.parseFacts(line);
-            if(null == file) {
-                log.error(String.format("Error parsing line %s", line));
+            success |= this.parse(directory, line, success, children);
+        }
+        if(!success) {
+            throw new FTPInvalidListException(children);
+        }
+        return children;
+    }
+
+    @Override
+    public AttributedList<Path> read(final Path directory, final BufferedReader replies, final ListProgressListener listener)
+        throws IOException, FTPInvalidListException, ConnectionCanceledException {
+        final AttributedList<Path> children = new AttributedList<Path>();
+        // At least one entry successfully parsed
+        boolean success = false;
+        int notified = 0;
+        String line;
+        while((line = replies.readLine()) != null) {
+            success |= this.parse(directory, line, success, children);
+            if(children.size() - notified >= chunksize) {
+                notified = children.size();
+                listener.chunk(directory, children);
+            }
+        }
+        if(!success) {
+            throw new FTPInvalidListException(children);
+        }
+        return children;
+    }
+
+    /**
+     * @param success  At least one entry previously parsed
+     * @param children Add parsed entry
+     * @return True if line contains a valid entry
+     */
+    private boolean parse(final Path directory, final String line, final boolean success, final AttributedList<Path> children) {
+        boolean valid = false;
+        final Map<String, Map<String, String>> file = this.parseFacts(line);
+        if(null == file) {
+            log.error(String.format("Error parsing line %s", line));
+            return false;
+        }
+        for(Map.Entry<String, Map<String, String>> f : file.entrySet()) {
+            final String name = f.getKey();
+            // size       -- Size in octets
+            // modify     -- Last modification time
+            // create     -- Creation time
+            // type       -- Entry type
+            // unique     -- Unique id of file/directory
+            // perm       -- File permissions, whether read, write, execute is allowed for the login id.
+            // lang       -- Language of the file name per IANA [11] registry.
+            // media-type -- MIME media-type of file contents per IANA registry.
+            // charset    -- Character set per IANA registry (if not UTF-8)
+            final Map<String, String> facts = f.getValue();
+            if(!facts.containsKey("type")) {
+                log.error(String.format("No type fact in line %s", line));
                 continue;
             }
-            for(Map.Entry<String, Map<String, String>> f : file.entrySet()) {
-                final String name = f.getKey();
-                // size       -- Size in octets
-                // modify     -- Last modification time
-                // create     -- Creation time
-                // type       -- Entry type
-                // unique     -- Unique id of file/directory
-                // perm       -- File permissions, whether read, write, execute is allowed for the login id.
-                // lang       -- Language of the file name per IANA [11] registry.
-                // media-type -- MIME media-type of file contents per IANA registry.
-                // charset    -- Character set per IANA registry (if not UTF-8)
-                final Map<String, String> facts = f.getValue();
-                if(!facts.containsKey("type")) {
-                    log.error(String.format("No type fact in line %s", line));
-                    continue;
-                }
-                final Path parsed;
-                if("dir".equals(facts.get("type").toLowerCase(Locale.ROOT))) {
-                    parsed = new Path(directory, PathNormalizer.name(f.getKey()), EnumSet.of(Path.Type.directory));
-                }
-                else if("file".equals(facts.get("type").toLowerCase(Locale.ROOT))) {
-                    parsed = new Path(directory, PathNormalizer.name(f.getKey()), EnumSet.of(Path.Type.file));
-                }
-                else if(facts.get("type").toLowerCase(Locale.ROOT).matches("os\\.unix=slink:.*")) {
-                    parsed = new Path(directory, PathNormalizer.name(f.getKey()), EnumSet.of(Path.Type.file, Path.Type.symboliclink));
-                    // Parse symbolic link target in Type=OS.unix=slink:/foobar;Perm=;Unique=keVO1+4G4; foobar
-                    final String[] type = facts.get("type").split(":");
-                    if(type.length == 2) {
-                        final String target = type[1];
-                        if(target.startsWith(String.valueOf(Path.DELIMITER))) {
-                            parsed.setSymlinkTarget(new Path(target, EnumSet.of(Path.Type.file)));
-                        }
-                        else {
-                            parsed.setSymlinkTarget(new Path(String.format("%s/%s", directory.getAbsolute(), target), EnumSet.of(Path.Type.file)));
-                        }
+            final Path parsed;
+            if("dir".equals(facts.get("type").toLowerCase(Locale.ROOT))) {
+                parsed = new Path(directory, PathNormalizer.name(f.getKey()), EnumSet.of(Path.Type.directory));
+            }
+            else if("file".equals(facts.get("type").toLowerCase(Locale.ROOT))) {
+                parsed = new Path(directory, PathNormalizer.name(f.getKey()), EnumSet.of(Path.Type.file));
+            }
+            else if(facts.get("type").toLowerCase(Locale.ROOT).startsWith("os.unix=slink:")) {
+                parsed = new Path(directory, PathNormalizer.name(f.getKey()), EnumSet.of(Path.Type.file, Path.Type.symboliclink));
+                // Parse symbolic link target in Type=OS.unix=slink:/foobar;Perm=;Unique=keVO1+4G4; foobar
+                final String[] type = facts.get("type").split(":");
+                if(type.length == 2) {
+                    final String target = type[1];
+                    if(target.startsWith(String.valueOf(Path.DELIMITER))) {
+                        parsed.setSymlinkTarget(new Path(target, EnumSet.of(Path.Type.file)));
                     }
                     else {
-                        log.warn(String.format("Missing symbolic link target for type %s in line %s", facts.get("type"), line));
-                        continue;
+                        parsed.setSymlinkTarget(new Path(String.format("%s/%s", directory.getAbsolute(), target), EnumSet.of(Path.Type.file)));
                     }
                 }
                 else {
-                    log.warn(String.format("Ignored type %s in line %s", facts.get("type"), line));
-                    continue;
-                }
-                if(!success) {
-                    if(parsed.isDirectory() && directory.getName().equals(name)) {
-                        log.warn(String.format("Possibly bogus response line %s", line));
-                    }
-                    else {
-                        success = true;
-                    }
-                }
-                if(name.equals(".") || name.equals("..")) {
-                    if(log.isDebugEnabled()) {
-                        log.debug(String.format("Skip %s", name));
-                    }
+                    log.warn(String.format("Missing symbolic link target for type %s in line %s", facts.get("type"), line));
                     continue;
                 }
-                if(facts.containsKey("size")) {
-                    parsed.attributes().setSize(Long.parseLong(facts.get("size")));
-                }
-                if(facts.containsKey("unix.uid")) {
-                    parsed.attributes().setOwner(facts.get("unix.uid"));
+            }
+            else {
+                log.warn(String.format("Ignored type %s in line %s", facts.get("type"), line));
+                continue;
+            }
+            if(!success && !valid) {
+                if(parsed.isDirectory() && directory.getName().equals(name)) {
+                    log.warn(String.format("Possibly bogus response line %s", line));
                 }
-                if(facts.containsKey("unix.owner")) {
-                    parsed.attributes().setOwner(facts.get("unix.owner"));
+                else {
+                    valid = true;
                 }
-                if(facts.containsKey("unix.gid")) {
-                    parsed.attributes().setGroup(facts.get("unix.gid"));
+            }
+            if(name.equals(".") || name.equals("..")) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Skip %s", name));
                 }
-                if(facts.containsKey("unix.group")) {
-                    parsed.attributes().setGroup(facts.get("unix.group"));
+                continue;
+            }
+            if(facts.containsKey("size")) {
+                parsed.attributes().setSize(Long.parseLong(facts.get("size")));
+            }
+            if(facts.containsKey("unix.uid")) {
+                parsed.attributes().setOwner(facts.get("unix.uid"));
+            }
+            if(facts.containsKey("unix.owner")) {
+                parsed.attributes().setOwner(facts.get("unix.owner"));
+            }
+            if(facts.containsKey("unix.gid")) {
+                parsed.attributes().setGroup(facts.get("unix.gid"));
+            }
+            if(facts.containsKey("unix.group")) {
+                parsed.attributes().setGroup(facts.get("unix.group"));
+            }
+            if(facts.containsKey("unix.mode")) {
+                parsed.attributes().setPermission(new Permission(facts.get("unix.mode")));
+            }
+            else if(facts.containsKey("perm")) {
+                Permission.Action user = Permission.Action.none;
+                final String flags = facts.get("perm");
+                if(StringUtils.contains(flags, 'r') || StringUtils.contains(flags, 'l')) {
+                    // RETR command may be applied to that object
+                    // Listing commands, LIST, NLST, and MLSD may be applied
+                    user = user.or(Permission.Action.read);
                 }
-                if(facts.containsKey("unix.mode")) {
-                    parsed.attributes().setPermission(new Permission(facts.get("unix.mode")));
+                if(StringUtils.contains(flags, 'w') || StringUtils.contains(flags, 'm') || StringUtils.contains(flags, 'c')) {
+                    user = user.or(Permission.Action.write);
                 }
-                else if(facts.containsKey("perm")) {
-                    Permission.Action user = Permission.Action.none;
-                    final String flags = facts.get("perm");
-                    if(StringUtils.contains(flags, 'r') || StringUtils.contains(flags, 'l')) {
-                        // RETR command may be applied to that object
-                        // Listing commands, LIST, NLST, and MLSD may be applied
+                if(StringUtils.contains(flags, 'e')) {
+                    // CWD command naming the object should succeed
+                    user = user.or(Permission.Action.execute);
+                    if(parsed.isDirectory()) {
                         user = user.or(Permission.Action.read);
                     }
-                    if(StringUtils.contains(flags, 'w') || StringUtils.contains(flags, 'm') || StringUtils.contains(flags, 'c')) {
-                        user = user.or(Permission.Action.write);
-                    }
-                    if(StringUtils.contains(flags, 'e')) {
-                        // CWD command naming the object should succeed
-                        user = user.or(Permission.Action.execute);
-                        if(parsed.isDirectory()) {
-                            user = user.or(Permission.Action.read);
-                        }
-                    }
-                    final Permission permission = new Permission(user, Permission.Action.none, Permission.Action.none);
-                    parsed.attributes().setPermission(permission);
-                }
-                if(facts.containsKey("modify")) {
-                    // Time values are always represented in UTC
-                    parsed.attributes().setModificationDate(this.parseTimestamp(facts.get("modify")));
                 }
-                if(facts.containsKey("create")) {
-                    // Time values are always represented in UTC
-                    parsed.attributes().setCreationDate(this.parseTimestamp(facts.get("create")));
-                }
-                children.add(parsed);
+                final Permission permission = new Permission(user, Permission.Action.none, Permission.Action.none);
+                parsed.attributes().setPermission(permission);
             }
+            if(facts.containsKey("modify")) {
+                // Time values are always represented in UTC
+                parsed.attributes().setModificationDate(this.parseTimestamp(facts.get("modify")));
+            }
+            if(facts.containsKey("create")) {
+                // Time values are always represented in UTC
+                parsed.attributes().setCreationDate(this.parseTimestamp(facts.get("create")));
+            }
+            children.add(parsed);
         }
-        if(!success) {
-            throw new FTPInvalidListException(children);
-        }
-        return children;
+        return valid;
     }
 
     /**
@@ -232,13 +273,12 @@ public class FTPMlsdListResponseReader implements FTPDataResponseReader {
      * @return Parsed keys and values
      */
     protected Map<String, Map<String, String>> parseFacts(final String line) {
-        final Pattern p = Pattern.compile("\\s?(\\S+\\=\\S+;)*\\s(.*)");
-        final Matcher result = p.matcher(line);
-        final Map<String, Map<String, String>> file = new HashMap<String, Map<String, String>>();
-        if(result.matches()) {
-            final String filename = result.group(2);
+        final String[] split = this.split(line);
+        if(split != null) {
+            final Map<String, Map<String, String>> file = new HashMap<String, Map<String, String>>();
+            final String filename = split[1];
             final Map<String, String> facts = new HashMap<String, String>();
-            for(String fact : result.group(1).split(";")) {
+            for(String fact : StringUtils.split(split[0], ';')) {
                 String key = StringUtils.substringBefore(fact, "=");
                 if(StringUtils.isBlank(key)) {
                     continue;
@@ -256,4 +296,49 @@ public class FTPMlsdListResponseReader implements FTPDataResponseReader {
         return null;
     }
 
+    /**
+     * Split line into facts and filename equivalent to the pattern <code>\s?(\S+=\S+;)*\s(.*)</code>
+     *
+     * @return Facts and filename or null if the line does not start with a series of facts followed by whitespace
+     */
+    private String[] split(final String line) {
+        final int length = line.length();
+        int start = 0;
+        if(length > 0 && this.whitespace(line.charAt(0))) {
+            start++;
+        }
+        int end = start;
+        while(end < length && !this.whitespace(line.charAt(end))) {
+            end++;
+        }
+        if(end == length) {
+            // Missing whitespace before filename
+            return null;
+        }
+        if(end - start < 4 || line.charAt(end - 1) != ';') {
+            return null;
+        }
+        final int separator = line.indexOf('=', start + 1);
+        if(separator == -1 || separator > end - 3) {
+            return null;
+        }
+        for(int i = end + 1; i < length; i++) {
+            switch(line.charAt(i)) {
+                case '\n':
+                case '\r':
+                case '\u0085':
+                case '\u2028':
+                case '\u2029':
+                    return null;
+            }
+        }
+        return new String[]{line.substring(start, end), line.substring(end + 1)};
+    }
+
+    /**
+     * @return True for characters matched by <code>\s</code>
+     */
+    private boolean whitespace(final char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
 }
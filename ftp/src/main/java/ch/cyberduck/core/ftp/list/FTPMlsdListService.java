@@ -24,6 +24,7 @@ import ch.cyberduck.core.Path;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.ftp.DataConnectionAction;
 import ch.cyberduck.core.ftp.DataConnectionActionExecutor;
+import ch.cyberduck.core.ftp.DataConnectionReader;
 import ch.cyberduck.core.ftp.FTPClient;
 import ch.cyberduck.core.ftp.FTPException;
 import ch.cyberduck.core.ftp.FTPExceptionMappingService;
@@ -31,8 +32,8 @@ import ch.cyberduck.core.ftp.FTPSession;
 
 import org.apache.commons.net.ftp.FTPCmd;
 
+import java.io.BufferedReader;
 import java.io.IOException;
-import java.util.List;
 
 public class FTPMlsdListService implements ListService {
 
@@ -59,18 +60,23 @@ public class FTPMlsdListService implements ListService {
                 // data connection in type ASCII or type EBCDIC.
                 throw new FTPException(session.getClient().getReplyCode(), session.getClient().getReplyString());
             }
-            final List<String> list = new DataConnectionActionExecutor(session).data(new DataConnectionAction<List<String>>() {
+            return new DataConnectionActionExecutor(session).data(new DataConnectionAction<AttributedList<Path>>() {
                 @Override
-                public List<String> execute() throws BackgroundException {
+                public AttributedList<Path> execute() throws BackgroundException {
                     try {
-                        return session.getClient().list(FTPCmd.MLSD);
+                        return session.getClient().list(FTPCmd.MLSD, null, new DataConnectionReader<AttributedList<Path>>() {
+                            @Override
+                            public AttributedList<Path> read(final BufferedReader replies) throws IOException, BackgroundException {
+                                // Parse while receiving
+                                return reader.read(directory, replies, listener);
+                            }
+                        });
                     }
                     catch(IOException e) {
                         throw new FTPExceptionMappingService().map(e);
                     }
                 }
             }, listener);
-            return reader.read(directory, list, listener);
         }
         catch(IOException e) {
             throw new FTPExceptionMappingService().map("Listing directory {0} failed", e, directory);
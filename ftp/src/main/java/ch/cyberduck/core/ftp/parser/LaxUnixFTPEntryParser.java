@@ -67,6 +67,10 @@ public class LaxUnixFTPEntryParser extends CommonUnixFTPEntryParser {
 
     @Override
     public FTPFile parseFTPEntry(String entry) {
+        final FTPFile parsed = this.parseCommonFTPEntry(entry);
+        if(parsed != null) {
+            return parsed;
+        }
         if(matches(entry)) {
             String typeStr = group(1);
             String usr = group(16);
@@ -99,4 +103,179 @@ public class LaxUnixFTPEntryParser extends CommonUnixFTPEntryParser {
         }
         return null;
     }
+
+    /**
+     * Parse the common <code>ls -l</code> format without regular expression. Returns the same result as the
+     * pattern would for the lines accepted.
+     *
+     * @param entry Line such as <code>-rw-r--r--   1 user group 1024 Oct 28 12:34 filename</code>
+     * @return Null if the line does not have the common format and must be matched with the pattern
+     */
+    protected FTPFile parseCommonFTPEntry(final String entry) {
+        if(null == entry) {
+            return null;
+        }
+        final int length = entry.length();
+        // Type and permission flags
+        int end = this.token(entry, 0);
+        if(end != 10 && !(end == 11 && entry.charAt(10) == '+')) {
+            return null;
+        }
+        if("bcdlfmpSs-".indexOf(entry.charAt(0)) == -1) {
+            return null;
+        }
+        for(int i = 1; i < 10; i += 3) {
+            if("r-".indexOf(entry.charAt(i)) == -1
+                    || "w-".indexOf(entry.charAt(i + 1)) == -1
+                    || "xsStTL-".indexOf(entry.charAt(i + 2)) == -1) {
+                return null;
+            }
+        }
+        final String type = entry.substring(0, 1);
+        final String permissions = entry.substring(1, 10);
+        // Hard link count
+        int start = this.skip(entry, end);
+        end = this.token(entry, start);
+        if(start == end || !this.digits(entry, start, end)) {
+            return null;
+        }
+        // User
+        start = this.skip(entry, end);
+        end = this.token(entry, start);
+        if(start == end) {
+            return null;
+        }
+        final String user = entry.substring(start, end);
+        // Group which may be missing followed by size and month
+        final int[] tokens = new int[6];
+        int position = end;
+        for(int i = 0; i < tokens.length; i += 2) {
+            tokens[i] = this.skip(entry, position);
+            tokens[i + 1] = this.token(entry, tokens[i]);
+            if(tokens[i] == tokens[i + 1]) {
+                return null;
+            }
+            position = tokens[i + 1];
+        }
+        final String group;
+        final int size;
+        if(this.digits(entry, tokens[2], tokens[3]) && this.month(entry, tokens[4], tokens[5])) {
+            group = entry.substring(tokens[0], tokens[1]);
+            size = 2;
+        }
+        else if(this.digits(entry, tokens[0], tokens[1]) && this.month(entry, tokens[2], tokens[3])) {
+            group = null;
+            size = 0;
+        }
+        else {
+            return null;
+        }
+        final long filesize;
+        try {
+            filesize = Long.parseLong(entry.substring(tokens[size], tokens[size + 1]));
+        }
+        catch(NumberFormatException e) {
+            return null;
+        }
+        // Day of month
+        final int month = tokens[size + 2];
+        start = this.skip(entry, tokens[size + 3]);
+        end = this.token(entry, start);
+        if(end - start < 1 || end - start > 2 || !this.digits(entry, start, end)) {
+            return null;
+        }
+        final int day = end;
+        // Year or time followed by single whitespace
+        start = this.skip(entry, end);
+        end = this.token(entry, start);
+        if(end == length) {
+            return null;
+        }
+        final boolean year = end - start == 4 && this.digits(entry, start, end);
+        if(!year) {
+            final int colon = entry.indexOf(':', start);
+            if(colon != end - 3 || colon - start < 1 || colon - start > 2
+                    || !this.digits(entry, start, colon) || !this.digits(entry, colon + 1, end)) {
+                return null;
+            }
+        }
+        final String datestr = entry.substring(month, day) + " " + entry.substring(start, end);
+        // Year may be followed by an additional whitespace
+        int name = end + 1;
+        if(year && name < length - 1 && this.whitespace(entry.charAt(name))) {
+            name++;
+        }
+        // Filename must contain at least one character that is not whitespace
+        if(this.skip(entry, name) == length) {
+            return null;
+        }
+        for(int i = name; i < length; i++) {
+            switch(entry.charAt(i)) {
+                case '\n':
+                case '\r':
+                case '\u0085':
+                case '\u2028':
+                case '\u2029':
+                    return null;
+            }
+        }
+        return this.parseFTPEntry(type, permissions, user, group, filesize, datestr, entry.substring(name), StringUtils.EMPTY);
+    }
+
+    /**
+     * @return Index of first whitespace character at or after offset
+     */
+    private int token(final String entry, final int offset) {
+        int i = offset;
+        while(i < entry.length() && !this.whitespace(entry.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * @return Index of first character that is not whitespace at or after offset
+     */
+    private int skip(final String entry, final int offset) {
+        int i = offset;
+        while(i < entry.length() && this.whitespace(entry.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private boolean digits(final String entry, final int start, final int end) {
+        if(start == end) {
+            return false;
+        }
+        for(int i = start; i < end; i++) {
+            final char c = entry.charAt(i);
+            if(c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return True for abbreviated month name of three letters
+     */
+    private boolean month(final String entry, final int start, final int end) {
+        if(end - start != 3) {
+            return false;
+        }
+        for(int i = start; i < end; i++) {
+            if(!Character.isLetter(entry.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return True for characters matched by <code>\s</code>
+     */
+    private boolean whitespace(final char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
 }
@@ -31,6 +31,9 @@ import org.junit.Ignore;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
@@ -252,4 +255,27 @@ public class FTPListResponseReaderTest {
         assertNull(list.get(2).getSymlinkTarget());
         assertFalse(list.get(2).isSymbolicLink());
     }
+
+    @Test
+    public void testReadStream() throws Exception {
+        final Path directory = new Path("/d", EnumSet.of(Path.Type.directory));
+        final StringBuilder listing = new StringBuilder("total 5\r\n");
+        for(int i = 0; i < 5; i++) {
+            listing.append(String.format("-rw-r--r--    1 owner    group    %8d Sep 23  2017 f-%d.txt\r\n", i * 1024, i));
+        }
+        final List<Integer> chunks = new ArrayList<Integer>();
+        final AttributedList<Path> list = new FTPListResponseReader(new FTPParserSelector().getParser("UNIX"), false, 2)
+                .read(directory, new BufferedReader(new StringReader(listing.toString())), new DisabledListProgressListener() {
+                    @Override
+                    public void chunk(final Path folder, final AttributedList<Path> list) {
+                        assertEquals(directory, folder);
+                        chunks.add(list.size());
+                    }
+                });
+        assertEquals(5, list.size());
+        assertEquals(Arrays.asList(2, 4), chunks);
+        assertEquals("f-4.txt", list.get(4).getName());
+        assertEquals(4096L, list.get(4).attributes().getSize());
+        assertEquals(new Permission("rw-r--r--"), list.get(4).attributes().getPermission());
+    }
 }
@@ -27,10 +27,13 @@ import org.junit.Ignore;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import java.io.BufferedReader;
+import java.io.StringReader;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.EnumSet;
 import java.util.TimeZone;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
 
@@ -312,4 +315,38 @@ public class FTPMlsdListResponseReaderTest {
             .read(directory, Arrays.asList(replies), new DisabledListProgressListener());
         assertEquals(2, children.size());
     }
+
+    @Test
+    public void testReadStream() throws Exception {
+        final Path directory = new Path("/www", EnumSet.of(Path.Type.directory));
+        final String replies = "Type=cdir;Perm=el;Unique=keVO1+ZF4; test\r\n"
+            + "Type=file;Size=1024;Perm=awr;Unique=keVO1+8G4; writable\r\n"
+            + "Type=file;Perm=r;Unique=keVO1+IH4;  leading space\r\n"
+            + "Type=dir;Perm=cpmel;Unique=keVO1+7G4; incoming\r\n"
+            + "Type=file;Perm=r; a;b=c d\r\n";
+        final AtomicInteger chunks = new AtomicInteger();
+        final AttributedList<Path> children = new FTPMlsdListResponseReader(2)
+            .read(directory, new BufferedReader(new StringReader(replies)), new DisabledListProgressListener() {
+                @Override
+                public void chunk(final Path folder, final AttributedList<Path> list) {
+                    chunks.incrementAndGet();
+                }
+            });
+        assertEquals(2, chunks.get());
+        assertEquals(4, children.size());
+        assertEquals("writable", children.get(0).getName());
+        assertEquals(1024L, children.get(0).attributes().getSize());
+        assertEquals(" leading space", children.get(1).getName());
+        assertTrue(children.get(2).isDirectory());
+        assertEquals("a;b=c d", children.get(3).getName());
+    }
+
+    @Test
+    public void testParseFactsInvalid() throws Exception {
+        final FTPMlsdListResponseReader reader = new FTPMlsdListResponseReader();
+        assertNull(reader.parseFacts("Type=file;Perm=r;name"));
+        assertNull(reader.parseFacts("Type=file name"));
+        assertNull(reader.parseFacts("  name"));
+        assertEquals("name", reader.parseFacts(" type=file; name").keySet().iterator().next());
+    }
 }
@@ -459,4 +459,39 @@ public class UnixFTPEntryParserTest {
         assertEquals(28, parsed.getTimestamp().get(Calendar.DAY_OF_MONTH));
         assertEquals(2008, parsed.getTimestamp().get(Calendar.YEAR));
     }
+
+    @Test
+    public void testParseCommonFTPEntry() {
+        final LaxUnixFTPEntryParser parser = new LaxUnixFTPEntryParser();
+        parser.configure(null);
+        FTPFile parsed;
+
+        parsed = parser.parseCommonFTPEntry("-rw-r--r--   1 user 1234 Oct 28 12:34 no group");
+        assertNotNull(parsed);
+        assertEquals("no group", parsed.getName());
+        assertEquals("user", parsed.getUser());
+        assertNull(parsed.getGroup());
+        assertEquals(1234L, parsed.getSize());
+
+        parsed = parser.parseCommonFTPEntry("lrwxrwxrwx    1 mk basicgrp       27 Sep 23  2004  www -> /www/basic/mk");
+        assertNotNull(parsed);
+        assertEquals(FTPFile.SYMBOLIC_LINK_TYPE, parsed.getType());
+        assertEquals("www", parsed.getName());
+        assertEquals("/www/basic/mk", parsed.getLink());
+        assertEquals(2004, parsed.getTimestamp().get(Calendar.YEAR));
+
+        parsed = parser.parseCommonFTPEntry("drwsr-s--T+   2 1000 100 4096 Mar 12 09:01  leading space");
+        assertNotNull(parsed);
+        assertEquals(FTPFile.DIRECTORY_TYPE, parsed.getType());
+        assertEquals(" leading space", parsed.getName());
+        assertTrue(((FTPExtendedFile) parsed).isSetuid());
+        assertTrue(((FTPExtendedFile) parsed).isSetgid());
+        assertTrue(((FTPExtendedFile) parsed).isSticky());
+        assertFalse(parsed.hasPermission(FTPFile.WORLD_ACCESS, FTPFile.EXECUTE_PERMISSION));
+
+        // Formats only matched by pattern
+        assertNull(parser.parseCommonFTPEntry("-rw-r--r--   1 user group 15.6k Oct 28 12:34 human"));
+        assertNull(parser.parseCommonFTPEntry("-rw-r--r--   1 user group 1234 2008-10-28 12:34 numeric"));
+        assertNotNull(parser.parseFTPEntry("-rw-r--r--   1 user group 1234 2008-10-28 12:34 numeric"));
+    }
 }
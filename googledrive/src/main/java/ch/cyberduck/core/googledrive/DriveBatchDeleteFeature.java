@@ -18,6 +18,7 @@ package ch.cyberduck.core.googledrive;
 import ch.cyberduck.core.DisabledListProgressListener;
 import ch.cyberduck.core.PasswordCallback;
 import ch.cyberduck.core.Path;
+import ch.cyberduck.core.collections.Partition;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.features.Delete;
 import ch.cyberduck.core.http.HttpResponseExceptionMappingService;
@@ -29,6 +30,7 @@ import org.apache.log4j.Logger;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import com.google.api.client.googleapis.batch.BatchRequest;
 import com.google.api.client.googleapis.batch.json.JsonBatchCallback;
@@ -46,39 +48,46 @@ public class DriveBatchDeleteFeature implements Delete {
 
     @Override
     public void delete(final List<Path> files, final PasswordCallback prompt, final Callback callback) throws BackgroundException {
-        final BatchRequest batch = session.getClient().batch();
         final List<BackgroundException> failures = new ArrayList<>();
-        for(Path file : files) {
-            try {
-                session.getClient().files().delete(new DriveFileidProvider(session).getFileid(file, new DisabledListProgressListener()))
-                    .setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable"))
-                    .queue(batch, new JsonBatchCallback<Void>() {
-                        @Override
-                        public void onFailure(final GoogleJsonError e, final HttpHeaders responseHeaders) throws IOException {
-                            log.warn(String.format("Failure deleting %s. %s", file, e.getMessage()));
-                            failures.add(new HttpResponseExceptionMappingService().map(
-                                new HttpResponseException(e.getCode(), e.getMessage())));
-                        }
+        final DriveFileidProvider fileid = new DriveFileidProvider(session);
+        // Resolve identifiers of siblings in single query
+        final Map<Path, String> ids = fileid.getFileids(files, new DisabledListProgressListener());
+        // Limit number of calls in single batch request
+        for(List<Path> partition : new Partition<Path>(files, PreferencesFactory.get().getInteger("googledrive.delete.multiple.partition"))) {
+            final BatchRequest batch = session.getClient().batch();
+            for(Path file : partition) {
+                try {
+                    session.getClient().files().delete(ids.containsKey(file) ? ids.get(file) : fileid.getFileid(file, new DisabledListProgressListener()))
+                        .setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable"))
+                        .queue(batch, new JsonBatchCallback<Void>() {
+                            @Override
+                            public void onFailure(final GoogleJsonError e, final HttpHeaders responseHeaders) throws IOException {
+                                log.warn(String.format("Failure deleting %s. %s", file, e.getMessage()));
+                                failures.add(new HttpResponseExceptionMappingService().map(
+                                    new HttpResponseException(e.getCode(), e.getMessage())));
+                            }
 
-                        @Override
-                        public void onSuccess(final Void aVoid, final HttpHeaders responseHeaders) throws IOException {
-                            callback.delete(file);
-                        }
-                    });
+                            @Override
+                            public void onSuccess(final Void aVoid, final HttpHeaders responseHeaders) throws IOException {
+                                session.getFileidCache().remove(file);
+                                callback.delete(file);
+                            }
+                        });
+                }
+                catch(IOException e) {
+                    throw new DriveExceptionMappingService().map("Cannot delete {0}", e, file);
+                }
             }
-            catch(IOException e) {
-                throw new DriveExceptionMappingService().map("Cannot delete {0}", e, file);
-            }
-        }
-        if(!files.isEmpty()) {
-            try {
-                batch.execute();
-            }
-            catch(IOException e) {
-                throw new DriveExceptionMappingService().map(e);
-            }
-            for(BackgroundException e : failures) {
-                throw e;
+            if(!partition.isEmpty()) {
+                try {
+                    batch.execute();
+                }
+                catch(IOException e) {
+                    throw new DriveExceptionMappingService().map(e);
+                }
+                for(BackgroundException e : failures) {
+                    throw e;
+                }
             }
         }
     }
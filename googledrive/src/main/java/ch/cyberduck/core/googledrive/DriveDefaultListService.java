@@ -15,12 +15,14 @@ package ch.cyberduck.core.googledrive;
  * GNU General Public License for more details.
  */
 
+import ch.cyberduck.core.AttributedList;
 import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.exception.BackgroundException;
 
 public class DriveDefaultListService extends AbstractDriveListService {
 
+    private final DriveSession session;
     private final DriveFileidProvider fileid;
 
     public DriveDefaultListService(final DriveSession session) {
@@ -29,6 +31,7 @@ public class DriveDefaultListService extends AbstractDriveListService {
 
     public DriveDefaultListService(final DriveSession session, final DriveFileidProvider fileid) {
         super(session);
+        this.session = session;
         this.fileid = fileid;
     }
 
@@ -38,9 +41,17 @@ public class DriveDefaultListService extends AbstractDriveListService {
 
     public DriveDefaultListService(final DriveSession session, final DriveFileidProvider fileid, final int pagesize) {
         super(session, pagesize);
+        this.session = session;
         this.fileid = fileid;
     }
 
+    @Override
+    public AttributedList<Path> list(final Path directory, final ListProgressListener listener) throws BackgroundException {
+        final AttributedList<Path> list = super.list(directory, listener);
+        session.getFileidCache().put(list);
+        return list;
+    }
+
     protected String query(final Path directory, final ListProgressListener listener) throws BackgroundException {
         return String.format("'%s' in parents", fileid.getFileid(directory, listener));
     }
@@ -18,28 +18,100 @@ package ch.cyberduck.core.googledrive;
 import ch.cyberduck.core.AttributedList;
 import ch.cyberduck.core.Cache;
 import ch.cyberduck.core.DisabledListProgressListener;
+import ch.cyberduck.core.FileidCache;
 import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.NullFilter;
 import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathCache;
 import ch.cyberduck.core.SimplePathPredicate;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.IdProvider;
 
+import org.apache.commons.collections4.ListUtils;
 import org.apache.commons.lang3.StringUtils;
 
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 public class DriveFileidProvider implements IdProvider {
 
+    /**
+     * Maximum number of names in single query
+     */
+    private static final int BATCH_SIZE = 50;
+
     private final DriveSession session;
 
+    private Cache<Path> cache = PathCache.empty();
+
     public DriveFileidProvider(final DriveSession session) {
         this.session = session;
     }
 
     @Override
     public String getFileid(final Path file, final ListProgressListener listener) throws BackgroundException {
+        final String cached = this.lookup(file);
+        if(null != cached) {
+            return cached;
+        }
+        return session.getFileidCache().get(file, new FileidCache.Loader() {
+            @Override
+            public String load(final Path file) throws BackgroundException {
+                final AttributedList<Path> list = new FileidDriveListService(session, DriveFileidProvider.this, file).list(file.getParent(), new DisabledListProgressListener());
+                final Path found = find(list, file);
+                if(null == found) {
+                    throw new NotfoundException(file.getAbsolute());
+                }
+                return found.attributes().getVersionId();
+            }
+        });
+    }
+
+    /**
+     * Resolve identifiers with a single query for files missing in cache with the same parent directory
+     *
+     * @param files Files
+     * @return Identifiers by file. Files not found are not contained.
+     */
+    public Map<Path, String> getFileids(final List<Path> files, final ListProgressListener listener) throws BackgroundException {
+        final Map<Path, String> ids = new HashMap<Path, String>();
+        final Map<Path, List<Path>> missing = new LinkedHashMap<Path, List<Path>>();
+        for(Path file : files) {
+            final String cached = this.lookup(file);
+            if(null != cached) {
+                ids.put(file, cached);
+                continue;
+            }
+            if(!missing.containsKey(file.getParent())) {
+                missing.put(file.getParent(), new ArrayList<Path>());
+            }
+            missing.get(file.getParent()).add(file);
+        }
+        final FileidCache fileids = session.getFileidCache();
+        for(Map.Entry<Path, List<Path>> entry : missing.entrySet()) {
+            for(List<Path> partition : ListUtils.partition(entry.getValue(), BATCH_SIZE)) {
+                final AttributedList<Path> list = new FileidDriveListService(session, this, partition).list(entry.getKey(), listener);
+                fileids.put(list);
+                for(Path file : partition) {
+                    final String id = fileids.get(file);
+                    if(null != id) {
+                        ids.put(file, id);
+                    }
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * @return Null if identifier is not known without query
+     */
+    private String lookup(final Path file) {
         if(StringUtils.isNotBlank(file.attributes().getVersionId())) {
             return file.attributes().getVersionId();
         }
@@ -49,21 +121,30 @@ public class DriveFileidProvider implements IdProvider {
         if(file.equals(DriveHomeFinderService.MYDRIVE_FOLDER)) {
             return DriveHomeFinderService.ROOT_FOLDER_ID;
         }
-        final AttributedList<Path> list = new FileidDriveListService(session, this, file).list(file.getParent(), new DisabledListProgressListener());
-        final Path found = list.filter(new Comparator<Path>() {
+        if(cache.isCached(file.getParent())) {
+            final Path found = this.find(cache.get(file.getParent()), file);
+            if(null != found && StringUtils.isNotBlank(found.attributes().getVersionId())) {
+                return found.attributes().getVersionId();
+            }
+        }
+        return session.getFileidCache().get(file);
+    }
+
+    /**
+     * @return Most recently modified file with matching name or null
+     */
+    private Path find(final AttributedList<Path> list, final Path file) {
+        return list.filter(new Comparator<Path>() {
             @Override
             public int compare(final Path p1, final Path p2) {
                 return -Long.compare(p1.attributes().getModificationDate(), p2.attributes().getModificationDate());
             }
         }, new NullFilter<>()).find(new SimplePathPredicate(file));
-        if(null == found) {
-            throw new NotfoundException(file.getAbsolute());
-        }
-        return found.attributes().getVersionId();
     }
 
     @Override
     public IdProvider withCache(final Cache<Path> cache) {
+        this.cache = cache;
         return this;
     }
 }
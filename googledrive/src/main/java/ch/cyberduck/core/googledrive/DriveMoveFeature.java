@@ -85,6 +85,8 @@ public class DriveMoveFeature implements Move {
                 .setFields("id, parents")
                 .setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable"))
                 .execute();
+            session.getFileidCache().remove(file);
+            session.getFileidCache().put(renamed, fileid);
             return new Path(renamed.getParent(), renamed.getName(), renamed.getType(),
                 new PathAttributes(renamed.attributes()).withVersionId(fileid));
         }
@@ -16,6 +16,7 @@ package ch.cyberduck.core.googledrive;
  */
 
 import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.FileidCache;
 import ch.cyberduck.core.Host;
 import ch.cyberduck.core.HostKeyCallback;
 import ch.cyberduck.core.HostPasswordStore;
@@ -59,6 +60,8 @@ public class DriveSession extends HttpSession<Drive> {
 
     private OAuth2RequestInterceptor authorizationService;
 
+    private final FileidCache fileids = new FileidCache();
+
     public DriveSession(final Host host, final X509TrustManager trust, final X509KeyManager key) {
         super(host, new ThreadLocalHostnameDelegatingTrustManager(trust, host.getHostname()), key);
     }
@@ -101,6 +104,13 @@ public class DriveSession extends HttpSession<Drive> {
         return transport.getHttpClient();
     }
 
+    /**
+     * @return File identifiers shared by all lookups in this session
+     */
+    public FileidCache getFileidCache() {
+        return fileids;
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public <T> T _getFeature(Class<T> type) {
@@ -20,18 +20,37 @@ import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.exception.BackgroundException;
 
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 public class FileidDriveListService extends AbstractDriveListService {
     private final DriveFileidProvider provider;
-    private final Path file;
+    private final List<Path> files;
 
     public FileidDriveListService(final DriveSession session, final DriveFileidProvider provider, final Path file) {
         super(session, 1);
         this.provider = provider;
-        this.file = file;
+        this.files = Collections.singletonList(file);
+    }
+
+    /**
+     * @param files Files with the same parent directory
+     */
+    public FileidDriveListService(final DriveSession session, final DriveFileidProvider provider, final List<Path> files) {
+        super(session);
+        this.provider = provider;
+        this.files = files;
     }
 
     @Override
     protected String query(final Path directory, final ListProgressListener listener) throws BackgroundException {
-        return String.format("name = '%s' and '%s' in parents", file.getName(), provider.getFileid(directory, new DisabledListProgressListener()));
+        final List<String> names = new ArrayList<String>();
+        for(Path file : files) {
+            names.add(String.format("name = '%s'", StringUtils.replace(StringUtils.replace(file.getName(), "\\", "\\\\"), "'", "\\'")));
+        }
+        return String.format("(%s) and '%s' in parents", StringUtils.join(names, " or "), provider.getFileid(directory, new DisabledListProgressListener()));
     }
 }
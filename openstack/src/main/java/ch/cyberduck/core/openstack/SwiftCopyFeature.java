@@ -24,14 +24,30 @@ import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathContainerService;
 import ch.cyberduck.core.Session;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.features.Copy;
+import ch.cyberduck.core.io.HashAlgorithm;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.BackgroundExceptionCallable;
+import ch.cyberduck.core.threading.DefaultRetryCallable;
+import ch.cyberduck.core.threading.ThreadPool;
 import ch.cyberduck.core.transfer.TransferStatus;
+import ch.cyberduck.core.worker.DefaultExceptionMappingService;
+
+import org.apache.log4j.Logger;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import ch.iterate.openstack.swift.exception.GenericException;
+import ch.iterate.openstack.swift.model.StorageObject;
 
 public class SwiftCopyFeature implements Copy {
+    private static final Logger log = Logger.getLogger(SwiftCopyFeature.class);
 
     private final SwiftSession session;
 
@@ -39,18 +55,38 @@ public class SwiftCopyFeature implements Copy {
             = new PathContainerService();
 
     private final SwiftRegionService regionService;
+    private final SwiftSegmentService segmentService;
+
+    /**
+     * Maximum number of segments copied concurrently
+     */
+    private final Integer concurrency;
 
     public SwiftCopyFeature(final SwiftSession session) {
         this(session, new SwiftRegionService(session));
     }
 
     public SwiftCopyFeature(final SwiftSession session, final SwiftRegionService regionService) {
+        this(session, regionService, new SwiftSegmentService(session, regionService),
+                PreferencesFactory.get().getInteger("openstack.upload.largeobject.concurrency"));
+    }
+
+    public SwiftCopyFeature(final SwiftSession session, final SwiftRegionService regionService,
+                            final SwiftSegmentService segmentService, final Integer concurrency) {
         this.session = session;
         this.regionService = regionService;
+        this.segmentService = segmentService;
+        this.concurrency = concurrency;
     }
 
     @Override
     public Path copy(final Path source, final Path target, final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
+        if(source.attributes().getSize() > PreferencesFactory.get().getLong("openstack.upload.largeobject.size.minimum")) {
+            final List<Path> segments = segmentService.list(source);
+            if(!segments.isEmpty()) {
+                return this.copy(source, segments, target, status);
+            }
+        }
         try {
             session.getClient().copyObject(regionService.lookup(source),
                     containerService.getContainer(source).getName(), containerService.getKey(source),
@@ -65,6 +101,102 @@ public class SwiftCopyFeature implements Copy {
         }
     }
 
+    /**
+     * Copy each segment of large object on the server concurrently and create new static large object manifest
+     * referencing the copied segments. Copying the manifest only would exceed the maximum object size for
+     * copy operations or reference the segments of the source object.
+     *
+     * @param source   Large object
+     * @param segments Segments of source in order
+     * @param target   Copy
+     */
+    private Path copy(final Path source, final List<Path> segments, final Path target, final TransferStatus status) throws BackgroundException {
+        long size = 0L;
+        for(Path segment : segments) {
+            size += segment.attributes().getSize();
+        }
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Copy %d segments of large object %s to %s", segments.size(), source, target));
+        }
+        final ThreadPool pool = session.getPartPool(concurrency);
+        final List<StorageObject> completed = new ArrayList<StorageObject>();
+        try {
+            final List<Future<StorageObject>> futures = new ArrayList<Future<StorageObject>>();
+            int segmentNumber = 0;
+            for(Path segment : segments) {
+                futures.add(this.submit(pool, source, segment, segmentService.getSegment(target, size, ++segmentNumber), status));
+            }
+            for(Future<StorageObject> future : futures) {
+                completed.add(future.get());
+            }
+        }
+        catch(InterruptedException e) {
+            log.error("Segment copy failed with interrupt failure");
+            throw new ConnectionCanceledException(e);
+        }
+        catch(ExecutionException e) {
+            log.warn(String.format("Segment copy failed with execution failure %s", e.getMessage()));
+            if(e.getCause() instanceof BackgroundException) {
+                throw (BackgroundException) e.getCause();
+            }
+            throw new DefaultExceptionMappingService().map(e.getCause());
+        }
+        finally {
+            pool.shutdown(false);
+        }
+        try {
+            // Static Large Object
+            final String manifest = segmentService.manifest(containerService.getContainer(target).getName(), completed);
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Creating SLO manifest %s for %s", manifest, target));
+            }
+            session.getClient().createSLOManifestObject(regionService.lookup(
+                    containerService.getContainer(target)),
+                    containerService.getContainer(target).getName(),
+                    status.getMime(),
+                    containerService.getKey(target), manifest, Collections.emptyMap());
+            return target;
+        }
+        catch(GenericException e) {
+            throw new SwiftExceptionMappingService().map("Cannot copy {0}", e, source);
+        }
+        catch(IOException e) {
+            throw new DefaultIOExceptionMappingService().map("Cannot copy {0}", e, source);
+        }
+    }
+
+    private Future<StorageObject> submit(final ThreadPool pool, final Path source, final Path segment, final Path copy,
+                                         final TransferStatus overall) {
+        return pool.execute(new DefaultRetryCallable<StorageObject>(new BackgroundExceptionCallable<StorageObject>() {
+            @Override
+            public StorageObject call() throws BackgroundException {
+                if(overall.isCanceled()) {
+                    throw new ConnectionCanceledException();
+                }
+                try {
+                    session.getClient().copyObject(regionService.lookup(segment),
+                            containerService.getContainer(segment).getName(), containerService.getKey(segment),
+                            containerService.getContainer(copy).getName(), containerService.getKey(copy));
+                }
+                catch(GenericException e) {
+                    throw new SwiftExceptionMappingService().map("Cannot copy {0}", e, source);
+                }
+                catch(IOException e) {
+                    throw new DefaultIOExceptionMappingService().map("Cannot copy {0}", e, source);
+                }
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Copied segment %s to %s", segment, copy));
+                }
+                final StorageObject stored = new StorageObject(containerService.getKey(copy));
+                if(HashAlgorithm.md5.equals(segment.attributes().getChecksum().algorithm)) {
+                    stored.setMd5sum(segment.attributes().getChecksum().hash);
+                }
+                stored.setSize(segment.attributes().getSize());
+                return stored;
+            }
+        }, overall));
+    }
+
     @Override
     public boolean isRecursive(final Path source, final Path target) {
         return false;
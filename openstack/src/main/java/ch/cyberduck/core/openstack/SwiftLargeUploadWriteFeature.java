@@ -21,6 +21,7 @@ import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathAttributes;
 import ch.cyberduck.core.PathContainerService;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.features.AttributesFinder;
 import ch.cyberduck.core.features.Find;
 import ch.cyberduck.core.features.MultipartWrite;
@@ -29,7 +30,9 @@ import ch.cyberduck.core.http.HttpResponseOutputStream;
 import ch.cyberduck.core.io.Checksum;
 import ch.cyberduck.core.io.ChecksumCompute;
 import ch.cyberduck.core.io.DisabledChecksumCompute;
+import ch.cyberduck.core.io.MemoryBufferPool;
 import ch.cyberduck.core.io.MemorySegementingOutputStream;
+import ch.cyberduck.core.io.PipelinedSegmentOutputStream;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.shared.DefaultAttributesFinderFeature;
 import ch.cyberduck.core.shared.DefaultFindFeature;
@@ -42,12 +45,10 @@ import org.apache.log4j.Logger;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 import ch.iterate.openstack.swift.exception.GenericException;
 import ch.iterate.openstack.swift.model.StorageObject;
@@ -64,6 +65,15 @@ public class SwiftLargeUploadWriteFeature implements MultipartWrite<List<Storage
     private final SwiftSegmentService segmentService;
     private final SwiftRegionService regionService;
 
+    /**
+     * Segment size and buffer length
+     */
+    private final Integer partsize;
+    /**
+     * Maximum number of segments uploaded concurrently while the stream is written to
+     */
+    private final Integer concurrency;
+
     public SwiftLargeUploadWriteFeature(final SwiftSession session) {
         this(session, new DefaultFindFeature(session), new DefaultAttributesFinderFeature(session));
     }
@@ -82,18 +92,27 @@ public class SwiftLargeUploadWriteFeature implements MultipartWrite<List<Storage
 
     public SwiftLargeUploadWriteFeature(final SwiftSession session, final SwiftRegionService regionService, final SwiftSegmentService segmentService,
                                         final Find finder, final AttributesFinder attributes) {
+        this(session, regionService, segmentService, finder, attributes,
+                PreferencesFactory.get().getInteger("openstack.upload.largeobject.size.minimum"),
+                PreferencesFactory.get().getInteger("openstack.upload.largeobject.concurrency"));
+    }
+
+    public SwiftLargeUploadWriteFeature(final SwiftSession session, final SwiftRegionService regionService, final SwiftSegmentService segmentService,
+                                        final Find finder, final AttributesFinder attributes,
+                                        final Integer partsize, final Integer concurrency) {
         this.session = session;
         this.regionService = regionService;
         this.segmentService = segmentService;
         this.finder = finder;
         this.attributes = attributes;
+        this.partsize = partsize;
+        this.concurrency = concurrency;
     }
 
     @Override
     public HttpResponseOutputStream<List<StorageObject>> write(final Path file, final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
         final LargeUploadOutputStream proxy = new LargeUploadOutputStream(file, status);
-        return new HttpResponseOutputStream<List<StorageObject>>(new MemorySegementingOutputStream(proxy,
-                PreferencesFactory.get().getInteger("openstack.upload.largeobject.size.minimum"))) {
+        return new HttpResponseOutputStream<List<StorageObject>>(new MemorySegementingOutputStream(proxy, partsize)) {
             @Override
             public List<StorageObject> getStatus() throws BackgroundException {
                 return proxy.getCompleted();
@@ -125,74 +144,63 @@ public class SwiftLargeUploadWriteFeature implements MultipartWrite<List<Storage
         return new DisabledChecksumCompute();
     }
 
-    private final class LargeUploadOutputStream extends OutputStream {
+    private final class LargeUploadOutputStream extends PipelinedSegmentOutputStream<StorageObject> {
         private final List<StorageObject> completed = new ArrayList<StorageObject>();
         private final Path file;
         private final TransferStatus overall;
-        private final AtomicBoolean close = new AtomicBoolean();
-        private int segmentNumber;
 
         public LargeUploadOutputStream(final Path file, final TransferStatus status) {
+            super(session.getPartPool(concurrency), new MemoryBufferPool(concurrency, partsize));
             this.file = file;
             this.overall = status;
         }
 
         @Override
-        public void write(final int value) throws IOException {
-            throw new IOException(new UnsupportedOperationException());
-        }
-
-        @Override
-        public void write(final byte[] content, final int off, final int len) throws IOException {
-            try {
-                completed.add(new DefaultRetryCallable<StorageObject>(new BackgroundExceptionCallable<StorageObject>() {
-                    @Override
-                    public StorageObject call() throws BackgroundException {
-                        final TransferStatus status = new TransferStatus().length(len);
-                        status.setChecksum(SwiftLargeUploadWriteFeature.this.checksum(file)
-                                .compute(new ByteArrayInputStream(content, off, len), status)
-                        );
-                        // Segment name with left padded segment number
-                        final Path segment = segmentService.getSegment(file, status.getLength(), ++segmentNumber);
-                        final ByteArrayEntity entity = new ByteArrayEntity(content, off, len);
-                        final HashMap<String, String> headers = new HashMap<>();
-                        final String checksum;
-                        try {
-                            checksum = session.getClient().storeObject(
-                                    regionService.lookup(file),
-                                    containerService.getContainer(segment).getName(), containerService.getKey(segment),
-                                    entity, headers, Checksum.NONE == status.getChecksum() ? null : status.getChecksum().hash);
-                        }
-                        catch(GenericException e) {
-                            throw new SwiftExceptionMappingService().map("Upload {0} failed", e, file);
-                        }
-                        catch(IOException e) {
-                            throw new DefaultIOExceptionMappingService().map("Upload {0} failed", e, file);
-                        }
-                        if(log.isDebugEnabled()) {
-                            log.debug(String.format("Saved segment %s with checksum %s", segment, checksum));
-                        }
-                        final StorageObject stored = new StorageObject(containerService.getKey(segment));
-                        stored.setMd5sum(checksum);
-                        stored.setSize(status.getLength());
-                        return stored;
+        protected StorageObject upload(final int segmentNumber, final byte[] content, final int len) throws BackgroundException {
+            return new DefaultRetryCallable<StorageObject>(new BackgroundExceptionCallable<StorageObject>() {
+                @Override
+                public StorageObject call() throws BackgroundException {
+                    if(overall.isCanceled()) {
+                        throw new ConnectionCanceledException();
                     }
-                }, overall).call());
-            }
-            catch(BackgroundException e) {
-                throw new IOException(e.getMessage(), e);
-            }
+                    final TransferStatus status = new TransferStatus().length(len);
+                    status.setChecksum(SwiftLargeUploadWriteFeature.this.checksum(file)
+                            .compute(new ByteArrayInputStream(content, 0, len), status)
+                    );
+                    // Segment name with left padded segment number
+                    final Path segment = segmentService.getSegment(file, status.getLength(), segmentNumber);
+                    final ByteArrayEntity entity = new ByteArrayEntity(content, 0, len);
+                    final HashMap<String, String> headers = new HashMap<>();
+                    final String checksum;
+                    try {
+                        checksum = session.getClient().storeObject(
+                                regionService.lookup(file),
+                                containerService.getContainer(segment).getName(), containerService.getKey(segment),
+                                entity, headers, Checksum.NONE == status.getChecksum() ? null : status.getChecksum().hash);
+                    }
+                    catch(GenericException e) {
+                        throw new SwiftExceptionMappingService().map("Upload {0} failed", e, file);
+                    }
+                    catch(IOException e) {
+                        throw new DefaultIOExceptionMappingService().map("Upload {0} failed", e, file);
+                    }
+                    if(log.isDebugEnabled()) {
+                        log.debug(String.format("Saved segment %s with checksum %s", segment, checksum));
+                    }
+                    final StorageObject stored = new StorageObject(containerService.getKey(segment));
+                    stored.setMd5sum(checksum);
+                    stored.setSize(status.getLength());
+                    return stored;
+                }
+            }, overall).call();
         }
 
         @Override
-        public void close() throws IOException {
+        protected void complete(final List<StorageObject> segments) throws IOException {
             // Create and upload the large object manifest. It is best to upload all the segments first and
             // then create or update the manifest.
+            completed.addAll(segments);
             try {
-                if(close.get()) {
-                    log.warn(String.format("Skip double close of stream %s", this));
-                    return;
-                }
                 if(completed.isEmpty()) {
                     new SwiftTouchFeature(session, regionService).touch(file, new TransferStatus());
                 }
@@ -212,13 +220,18 @@ public class SwiftLargeUploadWriteFeature implements MultipartWrite<List<Storage
             catch(BackgroundException e) {
                 throw new IOException(e.getMessage(), e);
             }
-            finally {
-                close.set(true);
-            }
         }
 
         public List<StorageObject> getCompleted() {
             return completed;
         }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder("LargeUploadOutputStream{");
+            sb.append("file=").append(file);
+            sb.append('}');
+            return sb.toString();
+        }
     }
 }
@@ -27,21 +27,29 @@ import ch.cyberduck.core.DisabledListProgressListener;
 import ch.cyberduck.core.DisabledLoginCallback;
 import ch.cyberduck.core.DisabledPasswordStore;
 import ch.cyberduck.core.Host;
+import ch.cyberduck.core.Local;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.features.Delete;
 import ch.cyberduck.core.features.Find;
+import ch.cyberduck.core.io.BandwidthThrottle;
+import ch.cyberduck.core.io.DisabledStreamListener;
 import ch.cyberduck.core.shared.DefaultFindFeature;
 import ch.cyberduck.core.transfer.TransferStatus;
 import ch.cyberduck.test.IntegrationTest;
 
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.RandomUtils;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Arrays;
 import java.util.EnumSet;
+import java.util.List;
 import java.util.UUID;
 
-import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.*;
 
 @Category(IntegrationTest.class)
 public class SwiftCopyFeatureTest {
@@ -89,4 +97,49 @@ public class SwiftCopyFeatureTest {
         assertTrue(find.find(copy));
         new SwiftDeleteFeature(session).delete(Arrays.asList(test, copy), new DisabledLoginCallback(), new Delete.DisabledCallback());
     }
+
+    @Test
+    public void testCopyLargeObject() throws Exception {
+        final Host host = new Host(new SwiftProtocol(), "identity.api.rackspacecloud.com", new Credentials(
+            System.getProperties().getProperty("rackspace.key"), System.getProperties().getProperty("rackspace.secret")
+        ));
+        final SwiftSession session = new SwiftSession(host);
+        session.open(new DisabledHostKeyCallback(), new DisabledLoginCallback());
+        session.login(new DisabledPasswordStore(), new DisabledLoginCallback(), new DisabledCancelCallback());
+        final Path container = new Path("test.cyberduck.ch", EnumSet.of(Path.Type.directory, Path.Type.volume));
+        container.attributes().setRegion("ORD");
+        final Path test = new Path(container, UUID.randomUUID().toString(), EnumSet.of(Path.Type.file));
+        final Local local = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        // Each segment, except the last, must be larger than 1048576 bytes.
+        final int length = 1048576 + 1048576 + 1;
+        final byte[] content = RandomUtils.nextBytes(length);
+        final OutputStream out = local.getOutputStream(false);
+        IOUtils.write(content, out);
+        out.close();
+        final SwiftRegionService regionService = new SwiftRegionService(session);
+        final SwiftSegmentService segmentService = new SwiftSegmentService(session, regionService);
+        new SwiftLargeObjectUploadFeature(session, regionService, new SwiftWriteFeature(session, regionService),
+            1048576L, 4).upload(test, local, new BandwidthThrottle(BandwidthThrottle.UNLIMITED), new DisabledStreamListener(),
+            new TransferStatus().length(content.length), new DisabledConnectionCallback());
+        test.attributes().setSize(content.length);
+        final Path copy = new Path(container, UUID.randomUUID().toString(), EnumSet.of(Path.Type.file));
+        new SwiftCopyFeature(session, regionService, segmentService, 2).copy(test, copy, new TransferStatus(), new DisabledConnectionCallback());
+        assertTrue(new SwiftFindFeature(session).find(test));
+        assertTrue(new SwiftFindFeature(session).find(copy));
+        // Manifest references copied segments in order
+        final List<Path> segments = segmentService.list(copy);
+        assertEquals(3, segments.size());
+        assertEquals(1048576L, segments.get(0).attributes().getSize());
+        assertEquals(1048576L, segments.get(1).attributes().getSize());
+        assertEquals(1L, segments.get(2).attributes().getSize());
+        for(Path segment : segments) {
+            assertFalse(segmentService.list(test).contains(segment));
+        }
+        final InputStream in = new SwiftReadFeature(session, regionService).read(copy, new TransferStatus(), new DisabledConnectionCallback());
+        assertArrayEquals(content, IOUtils.toByteArray(in));
+        in.close();
+        new SwiftDeleteFeature(session).delete(Arrays.asList(test, copy), new DisabledLoginCallback(), new Delete.DisabledCallback());
+        local.delete();
+        session.close();
+    }
 }
@@ -23,9 +23,11 @@ import ch.cyberduck.core.DisabledLoginCallback;
 import ch.cyberduck.core.DisabledPasswordStore;
 import ch.cyberduck.core.Host;
 import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathContainerService;
 import ch.cyberduck.core.features.Delete;
 import ch.cyberduck.core.http.HttpResponseOutputStream;
 import ch.cyberduck.core.io.StreamCopier;
+import ch.cyberduck.core.shared.DefaultAttributesFinderFeature;
 import ch.cyberduck.core.shared.DefaultFindFeature;
 import ch.cyberduck.core.transfer.TransferStatus;
 import ch.cyberduck.test.IntegrationTest;
@@ -50,6 +52,9 @@ import static org.junit.Assert.*;
 @Category(IntegrationTest.class)
 public class SwiftLargeUploadWriteFeatureTest {
 
+    private final PathContainerService containerService
+            = new PathContainerService();
+
     @Test
     public void testWriteUploadLargeBuffer() throws Exception {
         final Host host = new Host(new SwiftProtocol(), "identity.api.rackspacecloud.com", new Credentials(
@@ -84,6 +89,45 @@ public class SwiftLargeUploadWriteFeatureTest {
         session.close();
     }
 
+    @Test
+    public void testWriteSegmentOrder() throws Exception {
+        final Host host = new Host(new SwiftProtocol(), "identity.api.rackspacecloud.com", new Credentials(
+                System.getProperties().getProperty("rackspace.key"), System.getProperties().getProperty("rackspace.secret")
+        ));
+        final SwiftSession session = new SwiftSession(host);
+        session.open(new DisabledHostKeyCallback(), new DisabledLoginCallback());
+        session.login(new DisabledPasswordStore(), new DisabledLoginCallback(), new DisabledCancelCallback());
+        final SwiftRegionService regionService = new SwiftRegionService(session);
+        final SwiftSegmentService segmentService = new SwiftSegmentService(session, ".segments-test/");
+        // Segments uploaded concurrently and completed out of order
+        final SwiftLargeUploadWriteFeature feature = new SwiftLargeUploadWriteFeature(session, regionService, segmentService,
+                new DefaultFindFeature(session), new DefaultAttributesFinderFeature(session), 1024 * 1024, 4);
+        final Path container = new Path("test.cyberduck.ch", EnumSet.of(Path.Type.directory, Path.Type.volume));
+        container.attributes().setRegion("DFW");
+        final TransferStatus status = new TransferStatus();
+        status.setLength(-1L);
+        final Path file = new Path(container, UUID.randomUUID().toString(), EnumSet.of(Path.Type.file));
+        final HttpResponseOutputStream<List<StorageObject>> out = feature.write(file, status, new DisabledConnectionCallback());
+        final byte[] content = RandomUtils.nextBytes(5 * 1024 * 1024 + 1);
+        final ByteArrayInputStream in = new ByteArrayInputStream(content);
+        assertEquals(content.length, IOUtils.copy(in, out));
+        in.close();
+        out.close();
+        // Manifest references segments in order written
+        final List<StorageObject> segments = out.getStatus();
+        assertEquals(6, segments.size());
+        for(int i = 0; i < segments.size(); i++) {
+            assertEquals(containerService.getKey(segmentService.getSegment(file, i < 5 ? 1024L * 1024L : 1L, i + 1)), segments.get(i).getName());
+        }
+        final byte[] compare = new byte[content.length];
+        final InputStream stream = new SwiftReadFeature(session, regionService).read(file, new TransferStatus().length(content.length), new DisabledConnectionCallback());
+        IOUtils.readFully(stream, compare);
+        stream.close();
+        assertArrayEquals(content, compare);
+        new SwiftDeleteFeature(session).delete(Collections.singletonList(file), new DisabledLoginCallback(), new Delete.DisabledCallback());
+        session.close();
+    }
+
     @Test
     public void testWriteZeroLength() throws Exception {
         final Host host = new Host(new SwiftProtocol(), "identity.api.rackspacecloud.com", new Credentials(
@@ -106,6 +150,8 @@ public class SwiftLargeUploadWriteFeatureTest {
         in.close();
         out.close();
         assertNotNull(out.getStatus());
+        // No segments and no manifest
+        assertTrue(out.getStatus().isEmpty());
         assertTrue(new DefaultFindFeature(session).find(file));
         final byte[] compare = new byte[content.length];
         final InputStream stream = new SwiftReadFeature(session, regionService).read(file, new TransferStatus().length(content.length), new DisabledConnectionCallback());
@@ -23,7 +23,6 @@ import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.http.HttpRange;
 import ch.cyberduck.core.preferences.PreferencesFactory;
-import ch.cyberduck.core.threading.DefaultThreadPool;
 import ch.cyberduck.core.threading.ThreadPool;
 import ch.cyberduck.core.transfer.TransferStatus;
 
@@ -51,8 +50,8 @@ public class S3MultipartCopyFeature extends S3CopyFeature {
     private final PathContainerService containerService
             = new S3PathContainerService();
 
-    private final ThreadPool pool
-            = new DefaultThreadPool("multipart", PreferencesFactory.get().getInteger("s3.upload.multipart.concurrency"));
+    private final Integer concurrency
+            = PreferencesFactory.get().getInteger("s3.upload.multipart.concurrency");
 
     /**
      * A split smaller than 5M is not allowed
@@ -71,6 +70,7 @@ public class S3MultipartCopyFeature extends S3CopyFeature {
 
     @Override
     protected void copy(final Path source, final S3Object destination, final TransferStatus status) throws BackgroundException {
+        final ThreadPool pool = session.getPartPool(concurrency);
         try {
             final List<MultipartPart> completed = new ArrayList<MultipartPart>();
             // ID for the initiated multipart upload.
@@ -88,7 +88,7 @@ public class S3MultipartCopyFeature extends S3CopyFeature {
                 // Last part can be less than 5 MB. Adjust part size.
                 final Long length = Math.min(Math.max((size / S3DefaultMultipartService.MAXIMUM_UPLOAD_PARTS), partsize), remaining);
                 // Submit to queue
-                parts.add(this.submit(source, multipart, partNumber, offset, length));
+                parts.add(this.submit(pool, source, multipart, partNumber, offset, length));
                 remaining -= length;
                 offset += length;
             }
@@ -125,7 +125,7 @@ public class S3MultipartCopyFeature extends S3CopyFeature {
         }
     }
 
-    private Future<MultipartPart> submit(final Path source,
+    private Future<MultipartPart> submit(final ThreadPool pool, final Path source,
                                          final MultipartUpload multipart,
                                          final int partNumber, final long offset, final long length) throws BackgroundException {
         if(log.isInfoEnabled()) {
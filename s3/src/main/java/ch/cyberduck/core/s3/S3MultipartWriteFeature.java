@@ -8,6 +8,7 @@ import ch.cyberduck.core.PathAttributes;
 import ch.cyberduck.core.PathContainerService;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ChecksumException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.features.AttributesFinder;
 import ch.cyberduck.core.features.Find;
 import ch.cyberduck.core.features.MultipartWrite;
@@ -18,7 +19,9 @@ import ch.cyberduck.core.io.ChecksumComputeFactory;
 import ch.cyberduck.core.io.DisabledChecksumCompute;
 import ch.cyberduck.core.io.HashAlgorithm;
 import ch.cyberduck.core.io.MD5ChecksumCompute;
+import ch.cyberduck.core.io.MemoryBufferPool;
 import ch.cyberduck.core.io.MemorySegementingOutputStream;
+import ch.cyberduck.core.io.PipelinedSegmentOutputStream;
 import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.shared.DefaultAttributesFinderFeature;
@@ -38,14 +41,12 @@ import org.jets3t.service.model.S3Object;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.OutputStream;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 public class S3MultipartWriteFeature implements MultipartWrite<List<MultipartPart>> {
     private static final Logger log = Logger.getLogger(S3MultipartWriteFeature.class);
@@ -60,14 +61,31 @@ public class S3MultipartWriteFeature implements MultipartWrite<List<MultipartPar
     private final Find finder;
     private final AttributesFinder attributes;
 
+    /**
+     * Part size and buffer length
+     */
+    private final Integer partsize;
+    /**
+     * Maximum number of parts uploaded concurrently while the stream is written to
+     */
+    private final Integer concurrency;
+
     public S3MultipartWriteFeature(final S3Session session) {
         this(session, new DefaultFindFeature(session), new DefaultAttributesFinderFeature(session));
     }
 
     public S3MultipartWriteFeature(final S3Session session, final Find finder, final AttributesFinder attributes) {
+        this(session, finder, attributes, PreferencesFactory.get().getInteger("s3.upload.multipart.partsize.minimum"),
+            PreferencesFactory.get().getInteger("s3.upload.multipart.concurrency"));
+    }
+
+    public S3MultipartWriteFeature(final S3Session session, final Find finder, final AttributesFinder attributes,
+                                   final Integer partsize, final Integer concurrency) {
         this.session = session;
         this.finder = finder;
         this.attributes = attributes;
+        this.partsize = partsize;
+        this.concurrency = concurrency;
     }
 
     @Override
@@ -88,8 +106,7 @@ public class S3MultipartWriteFeature implements MultipartWrite<List<MultipartPar
             throw new S3ExceptionMappingService().map("Upload {0} failed", e, file);
         }
         final MultipartOutputStream proxy = new MultipartOutputStream(multipart, file, status);
-        return new HttpResponseOutputStream<List<MultipartPart>>(new MemorySegementingOutputStream(proxy,
-            preferences.getInteger("s3.upload.multipart.partsize.minimum"))) {
+        return new HttpResponseOutputStream<List<MultipartPart>>(new MemorySegementingOutputStream(proxy, partsize)) {
             @Override
             public List<MultipartPart> getStatus() throws BackgroundException {
                 return proxy.getCompleted();
@@ -116,7 +133,7 @@ public class S3MultipartWriteFeature implements MultipartWrite<List<MultipartPar
         return false;
     }
 
-    private final class MultipartOutputStream extends OutputStream {
+    private final class MultipartOutputStream extends PipelinedSegmentOutputStream<MultipartPart> {
         /**
          * Completed parts
          */
@@ -126,10 +143,9 @@ public class S3MultipartWriteFeature implements MultipartWrite<List<MultipartPar
         private final MultipartUpload multipart;
         private final Path file;
         private final TransferStatus overall;
-        private final AtomicBoolean close = new AtomicBoolean();
-        private int partNumber;
 
         public MultipartOutputStream(final MultipartUpload multipart, final Path file, final TransferStatus status) {
+            super(session.getPartPool(concurrency), new MemoryBufferPool(concurrency, partsize));
             this.multipart = multipart;
             this.file = file;
             this.overall = status;
@@ -140,60 +156,50 @@ public class S3MultipartWriteFeature implements MultipartWrite<List<MultipartPar
         }
 
         @Override
-        public void write(final int value) throws IOException {
-            throw new IOException(new UnsupportedOperationException());
-        }
-
-        @Override
-        public void write(final byte[] content, final int off, final int len) throws IOException {
-            try {
-                completed.add(new DefaultRetryCallable<MultipartPart>(new BackgroundExceptionCallable<MultipartPart>() {
-                    @Override
-                    public MultipartPart call() throws BackgroundException {
-                        final Map<String, String> parameters = new HashMap<String, String>();
-                        parameters.put("uploadId", multipart.getUploadId());
-                        parameters.put("partNumber", String.valueOf(++partNumber));
-                        final TransferStatus status = new TransferStatus().withParameters(parameters).length(len);
-                        switch(session.getSignatureVersion()) {
-                            case AWS4HMACSHA256:
-                                status.setChecksum(ChecksumComputeFactory.get(HashAlgorithm.sha256)
-                                    .compute(new ByteArrayInputStream(content, off, len), status)
-                                );
-                                break;
-                        }
-                        status.setSegment(true);
-                        final S3Object part = new S3WriteFeature(session, new S3DisabledMultipartService())
-                            .getDetails(file, status);
-                        try {
-                            session.getClient().putObjectWithRequestEntityImpl(
-                                containerService.getContainer(file).getName(), part,
-                                new ByteArrayEntity(content, off, len), parameters);
-                        }
-                        catch(ServiceException e) {
-                            throw new S3ExceptionMappingService().map("Upload {0} failed", e, file);
-                        }
-                        if(log.isDebugEnabled()) {
-                            log.debug(String.format("Saved object %s with checksum %s", file, part.getETag()));
-                        }
-                        return new MultipartPart(partNumber,
-                            null == part.getLastModifiedDate() ? new Date(System.currentTimeMillis()) : part.getLastModifiedDate(),
-                            null == part.getETag() ? StringUtils.EMPTY : part.getETag(),
-                            part.getContentLength());
+        protected MultipartPart upload(final int partNumber, final byte[] content, final int len) throws BackgroundException {
+            return new DefaultRetryCallable<MultipartPart>(new BackgroundExceptionCallable<MultipartPart>() {
+                @Override
+                public MultipartPart call() throws BackgroundException {
+                    if(overall.isCanceled()) {
+                        throw new ConnectionCanceledException();
                     }
-                }, overall).call());
-            }
-            catch(BackgroundException e) {
-                throw new IOException(e.getMessage(), e);
-            }
+                    final Map<String, String> parameters = new HashMap<String, String>();
+                    parameters.put("uploadId", multipart.getUploadId());
+                    parameters.put("partNumber", String.valueOf(partNumber));
+                    final TransferStatus status = new TransferStatus().withParameters(parameters).length(len);
+                    switch(session.getSignatureVersion()) {
+                        case AWS4HMACSHA256:
+                            status.setChecksum(ChecksumComputeFactory.get(HashAlgorithm.sha256)
+                                .compute(new ByteArrayInputStream(content, 0, len), status)
+                            );
+                            break;
+                    }
+                    status.setSegment(true);
+                    final S3Object part = new S3WriteFeature(session, new S3DisabledMultipartService())
+                        .getDetails(file, status);
+                    try {
+                        session.getClient().putObjectWithRequestEntityImpl(
+                            containerService.getContainer(file).getName(), part,
+                            new ByteArrayEntity(content, 0, len), parameters);
+                    }
+                    catch(ServiceException e) {
+                        throw new S3ExceptionMappingService().map("Upload {0} failed", e, file);
+                    }
+                    if(log.isDebugEnabled()) {
+                        log.debug(String.format("Saved part %d of object %s with checksum %s", partNumber, file, part.getETag()));
+                    }
+                    return new MultipartPart(partNumber,
+                        null == part.getLastModifiedDate() ? new Date(System.currentTimeMillis()) : part.getLastModifiedDate(),
+                        null == part.getETag() ? StringUtils.EMPTY : part.getETag(),
+                        part.getContentLength());
+                }
+            }, overall).call();
         }
 
         @Override
-        public void close() throws IOException {
+        protected void complete(final List<MultipartPart> parts) throws IOException {
+            completed.addAll(parts);
             try {
-                if(close.get()) {
-                    log.warn(String.format("Skip double close of stream %s", this));
-                    return;
-                }
                 if(completed.isEmpty()) {
                     log.warn(String.format("Abort multipart upload %s with no completed parts", multipart));
                     session.getClient().multipartAbortUpload(multipart);
@@ -241,9 +247,6 @@ public class S3MultipartWriteFeature implements MultipartWrite<List<MultipartPar
             catch(ServiceException e) {
                 throw new IOException(e.getErrorMessage(), new S3ExceptionMappingService().map(e));
             }
-            finally {
-                close.set(true);
-            }
         }
 
         @Override
@@ -24,7 +24,8 @@ import ch.cyberduck.core.features.Write;
 import ch.cyberduck.core.http.HttpUploadFeature;
 import ch.cyberduck.core.io.BandwidthThrottle;
 import ch.cyberduck.core.io.Checksum;
-import ch.cyberduck.core.io.MD5ChecksumCompute;
+import ch.cyberduck.core.io.ChecksumComputeFactory;
+import ch.cyberduck.core.io.HashAlgorithm;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.transfer.Transfer;
 import ch.cyberduck.core.transfer.TransferStatus;
@@ -60,8 +61,10 @@ public class SpectraUploadFeature extends HttpUploadFeature<StorageObject, Messa
         // Make sure file is available in cache
         final List<TransferStatus> chunks = bulk.query(Transfer.Type.upload, file, status);
         StorageObject stored = null;
+        // Checksum of file is the same for all chunks
+        final Checksum checksum = chunks.isEmpty() ? Checksum.NONE : ChecksumComputeFactory.get(HashAlgorithm.md5).compute(local.getInputStream(), status);
         for(TransferStatus chunk : chunks) {
-            chunk.setChecksum(new MD5ChecksumCompute().compute(local.getInputStream(), chunk));
+            chunk.setChecksum(checksum);
             stored = super.upload(file, local, throttle, listener, chunk, callback);
         }
         return stored;
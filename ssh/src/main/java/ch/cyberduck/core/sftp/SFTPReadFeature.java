@@ -27,6 +27,7 @@ import ch.cyberduck.core.transfer.TransferStatus;
 
 import org.apache.log4j.Logger;
 
+import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.EnumSet;
@@ -55,9 +56,16 @@ public class SFTPReadFeature implements Read {
             if(log.isInfoEnabled()) {
                 log.info(String.format("Skipping %d bytes", status.getOffset()));
             }
-            return handle.new ReadAheadRemoteFileInputStream(maxUnconfirmedReads, status.getOffset()) {
+            final int chunksize = preferences.getInteger("sftp.read.chunksize");
+            final InputStream in = handle.new ReadAheadRemoteFileInputStream(maxUnconfirmedReads, status.getOffset()) {
                 private final AtomicBoolean close = new AtomicBoolean();
 
+                @Override
+                public int read(final byte[] into, final int off, final int len) throws IOException {
+                    // Length of SSH_FXP_READ requests in flight is determined by length requested
+                    return super.read(into, off, Math.min(len, chunksize));
+                }
+
                 @Override
                 public void close() throws IOException {
                     if(close.get()) {
@@ -73,6 +81,8 @@ public class SFTPReadFeature implements Read {
                     }
                 }
             };
+            // Request full chunks when reading with smaller buffer
+            return new BufferedInputStream(in, chunksize);
         }
         catch(IOException e) {
             throw new SFTPExceptionMappingService().map("Download {0} failed", e, file);
@@ -83,7 +93,7 @@ public class SFTPReadFeature implements Read {
         if(-1 == status.getLength()) {
             return preferences.getInteger("sftp.read.maxunconfirmed");
         }
-        return Integer.min(((int) (status.getLength() / preferences.getInteger("connection.chunksize")) + 1),
+        return Integer.min(((int) (status.getLength() / preferences.getInteger("sftp.read.chunksize")) + 1),
                 preferences.getInteger("sftp.read.maxunconfirmed"));
     }
 
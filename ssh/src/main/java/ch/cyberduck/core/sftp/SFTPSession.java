@@ -176,6 +176,8 @@ public class SFTPSession extends Session<SSHClient> {
         final Transport transport = connection.getTransport();
         transport.setDisconnectListener(disconnectListener);
         connection.connect(HostnameConfiguratorFactory.get(host.getProtocol()).getHostname(host.getHostname()), host.getPort());
+        // Allow for more data of outstanding read requests in flight
+        connection.getConnection().setWindowSize(preferences.getLong("ssh.window.size"));
         final KeepAlive keepalive = connection.getConnection().getKeepAlive();
         keepalive.setKeepAliveInterval(preferences.getInteger("ssh.heartbeat.seconds"));
         return connection;
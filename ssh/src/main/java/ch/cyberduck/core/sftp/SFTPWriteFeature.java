@@ -31,7 +31,9 @@ import ch.cyberduck.core.transfer.TransferStatus;
 
 import org.apache.log4j.Logger;
 
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.EnumSet;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -89,10 +91,19 @@ public class SFTPWriteFeature extends AppendWriteFeature<Void> {
             if(log.isInfoEnabled()) {
                 log.info(String.format("Skipping %d bytes", status.getOffset()));
             }
+            final int chunksize = preferences.getInteger("sftp.write.chunksize");
             // Open stream at offset
-            return new VoidStatusOutputStream(handle.new RemoteFileOutputStream(status.getOffset(), maxUnconfirmedWrites) {
+            final OutputStream out = handle.new RemoteFileOutputStream(status.getOffset(), maxUnconfirmedWrites) {
                 private final AtomicBoolean close = new AtomicBoolean();
 
+                @Override
+                public void write(final byte[] buf, final int off, final int len) throws IOException {
+                    // Send SSH_FXP_WRITE requests of at most chunk size
+                    for(int written = 0; written < len; written += chunksize) {
+                        super.write(buf, off + written, Math.min(chunksize, len - written));
+                    }
+                }
+
                 @Override
                 public void close() throws IOException {
                     if(close.get()) {
@@ -107,7 +118,9 @@ public class SFTPWriteFeature extends AppendWriteFeature<Void> {
                         close.set(true);
                     }
                 }
-            });
+            };
+            // Coalesce small writes into requests of chunk size
+            return new VoidStatusOutputStream(new BufferedOutputStream(out, chunksize));
         }
         catch(IOException e) {
             throw new SFTPExceptionMappingService().map("Upload {0} failed", e, file);
@@ -118,7 +131,7 @@ public class SFTPWriteFeature extends AppendWriteFeature<Void> {
         if(-1 == status.getLength()) {
             return preferences.getInteger("sftp.write.maxunconfirmed");
         }
-        return Integer.min((int) (status.getLength() / preferences.getInteger("connection.chunksize")) + 1,
+        return Integer.min((int) (status.getLength() / preferences.getInteger("sftp.write.chunksize")) + 1,
                 preferences.getInteger("sftp.write.maxunconfirmed"));
     }
 
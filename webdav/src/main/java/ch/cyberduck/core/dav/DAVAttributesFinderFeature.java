@@ -37,6 +37,7 @@ import org.apache.log4j.Logger;
 
 import javax.xml.namespace.QName;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
@@ -66,11 +67,18 @@ public class DAVAttributesFinderFeature implements AttributesFinder {
         }
         try {
             try {
-                final List<DavResource> status = session.getClient().list(new DAVPathEncoder().encode(file), 1,
+                final List<DavResource> status = new ArrayList<DavResource>();
+                // Only properties of the resource itself are required
+                session.getClient().propfind(new DAVPathEncoder().encode(file), 0,
                     Stream.of(
                         DAVTimestampFeature.LAST_MODIFIED_CUSTOM_NAMESPACE,
                         DAVTimestampFeature.LAST_MODIFIED_SERVER_CUSTOM_NAMESPACE).
-                        collect(Collectors.toSet()));
+                        collect(Collectors.toSet()), new DAVMultiStatusReader.Callback() {
+                        @Override
+                        public void resource(final DavResource resource) {
+                            status.add(resource);
+                        }
+                    });
                 for(final DavResource resource : status) {
                     if(resource.isDirectory()) {
                         if(!file.getType().contains(Path.Type.directory)) {
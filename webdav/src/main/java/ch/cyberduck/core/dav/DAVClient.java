@@ -18,6 +18,7 @@ package ch.cyberduck.core.dav;
  * feedback@cyberduck.ch
  */
 
+import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.http.HttpMethodReleaseInputStream;
 
 import org.apache.commons.lang3.StringUtils;
@@ -27,15 +28,25 @@ import org.apache.http.client.ResponseHandler;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.util.EntityUtils;
 
+import javax.xml.namespace.QName;
 import java.io.IOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Set;
 
 import com.github.sardine.impl.SardineImpl;
+import com.github.sardine.impl.methods.HttpPropFind;
 import com.github.sardine.impl.handler.VoidResponseHandler;
 import com.github.sardine.impl.io.ContentLengthInputStream;
+import com.github.sardine.model.ObjectFactory;
+import com.github.sardine.model.Prop;
+import com.github.sardine.model.Propfind;
+import com.github.sardine.util.SardineUtil;
 
 public class DAVClient extends SardineImpl {
 
@@ -89,6 +100,57 @@ public class DAVClient extends SardineImpl {
         }
     }
 
+    /**
+     * Request only the properties mapped to path attributes and pass resources to the callback while the
+     * response is read.
+     *
+     * @param depth Depth header value or -1 for infinity
+     * @param props Custom properties to request
+     */
+    public void propfind(final String url, final int depth, final Set<QName> props,
+                         final DAVMultiStatusReader.Callback callback) throws IOException, BackgroundException {
+        final Propfind body = new Propfind();
+        final Prop prop = new Prop();
+        final ObjectFactory factory = new ObjectFactory();
+        prop.setGetcontentlength(factory.createGetcontentlength());
+        prop.setGetlastmodified(factory.createGetlastmodified());
+        prop.setCreationdate(factory.createCreationdate());
+        prop.setDisplayname(factory.createDisplayname());
+        // Required to detect collections on servers not returning a resource type
+        prop.setGetcontenttype(factory.createGetcontenttype());
+        prop.setResourcetype(factory.createResourcetype());
+        prop.setGetetag(factory.createGetetag());
+        for(QName name : props) {
+            prop.getAny().add(SardineUtil.createElement(name));
+        }
+        body.setProp(prop);
+        final HttpPropFind request = new HttpPropFind(url);
+        request.setDepth(depth < 0 ? "infinity" : String.valueOf(depth));
+        request.setEntity(new StringEntity(SardineUtil.toXml(body), StandardCharsets.UTF_8));
+        final HttpResponse response = this.execute(request);
+        try {
+            new VoidResponseHandler().handleResponse(response);
+        }
+        catch(IOException e) {
+            EntityUtils.consumeQuietly(response.getEntity());
+            throw e;
+        }
+        boolean complete = false;
+        try {
+            if(response.getEntity() != null) {
+                new DAVMultiStatusReader().read(response.getEntity().getContent(), callback);
+                EntityUtils.consume(response.getEntity());
+            }
+            complete = true;
+        }
+        finally {
+            if(!complete) {
+                // Do not read the remainder of the response
+                request.abort();
+            }
+        }
+    }
+
     public HttpClientContext context() {
         return context;
     }
@@ -44,6 +44,7 @@ public class DAVCopyFeature implements Copy {
         try {
             final String target = new DefaultUrlProvider(session.getHost()).toUrl(copy).find(DescriptiveUrl.Type.provider).getUrl();
             session.getClient().copy(new DAVPathEncoder().encode(source), target);
+            session.invalidate(copy);
             return copy;
         }
         catch(SardineException e) {
@@ -56,6 +56,7 @@ public class DAVDeleteFeature implements Delete {
             callback.delete(file);
             try {
                 session.getClient().delete(new DAVPathEncoder().encode(file));
+                session.invalidate(file);
             }
             catch(SardineException e) {
                 throw new DAVExceptionMappingService().map("Cannot delete {0}", e, file);
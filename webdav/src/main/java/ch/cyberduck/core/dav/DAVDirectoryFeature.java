@@ -40,6 +40,7 @@ public class DAVDirectoryFeature implements Directory<String> {
     public Path mkdir(final Path folder, final String region, final TransferStatus status) throws BackgroundException {
         try {
             session.getClient().createDirectory(new DAVPathEncoder().encode(folder));
+            session.invalidate(folder);
         }
         catch(SardineException e) {
             throw new DAVExceptionMappingService().map("Cannot create folder {0}", e, folder);
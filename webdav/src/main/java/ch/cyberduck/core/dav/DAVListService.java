@@ -32,7 +32,6 @@ import org.apache.log4j.Logger;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.EnumSet;
-import java.util.List;
 
 import com.github.sardine.DavResource;
 import com.github.sardine.impl.SardineException;
@@ -50,26 +49,29 @@ public class DAVListService implements ListService {
     public AttributedList<Path> list(final Path directory, final ListProgressListener listener) throws BackgroundException {
         try {
             final AttributedList<Path> children = new AttributedList<Path>();
-            final List<DavResource> resources = session.getClient().list(new DAVPathEncoder().encode(directory), 1,
-                Collections.singleton(DAVTimestampFeature.LAST_MODIFIED_CUSTOM_NAMESPACE));
-            for(final DavResource resource : resources) {
-                // Try to parse as RFC 2396
-                final String href = PathNormalizer.normalize(resource.getHref().getPath(), true);
-                if(href.equals(directory.getAbsolute())) {
-                    log.warn(String.format("Ignore resource %s", href));
-                    // Do not include self
-                    if(resource.isDirectory()) {
-                        continue;
+            final DAVAttributesFinderFeature feature = new DAVAttributesFinderFeature(session);
+            session.getClient().propfind(new DAVPathEncoder().encode(directory), 1,
+                Collections.singleton(DAVTimestampFeature.LAST_MODIFIED_CUSTOM_NAMESPACE), new DAVMultiStatusReader.Callback() {
+                    @Override
+                    public void resource(final DavResource resource) throws BackgroundException {
+                        // Try to parse as RFC 2396
+                        final String href = PathNormalizer.normalize(resource.getHref().getPath(), true);
+                        if(href.equals(directory.getAbsolute())) {
+                            log.warn(String.format("Ignore resource %s", href));
+                            // Do not include self
+                            if(resource.isDirectory()) {
+                                return;
+                            }
+                            throw new NotfoundException(directory.getAbsolute());
+                        }
+                        final PathAttributes attributes = feature.toAttributes(resource);
+                        final Path file = new Path(directory, PathNormalizer.name(href),
+                            resource.isDirectory() ? EnumSet.of(Path.Type.directory) : EnumSet.of(Path.Type.file),
+                            attributes);
+                        children.add(file);
+                        listener.chunk(directory, children);
                     }
-                    throw new NotfoundException(directory.getAbsolute());
-                }
-                final PathAttributes attributes = new DAVAttributesFinderFeature(session).toAttributes(resource);
-                final Path file = new Path(directory, PathNormalizer.name(href),
-                    resource.isDirectory() ? EnumSet.of(Path.Type.directory) : EnumSet.of(Path.Type.file),
-                    attributes);
-                children.add(file);
-                listener.chunk(directory, children);
-            }
+                });
             return children;
         }
         catch(SardineException e) {
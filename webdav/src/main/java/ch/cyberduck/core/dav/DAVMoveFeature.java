@@ -50,6 +50,8 @@ public class DAVMoveFeature implements Move {
             else {
                 session.getClient().move(new DAVPathEncoder().encode(file), target, true);
             }
+            session.invalidate(file);
+            session.invalidate(renamed);
             return renamed;
         }
         catch(SardineException e) {
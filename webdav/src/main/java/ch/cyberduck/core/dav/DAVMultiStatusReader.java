@@ -0,0 +1,99 @@
+package ch.cyberduck.core.dav;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.exception.BackgroundException;
+
+import org.apache.log4j.Logger;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+
+import com.github.sardine.DavResource;
+import com.github.sardine.model.ObjectFactory;
+import com.github.sardine.model.Response;
+
+/**
+ * Read <code>multistatus</code> PROPFIND response and pass every <code>response</code> element to the callback
+ * as soon as it is parsed instead of unmarshalling the whole document before.
+ */
+public class DAVMultiStatusReader {
+    private static final Logger log = Logger.getLogger(DAVMultiStatusReader.class);
+
+    private static final String NAMESPACE = "DAV:";
+
+    private static JAXBContext context;
+
+    private static synchronized JAXBContext context() throws JAXBException {
+        if(null == context) {
+            context = JAXBContext.newInstance(ObjectFactory.class);
+        }
+        return context;
+    }
+
+    private final XMLInputFactory factory;
+
+    public DAVMultiStatusReader() {
+        factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    public void read(final InputStream in, final Callback callback) throws IOException, BackgroundException {
+        try {
+            final Unmarshaller unmarshaller = context().createUnmarshaller();
+            final XMLStreamReader reader = factory.createXMLStreamReader(in);
+            try {
+                while(reader.hasNext()) {
+                    if(reader.isStartElement()
+                        && "response".equals(reader.getLocalName()) && NAMESPACE.equals(reader.getNamespaceURI())) {
+                        final Response response = unmarshaller.unmarshal(reader, Response.class).getValue();
+                        try {
+                            callback.resource(new DavResource(response));
+                        }
+                        catch(URISyntaxException e) {
+                            log.warn(String.format("Ignore resource with invalid URI %s", response.getHref()));
+                        }
+                        // Reader is positioned at the event following the end element already
+                        continue;
+                    }
+                    reader.next();
+                }
+            }
+            finally {
+                reader.close();
+            }
+        }
+        catch(XMLStreamException | JAXBException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    public interface Callback {
+        /**
+         * @param resource Resource parsed from <code>response</code> element
+         */
+        void resource(DavResource resource) throws BackgroundException;
+    }
+}
@@ -83,6 +83,9 @@ public class DAVSession extends HttpSession<DAVClient> {
     private final Preferences preferences
         = PreferencesFactory.get();
 
+    private final DAVTreeListService tree
+        = new DAVTreeListService(this);
+
     public DAVSession(final Host host) {
         super(host, new ThreadLocalHostnameDelegatingTrustManager(new DisabledX509TrustManager(), host.getHostname()), new DefaultX509KeyManager());
     }
@@ -265,9 +268,21 @@ public class DAVSession extends HttpSession<DAVClient> {
 
     @Override
     public AttributedList<Path> list(final Path directory, final ListProgressListener listener) throws BackgroundException {
+        if(preferences.getBoolean("webdav.listing.depth.infinity")) {
+            return tree.list(directory, listener);
+        }
         return new DAVListService(this).list(directory, listener);
     }
 
+    /**
+     * Discard listings prefetched with infinite depth containing a file modified
+     *
+     * @param file File or directory created, modified or removed
+     */
+    public void invalidate(final Path file) {
+        tree.invalidate(file);
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public <T> T _getFeature(final Class<T> type) {
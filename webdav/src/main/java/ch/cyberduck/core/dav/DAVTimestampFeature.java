@@ -65,6 +65,7 @@ public class DAVTimestampFeature extends DefaultTimestampFeature implements Time
                     new RFC1123DateFormatter().format(modified, TimeZone.getTimeZone("UTC")));
 
                 session.getClient().patch(new DAVPathEncoder().encode(file), props);
+                session.invalidate(file);
                 break;
             }
         }
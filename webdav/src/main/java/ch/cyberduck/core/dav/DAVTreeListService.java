@@ -0,0 +1,205 @@
+package ch.cyberduck.core.dav;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.ListProgressListener;
+import ch.cyberduck.core.ListService;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathAttributes;
+import ch.cyberduck.core.PathNormalizer;
+import ch.cyberduck.core.exception.AccessDeniedException;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.InteroperabilityException;
+import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.http.HttpExceptionMappingService;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import com.github.sardine.DavResource;
+import com.github.sardine.impl.SardineException;
+
+/**
+ * List with a single <code>Depth: infinity</code> PROPFIND request and keep the listings of all subdirectories
+ * received to serve subsequent requests for these without a further round-trip. Falls back to
+ * <code>Depth: 1</code> for servers rejecting infinite depth. Prefetched listings expire individually and are
+ * discarded when a file in the directory is modified with this session.
+ */
+public class DAVTreeListService implements ListService {
+    private static final Logger log = Logger.getLogger(DAVTreeListService.class);
+
+    private final DAVSession session;
+
+    /**
+     * Listings of subdirectories from previous requests not yet returned with the time received as list timestamp
+     */
+    private final Map<Path, AttributedList<Path>> prefetched
+        = new HashMap<Path, AttributedList<Path>>();
+
+    /**
+     * Milliseconds until prefetched listings are discarded
+     */
+    private final long ttl;
+
+    /**
+     * Set when server denies PROPFIND with infinite depth
+     */
+    private boolean finite;
+
+    public DAVTreeListService(final DAVSession session) {
+        this(session, PreferencesFactory.get().getLong("webdav.listing.depth.infinity.ttl"));
+    }
+
+    public DAVTreeListService(final DAVSession session, final long ttl) {
+        this.session = session;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public AttributedList<Path> list(final Path directory, final ListProgressListener listener) throws BackgroundException {
+        final AttributedList<Path> cached = this.take(directory);
+        if(cached != null) {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Return prefetched listing for %s", directory));
+            }
+            listener.chunk(directory, cached);
+            return cached;
+        }
+        if(finite) {
+            return new DAVListService(session).list(directory, listener);
+        }
+        try {
+            return this.tree(directory, listener);
+        }
+        catch(AccessDeniedException | InteroperabilityException e) {
+            // Possibly DAV:propfind-finite-depth precondition
+            log.warn(String.format("Failure %s listing %s with infinite depth", e.getMessage(), directory));
+            final AttributedList<Path> list = new DAVListService(session).list(directory, listener);
+            finite = true;
+            return list;
+        }
+    }
+
+    private synchronized AttributedList<Path> take(final Path directory) {
+        final long now = System.currentTimeMillis();
+        for(Iterator<AttributedList<Path>> iter = prefetched.values().iterator(); iter.hasNext(); ) {
+            if(now - iter.next().attributes().getTimestamp() > ttl) {
+                iter.remove();
+            }
+        }
+        return prefetched.remove(directory);
+    }
+
+    private synchronized void put(final Map<Path, AttributedList<Path>> listings) {
+        final long now = System.currentTimeMillis();
+        for(Map.Entry<Path, AttributedList<Path>> entry : listings.entrySet()) {
+            entry.getValue().attributes().setTimestamp(now);
+            prefetched.put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Discard prefetched listings no longer accurate after modification
+     *
+     * @param file File or directory created, modified or removed
+     */
+    public synchronized void invalidate(final Path file) {
+        for(Iterator<Path> iter = prefetched.keySet().iterator(); iter.hasNext(); ) {
+            final Path directory = iter.next();
+            if(directory.equals(file.getParent()) || directory.equals(file) || directory.isChild(file)) {
+                iter.remove();
+            }
+        }
+    }
+
+    private AttributedList<Path> tree(final Path directory, final ListProgressListener listener) throws BackgroundException {
+        try {
+            final AttributedList<Path> children = new AttributedList<Path>();
+            // Directories by absolute path
+            final Map<String, Path> directories = new HashMap<String, Path>();
+            final Map<String, AttributedList<Path>> listings = new HashMap<String, AttributedList<Path>>();
+            directories.put(directory.getAbsolute(), directory);
+            listings.put(directory.getAbsolute(), children);
+            final DAVAttributesFinderFeature feature = new DAVAttributesFinderFeature(session);
+            session.getClient().propfind(new DAVPathEncoder().encode(directory), -1,
+                Collections.singleton(DAVTimestampFeature.LAST_MODIFIED_CUSTOM_NAMESPACE), new DAVMultiStatusReader.Callback() {
+                    @Override
+                    public void resource(final DavResource resource) throws BackgroundException {
+                        final String href = PathNormalizer.normalize(resource.getHref().getPath(), true);
+                        if(href.equals(directory.getAbsolute())) {
+                            // Do not include self
+                            if(resource.isDirectory()) {
+                                return;
+                            }
+                            throw new NotfoundException(directory.getAbsolute());
+                        }
+                        final String folder = PathNormalizer.parent(href, Path.DELIMITER);
+                        Path parent = directories.get(folder);
+                        if(null == parent) {
+                            // Response for parent not received yet
+                            parent = new Path(folder, EnumSet.of(Path.Type.directory));
+                            directories.put(folder, parent);
+                        }
+                        AttributedList<Path> list = listings.get(folder);
+                        if(null == list) {
+                            list = new AttributedList<Path>();
+                            listings.put(folder, list);
+                        }
+                        final PathAttributes attributes = feature.toAttributes(resource);
+                        final Path file = new Path(parent, PathNormalizer.name(href),
+                            resource.isDirectory() ? EnumSet.of(Path.Type.directory) : EnumSet.of(Path.Type.file),
+                            attributes);
+                        list.add(file);
+                        if(resource.isDirectory()) {
+                            directories.put(href, file);
+                            if(!listings.containsKey(href)) {
+                                listings.put(href, new AttributedList<Path>());
+                            }
+                        }
+                        if(list == children) {
+                            listener.chunk(directory, children);
+                        }
+                    }
+                });
+            final Map<Path, AttributedList<Path>> subdirectories = new HashMap<Path, AttributedList<Path>>();
+            for(Map.Entry<String, AttributedList<Path>> entry : listings.entrySet()) {
+                if(entry.getValue() == children) {
+                    continue;
+                }
+                subdirectories.put(directories.get(entry.getKey()), entry.getValue());
+            }
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Prefetched listings of %d subdirectories of %s", subdirectories.size(), directory));
+            }
+            this.put(subdirectories);
+            return children;
+        }
+        catch(SardineException e) {
+            throw new DAVExceptionMappingService().map("Listing directory {0} failed", e, directory);
+        }
+        catch(IOException e) {
+            throw new HttpExceptionMappingService().map(e, directory);
+        }
+    }
+}
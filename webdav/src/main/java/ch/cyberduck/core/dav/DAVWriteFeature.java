@@ -105,8 +105,10 @@ public class DAVWriteFeature extends AbstractHttpWriteFeature<String> implements
             @Override
             public String call(final AbstractHttpEntity entity) throws BackgroundException {
                 try {
-                    return session.getClient().put(new DAVPathEncoder().encode(file), entity,
+                    final String etag = session.getClient().put(new DAVPathEncoder().encode(file), entity,
                             headers, new ETagResponseHandler());
+                    session.invalidate(file);
+                    return etag;
                 }
                 catch(SardineException e) {
                     throw new DAVExceptionMappingService().map("Upload {0} failed", e, file);
@@ -0,0 +1,103 @@
+package ch.cyberduck.core.dav;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.github.sardine.DavResource;
+
+import static org.junit.Assert.*;
+
+public class DAVMultiStatusReaderTest {
+
+    private static final String MULTISTATUS = "<?xml version=\"1.0\" encoding=\"utf-8\"?>\n" +
+        "<D:multistatus xmlns:D=\"DAV:\" xmlns:C=\"SAR:\">\n" +
+        "  <D:response>\n" +
+        "    <D:href>/trunk/</D:href>\n" +
+        "    <D:propstat>\n" +
+        "      <D:prop><D:resourcetype><D:collection/></D:resourcetype></D:prop>\n" +
+        "      <D:status>HTTP/1.1 200 OK</D:status>\n" +
+        "    </D:propstat>\n" +
+        "  </D:response>\n" +
+        "  <D:response>\n" +
+        "    <D:href>/trunk/f%20name</D:href>\n" +
+        "    <D:propstat>\n" +
+        "      <D:prop>\n" +
+        "        <D:resourcetype/>\n" +
+        "        <D:getcontentlength>1024</D:getcontentlength>\n" +
+        "        <D:getetag>\"e\"</D:getetag>\n" +
+        "        <D:getlastmodified>Mon, 12 Mar 2018 12:00:00 GMT</D:getlastmodified>\n" +
+        "        <C:lastmodified_server>Mon, 12 Mar 2018 12:00:00 GMT</C:lastmodified_server>\n" +
+        "      </D:prop>\n" +
+        "      <D:status>HTTP/1.1 200 OK</D:status>\n" +
+        "    </D:propstat>\n" +
+        "  </D:response>\n" +
+        "  <D:response>\n" +
+        "    <D:href>/trunk/d/</D:href>\n" +
+        "    <D:propstat>\n" +
+        "      <D:prop><D:resourcetype><D:collection/></D:resourcetype></D:prop>\n" +
+        "      <D:status>HTTP/1.1 200 OK</D:status>\n" +
+        "    </D:propstat>\n" +
+        "  </D:response>\n" +
+        "</D:multistatus>";
+
+    @Test
+    public void testRead() throws Exception {
+        final List<DavResource> resources = new ArrayList<DavResource>();
+        new DAVMultiStatusReader().read(new ByteArrayInputStream(MULTISTATUS.getBytes(StandardCharsets.UTF_8)), new DAVMultiStatusReader.Callback() {
+            @Override
+            public void resource(final DavResource resource) {
+                resources.add(resource);
+            }
+        });
+        assertEquals(3, resources.size());
+        assertEquals("/trunk/", resources.get(0).getHref().getPath());
+        assertTrue(resources.get(0).isDirectory());
+        assertEquals("/trunk/f name", resources.get(1).getHref().getPath());
+        assertFalse(resources.get(1).isDirectory());
+        assertEquals(Long.valueOf(1024L), resources.get(1).getContentLength());
+        assertEquals("\"e\"", resources.get(1).getEtag());
+        assertNotNull(resources.get(1).getModified());
+        assertTrue(resources.get(2).isDirectory());
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        final List<DavResource> resources = new ArrayList<DavResource>();
+        try {
+            new DAVMultiStatusReader().read(new ByteArrayInputStream(MULTISTATUS.getBytes(StandardCharsets.UTF_8)), new DAVMultiStatusReader.Callback() {
+                @Override
+                public void resource(final DavResource resource) throws BackgroundException {
+                    resources.add(resource);
+                    throw new ConnectionCanceledException();
+                }
+            });
+            fail();
+        }
+        catch(ConnectionCanceledException e) {
+            // Expected
+        }
+        assertEquals(1, resources.size());
+    }
+}
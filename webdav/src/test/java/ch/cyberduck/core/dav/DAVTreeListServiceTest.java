@@ -0,0 +1,140 @@
+package ch.cyberduck.core.dav;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.DisabledListProgressListener;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.BackgroundException;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.junit.Test;
+
+import javax.xml.namespace.QName;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class DAVTreeListServiceTest {
+
+    /**
+     * Resources on server with collections ending with a delimiter
+     */
+    private static final String[] RESOURCES = {"/trunk/", "/trunk/f", "/trunk/d/", "/trunk/d/g"};
+
+    /**
+     * @return Multistatus response for PROPFIND with infinite depth
+     */
+    private static String multistatus(final String url) {
+        final StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"utf-8\"?>\n");
+        xml.append("<D:multistatus xmlns:D=\"DAV:\">\n");
+        for(String href : RESOURCES) {
+            if(!href.startsWith(StringUtils.removeEnd(url, "/"))) {
+                continue;
+            }
+            xml.append("  <D:response>\n");
+            xml.append("    <D:href>").append(href).append("</D:href>\n");
+            xml.append("    <D:propstat>\n");
+            if(href.endsWith("/")) {
+                xml.append("      <D:prop><D:resourcetype><D:collection/></D:resourcetype></D:prop>\n");
+            }
+            else {
+                xml.append("      <D:prop><D:resourcetype/><D:getcontentlength>1</D:getcontentlength></D:prop>\n");
+            }
+            xml.append("      <D:status>HTTP/1.1 200 OK</D:status>\n");
+            xml.append("    </D:propstat>\n");
+            xml.append("  </D:response>\n");
+        }
+        return xml.append("</D:multistatus>").toString();
+    }
+
+    private final Path directory = new Path("/trunk", EnumSet.of(Path.Type.directory));
+    private final Path subdirectory = new Path(directory, "d", EnumSet.of(Path.Type.directory));
+
+    @Test
+    public void testListPrefetched() throws Exception {
+        final AtomicInteger requests = new AtomicInteger();
+        final DAVTreeListService service = new DAVTreeListService(new MultiStatusSession(requests), 60000L);
+        final AttributedList<Path> list = service.list(directory, new DisabledListProgressListener());
+        assertEquals(2, list.size());
+        assertTrue(list.contains(new Path(directory, "f", EnumSet.of(Path.Type.file))));
+        assertTrue(list.contains(subdirectory));
+        assertEquals(1, requests.get());
+        final AttributedList<Path> children = service.list(subdirectory, new DisabledListProgressListener());
+        assertEquals(1, children.size());
+        assertTrue(children.contains(new Path(subdirectory, "g", EnumSet.of(Path.Type.file))));
+        assertEquals(1, requests.get());
+        // Prefetched listing is only returned once
+        service.list(subdirectory, new DisabledListProgressListener());
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    public void testInvalidate() throws Exception {
+        final AtomicInteger requests = new AtomicInteger();
+        final DAVTreeListService service = new DAVTreeListService(new MultiStatusSession(requests), 60000L);
+        service.list(directory, new DisabledListProgressListener());
+        assertEquals(1, requests.get());
+        // Upload to subdirectory
+        service.invalidate(new Path(subdirectory, "h", EnumSet.of(Path.Type.file)));
+        service.list(subdirectory, new DisabledListProgressListener());
+        assertEquals(2, requests.get());
+        service.list(directory, new DisabledListProgressListener());
+        assertEquals(3, requests.get());
+        // Delete parent directory
+        service.invalidate(directory);
+        service.list(subdirectory, new DisabledListProgressListener());
+        assertEquals(4, requests.get());
+    }
+
+    @Test
+    public void testExpired() throws Exception {
+        final AtomicInteger requests = new AtomicInteger();
+        final DAVTreeListService service = new DAVTreeListService(new MultiStatusSession(requests), -1L);
+        service.list(directory, new DisabledListProgressListener());
+        service.list(subdirectory, new DisabledListProgressListener());
+        assertEquals(2, requests.get());
+    }
+
+    private static final class MultiStatusSession extends DAVSession {
+        private final DAVClient client;
+
+        public MultiStatusSession(final AtomicInteger requests) {
+            super(new Host(new DAVProtocol(), "localhost"));
+            this.client = new DAVClient("http://localhost", HttpClientBuilder.create()) {
+                @Override
+                public void propfind(final String url, final int depth, final Set<QName> props,
+                                     final DAVMultiStatusReader.Callback callback) throws IOException, BackgroundException {
+                    assertEquals(-1, depth);
+                    requests.incrementAndGet();
+                    new DAVMultiStatusReader().read(new ByteArrayInputStream(multistatus(url).getBytes(StandardCharsets.UTF_8)), callback);
+                }
+            };
+        }
+
+        @Override
+        public DAVClient getClient() {
+            return client;
+        }
+    }
+}
@@ -3144,7 +3144,8 @@ namespace Ch.Cyberduck.Ui.Controller
                 private readonly BrowserController _controller;
 
                 public InnerSearchWorker(BrowserController controller)
-                    : base(controller.Workdir, controller.FilenameFilter, controller.Cache, controller._limitListener)
+                    : base(controller.Workdir, controller.FilenameFilter, controller.Cache, controller._limitListener,
+                        controller.Session)
                 {
                     _controller = controller;
                 }
@@ -3239,7 +3240,7 @@ namespace Ch.Cyberduck.Ui.Controller
                 private readonly List _files;
 
                 public InnerDeleteWorker(BrowserController controller, LoginCallback prompt, List files)
-                    : base(prompt, files, controller.Cache, controller)
+                    : base(prompt, files, controller.Cache, new NullFilter(), controller, controller.Session)
                 {
                     _controller = controller;
                     _files = files;